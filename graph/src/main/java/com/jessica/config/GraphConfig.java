@@ -3,16 +3,34 @@ package com.jessica.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 
-import com.jessica.graph.DijkstrasShortestPath;
+import com.jessica.graph.CachedDijkstrasShortestPath;
+import com.jessica.graph.HeapDijkstrasShortestPath;
 import com.jessica.graph.ShortestPathHelper;
 
 @Configuration
 @ComponentScan("com.jessica")
 public class GraphConfig {
 
+	/**
+	 * The profile that answers shortest path queries from cached shortest path trees, for workloads that ask about the
+	 * same few sources over and over between changes to the graph.
+	 */
+	public static final String CACHED_SHORTEST_PATHS = "cached-shortest-paths";
+
 	@Bean
+	@Primary
+	@Profile("!" + CACHED_SHORTEST_PATHS)
 	ShortestPathHelper shortestPathHelper() {
-		return new DijkstrasShortestPath();
+		return new HeapDijkstrasShortestPath();
+	}
+
+	@Bean
+	@Primary
+	@Profile(CACHED_SHORTEST_PATHS)
+	ShortestPathHelper cachedShortestPathHelper() {
+		return new CachedDijkstrasShortestPath();
 	}
 }
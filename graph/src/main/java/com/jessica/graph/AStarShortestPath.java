@@ -0,0 +1,118 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The A* search algorithm. It works like Dijkstra's Algorithm, but orders the vertices to be processed by their
+ * distance from the source plus a lower bound on their distance to the destination, as given by a
+ * {@link DistanceHeuristic}. The better the lower bound, the fewer vertices away from the destination get settled.
+ * With a heuristic that always returns 0, this is the same as Dijkstra's Algorithm.
+ */
+public class AStarShortestPath extends AbstractShortestPath {
+
+	private final DistanceHeuristic heuristic;
+
+	/**
+	 * Class constructor that uses the straight line distance between vertex coordinates as the heuristic.
+	 */
+	public AStarShortestPath() {
+		this(new EuclideanHeuristic());
+	}
+
+	/**
+	 * Class constructor.
+	 * 
+	 * @param heuristic
+	 *            The lower bound on the distance from a vertex to the destination
+	 */
+	public AStarShortestPath(DistanceHeuristic heuristic) {
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * 
+	 * @return The lower bound used to guide the search
+	 */
+	public DistanceHeuristic getHeuristic() {
+		return heuristic;
+	}
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		SearchSpace searchSpace = search(graph, source, destination);
+
+		int destinationId = searchSpace.idOf(destination);
+		if (destinationId == SearchSpace.NO_VERTEX || !searchSpace.isSettled(destinationId)) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+
+		return searchSpace.getPath(destinationId);
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		SearchSpace searchSpace = search(graph, source, destination);
+
+		int destinationId = searchSpace.idOf(destination);
+		if (destinationId == SearchSpace.NO_VERTEX || !searchSpace.isSettled(destinationId)) {
+			return Integer.MAX_VALUE;
+		}
+		return toDistance(searchSpace.getDistance(destinationId));
+	}
+
+	/**
+	 * Runs the A* search from the source until the destination is settled. A vertex is reopened if a shorter path to
+	 * it is found after it was settled, so the result is the shortest path for any heuristic that never overestimates,
+	 * even if it is not consistent.
+	 * 
+	 * @param graph
+	 *            The directed graph on which to execute this algorithm
+	 * @param source
+	 *            The vertex that is the source / starting point of the search
+	 * @param destination
+	 *            The vertex that is the end point of the search
+	 * @return The state of the search
+	 */
+	private SearchSpace search(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+
+		Vertex sourceVertex = graph.getVertices().get(source.getLabel());
+		Vertex target = graph.getVertices().get(destination.getLabel());
+
+		SearchSpace searchSpace = new SearchSpace();
+		searchSpace.start(sourceVertex, heuristic.getLowerBound(sourceVertex, target));
+
+		while (searchSpace.hasNext()) {
+			int vertexId = searchSpace.settleNext();
+			Vertex vertex = searchSpace.getVertex(vertexId);
+
+			if (vertex.equals(target)) {
+				break;
+			}
+
+			List<Edge> edgesToTraverse = vertex.getOutgoingEdges();
+			if (edgesToTraverse == null) {
+				continue;
+			}
+
+			long vertexDistance = searchSpace.getDistance(vertexId);
+			for (Edge edge : edgesToTraverse) {
+				Vertex nextVertex = edge.getToVertex();
+				long distance = vertexDistance + edge.getWeight();
+
+				// Only ask the heuristic about vertices whose distance actually improves
+				if (distance < searchSpace.getDistance(nextVertex)) {
+					searchSpace.relax(vertexId, nextVertex, distance,
+							distance + heuristic.getLowerBound(nextVertex, target));
+				}
+			}
+		}
+		return searchSpace;
+	}
+}
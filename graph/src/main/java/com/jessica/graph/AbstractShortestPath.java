@@ -0,0 +1,55 @@
+package com.jessica.graph;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Validation and conversions shared by the shortest path algorithms that run on a {@link Graph}.
+ */
+abstract class AbstractShortestPath implements ShortestPathHelper {
+
+	protected final String CLASSNAME = this.getClass().getSimpleName();
+
+	/**
+	 * Validates the arguments of a shortest path query, and makes sure that both vertices are in the graph.
+	 * 
+	 * @param graph
+	 *            The graph to run the algorithm on
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 */
+	protected void validate(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		if (graph == null || source == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH_SRC);
+		}
+
+		if (graph.getVertices() == null || graph.getVertices().isEmpty()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EMPTY_GRAPH);
+		}
+
+		if (!graph.getVertices().containsKey(source.getLabel())
+				|| !graph.getVertices().containsKey(destination.getLabel())) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+	}
+
+	/**
+	 * Converts a distance computed as a long to the value returned by getShortestDistance, where a destination that
+	 * cannot be reached has a distance of Integer.MAX_VALUE.
+	 * 
+	 * @param distance
+	 *            The distance, or Long.MAX_VALUE if the destination cannot be reached
+	 * @return The distance as an Integer
+	 */
+	protected static Integer toDistance(long distance) {
+		return distance >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) distance;
+	}
+}
@@ -0,0 +1,85 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Answers shortest path queries from an {@link AllPairsShortestPathTable}, so that every distance is a single lookup
+ * and every path is a walk back along the predecessors. The table is built the first time a graph is queried, and
+ * built again whenever a different graph is queried or the version of the graph changes.
+ *
+ * The table takes 8 bytes per pair of vertices, so this is meant for graphs of up to about 20,000 vertices.
+ */
+public class AllPairsShortestPath extends AbstractShortestPath {
+
+	private final AllPairsShortestPathBuilder builder;
+	private AllPairsShortestPathTable table;
+	private Graph tableGraph;
+	private long tableVersion;
+
+	/**
+	 * Class constructor that builds the table with the algorithm that suits the density of the graph.
+	 */
+	public AllPairsShortestPath() {
+		this(new AllPairsShortestPathBuilder());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param builder
+	 *            The builder used to fill in the table
+	 */
+	public AllPairsShortestPath(AllPairsShortestPathBuilder builder) {
+		this.builder = builder;
+	}
+
+	/**
+	 * Gets the table for the current version of a graph, building it if needed.
+	 *
+	 * @param graph
+	 *            The graph being queried
+	 * @return The all pairs shortest path table of the graph
+	 */
+	public synchronized AllPairsShortestPathTable getTable(Graph graph) throws GraphException {
+		long version = graph.getVersion();
+		if (table == null || tableGraph != graph || tableVersion != version) {
+			table = builder.build(graph);
+			tableGraph = graph;
+			tableVersion = version;
+		}
+		return table;
+	}
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		AllPairsShortestPathTable pairs = getTable(graph);
+
+		List<Vertex> pathOfVertices = pairs.getPath(getId(pairs, source), getId(pairs, destination));
+		if (pathOfVertices == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+		return pathOfVertices;
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		AllPairsShortestPathTable pairs = getTable(graph);
+		return pairs.getDistance(getId(pairs, source), getId(pairs, destination));
+	}
+
+	private int getId(AllPairsShortestPathTable pairs, Vertex vertex) throws GraphException {
+		int id = pairs.getGraph().getId(vertex);
+		if (id == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return id;
+	}
+}
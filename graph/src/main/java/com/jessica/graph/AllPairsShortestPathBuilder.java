@@ -0,0 +1,368 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Builds an {@link AllPairsShortestPathTable} with one of two algorithms:
+ * <ul>
+ * <li>Floyd-Warshall, for dense graphs. The matrix is split into square blocks that fit in the CPU cache. For every
+ * block on the diagonal, the block itself is relaxed first, then the blocks in its row and column in parallel, and
+ * then all remaining blocks in parallel.</li>
+ * <li>Johnson's Algorithm, for sparse graphs. Bellman-Ford computes a potential for every vertex that makes all edge
+ * weights non-negative (only needed when there are negative weights), and then a Dijkstra search runs from every
+ * source in parallel on the reweighted graph.</li>
+ * </ul>
+ * Both accept negative edge weights, and fail with NEGATIVE_CYCLE if the graph has a cycle of negative length.
+ */
+public class AllPairsShortestPathBuilder {
+
+	/**
+	 * The algorithm used to fill in the table.
+	 */
+	public enum Algorithm {
+		/**
+		 * Floyd-Warshall when the graph has at least one edge for every DENSITY_THRESHOLD pairs of vertices, and
+		 * Johnson's Algorithm otherwise.
+		 */
+		AUTOMATIC, FLOYD_WARSHALL, JOHNSON
+	}
+
+	/**
+	 * The number of vertex pairs per edge below which a graph counts as dense.
+	 */
+	public static final int DENSITY_THRESHOLD = 16;
+
+	private static final int BLOCK_SIZE = 64;
+	private static final long INFINITY = Long.MAX_VALUE;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final Algorithm algorithm;
+
+	/**
+	 * Class constructor that picks the algorithm from the density of the graph, and runs on the common fork join pool.
+	 */
+	public AllPairsShortestPathBuilder() {
+		this(ForkJoinPool.commonPool(), Algorithm.AUTOMATIC);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 * @param algorithm
+	 *            The algorithm used to fill in the table
+	 */
+	public AllPairsShortestPathBuilder(ForkJoinPool pool, Algorithm algorithm) {
+		this.pool = pool;
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Builds the table for the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to preprocess
+	 * @return The shortest distance and predecessor between every pair of vertices
+	 */
+	public AllPairsShortestPathTable build(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return build(graph.compile());
+	}
+
+	/**
+	 * Builds the table for a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to preprocess
+	 * @return The shortest distance and predecessor between every pair of vertices
+	 */
+	public AllPairsShortestPathTable build(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		if (graph.getVertexCount() > AllPairsShortestPathTable.MAX_VERTEX_COUNT) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.GRAPH_TOO_LARGE);
+		}
+
+		AllPairsShortestPathTable table = new AllPairsShortestPathTable(graph);
+		if (isFloydWarshall(graph)) {
+			runFloydWarshall(graph, table);
+		} else {
+			runJohnson(graph, table);
+		}
+		return table;
+	}
+
+	private boolean isFloydWarshall(CompiledGraph graph) {
+		if (algorithm == Algorithm.AUTOMATIC) {
+			long pairs = (long) graph.getVertexCount() * graph.getVertexCount();
+			return (long) graph.getEdgeCount() * DENSITY_THRESHOLD >= pairs;
+		}
+		return algorithm == Algorithm.FLOYD_WARSHALL;
+	}
+
+	private void runFloydWarshall(CompiledGraph graph, AllPairsShortestPathTable table) throws GraphException {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		// Start with the lightest edge between every pair of vertices
+		for (int from = 0; from < vertexCount; from++) {
+			for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+				int to = targets[edge];
+				if (weights[edge] < table.getDistance(from, to)) {
+					table.setDistance(from, to, weights[edge]);
+				}
+			}
+		}
+
+		int blockCount = (vertexCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		for (int kBlock = 0; kBlock < blockCount; kBlock++) {
+			final int k = kBlock;
+			relaxBlock(table, k, k, k);
+
+			// The blocks in the same row and column only depend on the diagonal block
+			ParallelRange.forEachChunk(pool, 0, blockCount, 1, (start, end) -> {
+				for (int block = start; block < end; block++) {
+					if (block != k) {
+						relaxBlock(table, k, block, k);
+						relaxBlock(table, block, k, k);
+					}
+				}
+			});
+
+			// All other blocks only depend on the row and column blocks
+			ParallelRange.forEachChunk(pool, 0, blockCount * blockCount,
+					ParallelRange.getGrain(pool, blockCount * blockCount, 1), (start, end) -> {
+						for (int block = start; block < end; block++) {
+							int iBlock = block / blockCount;
+							int jBlock = block % blockCount;
+							if (iBlock != k && jBlock != k) {
+								relaxBlock(table, iBlock, jBlock, k);
+							}
+						}
+					});
+		}
+
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			if (table.getDistance(vertex, vertex) < 0) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_CYCLE);
+			}
+		}
+
+		WorkspacePool<int[]> queues = new WorkspacePool<int[]>(() -> new int[vertexCount]);
+		ParallelRange.forEachChunk(pool, 0, vertexCount, ParallelRange.getGrain(pool, vertexCount, 1),
+				(start, end) -> {
+					int[] queue = queues.acquire();
+					for (int source = start; source < end; source++) {
+						findPredecessors(graph, table, source, queue);
+					}
+					queues.release(queue);
+				});
+	}
+
+	/**
+	 * Fills in the predecessors of one row with a breadth first search over the edges that lie on a shortest path from
+	 * the source, which are the ones whose weight is exactly the difference of the distances of their ends. Following
+	 * the predecessors found while relaxing instead could go around in a circle once edges of weight 0 make several
+	 * paths equally short, since the blocks are relaxed out of order.
+	 */
+	private static void findPredecessors(CompiledGraph graph, AllPairsShortestPathTable table, int source,
+			int[] queue) {
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int vertex = queue[head++];
+			long distance = table.getDistance(source, vertex);
+			for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+				int next = targets[edge];
+				if (table.getPredecessor(source, next) == CompiledGraph.NO_VERTEX
+						&& distance + weights[edge] == table.getDistance(source, next)) {
+					table.setPredecessor(source, next, vertex);
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Relaxes the paths from the vertices of one block to the vertices of another through the vertices of a third.
+	 */
+	private static void relaxBlock(AllPairsShortestPathTable table, int iBlock, int jBlock, int kBlock) {
+		int vertexCount = table.getVertexCount();
+		int kEnd = Math.min((kBlock + 1) * BLOCK_SIZE, vertexCount);
+		int iEnd = Math.min((iBlock + 1) * BLOCK_SIZE, vertexCount);
+		int jEnd = Math.min((jBlock + 1) * BLOCK_SIZE, vertexCount);
+		for (int k = kBlock * BLOCK_SIZE; k < kEnd; k++) {
+			for (int i = iBlock * BLOCK_SIZE; i < iEnd; i++) {
+				int toMiddle = table.getDistance(i, k);
+				if (toMiddle == AllPairsShortestPathTable.UNREACHABLE) {
+					continue;
+				}
+
+				for (int j = jBlock * BLOCK_SIZE; j < jEnd; j++) {
+					int fromMiddle = table.getDistance(k, j);
+					if (fromMiddle == AllPairsShortestPathTable.UNREACHABLE) {
+						continue;
+					}
+
+					long distance = (long) toMiddle + fromMiddle;
+					if (distance < table.getDistance(i, j)) {
+						table.setDistance(i, j, (int) Math.max(distance, Integer.MIN_VALUE));
+					}
+				}
+			}
+		}
+	}
+
+	private void runJohnson(CompiledGraph graph, AllPairsShortestPathTable table) throws GraphException {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		long[] potentials = findPotentials(graph);
+		long[] reweighted = new long[weights.length];
+		for (int from = 0; from < vertexCount; from++) {
+			for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+				reweighted[edge] = weights[edge] + potentials[from] - potentials[targets[edge]];
+			}
+		}
+
+		WorkspacePool<JohnsonWorkspace> workspaces = new WorkspacePool<JohnsonWorkspace>(
+				() -> new JohnsonWorkspace(vertexCount));
+		ParallelRange.forEachChunk(pool, 0, vertexCount, ParallelRange.getGrain(pool, vertexCount, 1),
+				(start, end) -> {
+					JohnsonWorkspace workspace = workspaces.acquire();
+					for (int source = start; source < end; source++) {
+						workspace.search(graph, reweighted, potentials, source, table);
+					}
+					workspaces.release(workspace);
+				});
+	}
+
+	/**
+	 * Runs Bellman-Ford from a virtual vertex with an edge of weight 0 to every vertex. The resulting distances make
+	 * w(u, v) + p(u) - p(v) non-negative for every edge. When no weight is negative, every potential is 0.
+	 *
+	 * @return The potential of every vertex
+	 */
+	private long[] findPotentials(CompiledGraph graph) throws GraphException {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+		long[] potentials = new long[vertexCount];
+
+		boolean hasNegativeWeight = false;
+		for (int weight : weights) {
+			hasNegativeWeight |= weight < 0;
+		}
+		if (!hasNegativeWeight) {
+			return potentials;
+		}
+
+		// With the virtual vertex there are vertexCount + 1 vertices, so any change in round vertexCount means that
+		// there is a negative cycle
+		for (int round = 0; round <= vertexCount; round++) {
+			boolean changed = false;
+			for (int from = 0; from < vertexCount; from++) {
+				for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+					long distance = potentials[from] + weights[edge];
+					if (distance < potentials[targets[edge]]) {
+						potentials[targets[edge]] = distance;
+						changed = true;
+					}
+				}
+			}
+			if (!changed) {
+				return potentials;
+			}
+		}
+		throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_CYCLE);
+	}
+
+	/**
+	 * The arrays used by one Dijkstra search at a time.
+	 */
+	private static class JohnsonWorkspace {
+		private final long[] distances;
+		private final int[] predecessors;
+		private final IndexedMinHeap queue;
+		private int[] touched = new int[64];
+		private int touchedCount;
+
+		JohnsonWorkspace(int vertexCount) {
+			distances = new long[vertexCount];
+			predecessors = new int[vertexCount];
+			Arrays.fill(distances, INFINITY);
+			queue = new IndexedMinHeap(vertexCount);
+		}
+
+		/**
+		 * Runs Dijkstra's Algorithm on the reweighted graph, and writes the row of the source into the table with the
+		 * original weights restored. A predecessor is only ever a vertex that was already polled, so the predecessors
+		 * form a tree even when edges of weight 0 make several paths equally short.
+		 */
+		void search(CompiledGraph graph, long[] weights, long[] potentials, int source, AllPairsShortestPathTable table) {
+			int[] offsets = graph.getOutOffsets();
+			int[] targets = graph.getOutTargets();
+
+			setDistance(source, 0, source);
+			queue.insertOrDecrease(source, 0);
+			while (!queue.isEmpty()) {
+				int vertex = queue.poll();
+				long distance = distances[vertex];
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int next = targets[edge];
+					long nextDistance = distance + weights[edge];
+					if (nextDistance < distances[next]) {
+						setDistance(next, nextDistance, vertex);
+						queue.insertOrDecrease(next, nextDistance);
+					}
+				}
+			}
+
+			for (int i = 0; i < touchedCount; i++) {
+				int vertex = touched[i];
+				if (vertex != source) {
+					long distance = distances[vertex] - potentials[source] + potentials[vertex];
+					if (distance < AllPairsShortestPathTable.UNREACHABLE) {
+						table.setDistance(source, vertex, (int) distance);
+						table.setPredecessor(source, vertex, predecessors[vertex]);
+					}
+				}
+				distances[vertex] = INFINITY;
+			}
+			touchedCount = 0;
+			queue.clear();
+		}
+
+		private void setDistance(int vertex, long distance, int predecessor) {
+			if (distances[vertex] == INFINITY) {
+				if (touchedCount == touched.length) {
+					touched = Arrays.copyOf(touched, touchedCount * 2);
+				}
+				touched[touchedCount++] = vertex;
+			}
+			distances[vertex] = distance;
+			predecessors[vertex] = predecessor;
+		}
+	}
+}
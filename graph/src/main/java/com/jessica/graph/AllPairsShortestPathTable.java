@@ -0,0 +1,147 @@
+package com.jessica.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The shortest distance between every pair of vertices of a graph, and the vertex before the last one on the shortest
+ * path, built by
+ * {@link AllPairsShortestPathBuilder}. Both matrices are stored row by row in direct (off-heap) buffers of 4 bytes per
+ * entry, so a table for n vertices takes 8 * n * n bytes outside of the Java heap, and does not add to garbage
+ * collection pauses. A buffer holds at most Integer.MAX_VALUE bytes, which limits a table to 23170 vertices.
+ *
+ * Distances that do not fit in an int are treated the same as a missing path.
+ */
+public class AllPairsShortestPathTable {
+
+	/**
+	 * The distance stored when there is no path between two vertices.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/**
+	 * The largest number of vertices a table can hold.
+	 */
+	public static final int MAX_VERTEX_COUNT = (int) Math.sqrt(Integer.MAX_VALUE / 4);
+
+	private final CompiledGraph graph;
+	private final int vertexCount;
+	private final IntBuffer distances;
+	private final IntBuffer predecessors;
+
+	/**
+	 * Allocates a table where no vertex can reach any other vertex, and every vertex is at distance 0 of itself.
+	 *
+	 * @param graph
+	 *            The compiled graph the table is for, with at most MAX_VERTEX_COUNT vertices
+	 */
+	AllPairsShortestPathTable(CompiledGraph graph) {
+		this.graph = graph;
+		this.vertexCount = graph.getVertexCount();
+		this.distances = allocate(vertexCount);
+		this.predecessors = allocate(vertexCount);
+
+		for (int from = 0; from < vertexCount; from++) {
+			int row = from * vertexCount;
+			for (int to = 0; to < vertexCount; to++) {
+				distances.put(row + to, from == to ? 0 : UNREACHABLE);
+				predecessors.put(row + to, from == to ? from : CompiledGraph.NO_VERTEX);
+			}
+		}
+	}
+
+	private static IntBuffer allocate(int vertexCount) {
+		return ByteBuffer.allocateDirect(vertexCount * vertexCount * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the table was built from, which maps vertices to ids
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in the table
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 *
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return The shortest distance between the vertices, or UNREACHABLE
+	 */
+	public int getDistance(int from, int to) {
+		return distances.get(from * vertexCount + to);
+	}
+
+	/**
+	 *
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return The id of the vertex before to on the shortest path, from itself if from equals to, or
+	 *         CompiledGraph.NO_VERTEX if there is no path
+	 */
+	public int getPredecessor(int from, int to) {
+		return predecessors.get(from * vertexCount + to);
+	}
+
+	/**
+	 * Follows the predecessors back from one vertex to another. The predecessors in the row of a vertex form a tree
+	 * rooted at it, so the walk always ends, even when edges of weight 0 make several paths equally short.
+	 *
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return The vertices on the shortest path, or null if there is no path
+	 */
+	public List<Vertex> getPath(int from, int to) {
+		if (getDistance(from, to) == UNREACHABLE) {
+			return null;
+		}
+
+		List<Vertex> pathOfVertices = new ArrayList<Vertex>();
+		pathOfVertices.add(graph.getVertex(to));
+		for (int current = to; current != from;) {
+			current = getPredecessor(from, current);
+			pathOfVertices.add(graph.getVertex(current));
+		}
+		Collections.reverse(pathOfVertices);
+		return pathOfVertices;
+	}
+
+	void setDistance(int from, int to, int distance) {
+		distances.put(from * vertexCount + to, distance);
+	}
+
+	void setPredecessor(int from, int to, int predecessor) {
+		predecessors.put(from * vertexCount + to, predecessor);
+	}
+
+	/**
+	 *
+	 * @return A string representation of the table
+	 */
+	@Override
+	public String toString() {
+		return "All Pairs Shortest Path Table: " + vertexCount + " vertices, " + 8L * vertexCount * vertexCount
+				+ " bytes off-heap";
+	}
+}
@@ -0,0 +1,133 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Bidirectional Dijkstra's Algorithm for point to point queries. One search runs forward from the source over the
+ * outgoing edges, and a second search runs backward from the destination over the incoming edges. The searches stop
+ * once the sum of the smallest distances left in their queues reaches the length of the best path found where they
+ * met, which typically settles far fewer vertices than a search from the source alone.
+ *
+ * The backward search relies on {@link Vertex#getIncomingEdges()}, which GraphManagement keeps up to date as edges
+ * are added and removed.
+ */
+public class BidirectionalDijkstrasShortestPath extends AbstractShortestPath {
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		Meeting meeting = search(graph, source, destination);
+
+		if (meeting.vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+
+		// Join the forward path up to the meeting vertex with the backward path from the meeting vertex
+		List<Vertex> pathOfVertices = meeting.forward.getPath(meeting.forward.idOf(meeting.vertex));
+		List<Vertex> backwardPath = meeting.backward.getPath(meeting.backward.idOf(meeting.vertex));
+		for (int i = backwardPath.size() - 2; i >= 0; i--) {
+			pathOfVertices.add(backwardPath.get(i));
+		}
+		return pathOfVertices;
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		return toDistance(search(graph, source, destination).distance);
+	}
+
+	/**
+	 * Runs the forward and backward searches until the shortest path is known.
+	 *
+	 * @param graph
+	 *            The directed graph on which to execute this algorithm
+	 * @param source
+	 *            The vertex that is the source / starting point of the search
+	 * @param destination
+	 *            The vertex that is the end point of the search
+	 * @return Where the two searches met, and the length of the shortest path
+	 */
+	private Meeting search(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+
+		Meeting meeting = new Meeting();
+		Vertex sourceVertex = graph.getVertices().get(source.getLabel());
+		Vertex destinationVertex = graph.getVertices().get(destination.getLabel());
+		meeting.forward.start(sourceVertex, 0);
+		meeting.backward.start(destinationVertex, 0);
+		if (sourceVertex.equals(destinationVertex)) {
+			meeting.vertex = sourceVertex;
+			meeting.distance = 0;
+			return meeting;
+		}
+
+		while (meeting.forward.hasNext() && meeting.backward.hasNext()) {
+			long forwardMin = meeting.forward.peekPriority();
+			long backwardMin = meeting.backward.peekPriority();
+
+			// Standard stopping criterion: no path through an unsettled vertex can be shorter than the best one
+			if (meeting.distance != SearchSpace.INFINITY && forwardMin + backwardMin >= meeting.distance) {
+				break;
+			}
+
+			// Expand the side whose frontier is closer, which keeps the two search balls about the same size
+			if (forwardMin <= backwardMin) {
+				expand(meeting, meeting.forward, meeting.backward, true);
+			} else {
+				expand(meeting, meeting.backward, meeting.forward, false);
+			}
+		}
+		return meeting;
+	}
+
+	/**
+	 * Settles the next vertex of one search and relaxes its edges in that search's direction, recording a better
+	 * meeting point whenever a relaxed vertex has already been reached by the other search.
+	 *
+	 * @param meeting
+	 *            The best meeting found so far
+	 * @param searchSpace
+	 *            The search to advance
+	 * @param otherSearchSpace
+	 *            The search running in the opposite direction
+	 * @param isForward
+	 *            True to relax outgoing edges, false to relax incoming edges
+	 */
+	private void expand(Meeting meeting, SearchSpace searchSpace, SearchSpace otherSearchSpace, boolean isForward) {
+		int vertexId = searchSpace.settleNext();
+		Vertex vertex = searchSpace.getVertex(vertexId);
+
+		List<Edge> edgesToTraverse = isForward ? vertex.getOutgoingEdges() : vertex.getIncomingEdges();
+		if (edgesToTraverse == null) {
+			return;
+		}
+
+		long vertexDistance = searchSpace.getDistance(vertexId);
+		for (Edge edge : edgesToTraverse) {
+			Vertex nextVertex = isForward ? edge.getToVertex() : edge.getFromVertex();
+			long distance = vertexDistance + edge.getWeight();
+			searchSpace.relax(vertexId, nextVertex, distance, distance);
+
+			long otherDistance = otherSearchSpace.getDistance(nextVertex);
+			if (otherDistance != SearchSpace.INFINITY && distance + otherDistance < meeting.distance) {
+				meeting.distance = distance + otherDistance;
+				meeting.vertex = nextVertex;
+			}
+		}
+	}
+
+	/**
+	 * The state of the two searches and the best path found where they met.
+	 */
+	private static class Meeting {
+		private final SearchSpace forward = new SearchSpace();
+		private final SearchSpace backward = new SearchSpace();
+		private Vertex vertex;
+		private long distance = SearchSpace.INFINITY;
+	}
+}
@@ -0,0 +1,354 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * A direction-optimizing breadth first search over a {@link CompiledGraph}, which finds the number of edges on the
+ * shortest path from one source to every vertex, ignoring edge weights. Every level of the search is expanded in
+ * parallel on a {@link ForkJoinPool}, in one of two directions:
+ * <ul>
+ * <li>Top-down: every vertex of the frontier follows its outgoing edges, and claims the unvisited vertices it finds.
+ * This is cheap while the frontier is small.</li>
+ * <li>Bottom-up: every unvisited vertex looks through its incoming edges for a vertex of the frontier, and stops at
+ * the first one. Once the frontier holds a large part of the graph, most of these scans end after a few edges, while
+ * a top-down step would still have to check every edge out of the frontier.</li>
+ * </ul>
+ * The search switches to bottom-up when the edges out of the frontier outnumber the edges into the unvisited vertices
+ * divided by alpha, and back to top-down when the frontier has shrunk below the vertex count divided by beta.
+ */
+public class BreadthFirstSearch {
+
+	/**
+	 * The hop distance of a vertex that cannot be reached.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/**
+	 * The default ratio of unvisited edges to frontier edges below which the search goes bottom-up.
+	 */
+	public static final int DEFAULT_ALPHA = 14;
+
+	/**
+	 * The default ratio of vertices to frontier vertices above which the search goes back to top-down.
+	 */
+	public static final int DEFAULT_BETA = 24;
+
+	private static final int MINIMUM_GRAIN = 256;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final CompiledGraph graph;
+	private final ForkJoinPool pool;
+	private final int alpha;
+	private final int beta;
+
+	/**
+	 * Class constructor that runs on the common fork join pool.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 */
+	public BreadthFirstSearch(CompiledGraph graph) throws GraphException {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param pool
+	 *            The pool to expand the levels on
+	 */
+	public BreadthFirstSearch(CompiledGraph graph, ForkJoinPool pool) throws GraphException {
+		this(graph, pool, DEFAULT_ALPHA, DEFAULT_BETA);
+	}
+
+	/**
+	 * Class constructor with the thresholds of the direction switches. An alpha of 0 never goes bottom-up, and a beta
+	 * of 0 never goes back to top-down.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param pool
+	 *            The pool to expand the levels on
+	 * @param alpha
+	 *            The ratio of unvisited edges to frontier edges below which the search goes bottom-up
+	 * @param beta
+	 *            The ratio of vertices to frontier vertices above which the search goes back to top-down
+	 */
+	BreadthFirstSearch(CompiledGraph graph, ForkJoinPool pool, int alpha, int beta) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		this.graph = graph;
+		this.pool = pool;
+		this.alpha = alpha;
+		this.beta = beta;
+	}
+
+	/**
+	 * Finds the order in which a breadth first search reaches the vertices.
+	 *
+	 * @param source
+	 *            The vertex to start at
+	 * @return The ids of the vertices that can be reached from the source, by increasing hop distance. Vertices at the
+	 *         same hop distance are in the order of their ids.
+	 */
+	public int[] search(Vertex source) throws GraphException {
+		return search(getVertexId(source));
+	}
+
+	/**
+	 * Finds the order in which a breadth first search reaches the vertices.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at
+	 * @return The ids of the vertices that can be reached from the source, by increasing hop distance. Vertices at the
+	 *         same hop distance are in the order of their ids.
+	 */
+	public int[] search(int source) {
+		Run run = new Run(source, CompiledGraph.NO_VERTEX);
+		run.execute();
+
+		// Counting sort by level, which keeps the vertices of a level in the order of their ids
+		int[] levelStarts = new int[run.depth + 2];
+		for (int vertex = 0; vertex < run.levels.length; vertex++) {
+			if (run.levels[vertex] != UNREACHABLE) {
+				levelStarts[run.levels[vertex] + 1]++;
+			}
+		}
+		for (int level = 1; level < levelStarts.length; level++) {
+			levelStarts[level] += levelStarts[level - 1];
+		}
+
+		int[] order = new int[levelStarts[levelStarts.length - 1]];
+		for (int vertex = 0; vertex < run.levels.length; vertex++) {
+			if (run.levels[vertex] != UNREACHABLE) {
+				order[levelStarts[run.levels[vertex]]++] = vertex;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Computes the hop distance from the source to every vertex.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at
+	 * @return The number of edges on the shortest path to every vertex, indexed by its id in the compiled graph, with
+	 *         UNREACHABLE for vertices that cannot be reached
+	 */
+	public int[] computeHopDistances(int source) {
+		Run run = new Run(source, CompiledGraph.NO_VERTEX);
+		run.execute();
+		return run.levels;
+	}
+
+	/**
+	 * Computes the hop distance between two vertices, stopping at the level where the destination is found.
+	 *
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return The number of edges on the shortest path, or UNREACHABLE if there is no path
+	 */
+	public int getHopDistance(Vertex source, Vertex destination) throws GraphException {
+		return getHopDistance(getVertexId(source), getVertexId(destination));
+	}
+
+	/**
+	 * Computes the hop distance between two vertices, stopping at the level where the destination is found.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at
+	 * @param destination
+	 *            The id of the vertex to end at
+	 * @return The number of edges on the shortest path, or UNREACHABLE if there is no path
+	 */
+	public int getHopDistance(int source, int destination) {
+		Run run = new Run(source, destination);
+		run.execute();
+		return run.levels[destination];
+	}
+
+	private int getVertexId(Vertex vertex) throws GraphException {
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		int id = graph.getId(vertex);
+		if (id == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return id;
+	}
+
+	/**
+	 * The state of one search.
+	 */
+	private class Run {
+		private final int[] outOffsets = graph.getOutOffsets();
+		private final int[] outTargets = graph.getOutTargets();
+		private final int[] inOffsets = graph.getInOffsets();
+		private final int[] inSources = graph.getInSources();
+		private final int destination;
+
+		// The level of every vertex, written with compare-and-set while expanding, and copied into levels at the end
+		private final AtomicIntegerArray claimedLevels;
+		private int[] levels;
+		private int depth;
+
+		// The vertices of the current level, and the number of edges out of them
+		private int[] frontier;
+		private int frontierSize;
+		private long frontierEdges;
+
+		// The number of edges into vertices that have not been visited yet
+		private long unvisitedEdges;
+
+		Run(int source, int destination) {
+			int vertexCount = graph.getVertexCount();
+			this.destination = destination;
+			claimedLevels = new AtomicIntegerArray(vertexCount);
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				claimedLevels.set(vertex, UNREACHABLE);
+			}
+			claimedLevels.set(source, 0);
+
+			frontier = new int[] { source };
+			frontierSize = 1;
+			frontierEdges = graph.getOutDegree(source);
+			unvisitedEdges = graph.getEdgeCount() - graph.getInDegree(source);
+		}
+
+		void execute() {
+			int vertexCount = graph.getVertexCount();
+			boolean bottomUp = false;
+			while (frontierSize > 0 && (destination == CompiledGraph.NO_VERTEX
+					|| claimedLevels.get(destination) == UNREACHABLE)) {
+				if (!bottomUp && frontierEdges * alpha > unvisitedEdges) {
+					bottomUp = true;
+				} else if (bottomUp && (long) frontierSize * beta < vertexCount) {
+					bottomUp = false;
+				}
+
+				ConcurrentLinkedQueue<VertexList> next = bottomUp ? expandBottomUp() : expandTopDown();
+				depth++;
+				collectFrontier(next);
+			}
+
+			levels = new int[vertexCount];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				levels[vertex] = claimedLevels.get(vertex);
+			}
+		}
+
+		/**
+		 * Follows the outgoing edges of the frontier in parallel, claiming every unvisited vertex for the next level.
+		 */
+		private ConcurrentLinkedQueue<VertexList> expandTopDown() {
+			int nextLevel = depth + 1;
+			int[] currentFrontier = frontier;
+			ConcurrentLinkedQueue<VertexList> next = new ConcurrentLinkedQueue<VertexList>();
+			ParallelRange.forEachChunk(pool, 0, frontierSize, ParallelRange.getGrain(pool, frontierSize, MINIMUM_GRAIN),
+					(start, end) -> {
+						VertexList claimed = new VertexList();
+						for (int i = start; i < end; i++) {
+							int vertex = currentFrontier[i];
+							for (int edge = outOffsets[vertex]; edge < outOffsets[vertex + 1]; edge++) {
+								int target = outTargets[edge];
+								if (claimedLevels.get(target) == UNREACHABLE
+										&& claimedLevels.compareAndSet(target, UNREACHABLE, nextLevel)) {
+									claimed.add(target, outOffsets, inOffsets);
+								}
+							}
+						}
+						next.add(claimed);
+					});
+			return next;
+		}
+
+		/**
+		 * Lets every unvisited vertex look for a parent in the frontier in parallel. The vertices of the frontier are
+		 * the ones at the current depth, so no separate frontier set is needed, and every vertex is only written by
+		 * the chunk that owns it.
+		 */
+		private ConcurrentLinkedQueue<VertexList> expandBottomUp() {
+			int currentLevel = depth;
+			int vertexCount = graph.getVertexCount();
+			ConcurrentLinkedQueue<VertexList> next = new ConcurrentLinkedQueue<VertexList>();
+			ParallelRange.forEachChunk(pool, 0, vertexCount, ParallelRange.getGrain(pool, vertexCount, MINIMUM_GRAIN),
+					(start, end) -> {
+						VertexList claimed = new VertexList();
+						for (int vertex = start; vertex < end; vertex++) {
+							if (claimedLevels.get(vertex) != UNREACHABLE) {
+								continue;
+							}
+							for (int edge = inOffsets[vertex]; edge < inOffsets[vertex + 1]; edge++) {
+								if (claimedLevels.get(inSources[edge]) == currentLevel) {
+									claimedLevels.set(vertex, currentLevel + 1);
+									claimed.add(vertex, outOffsets, inOffsets);
+									break;
+								}
+							}
+						}
+						next.add(claimed);
+					});
+			return next;
+		}
+
+		/**
+		 * Joins the vertices claimed by every chunk into the next frontier, and updates the edge counts that pick the
+		 * direction of the next level.
+		 */
+		private void collectFrontier(ConcurrentLinkedQueue<VertexList> next) {
+			int size = 0;
+			for (VertexList claimed : next) {
+				size += claimed.size;
+			}
+
+			int[] nextFrontier = frontier.length >= size ? frontier : new int[size];
+			int position = 0;
+			long edges = 0;
+			for (VertexList claimed : next) {
+				System.arraycopy(claimed.vertices, 0, nextFrontier, position, claimed.size);
+				position += claimed.size;
+				edges += claimed.outEdges;
+				unvisitedEdges -= claimed.inEdges;
+			}
+
+			frontier = nextFrontier;
+			frontierSize = size;
+			frontierEdges = edges;
+		}
+	}
+
+	/**
+	 * A growable list of vertex ids, which also counts the edges out of and into the vertices.
+	 */
+	private static class VertexList {
+		private int[] vertices = new int[16];
+		private int size;
+		private long outEdges;
+		private long inEdges;
+
+		void add(int vertex, int[] outOffsets, int[] inOffsets) {
+			if (size == vertices.length) {
+				vertices = Arrays.copyOf(vertices, size * 2);
+			}
+			vertices[size++] = vertex;
+			outEdges += outOffsets[vertex + 1] - outOffsets[vertex];
+			inEdges += inOffsets[vertex + 1] - inOffsets[vertex];
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Dijkstra's Algorithm with a {@link ShortestPathTreeCache}. The first query from a source computes the whole shortest
+ * path tree of that source, and later queries from the same source are answered from the tree until the graph is
+ * modified. This suits workloads that ask about the same few sources over and over; for one-off queries on large
+ * graphs, {@link HeapDijkstrasShortestPath} is faster since it stops at the destination. HeapDijkstrasShortestPath is
+ * the default shortest path helper; this one is used instead when the cached-shortest-paths profile is active.
+ */
+public class CachedDijkstrasShortestPath extends AbstractShortestPath {
+
+	private final ShortestPathTreeCache cache;
+
+	/**
+	 * Class constructor that keeps the trees of up to 64 sources.
+	 */
+	public CachedDijkstrasShortestPath() {
+		this(new ShortestPathTreeCache());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param cache
+	 *            The cache to keep the shortest path trees in
+	 */
+	public CachedDijkstrasShortestPath(ShortestPathTreeCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 *
+	 * @return The cache of shortest path trees, with its hit, miss and eviction counters
+	 */
+	public ShortestPathTreeCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+
+		List<Vertex> pathOfVertices = cache.getTree(graph, source).getPath(destination);
+		if (pathOfVertices == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+		return pathOfVertices;
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		return cache.getTree(graph, source).getDistance(destination);
+	}
+}
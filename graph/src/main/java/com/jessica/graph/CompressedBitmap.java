@@ -0,0 +1,371 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable set of non-negative ints, stored the way a Roaring bitmap stores them. The values are split by their
+ * upper 16 bits into chunks of 65536, and every chunk that has any values gets the smallest of three containers:
+ * <ul>
+ * <li>An array of the sorted lower 16 bits of the values, for sparse chunks (2 bytes per value).</li>
+ * <li>A bitmap of 1024 words, for dense chunks (8 KB).</li>
+ * <li>A list of runs of consecutive values, for chunks that are made of a few long ranges (4 bytes per run).</li>
+ * </ul>
+ * A bitmap is built from a plain array of words, and merges back into one, so that unions are computed 64 bits at a
+ * time on the plain array and only the result is compressed.
+ */
+final class CompressedBitmap {
+
+	private static final int CHUNK_WORDS = 1 << 10;
+	private static final int BITMAP_BYTES = CHUNK_WORDS * 8;
+
+	private final char[] keys;
+	private final Container[] containers;
+	private final int cardinality;
+
+	private CompressedBitmap(char[] keys, Container[] containers, int cardinality) {
+		this.keys = keys;
+		this.containers = containers;
+		this.cardinality = cardinality;
+	}
+
+	/**
+	 * Compresses a range of a plain array of words, in which bit b of word w stands for the value 64 * w + b.
+	 *
+	 * @param words
+	 *            The plain array of words
+	 * @param startWord
+	 *            The first word of the range
+	 * @param endWord
+	 *            One past the last word of the range
+	 * @return The values whose bits are set in the range
+	 */
+	static CompressedBitmap fromWords(long[] words, int startWord, int endWord) {
+		List<Container> containers = new ArrayList<Container>();
+		int firstChunk = startWord >>> 10;
+		int endChunk = endWord > startWord ? (endWord - 1 >>> 10) + 1 : firstChunk;
+		char[] keys = new char[endChunk - firstChunk];
+		int cardinality = 0;
+		for (int chunk = firstChunk; chunk < endChunk; chunk++) {
+			int from = Math.max(startWord, chunk * CHUNK_WORDS);
+			int to = Math.min(endWord, (chunk + 1) * CHUNK_WORDS);
+
+			// A run starts at every set bit whose lower neighbor is clear, including across words
+			int chunkCardinality = 0;
+			int runCount = 0;
+			long carry = 0;
+			for (int w = from; w < to; w++) {
+				long word = words[w];
+				chunkCardinality += Long.bitCount(word);
+				runCount += Long.bitCount(word & ~(word << 1 | carry));
+				carry = word >>> 63;
+			}
+			if (chunkCardinality == 0) {
+				continue;
+			}
+
+			int base = chunk * CHUNK_WORDS;
+			int runBytes = runCount * 4;
+			int arrayBytes = chunkCardinality * 2;
+			Container container;
+			if (runBytes <= arrayBytes && runBytes <= BITMAP_BYTES) {
+				container = RunContainer.fromWords(words, from, to, base, runCount);
+			} else if (arrayBytes <= BITMAP_BYTES) {
+				container = ArrayContainer.fromWords(words, from, to, base, chunkCardinality);
+			} else {
+				container = BitmapContainer.fromWords(words, from, to, base);
+			}
+			keys[containers.size()] = (char) chunk;
+			containers.add(container);
+			cardinality += chunkCardinality;
+		}
+		return new CompressedBitmap(Arrays.copyOf(keys, containers.size()),
+				containers.toArray(new Container[containers.size()]), cardinality);
+	}
+
+	/**
+	 *
+	 * @param value
+	 *            A non-negative value
+	 * @return Whether the value is part of the set
+	 */
+	boolean contains(int value) {
+		int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+		return index >= 0 && containers[index].contains((char) value);
+	}
+
+	/**
+	 *
+	 * @return The number of values in the set
+	 */
+	int getCardinality() {
+		return cardinality;
+	}
+
+	/**
+	 *
+	 * @return The smallest value in the set, or -1 if it is empty
+	 */
+	int getFirst() {
+		return keys.length == 0 ? -1 : keys[0] << 16 | containers[0].getFirst();
+	}
+
+	/**
+	 * Sets the bits of every value of the set in a plain array of words, which must be large enough to hold them.
+	 *
+	 * @param words
+	 *            The plain array of words
+	 */
+	void orInto(long[] words) {
+		for (int i = 0; i < keys.length; i++) {
+			containers[i].orInto(words, keys[i] * CHUNK_WORDS);
+		}
+	}
+
+	/**
+	 *
+	 * @return The values of the set, in ascending order
+	 */
+	int[] toArray() {
+		int[] values = new int[cardinality];
+		int position = 0;
+		for (int i = 0; i < keys.length; i++) {
+			position = containers[i].copyTo(values, position, keys[i] << 16);
+		}
+		return values;
+	}
+
+	/**
+	 *
+	 * @return The approximate number of bytes used by the set
+	 */
+	long getSizeInBytes() {
+		long size = 16 + keys.length * 2L;
+		for (Container container : containers) {
+			size += 16 + container.getSizeInBytes();
+		}
+		return size;
+	}
+
+	/**
+	 * The values of one chunk, as their lower 16 bits.
+	 */
+	private abstract static class Container {
+
+		abstract boolean contains(char value);
+
+		abstract int getFirst();
+
+		/**
+		 * Sets the bit of every value in the words of the chunk, which start at the base word.
+		 */
+		abstract void orInto(long[] words, int base);
+
+		/**
+		 * Copies the values, with the high bits of the chunk added, to an array starting at a position.
+		 *
+		 * @return The position after the last value copied
+		 */
+		abstract int copyTo(int[] values, int position, int high);
+
+		abstract long getSizeInBytes();
+	}
+
+	private static class ArrayContainer extends Container {
+		private final char[] values;
+
+		ArrayContainer(char[] values) {
+			this.values = values;
+		}
+
+		static ArrayContainer fromWords(long[] words, int from, int to, int base, int cardinality) {
+			char[] values = new char[cardinality];
+			int count = 0;
+			for (int w = from; w < to; w++) {
+				for (long word = words[w]; word != 0; word &= word - 1) {
+					values[count++] = (char) ((w - base << 6) + Long.numberOfTrailingZeros(word));
+				}
+			}
+			return new ArrayContainer(values);
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, value) >= 0;
+		}
+
+		@Override
+		int getFirst() {
+			return values[0];
+		}
+
+		@Override
+		void orInto(long[] words, int base) {
+			for (char value : values) {
+				words[base + (value >>> 6)] |= 1L << value;
+			}
+		}
+
+		@Override
+		int copyTo(int[] values, int position, int high) {
+			for (char value : this.values) {
+				values[position++] = high | value;
+			}
+			return position;
+		}
+
+		@Override
+		long getSizeInBytes() {
+			return values.length * 2L;
+		}
+	}
+
+	private static class BitmapContainer extends Container {
+		private final long[] bits;
+
+		BitmapContainer(long[] bits) {
+			this.bits = bits;
+		}
+
+		static BitmapContainer fromWords(long[] words, int from, int to, int base) {
+			long[] bits = new long[CHUNK_WORDS];
+			System.arraycopy(words, from, bits, from - base, to - from);
+			return new BitmapContainer(bits);
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (bits[value >>> 6] & 1L << value) != 0;
+		}
+
+		@Override
+		int getFirst() {
+			int w = 0;
+			while (bits[w] == 0) {
+				w++;
+			}
+			return (w << 6) + Long.numberOfTrailingZeros(bits[w]);
+		}
+
+		@Override
+		void orInto(long[] words, int base) {
+			int end = Math.min(CHUNK_WORDS, words.length - base);
+			for (int w = 0; w < end; w++) {
+				words[base + w] |= bits[w];
+			}
+		}
+
+		@Override
+		int copyTo(int[] values, int position, int high) {
+			for (int w = 0; w < CHUNK_WORDS; w++) {
+				for (long word = bits[w]; word != 0; word &= word - 1) {
+					values[position++] = high | (w << 6) + Long.numberOfTrailingZeros(word);
+				}
+			}
+			return position;
+		}
+
+		@Override
+		long getSizeInBytes() {
+			return BITMAP_BYTES;
+		}
+	}
+
+	/**
+	 * Runs of consecutive values, as the first value of every run and the number of values after it, so that a run
+	 * over the whole chunk still fits in a char.
+	 */
+	private static class RunContainer extends Container {
+		private final char[] starts;
+		private final char[] lengths;
+
+		RunContainer(char[] starts, char[] lengths) {
+			this.starts = starts;
+			this.lengths = lengths;
+		}
+
+		static RunContainer fromWords(long[] words, int from, int to, int base, int runCount) {
+			char[] starts = new char[runCount];
+			char[] lengths = new char[runCount];
+			int run = 0;
+			int start = -1;
+			for (int w = from; w < to; w++) {
+				long word = words[w];
+				int offset = w - base << 6;
+				int bit = 0;
+
+				// Alternate between looking for the next set bit and the next clear bit
+				while (bit < 64) {
+					long rest = (start < 0 ? word : ~word) >>> bit;
+					if (rest == 0) {
+						break;
+					}
+					bit += Long.numberOfTrailingZeros(rest);
+					if (start < 0) {
+						start = offset + bit;
+					} else {
+						starts[run] = (char) start;
+						lengths[run++] = (char) (offset + bit - 1 - start);
+						start = -1;
+					}
+				}
+			}
+			if (start >= 0) {
+				starts[run] = (char) start;
+				lengths[run] = (char) ((to - base << 6) - 1 - start);
+			}
+			return new RunContainer(starts, lengths);
+		}
+
+		@Override
+		boolean contains(char value) {
+			int index = Arrays.binarySearch(starts, value);
+			if (index < 0) {
+				index = -index - 2;
+			}
+			return index >= 0 && value <= starts[index] + lengths[index];
+		}
+
+		@Override
+		int getFirst() {
+			return starts[0];
+		}
+
+		@Override
+		void orInto(long[] words, int base) {
+			for (int run = 0; run < starts.length; run++) {
+				int first = starts[run];
+				int last = first + lengths[run];
+				int firstWord = base + (first >>> 6);
+				int lastWord = base + (last >>> 6);
+				long firstMask = -1L << first;
+				long lastMask = -1L >>> 63 - (last & 63);
+				if (firstWord == lastWord) {
+					words[firstWord] |= firstMask & lastMask;
+				} else {
+					words[firstWord] |= firstMask;
+					for (int w = firstWord + 1; w < lastWord; w++) {
+						words[w] = -1L;
+					}
+					words[lastWord] |= lastMask;
+				}
+			}
+		}
+
+		@Override
+		int copyTo(int[] values, int position, int high) {
+			for (int run = 0; run < starts.length; run++) {
+				for (int value = starts[run]; value <= starts[run] + lengths[run]; value++) {
+					values[position++] = high | value;
+				}
+			}
+			return position;
+		}
+
+		@Override
+		long getSizeInBytes() {
+			return starts.length * 4L;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.jessica.graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A union-find over the ints 0..n-1 that any number of threads can update at once without locks. Every set is a tree
+ * in a primitive parent array, and both operations change it with compare-and-set:
+ * <ul>
+ * <li>find halves the path as it walks it, pointing every other element at its grandparent. A failed compare-and-set
+ * only means another thread already shortened the path.</li>
+ * <li>union links the root with the higher index below the root with the lower index. If the root gained a parent
+ * in the meantime, the compare-and-set fails and the roots are found again. Links always point to lower indexes, so
+ * concurrent unions can never form a cycle.</li>
+ * </ul>
+ */
+final class ConcurrentUnionFind {
+
+	private final AtomicIntegerArray parents;
+
+	/**
+	 * Class constructor, with every element in a set of its own.
+	 *
+	 * @param size
+	 *            The number of elements
+	 */
+	ConcurrentUnionFind(int size) {
+		parents = new AtomicIntegerArray(size);
+		for (int element = 0; element < size; element++) {
+			parents.set(element, element);
+		}
+	}
+
+	/**
+	 *
+	 * @param element
+	 *            An element
+	 * @return The root of the element's set, which may change when sets are merged
+	 */
+	int find(int element) {
+		int current = element;
+		while (true) {
+			int parent = parents.get(current);
+			if (parent == current) {
+				return current;
+			}
+
+			int grandparent = parents.get(parent);
+			if (parent != grandparent) {
+				parents.compareAndSet(current, parent, grandparent);
+			}
+			current = grandparent;
+		}
+	}
+
+	/**
+	 * Merges the sets of two elements.
+	 *
+	 * @param first
+	 *            An element
+	 * @param second
+	 *            Another element
+	 * @return Whether the sets were merged, rather than already being the same set
+	 */
+	boolean union(int first, int second) {
+		while (true) {
+			int firstRoot = find(first);
+			int secondRoot = find(second);
+			if (firstRoot == secondRoot) {
+				return false;
+			}
+
+			int lower = Math.min(firstRoot, secondRoot);
+			int higher = Math.max(firstRoot, secondRoot);
+			if (parents.compareAndSet(higher, higher, lower)) {
+				return true;
+			}
+		}
+	}
+}
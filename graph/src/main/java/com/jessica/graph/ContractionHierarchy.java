@@ -0,0 +1,270 @@
+package com.jessica.graph;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+
+/**
+ * The index built by {@link ContractionHierarchyBuilder}. Every vertex has a rank, which is the order in which it was
+ * contracted, and the edges of the graph plus the shortcuts added during contraction are split in two:
+ * <ul>
+ * <li>The upward edges, stored at the vertex the edge starts at, lead to a vertex of higher rank. The forward search
+ * of a query only follows these.</li>
+ * <li>The downward edges, stored at the vertex the edge ends at, come from a vertex of higher rank. The backward
+ * search of a query follows these in reverse.</li>
+ * </ul>
+ * A shortcut records the vertex it bypasses (its middle vertex), so that a path through shortcuts can be unpacked into
+ * the original edges. Original edges have a middle vertex of NO_MIDDLE.
+ *
+ * The index only depends on vertex labels and edge weights, so it can be saved to a file and used with the graph it
+ * was built from after reading that graph back.
+ */
+public class ContractionHierarchy implements Serializable {
+
+	private static final long serialVersionUID = 4930383862096113624L;
+
+	/**
+	 * The middle vertex of an edge that is not a shortcut.
+	 */
+	public static final int NO_MIDDLE = -1;
+
+	/**
+	 * The id returned for a vertex that is not part of the index.
+	 */
+	public static final int NO_VERTEX = -1;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+
+	private final String[] labels;
+	private final int[] ranks;
+
+	private final int[] upOffsets;
+	private final int[] upTargets;
+	private final int[] upWeights;
+	private final int[] upMiddles;
+
+	private final int[] downOffsets;
+	private final int[] downSources;
+	private final int[] downWeights;
+	private final int[] downMiddles;
+
+	// The id of every label, built when the index is created or read, so that queries on any thread only read it
+	private transient Map<String, Integer> ids;
+
+	ContractionHierarchy(String[] labels, int[] ranks, int[] upOffsets, int[] upTargets, int[] upWeights,
+			int[] upMiddles, int[] downOffsets, int[] downSources, int[] downWeights, int[] downMiddles) {
+		this.labels = labels;
+		this.ranks = ranks;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.upMiddles = upMiddles;
+		this.downOffsets = downOffsets;
+		this.downSources = downSources;
+		this.downWeights = downWeights;
+		this.downMiddles = downMiddles;
+		this.ids = buildIds(labels);
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in the index
+	 */
+	public int getVertexCount() {
+		return labels.length;
+	}
+
+	/**
+	 *
+	 * @return The number of upward and downward edges, including shortcuts
+	 */
+	public int getEdgeCount() {
+		return upTargets.length + downSources.length;
+	}
+
+	/**
+	 *
+	 * @return The number of shortcuts added during contraction
+	 */
+	public int getShortcutCount() {
+		int shortcuts = 0;
+		for (int middle : upMiddles) {
+			shortcuts += middle == NO_MIDDLE ? 0 : 1;
+		}
+		for (int middle : downMiddles) {
+			shortcuts += middle == NO_MIDDLE ? 0 : 1;
+		}
+		return shortcuts;
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            The label of a vertex
+	 * @return The id of the vertex in the index, or NO_VERTEX if it is not part of the index
+	 */
+	public int getId(String label) {
+		Integer id = ids.get(label);
+		return id == null ? NO_VERTEX : id;
+	}
+
+	private static Map<String, Integer> buildIds(String[] labels) {
+		Map<String, Integer> labelIds = new HashMap<String, Integer>(labels.length * 2);
+		for (int id = 0; id < labels.length; id++) {
+			labelIds.put(labels[id], id);
+		}
+		return labelIds;
+	}
+
+	/**
+	 * The ids of the labels are not saved with the index, so they are built again when it is read.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		ids = buildIds(labels);
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The label of the vertex
+	 */
+	public String getLabel(int id) {
+		return labels[id];
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The position of the vertex in the contraction order
+	 */
+	public int getRank(int id) {
+		return ranks[id];
+	}
+
+	/**
+	 * Saves the index to a file.
+	 *
+	 * @param fileName
+	 *            The name of the file
+	 */
+	public void save(String fileName) throws GraphException {
+		if (fileName == null || fileName.isEmpty()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_FILENAME);
+		}
+
+		try (ObjectOutputStream objectOutStream = new ObjectOutputStream(new FileOutputStream(fileName))) {
+			objectOutStream.writeObject(this);
+			objectOutStream.flush();
+		} catch (FileNotFoundException exception) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.FILE_NOT_FOUND, exception);
+		} catch (IOException exception) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.FILE_SAVE_ERROR, exception);
+		}
+	}
+
+	/**
+	 * Reads an index that was saved with {@link #save(String)}.
+	 *
+	 * @param fileName
+	 *            The name of the file
+	 * @return The index stored in the file
+	 */
+	public static ContractionHierarchy load(String fileName) throws GraphException {
+		String className = ContractionHierarchy.class.getSimpleName();
+		if (fileName == null || fileName.isEmpty()) {
+			throw new GraphException(className, GraphExceptionMsg.NULL_FILENAME);
+		}
+
+		Object objectFromFile;
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream(fileName))) {
+			objectFromFile = objectInputStream.readObject();
+		} catch (Exception exception) {
+			throw new GraphException(className, GraphExceptionMsg.FILE_READ_ERROR, exception);
+		}
+
+		if (!(objectFromFile instanceof ContractionHierarchy)) {
+			throw new GraphException(className, GraphExceptionMsg.UNEXPECTED_INDEX_CONTENTS);
+		}
+		return (ContractionHierarchy) objectFromFile;
+	}
+
+	int[] getUpOffsets() {
+		return upOffsets;
+	}
+
+	int[] getUpTargets() {
+		return upTargets;
+	}
+
+	int[] getUpWeights() {
+		return upWeights;
+	}
+
+	int[] getUpMiddles() {
+		return upMiddles;
+	}
+
+	int[] getDownOffsets() {
+		return downOffsets;
+	}
+
+	int[] getDownSources() {
+		return downSources;
+	}
+
+	int[] getDownWeights() {
+		return downWeights;
+	}
+
+	int[] getDownMiddles() {
+		return downMiddles;
+	}
+
+	/**
+	 * Finds the middle vertex of the edge from one vertex to another, where the edge is stored as an upward edge of
+	 * the from vertex.
+	 */
+	int getUpMiddle(int from, int to) {
+		for (int edge = upOffsets[from]; edge < upOffsets[from + 1]; edge++) {
+			if (upTargets[edge] == to) {
+				return upMiddles[edge];
+			}
+		}
+		throw new IllegalStateException("Missing upward edge " + labels[from] + " -> " + labels[to]);
+	}
+
+	/**
+	 * Finds the middle vertex of the edge from one vertex to another, where the edge is stored as a downward edge of
+	 * the to vertex.
+	 */
+	int getDownMiddle(int from, int to) {
+		for (int edge = downOffsets[to]; edge < downOffsets[to + 1]; edge++) {
+			if (downSources[edge] == from) {
+				return downMiddles[edge];
+			}
+		}
+		throw new IllegalStateException("Missing downward edge " + labels[from] + " -> " + labels[to]);
+	}
+
+	/**
+	 *
+	 * @return A string representation of the index
+	 */
+	@Override
+	public String toString() {
+		return "Contraction Hierarchy: " + getVertexCount() + " vertices, " + getEdgeCount() + " edges, "
+				+ getShortcutCount() + " shortcuts";
+	}
+}
@@ -0,0 +1,599 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Builds a {@link ContractionHierarchy} by contracting the vertices of a graph one after another. Contracting a vertex
+ * removes it from the graph, and adds a shortcut between two of its neighbors whenever the path through the vertex is
+ * the only shortest path between them (a witness search looks for another path of at most the same length).
+ *
+ * Vertices are contracted in rounds. Each round picks the vertices whose priority (twice the edge difference, plus the
+ * number of already contracted neighbors, plus the depth in the hierarchy) is lower than that of all their neighbors.
+ * These vertices are independent of each other, so their witness searches run in parallel; a witness through another
+ * vertex of the same round only counts when it is strictly shorter. The shortcuts are then added, and the priorities
+ * of the affected neighbors are recomputed in parallel.
+ */
+public class ContractionHierarchyBuilder {
+
+	private static final int DEFAULT_WITNESS_SETTLE_LIMIT = 500;
+	private static final int MINIMUM_GRAIN = 16;
+	private static final long INFINITY = Long.MAX_VALUE;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final int witnessSettleLimit;
+
+	/**
+	 * Class constructor that contracts vertices on the common fork join pool.
+	 */
+	public ContractionHierarchyBuilder() {
+		this(ForkJoinPool.commonPool(), DEFAULT_WITNESS_SETTLE_LIMIT);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run the witness searches on
+	 * @param witnessSettleLimit
+	 *            The most vertices a witness search may settle before giving up. A lower limit preprocesses faster,
+	 *            but may add shortcuts that are not needed.
+	 */
+	public ContractionHierarchyBuilder(ForkJoinPool pool, int witnessSettleLimit) {
+		this.pool = pool;
+		this.witnessSettleLimit = witnessSettleLimit;
+	}
+
+	/**
+	 * Builds the contraction hierarchy of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to preprocess
+	 * @return The contraction hierarchy
+	 */
+	public ContractionHierarchy build(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return build(graph.compile());
+	}
+
+	/**
+	 * Builds the contraction hierarchy of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to preprocess
+	 * @return The contraction hierarchy
+	 */
+	public ContractionHierarchy build(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return new Contraction(graph).run();
+	}
+
+	/**
+	 * The state of the graph while it is being contracted.
+	 */
+	private class Contraction {
+
+		private final CompiledGraph graph;
+		private final int vertexCount;
+
+		// The remaining graph, as growable lists of (neighbor, weight, middle) per vertex. Edges to contracted
+		// vertices are removed as vertices get contracted.
+		private final int[][] outTargets;
+		private final int[][] outWeights;
+		private final int[][] outMiddles;
+		private final int[] outCounts;
+		private final int[][] inSources;
+		private final int[][] inWeights;
+		private final int[][] inMiddles;
+		private final int[] inCounts;
+
+		private final boolean[] contracted;
+		private final boolean[] inRound;
+		private final int[] priorities;
+		private final int[] deletedNeighbors;
+		private final int[] levels;
+		private final int[] ranks;
+
+		// The edges of each vertex when it was contracted, which all lead to or come from higher ranked vertices
+		private final int[][] upEdges;
+		private final int[][] downEdges;
+
+		private final WorkspacePool<WitnessSearch> witnessSearches;
+
+		Contraction(CompiledGraph graph) {
+			this.graph = graph;
+			vertexCount = graph.getVertexCount();
+			outTargets = new int[vertexCount][];
+			outWeights = new int[vertexCount][];
+			outMiddles = new int[vertexCount][];
+			outCounts = new int[vertexCount];
+			inSources = new int[vertexCount][];
+			inWeights = new int[vertexCount][];
+			inMiddles = new int[vertexCount][];
+			inCounts = new int[vertexCount];
+			contracted = new boolean[vertexCount];
+			inRound = new boolean[vertexCount];
+			priorities = new int[vertexCount];
+			deletedNeighbors = new int[vertexCount];
+			levels = new int[vertexCount];
+			ranks = new int[vertexCount];
+			upEdges = new int[vertexCount][];
+			downEdges = new int[vertexCount][];
+			witnessSearches = new WorkspacePool<WitnessSearch>(() -> new WitnessSearch(vertexCount));
+
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				int outDegree = Math.max(graph.getOutDegree(vertex), 1);
+				int inDegree = Math.max(graph.getInDegree(vertex), 1);
+				outTargets[vertex] = new int[outDegree];
+				outWeights[vertex] = new int[outDegree];
+				outMiddles[vertex] = new int[outDegree];
+				inSources[vertex] = new int[inDegree];
+				inWeights[vertex] = new int[inDegree];
+				inMiddles[vertex] = new int[inDegree];
+			}
+
+			// Copy the edges of the graph, dropping self loops and keeping the lightest of any parallel edges
+			int[] offsets = graph.getOutOffsets();
+			int[] targets = graph.getOutTargets();
+			int[] weights = graph.getOutWeights();
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					if (targets[edge] != vertex) {
+						addOrLowerEdge(vertex, targets[edge], weights[edge], ContractionHierarchy.NO_MIDDLE);
+					}
+				}
+			}
+		}
+
+		ContractionHierarchy run() {
+			int[] remaining = new int[vertexCount];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				remaining[vertex] = vertex;
+			}
+			updatePriorities(remaining, vertexCount);
+
+			int remainingCount = vertexCount;
+			int nextRank = 0;
+			int[] round = new int[vertexCount];
+			int[] touched = new int[vertexCount];
+			boolean[] isTouched = new boolean[vertexCount];
+
+			while (remainingCount > 0) {
+				// Pick the vertices that have a lower priority than all of their neighbors
+				final int[] candidates = remaining;
+				ParallelRange.forEachChunk(pool, 0, remainingCount, ParallelRange.getGrain(pool, remainingCount,
+						MINIMUM_GRAIN), (start, end) -> {
+							for (int i = start; i < end; i++) {
+								inRound[candidates[i]] = isLocalMinimum(candidates[i]);
+							}
+						});
+
+				int roundSize = 0;
+				int keptCount = 0;
+				for (int i = 0; i < remainingCount; i++) {
+					if (inRound[remaining[i]]) {
+						round[roundSize++] = remaining[i];
+					} else {
+						remaining[keptCount++] = remaining[i];
+					}
+				}
+				remainingCount = keptCount;
+
+				// Find the shortcuts needed by each vertex of the round in parallel
+				final int[] roundVertices = round;
+				final int[][] shortcuts = new int[roundSize][];
+				ParallelRange.forEachChunk(pool, 0, roundSize, ParallelRange.getGrain(pool, roundSize, 1),
+						(start, end) -> {
+							for (int i = start; i < end; i++) {
+								shortcuts[i] = findShortcuts(roundVertices[i], true);
+							}
+						});
+
+				// Contract the vertices of the round and add their shortcuts
+				int touchedCount = 0;
+				for (int i = 0; i < roundSize; i++) {
+					int vertex = round[i];
+					upEdges[vertex] = packEdges(outTargets[vertex], outWeights[vertex], outMiddles[vertex],
+							outCounts[vertex]);
+					downEdges[vertex] = packEdges(inSources[vertex], inWeights[vertex], inMiddles[vertex],
+							inCounts[vertex]);
+					ranks[vertex] = nextRank++;
+					contracted[vertex] = true;
+				}
+				for (int i = 0; i < roundSize; i++) {
+					int vertex = round[i];
+					for (int shortcut = 0; shortcut < shortcuts[i].length; shortcut += 3) {
+						addOrLowerEdge(shortcuts[i][shortcut], shortcuts[i][shortcut + 1], shortcuts[i][shortcut + 2],
+								vertex);
+					}
+					touchedCount = detach(vertex, touched, touchedCount, isTouched);
+					inRound[vertex] = false;
+				}
+
+				// Update the priorities of the neighbors of the contracted vertices
+				for (int i = 0; i < touchedCount; i++) {
+					isTouched[touched[i]] = false;
+				}
+				updatePriorities(touched, touchedCount);
+			}
+			return createHierarchy();
+		}
+
+		/**
+		 * Removes a contracted vertex from the lists of its neighbors, and records the neighbors whose priority needs
+		 * to be updated.
+		 */
+		private int detach(int vertex, int[] touched, int touchedCount, boolean[] isTouched) {
+			for (int i = 0; i < outCounts[vertex]; i++) {
+				int neighbor = outTargets[vertex][i];
+				inCounts[neighbor] = removeEntry(inSources[neighbor], inWeights[neighbor], inMiddles[neighbor],
+						inCounts[neighbor], vertex);
+				touchedCount = touch(vertex, neighbor, touched, touchedCount, isTouched);
+			}
+			for (int i = 0; i < inCounts[vertex]; i++) {
+				int neighbor = inSources[vertex][i];
+				outCounts[neighbor] = removeEntry(outTargets[neighbor], outWeights[neighbor], outMiddles[neighbor],
+						outCounts[neighbor], vertex);
+				touchedCount = touch(vertex, neighbor, touched, touchedCount, isTouched);
+			}
+			outCounts[vertex] = 0;
+			inCounts[vertex] = 0;
+			return touchedCount;
+		}
+
+		private int touch(int vertex, int neighbor, int[] touched, int touchedCount, boolean[] isTouched) {
+			deletedNeighbors[neighbor]++;
+			levels[neighbor] = Math.max(levels[neighbor], levels[vertex] + 1);
+			if (!isTouched[neighbor]) {
+				isTouched[neighbor] = true;
+				touched[touchedCount++] = neighbor;
+			}
+			return touchedCount;
+		}
+
+		private void updatePriorities(final int[] vertices, int count) {
+			ParallelRange.forEachChunk(pool, 0, count, ParallelRange.getGrain(pool, count, MINIMUM_GRAIN),
+					(start, end) -> {
+						for (int i = start; i < end; i++) {
+							int vertex = vertices[i];
+							int edgeDifference = findShortcuts(vertex, false).length / 3 - outCounts[vertex]
+									- inCounts[vertex];
+							priorities[vertex] = 2 * edgeDifference + deletedNeighbors[vertex] + levels[vertex];
+						}
+					});
+		}
+
+		private boolean isLocalMinimum(int vertex) {
+			for (int i = 0; i < outCounts[vertex]; i++) {
+				if (isLowerPriority(outTargets[vertex][i], vertex)) {
+					return false;
+				}
+			}
+			for (int i = 0; i < inCounts[vertex]; i++) {
+				if (isLowerPriority(inSources[vertex][i], vertex)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isLowerPriority(int neighbor, int vertex) {
+			return priorities[neighbor] < priorities[vertex]
+					|| (priorities[neighbor] == priorities[vertex] && neighbor < vertex);
+		}
+
+		/**
+		 * Finds the shortcuts that contracting a vertex would add. When only counting, the returned array has the
+		 * right length but its contents are not filled in.
+		 *
+		 * @param vertex
+		 *            The vertex to contract
+		 * @param collect
+		 *            True to fill in the shortcuts
+		 * @return The shortcuts, as (from, to, weight) triples
+		 */
+		private int[] findShortcuts(int vertex, boolean collect) {
+			WitnessSearch witnessSearch = witnessSearches.acquire();
+			try {
+				return findShortcuts(vertex, collect, witnessSearch);
+			} finally {
+				witnessSearches.release(witnessSearch);
+			}
+		}
+
+		private int[] findShortcuts(int vertex, boolean collect, WitnessSearch witnessSearch) {
+			int[] shortcuts = new int[0];
+			int shortcutCount = 0;
+
+			for (int i = 0; i < inCounts[vertex]; i++) {
+				int from = inSources[vertex][i];
+				long inWeight = inWeights[vertex][i];
+
+				long maxDistance = -1;
+				for (int j = 0; j < outCounts[vertex]; j++) {
+					if (outTargets[vertex][j] != from) {
+						maxDistance = Math.max(maxDistance, inWeight + outWeights[vertex][j]);
+					}
+				}
+				if (maxDistance < 0) {
+					continue;
+				}
+
+				// Look for paths that avoid the vertex and are no longer than the paths through it
+				witnessSearch.run(from, vertex, maxDistance, outTargets[vertex], outCounts[vertex]);
+				for (int j = 0; j < outCounts[vertex]; j++) {
+					int to = outTargets[vertex][j];
+					long viaDistance = inWeight + outWeights[vertex][j];
+					if (to != from && witnessSearch.getKey(to) > viaDistance << 1) {
+						if (shortcutCount + 3 > shortcuts.length) {
+							shortcuts = Arrays.copyOf(shortcuts, Math.max(12, shortcuts.length * 2));
+						}
+						if (collect) {
+							shortcuts[shortcutCount] = from;
+							shortcuts[shortcutCount + 1] = to;
+							shortcuts[shortcutCount + 2] = (int) Math.min(viaDistance, Integer.MAX_VALUE);
+						}
+						shortcutCount += 3;
+					}
+				}
+				witnessSearch.reset();
+			}
+			return Arrays.copyOf(shortcuts, shortcutCount);
+		}
+
+		private void addOrLowerEdge(int from, int to, int weight, int middle) {
+			int outIndex = indexOf(outTargets[from], outCounts[from], to);
+			if (outIndex >= 0) {
+				if (weight < outWeights[from][outIndex]) {
+					int inIndex = indexOf(inSources[to], inCounts[to], from);
+					outWeights[from][outIndex] = weight;
+					outMiddles[from][outIndex] = middle;
+					inWeights[to][inIndex] = weight;
+					inMiddles[to][inIndex] = middle;
+				}
+				return;
+			}
+
+			if (outCounts[from] == outTargets[from].length) {
+				int capacity = outTargets[from].length * 2;
+				outTargets[from] = Arrays.copyOf(outTargets[from], capacity);
+				outWeights[from] = Arrays.copyOf(outWeights[from], capacity);
+				outMiddles[from] = Arrays.copyOf(outMiddles[from], capacity);
+			}
+			outTargets[from][outCounts[from]] = to;
+			outWeights[from][outCounts[from]] = weight;
+			outMiddles[from][outCounts[from]++] = middle;
+
+			if (inCounts[to] == inSources[to].length) {
+				int capacity = inSources[to].length * 2;
+				inSources[to] = Arrays.copyOf(inSources[to], capacity);
+				inWeights[to] = Arrays.copyOf(inWeights[to], capacity);
+				inMiddles[to] = Arrays.copyOf(inMiddles[to], capacity);
+			}
+			inSources[to][inCounts[to]] = from;
+			inWeights[to][inCounts[to]] = weight;
+			inMiddles[to][inCounts[to]++] = middle;
+		}
+
+		private ContractionHierarchy createHierarchy() {
+			String[] labels = new String[vertexCount];
+			int[] upOffsets = new int[vertexCount + 1];
+			int[] downOffsets = new int[vertexCount + 1];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				labels[vertex] = graph.getVertex(vertex).getLabel();
+				upOffsets[vertex + 1] = upOffsets[vertex] + upEdges[vertex].length / 3;
+				downOffsets[vertex + 1] = downOffsets[vertex] + downEdges[vertex].length / 3;
+			}
+
+			int[] upTargets = new int[upOffsets[vertexCount]];
+			int[] upWeights = new int[upTargets.length];
+			int[] upMiddles = new int[upTargets.length];
+			int[] downSources = new int[downOffsets[vertexCount]];
+			int[] downWeights = new int[downSources.length];
+			int[] downMiddles = new int[downSources.length];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				unpackEdges(upEdges[vertex], upOffsets[vertex], upTargets, upWeights, upMiddles);
+				unpackEdges(downEdges[vertex], downOffsets[vertex], downSources, downWeights, downMiddles);
+			}
+
+			return new ContractionHierarchy(labels, ranks, upOffsets, upTargets, upWeights, upMiddles, downOffsets,
+					downSources, downWeights, downMiddles);
+		}
+
+		/**
+		 * A Dijkstra search that stops after settling a limited number of vertices, used to look for witness paths.
+		 * Each thread has its own instance, which is reset after every search by only clearing what was touched.
+		 *
+		 * Vertices of the current round are contracted at the same time, so a witness through one of them may lose its
+		 * own edges in the same round. Such a witness only counts when it is strictly shorter, which the search tracks
+		 * by keeping a flag in the lowest bit of every key: a key is the distance shifted left by one, plus one if the
+		 * path goes through a vertex of the round. Of two paths of equal length, the one that avoids the round wins.
+		 */
+		private class WitnessSearch {
+
+			private final long[] distances;
+			private final int[] targetStamps;
+			private int stamp;
+			private int[] touched = new int[64];
+			private int touchedCount;
+			private long[] heapKeys = new long[64];
+			private int[] heapVertices = new int[64];
+			private int heapSize;
+
+			WitnessSearch(int vertexCount) {
+				distances = new long[vertexCount];
+				targetStamps = new int[vertexCount];
+				Arrays.fill(distances, INFINITY);
+			}
+
+			void run(int source, int excluded, long maxDistance, int[] targets, int targetCount) {
+				// Mark the targets, so that the search can stop as soon as all of them are settled
+				stamp++;
+				int targetsLeft = 0;
+				for (int i = 0; i < targetCount; i++) {
+					if (targets[i] != source && targetStamps[targets[i]] != stamp) {
+						targetStamps[targets[i]] = stamp;
+						targetsLeft++;
+					}
+				}
+
+				setDistance(source, 0);
+				push(0, source);
+
+				int settled = 0;
+				while (heapSize > 0 && settled < witnessSettleLimit) {
+					long key = heapKeys[0];
+					int vertex = pop();
+					if (key > distances[vertex]) {
+						continue;
+					}
+					long distance = key >>> 1;
+					if (distance > maxDistance) {
+						break;
+					}
+					settled++;
+					if (targetStamps[vertex] == stamp && --targetsLeft == 0) {
+						break;
+					}
+
+					for (int i = 0; i < outCounts[vertex]; i++) {
+						int next = outTargets[vertex][i];
+						if (next == excluded) {
+							continue;
+						}
+						long nextDistance = distance + outWeights[vertex][i];
+						long nextKey = (nextDistance << 1) | (key & 1) | (inRound[next] ? 1 : 0);
+						if (nextKey < distances[next] && nextDistance <= maxDistance) {
+							setDistance(next, nextKey);
+							push(nextKey, next);
+						}
+					}
+				}
+			}
+
+			/**
+			 * @return The key of the shortest witness found to the vertex, or INFINITY
+			 */
+			long getKey(int vertex) {
+				return distances[vertex];
+			}
+
+			void reset() {
+				for (int i = 0; i < touchedCount; i++) {
+					distances[touched[i]] = INFINITY;
+				}
+				touchedCount = 0;
+				heapSize = 0;
+			}
+
+			private void setDistance(int vertex, long distance) {
+				if (distances[vertex] == INFINITY) {
+					if (touchedCount == touched.length) {
+						touched = Arrays.copyOf(touched, touchedCount * 2);
+					}
+					touched[touchedCount++] = vertex;
+				}
+				distances[vertex] = distance;
+			}
+
+			private void push(long key, int vertex) {
+				if (heapSize == heapKeys.length) {
+					heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+					heapVertices = Arrays.copyOf(heapVertices, heapSize * 2);
+				}
+				int slot = heapSize++;
+				while (slot > 0) {
+					int parent = (slot - 1) >>> 1;
+					if (heapKeys[parent] <= key) {
+						break;
+					}
+					heapKeys[slot] = heapKeys[parent];
+					heapVertices[slot] = heapVertices[parent];
+					slot = parent;
+				}
+				heapKeys[slot] = key;
+				heapVertices[slot] = vertex;
+			}
+
+			private int pop() {
+				int top = heapVertices[0];
+				heapSize--;
+				long key = heapKeys[heapSize];
+				int vertex = heapVertices[heapSize];
+				int slot = 0;
+				while (true) {
+					int child = slot * 2 + 1;
+					if (child >= heapSize) {
+						break;
+					}
+					if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+						child++;
+					}
+					if (heapKeys[child] >= key) {
+						break;
+					}
+					heapKeys[slot] = heapKeys[child];
+					heapVertices[slot] = heapVertices[child];
+					slot = child;
+				}
+				heapKeys[slot] = key;
+				heapVertices[slot] = vertex;
+				return top;
+			}
+		}
+	}
+
+	private static int indexOf(int[] neighbors, int count, int neighbor) {
+		for (int i = 0; i < count; i++) {
+			if (neighbors[i] == neighbor) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes the entry for a neighbor by moving the last entry into its place.
+	 *
+	 * @return The new count
+	 */
+	private static int removeEntry(int[] neighbors, int[] weights, int[] middles, int count, int neighbor) {
+		int index = indexOf(neighbors, count, neighbor);
+		if (index < 0) {
+			return count;
+		}
+		count--;
+		neighbors[index] = neighbors[count];
+		weights[index] = weights[count];
+		middles[index] = middles[count];
+		return count;
+	}
+
+	private static int[] packEdges(int[] neighbors, int[] weights, int[] middles, int count) {
+		int[] packed = new int[count * 3];
+		for (int i = 0; i < count; i++) {
+			packed[i * 3] = neighbors[i];
+			packed[i * 3 + 1] = weights[i];
+			packed[i * 3 + 2] = middles[i];
+		}
+		return packed;
+	}
+
+	private static void unpackEdges(int[] packed, int offset, int[] neighbors, int[] weights, int[] middles) {
+		for (int i = 0; i < packed.length / 3; i++) {
+			neighbors[offset + i] = packed[i * 3];
+			weights[offset + i] = packed[i * 3 + 1];
+			middles[offset + i] = packed[i * 3 + 2];
+		}
+	}
+}
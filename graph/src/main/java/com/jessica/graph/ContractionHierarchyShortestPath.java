@@ -0,0 +1,325 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Answers shortest path queries with a {@link ContractionHierarchy}. A query runs a forward search from the source
+ * that only follows upward edges, and a backward search from the destination that only follows downward edges in
+ * reverse. Both searches only climb the hierarchy, so each settles a few hundred vertices even on very large graphs.
+ * The shortest path goes through the vertex where the sum of the two distances is the smallest, and its shortcuts are
+ * unpacked into the original vertices.
+ *
+ * The hierarchy is only valid for the graph it was built from. When this class builds the hierarchy itself, it builds
+ * it for the first graph it is asked about, and rebuilds it when asked about a different graph or when the version of
+ * the graph changes. A hierarchy given to the constructor is used as it is, so changes made to the graph after it was
+ * built are not seen.
+ */
+public class ContractionHierarchyShortestPath extends AbstractShortestPath {
+
+	private final ContractionHierarchyBuilder builder;
+	private final ThreadLocal<Workspace> workspaces = new ThreadLocal<Workspace>();
+	private volatile ContractionHierarchy hierarchy;
+	private volatile Graph indexedGraph;
+	private volatile long indexedVersion;
+
+	/**
+	 * Class constructor that builds the hierarchy the first time a graph is queried.
+	 */
+	public ContractionHierarchyShortestPath() {
+		this(new ContractionHierarchyBuilder());
+	}
+
+	/**
+	 * Class constructor that builds the hierarchy with the given builder the first time a graph is queried.
+	 *
+	 * @param builder
+	 *            The builder used to preprocess graphs
+	 */
+	public ContractionHierarchyShortestPath(ContractionHierarchyBuilder builder) {
+		this.builder = builder;
+	}
+
+	/**
+	 * Class constructor that uses a hierarchy that was already built, for example one read from a file, for every
+	 * query.
+	 *
+	 * @param hierarchy
+	 *            The contraction hierarchy of the graphs that will be queried
+	 */
+	public ContractionHierarchyShortestPath(ContractionHierarchy hierarchy) {
+		this.builder = null;
+		this.hierarchy = hierarchy;
+	}
+
+	/**
+	 * Gets the hierarchy used for the current version of a graph, building it if needed.
+	 *
+	 * @param graph
+	 *            The graph being queried
+	 * @return The hierarchy of the graph
+	 */
+	public ContractionHierarchy getHierarchy(Graph graph) throws GraphException {
+		if (builder == null) {
+			return hierarchy;
+		}
+
+		synchronized (this) {
+			long version = graph.getVersion();
+			if (hierarchy == null || indexedGraph != graph || indexedVersion != version) {
+				hierarchy = builder.build(graph);
+				indexedGraph = graph;
+				indexedVersion = version;
+			}
+			return hierarchy;
+		}
+	}
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		ContractionHierarchy index = getHierarchy(graph);
+		Workspace workspace = getWorkspace(index);
+		try {
+			long distance = search(index, workspace, getId(index, source), getId(index, destination));
+			if (distance == SearchSpace.INFINITY) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+			}
+
+			List<Vertex> pathOfVertices = new ArrayList<Vertex>();
+			for (int id : unpackPath(index, workspace, getId(index, source))) {
+				pathOfVertices.add(graph.getVertices().get(index.getLabel(id)));
+			}
+			return pathOfVertices;
+		} finally {
+			workspace.reset();
+		}
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		ContractionHierarchy index = getHierarchy(graph);
+		Workspace workspace = getWorkspace(index);
+		try {
+			return toDistance(search(index, workspace, getId(index, source), getId(index, destination)));
+		} finally {
+			workspace.reset();
+		}
+	}
+
+	private int getId(ContractionHierarchy index, Vertex vertex) throws GraphException {
+		int id = index.getId(vertex.getLabel());
+		if (id == ContractionHierarchy.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return id;
+	}
+
+	private Workspace getWorkspace(ContractionHierarchy index) {
+		Workspace workspace = workspaces.get();
+		if (workspace == null || workspace.forwardDistances.length != index.getVertexCount()) {
+			workspace = new Workspace(index.getVertexCount());
+			workspaces.set(workspace);
+		}
+		return workspace;
+	}
+
+	/**
+	 * Runs the upward forward and backward searches, alternating between them, until neither can improve on the best
+	 * meeting vertex.
+	 *
+	 * @return The shortest distance from the source to the destination, or INFINITY
+	 */
+	private long search(ContractionHierarchy index, Workspace workspace, int source, int destination) {
+		int[] upOffsets = index.getUpOffsets();
+		int[] upTargets = index.getUpTargets();
+		int[] upWeights = index.getUpWeights();
+		int[] downOffsets = index.getDownOffsets();
+		int[] downSources = index.getDownSources();
+		int[] downWeights = index.getDownWeights();
+
+		workspace.setForward(source, 0, SearchSpace.NO_VERTEX, SearchSpace.NO_VERTEX);
+		workspace.forwardQueue.insertOrDecrease(source, 0);
+		workspace.setBackward(destination, 0, SearchSpace.NO_VERTEX, SearchSpace.NO_VERTEX);
+		workspace.backwardQueue.insertOrDecrease(destination, 0);
+
+		long best = SearchSpace.INFINITY;
+		int meeting = SearchSpace.NO_VERTEX;
+		boolean isForward = true;
+		while (true) {
+			boolean forwardDone = workspace.forwardQueue.isEmpty() || workspace.forwardQueue.peekKey() >= best;
+			boolean backwardDone = workspace.backwardQueue.isEmpty() || workspace.backwardQueue.peekKey() >= best;
+			if (forwardDone && backwardDone) {
+				break;
+			}
+			if (forwardDone) {
+				isForward = false;
+			} else if (backwardDone) {
+				isForward = true;
+			} else {
+				isForward = !isForward;
+			}
+
+			if (isForward) {
+				int vertex = workspace.forwardQueue.poll();
+				long distance = workspace.forwardDistances[vertex];
+				if (workspace.backwardDistances[vertex] != SearchSpace.INFINITY
+						&& distance + workspace.backwardDistances[vertex] < best) {
+					best = distance + workspace.backwardDistances[vertex];
+					meeting = vertex;
+				}
+				for (int edge = upOffsets[vertex]; edge < upOffsets[vertex + 1]; edge++) {
+					int next = upTargets[edge];
+					long nextDistance = distance + upWeights[edge];
+					if (nextDistance < workspace.forwardDistances[next]) {
+						workspace.setForward(next, nextDistance, vertex, edge);
+						workspace.forwardQueue.insertOrDecrease(next, nextDistance);
+					}
+				}
+			} else {
+				int vertex = workspace.backwardQueue.poll();
+				long distance = workspace.backwardDistances[vertex];
+				if (workspace.forwardDistances[vertex] != SearchSpace.INFINITY
+						&& distance + workspace.forwardDistances[vertex] < best) {
+					best = distance + workspace.forwardDistances[vertex];
+					meeting = vertex;
+				}
+				for (int edge = downOffsets[vertex]; edge < downOffsets[vertex + 1]; edge++) {
+					int next = downSources[edge];
+					long nextDistance = distance + downWeights[edge];
+					if (nextDistance < workspace.backwardDistances[next]) {
+						workspace.setBackward(next, nextDistance, vertex, edge);
+						workspace.backwardQueue.insertOrDecrease(next, nextDistance);
+					}
+				}
+			}
+		}
+		workspace.meeting = meeting;
+		return best;
+	}
+
+	/**
+	 * Follows the two search trees from the meeting vertex back to the source and destination, and unpacks every
+	 * shortcut on the way into the vertices it bypasses.
+	 *
+	 * @return The ids of the vertices on the shortest path
+	 */
+	private List<Integer> unpackPath(ContractionHierarchy index, Workspace workspace, int source) {
+		// Collect the hierarchy edges from the source up to the meeting vertex, then down to the destination
+		List<int[]> edges = new ArrayList<int[]>();
+		for (int vertex = workspace.meeting; workspace.forwardPrevious[vertex] != SearchSpace.NO_VERTEX;) {
+			int previous = workspace.forwardPrevious[vertex];
+			edges.add(new int[] { previous, vertex, index.getUpMiddles()[workspace.forwardEdges[vertex]] });
+			vertex = previous;
+		}
+		Collections.reverse(edges);
+		for (int vertex = workspace.meeting; workspace.backwardPrevious[vertex] != SearchSpace.NO_VERTEX;) {
+			int next = workspace.backwardPrevious[vertex];
+			edges.add(new int[] { vertex, next, index.getDownMiddles()[workspace.backwardEdges[vertex]] });
+			vertex = next;
+		}
+
+		List<Integer> path = new ArrayList<Integer>();
+		path.add(source);
+		int[] stack = new int[48];
+		for (int[] edge : edges) {
+			int stackSize = 0;
+			stack[stackSize++] = edge[0];
+			stack[stackSize++] = edge[1];
+			stack[stackSize++] = edge[2];
+			while (stackSize > 0) {
+				int middle = stack[--stackSize];
+				int to = stack[--stackSize];
+				int from = stack[--stackSize];
+				if (middle == ContractionHierarchy.NO_MIDDLE) {
+					path.add(to);
+					continue;
+				}
+
+				// The edge into the middle vertex is a downward edge of the middle vertex, and the edge out of it is an
+				// upward edge. Push the second half first so that the first half is unpacked first.
+				if (stackSize + 6 > stack.length) {
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				stack[stackSize++] = middle;
+				stack[stackSize++] = to;
+				stack[stackSize++] = index.getUpMiddle(middle, to);
+				stack[stackSize++] = from;
+				stack[stackSize++] = middle;
+				stack[stackSize++] = index.getDownMiddle(from, middle);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * The arrays used by a query, kept per thread and reset after every query by only clearing what was touched.
+	 */
+	private static class Workspace {
+		private final long[] forwardDistances;
+		private final int[] forwardPrevious;
+		private final int[] forwardEdges;
+		private final long[] backwardDistances;
+		private final int[] backwardPrevious;
+		private final int[] backwardEdges;
+		private final IndexedMinHeap forwardQueue;
+		private final IndexedMinHeap backwardQueue;
+		private int[] touched = new int[64];
+		private int touchedCount;
+		private int meeting;
+
+		Workspace(int vertexCount) {
+			forwardDistances = new long[vertexCount];
+			forwardPrevious = new int[vertexCount];
+			forwardEdges = new int[vertexCount];
+			backwardDistances = new long[vertexCount];
+			backwardPrevious = new int[vertexCount];
+			backwardEdges = new int[vertexCount];
+			Arrays.fill(forwardDistances, SearchSpace.INFINITY);
+			Arrays.fill(backwardDistances, SearchSpace.INFINITY);
+			forwardQueue = new IndexedMinHeap(vertexCount);
+			backwardQueue = new IndexedMinHeap(vertexCount);
+		}
+
+		void setForward(int vertex, long distance, int previous, int edge) {
+			touch(vertex);
+			forwardDistances[vertex] = distance;
+			forwardPrevious[vertex] = previous;
+			forwardEdges[vertex] = edge;
+		}
+
+		void setBackward(int vertex, long distance, int previous, int edge) {
+			touch(vertex);
+			backwardDistances[vertex] = distance;
+			backwardPrevious[vertex] = previous;
+			backwardEdges[vertex] = edge;
+		}
+
+		void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				forwardDistances[touched[i]] = SearchSpace.INFINITY;
+				backwardDistances[touched[i]] = SearchSpace.INFINITY;
+			}
+			touchedCount = 0;
+			forwardQueue.clear();
+			backwardQueue.clear();
+		}
+
+		private void touch(int vertex) {
+			if (forwardDistances[vertex] == SearchSpace.INFINITY && backwardDistances[vertex] == SearchSpace.INFINITY) {
+				if (touchedCount == touched.length) {
+					touched = Arrays.copyOf(touched, touchedCount * 2);
+				}
+				touched[touchedCount++] = vertex;
+			}
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The delta-stepping algorithm, which computes the shortest distance from one source to every vertex of a compiled
+ * graph using all threads of a {@link ForkJoinPool}. Vertices are grouped in buckets of distances [i * delta, (i + 1) *
+ * delta). The first non-empty bucket is emptied by relaxing the light edges (weight at most delta) of all of its
+ * vertices in parallel, which may put vertices back into the same bucket, until it stays empty. The heavy edges of
+ * every vertex removed from the bucket are then relaxed in parallel, once, since they can only reach later buckets.
+ *
+ * Distances are lowered with compare-and-set, so the result is exactly the one of Dijkstra's Algorithm. A small delta
+ * does little extra work but has little parallelism per bucket, and a large delta the other way around; the default
+ * is the average edge weight. Edge weights must not be negative.
+ */
+public class DeltaSteppingShortestPath {
+
+	private static final int MINIMUM_GRAIN = 256;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final CompiledGraph graph;
+	private final long delta;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Class constructor that uses the average edge weight as the bucket width, and runs on the common fork join pool.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 */
+	public DeltaSteppingShortestPath(CompiledGraph graph) throws GraphException {
+		this(graph, getAverageWeight(graph), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param delta
+	 *            The width of a bucket, at least 1
+	 * @param pool
+	 *            The pool to relax edges on
+	 */
+	public DeltaSteppingShortestPath(CompiledGraph graph, long delta, ForkJoinPool pool) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		for (int weight : graph.getOutWeights()) {
+			if (weight < 0) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_WEIGHT);
+			}
+		}
+
+		this.graph = graph;
+		this.delta = Math.max(1, delta);
+		this.pool = pool;
+	}
+
+	private static long getAverageWeight(CompiledGraph graph) {
+		if (graph == null || graph.getEdgeCount() == 0) {
+			return 1;
+		}
+
+		long total = 0;
+		for (int weight : graph.getOutWeights()) {
+			total += weight;
+		}
+		return total / graph.getEdgeCount();
+	}
+
+	/**
+	 *
+	 * @return The width of a bucket
+	 */
+	public long getDelta() {
+		return delta;
+	}
+
+	/**
+	 * Computes the shortest distance from the source to every vertex.
+	 *
+	 * @param source
+	 *            The vertex to start at
+	 * @return The distance of every vertex, indexed by its id in the compiled graph, with ShortestPathTree.UNREACHABLE
+	 *         for vertices that cannot be reached
+	 */
+	public long[] computeAllDistances(Vertex source) throws GraphException {
+		if (source == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		int sourceId = graph.getId(source);
+		if (sourceId == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return computeAllDistances(sourceId);
+	}
+
+	/**
+	 * Computes the shortest distance from the source to every vertex.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at
+	 * @return The distance of every vertex, indexed by its id in the compiled graph, with ShortestPathTree.UNREACHABLE
+	 *         for vertices that cannot be reached
+	 */
+	public long[] computeAllDistances(int source) {
+		return new Run(source).execute();
+	}
+
+	/**
+	 * The state of one computation.
+	 */
+	private class Run {
+		private final int[] offsets = graph.getOutOffsets();
+		private final int[] targets = graph.getOutTargets();
+		private final int[] weights = graph.getOutWeights();
+		private final AtomicLongArray distances;
+
+		// Only the buckets that vertices were put into, by index, since a heavy edge can reach a bucket far past the
+		// current one and most buckets in between stay empty
+		private final TreeMap<Long, VertexList> buckets = new TreeMap<Long, VertexList>();
+
+		// Stamps that keep a vertex from being processed twice in one phase, or removed twice from one bucket
+		private final long[] frontierStamps;
+		private final long[] removedStamps;
+		private long phase;
+
+		Run(int source) {
+			int vertexCount = graph.getVertexCount();
+			distances = new AtomicLongArray(vertexCount);
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				distances.set(vertex, ShortestPathTree.UNREACHABLE);
+			}
+			distances.set(source, 0);
+
+			getBucket(0).add(source);
+
+			frontierStamps = new long[vertexCount];
+			removedStamps = new long[vertexCount];
+			Arrays.fill(frontierStamps, -1);
+			Arrays.fill(removedStamps, -1);
+		}
+
+		long[] execute() {
+			VertexList removed = new VertexList();
+			while (!buckets.isEmpty()) {
+				// Go straight to the first bucket that has vertices in it
+				long current = buckets.firstKey();
+
+				// Relax light edges until the bucket stays empty, remembering every vertex that was in it
+				removed.clear();
+				VertexList bucket;
+				while ((bucket = buckets.remove(current)) != null) {
+					int[] frontier = takeFrontier(bucket, current, removed);
+					relax(frontier, frontier.length, true);
+				}
+
+				// Heavy edges only reach later buckets, so relax them once from the final distances
+				relax(removed.vertices, removed.size, false);
+			}
+
+			long[] result = new long[distances.length()];
+			for (int vertex = 0; vertex < result.length; vertex++) {
+				result[vertex] = distances.get(vertex);
+			}
+			return result;
+		}
+
+		private VertexList getBucket(long index) {
+			VertexList bucket = buckets.get(index);
+			if (bucket == null) {
+				bucket = new VertexList();
+				buckets.put(index, bucket);
+			}
+			return bucket;
+		}
+
+		/**
+		 * Takes the vertices of a bucket that was removed, dropping vertices that have since moved to an earlier bucket
+		 * and vertices that appear more than once.
+		 */
+		private int[] takeFrontier(VertexList bucket, long index, VertexList removed) {
+			phase++;
+			int[] frontier = new int[bucket.size];
+			int frontierSize = 0;
+			for (int i = 0; i < bucket.size; i++) {
+				int vertex = bucket.vertices[i];
+				if (distances.get(vertex) / delta == index && frontierStamps[vertex] != phase) {
+					frontierStamps[vertex] = phase;
+					frontier[frontierSize++] = vertex;
+					if (removedStamps[vertex] != index) {
+						removedStamps[vertex] = index;
+						removed.add(vertex);
+					}
+				}
+			}
+			return Arrays.copyOf(frontier, frontierSize);
+		}
+
+		/**
+		 * Relaxes the light or heavy edges of the vertices in parallel, and puts every vertex whose distance was
+		 * lowered into its new bucket.
+		 */
+		private void relax(int[] vertices, int count, boolean light) {
+			ConcurrentLinkedQueue<VertexList> updates = new ConcurrentLinkedQueue<VertexList>();
+			ParallelRange.forEachChunk(pool, 0, count, ParallelRange.getGrain(pool, count, MINIMUM_GRAIN),
+					(start, end) -> {
+						VertexList updated = new VertexList();
+						for (int i = start; i < end; i++) {
+							int vertex = vertices[i];
+							long distance = distances.get(vertex);
+							for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+								if ((weights[edge] <= delta) == light
+										&& lowerDistance(targets[edge], distance + weights[edge])) {
+									updated.add(targets[edge]);
+								}
+							}
+						}
+						updates.add(updated);
+					});
+
+			for (VertexList updated : updates) {
+				for (int i = 0; i < updated.size; i++) {
+					int vertex = updated.vertices[i];
+					getBucket(distances.get(vertex) / delta).add(vertex);
+				}
+			}
+		}
+
+		private boolean lowerDistance(int vertex, long distance) {
+			while (true) {
+				long currentDistance = distances.get(vertex);
+				if (distance >= currentDistance) {
+					return false;
+				}
+				if (distances.compareAndSet(vertex, currentDistance, distance)) {
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A growable list of vertex ids.
+	 */
+	private static class VertexList {
+		private int[] vertices = new int[16];
+		private int size;
+
+		void add(int vertex) {
+			if (size == vertices.length) {
+				vertices = Arrays.copyOf(vertices, size * 2);
+			}
+			vertices[size++] = vertex;
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.jessica.graph.model.CompiledGraph;
+
+/**
+ * An iterative depth first search over a {@link CompiledGraph}. Instead of recursing, the search keeps an explicit
+ * stack of vertex ids, together with the position of the next outgoing edge to follow for each of them, so the depth
+ * of the search is only limited by the heap and not by the thread stack. Visited vertices are marked in a
+ * {@link BitSet}, which takes one bit per vertex.
+ *
+ * Vertices are reported in pre-order, and outgoing edges are followed in the order of the compiled graph, which is the
+ * order in which the recursive search visits them.
+ */
+final class DepthFirstSearch {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private DepthFirstSearch() {
+	}
+
+	/**
+	 * Performs a depth first search of a compiled graph, given the id of a starting vertex.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param start
+	 *            The id of the starting vertex for the search
+	 * @return The ids of the vertices that were visited, in the order they were visited in
+	 */
+	static int[] search(CompiledGraph graph, int start) {
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		BitSet visited = new BitSet(graph.getVertexCount());
+
+		int[] order = new int[INITIAL_CAPACITY];
+		int orderSize = 0;
+
+		// The stack holds the vertices on the current path, and for each the next outgoing edge to follow
+		int[] stackVertices = new int[INITIAL_CAPACITY];
+		int[] stackEdges = new int[INITIAL_CAPACITY];
+		int stackSize = 0;
+
+		visited.set(start);
+		order[orderSize++] = start;
+		stackVertices[stackSize] = start;
+		stackEdges[stackSize++] = offsets[start];
+
+		while (stackSize > 0) {
+			int top = stackSize - 1;
+			int vertex = stackVertices[top];
+			int edge = stackEdges[top];
+
+			// Skip the edges to vertices that have already been visited
+			while (edge < offsets[vertex + 1] && visited.get(targets[edge])) {
+				edge++;
+			}
+
+			if (edge == offsets[vertex + 1]) {
+				stackSize--;
+				continue;
+			}
+
+			// Resume after this edge once the search returns to the vertex
+			stackEdges[top] = edge + 1;
+
+			int next = targets[edge];
+			visited.set(next);
+			if (orderSize == order.length) {
+				order = Arrays.copyOf(order, orderSize * 2);
+			}
+			order[orderSize++] = next;
+
+			if (stackSize == stackVertices.length) {
+				stackVertices = Arrays.copyOf(stackVertices, stackSize * 2);
+				stackEdges = Arrays.copyOf(stackEdges, stackSize * 2);
+			}
+			stackVertices[stackSize] = next;
+			stackEdges[stackSize++] = offsets[next];
+		}
+
+		return Arrays.copyOf(order, orderSize);
+	}
+}
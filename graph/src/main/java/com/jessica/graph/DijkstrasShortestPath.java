@@ -1,6 +1,7 @@
 package com.jessica.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import com.jessica.graph.exception.GraphException;
 import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
 import com.jessica.graph.model.Edge;
 import com.jessica.graph.model.Graph;
 import com.jessica.graph.model.Vertex;
@@ -65,6 +67,144 @@ public class DijkstrasShortestPath implements ShortestPathHelper {
 		return getDistance(distanceAndPath, destination);
 	}
 
+	/**
+	 * Gets the shortest path between two vertices, running directly on the arrays of a compiled graph.
+	 * 
+	 * @param graph
+	 *            The compiled graph to run the algorithm on
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return A list of vertices, such that position 0 will contain the source vertex, and the last vertex in the list
+	 *         will be the destination vertex
+	 */
+	public List<Vertex> getShortestPath(CompiledGraph graph, Vertex source, Vertex destination) throws GraphException {
+		// Validate the destination vertex (the graph and source are validated in getVertexId)
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		int sourceId = getVertexId(graph, source);
+		int destinationId = getVertexId(graph, destination);
+
+		List<Vertex> pathOfVertices = findMinimumDistance(graph, sourceId, destinationId).getPath(destinationId);
+		if (pathOfVertices == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+		return pathOfVertices;
+	}
+
+	/**
+	 * Gets the shortest distance between two vertices, running directly on the arrays of a compiled graph.
+	 * 
+	 * @param graph
+	 *            The compiled graph to run the algorithm on
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return The distance from source to destination, or Integer.MAX_VALUE if the destination cannot be reached
+	 */
+	public Integer getShortestDistance(CompiledGraph graph, Vertex source, Vertex destination) throws GraphException {
+		// Validate the destination vertex (the graph and source are validated in getVertexId)
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		int sourceId = getVertexId(graph, source);
+		int destinationId = getVertexId(graph, destination);
+
+		return findMinimumDistance(graph, sourceId, destinationId).getDistance(destination);
+	}
+
+	/**
+	 * Gets the shortest distance and path from the source to every vertex of a compiled graph.
+	 * 
+	 * @param graph
+	 *            The compiled graph to run the algorithm on
+	 * @param source
+	 *            The vertex to start at
+	 * @return The shortest path tree rooted at the source
+	 */
+	public ShortestPathTree getShortestPathTree(CompiledGraph graph, Vertex source) throws GraphException {
+		return findMinimumDistance(graph, getVertexId(graph, source), CompiledGraph.NO_VERTEX);
+	}
+
+	/**
+	 * This is the implementation of Dijkstra's Algorithm over a compiled graph, using an indexed heap to select the
+	 * next vertex. The search stops once the destination has been settled, so only the distance and path to the
+	 * destination (and to the vertices settled before it) are final. Pass CompiledGraph.NO_VERTEX as the destination
+	 * to settle every reachable vertex.
+	 * 
+	 * @param graph
+	 *            The compiled graph on which to execute this algorithm
+	 * @param source
+	 *            The id of the vertex that is the source / starting point of the search
+	 * @param destination
+	 *            The id of the vertex at which the search can stop, or CompiledGraph.NO_VERTEX
+	 * @return The shortest path tree rooted at the source
+	 */
+	static ShortestPathTree findMinimumDistance(CompiledGraph graph, int source, int destination) {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		long[] distances = new long[vertexCount];
+		int[] previous = new int[vertexCount];
+		Arrays.fill(distances, ShortestPathTree.UNREACHABLE);
+		Arrays.fill(previous, CompiledGraph.NO_VERTEX);
+
+		IndexedMinHeap verticesToBeProcessed = new IndexedMinHeap(vertexCount);
+		distances[source] = 0;
+		verticesToBeProcessed.insertOrDecrease(source, 0);
+
+		while (!verticesToBeProcessed.isEmpty()) {
+			int nextVertex = verticesToBeProcessed.poll();
+			if (nextVertex == destination) {
+				break;
+			}
+
+			long nextDistance = distances[nextVertex];
+			for (int edge = offsets[nextVertex]; edge < offsets[nextVertex + 1]; edge++) {
+				int edgeToVertex = targets[edge];
+				long currentDistance = nextDistance + weights[edge];
+				if (currentDistance < distances[edgeToVertex]) {
+					distances[edgeToVertex] = currentDistance;
+					previous[edgeToVertex] = nextVertex;
+					verticesToBeProcessed.insertOrDecrease(edgeToVertex, currentDistance);
+				}
+			}
+		}
+		return new ShortestPathTree(graph, source, distances, previous);
+	}
+
+	/**
+	 * Validates the compiled graph and vertex, and looks up the id of the vertex.
+	 * 
+	 * @param graph
+	 *            The compiled graph
+	 * @param vertex
+	 *            The vertex to look up
+	 * @return The id of the vertex in the compiled graph
+	 */
+	private int getVertexId(CompiledGraph graph, Vertex vertex) throws GraphException {
+		if (graph == null || vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH_SRC);
+		}
+
+		if (graph.getVertexCount() == 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EMPTY_GRAPH);
+		}
+
+		int id = graph.getId(vertex);
+		if (id == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return id;
+	}
+
 	/**
 	 * This is the implementation of Dijkstra's Algorithm. It takes in the directed graph and the source vertex, and
 	 * returns a map that contains each vertex (other than the source) and the minimum distance from the source vertex
@@ -0,0 +1,18 @@
+package com.jessica.graph;
+
+import com.jessica.graph.model.Vertex;
+
+public interface DistanceHeuristic {
+
+	/**
+	 * Estimates the distance from a vertex to the target of a search. The estimate must never be larger than the
+	 * actual shortest distance, or A* may return a path that is not the shortest.
+	 * 
+	 * @param vertex
+	 *            The vertex to estimate the distance from
+	 * @param target
+	 *            The destination of the search
+	 * @return A lower bound on the shortest distance from vertex to target
+	 */
+	public long getLowerBound(Vertex vertex, Vertex target);
+}
@@ -0,0 +1,154 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.model.CompiledGraph;
+
+/**
+ * Computes many-to-many distance matrices over a {@link CompiledGraph}. Every source gets one Dijkstra search, and the
+ * searches of different sources run in parallel on a {@link ForkJoinPool}. A search stops as soon as all targets are
+ * settled, so sources close to their targets only explore a small part of the graph.
+ *
+ * The searches running at the same time each borrow a distance array and heap for the call, and clear only what a
+ * search touched before giving them back, so a 1000 x 1000 matrix does not allocate a new vertex sized array per
+ * source, and none of them stay attached to the pool threads once the matrix is done.
+ */
+public class DistanceMatrixCalculator {
+
+	private static final long INFINITY = Long.MAX_VALUE;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Class constructor that runs the searches on the common fork join pool.
+	 */
+	public DistanceMatrixCalculator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run the searches on
+	 */
+	public DistanceMatrixCalculator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Computes the shortest distance from every source to every target.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param sources
+	 *            The ids of the source vertices, one row each
+	 * @param targets
+	 *            The ids of the target vertices, one column each
+	 * @return The matrix of distances, indexed by [source][target]. A target that cannot be reached from a source has
+	 *         a distance of Integer.MAX_VALUE.
+	 */
+	public int[][] getDistanceMatrix(CompiledGraph graph, int[] sources, int[] targets) {
+		// With no targets every row is empty, and there is nothing to search for
+		if (targets.length == 0) {
+			return new int[sources.length][0];
+		}
+
+		int vertexCount = graph.getVertexCount();
+		int[][] matrix = new int[sources.length][];
+
+		// Mark the distinct targets once, since every search stops when it has settled all of them
+		boolean[] isTarget = new boolean[vertexCount];
+		int distinctTargets = 0;
+		for (int target : targets) {
+			if (!isTarget[target]) {
+				isTarget[target] = true;
+				distinctTargets++;
+			}
+		}
+
+		final int targetCount = distinctTargets;
+		WorkspacePool<Workspace> workspaces = new WorkspacePool<Workspace>(() -> new Workspace(vertexCount));
+		ParallelRange.forEachChunk(pool, 0, sources.length, 1, (start, end) -> {
+			Workspace workspace = workspaces.acquire();
+			for (int i = start; i < end; i++) {
+				matrix[i] = workspace.search(graph, sources[i], targets, isTarget, targetCount);
+			}
+			workspaces.release(workspace);
+		});
+		return matrix;
+	}
+
+	/**
+	 * The arrays used by one search at a time.
+	 */
+	private static class Workspace {
+		private final long[] distances;
+		private final IndexedMinHeap queue;
+		private int[] touched = new int[64];
+		private int touchedCount;
+
+		Workspace(int vertexCount) {
+			distances = new long[vertexCount];
+			Arrays.fill(distances, INFINITY);
+			queue = new IndexedMinHeap(vertexCount);
+		}
+
+		/**
+		 * Runs Dijkstra's Algorithm from the source until every target is settled or the queue runs out.
+		 *
+		 * @return The row of the matrix for the source
+		 */
+		int[] search(CompiledGraph graph, int source, int[] targets, boolean[] isTarget, int targetCount) {
+			int[] offsets = graph.getOutOffsets();
+			int[] neighbors = graph.getOutTargets();
+			int[] weights = graph.getOutWeights();
+
+			setDistance(source, 0);
+			queue.insertOrDecrease(source, 0);
+			int targetsLeft = targetCount;
+			while (!queue.isEmpty()) {
+				int vertex = queue.poll();
+				if (isTarget[vertex] && --targetsLeft == 0) {
+					break;
+				}
+
+				long distance = distances[vertex];
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int next = neighbors[edge];
+					long nextDistance = distance + weights[edge];
+					if (nextDistance < distances[next]) {
+						setDistance(next, nextDistance);
+						queue.insertOrDecrease(next, nextDistance);
+					}
+				}
+			}
+
+			int[] row = new int[targets.length];
+			for (int j = 0; j < targets.length; j++) {
+				row[j] = (int) Math.min(distances[targets[j]], Integer.MAX_VALUE);
+			}
+			reset();
+			return row;
+		}
+
+		private void setDistance(int vertex, long distance) {
+			if (distances[vertex] == INFINITY) {
+				if (touchedCount == touched.length) {
+					touched = Arrays.copyOf(touched, touchedCount * 2);
+				}
+				touched[touchedCount++] = vertex;
+			}
+			distances[vertex] = distance;
+		}
+
+		private void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				distances[touched[i]] = INFINITY;
+			}
+			touchedCount = 0;
+			queue.clear();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.jessica.graph;
+
+import com.jessica.graph.model.Coordinates;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Estimates distances with the straight line distance between the {@link Coordinates} of two vertices. The estimate
+ * is a lower bound as long as no edge weight is less than the straight line distance it covers multiplied by the
+ * weight per unit. Vertices without coordinates are estimated at 0.
+ */
+public class EuclideanHeuristic implements DistanceHeuristic {
+
+	private final double weightPerUnit;
+
+	/**
+	 * Class constructor for graphs whose edge weights are at least the straight line distance between their vertices.
+	 */
+	public EuclideanHeuristic() {
+		this(1.0);
+	}
+
+	/**
+	 * Class constructor.
+	 * 
+	 * @param weightPerUnit
+	 *            The smallest edge weight per unit of straight line distance
+	 */
+	public EuclideanHeuristic(double weightPerUnit) {
+		this.weightPerUnit = weightPerUnit;
+	}
+
+	@Override
+	public long getLowerBound(Vertex vertex, Vertex target) {
+		Coordinates from = vertex.getCoordinates();
+		Coordinates to = target.getCoordinates();
+		if (from == null || to == null) {
+			return 0;
+		}
+
+		double deltaX = from.getX() - to.getX();
+		double deltaY = from.getY() - to.getY();
+		return (long) Math.floor(Math.sqrt(deltaX * deltaX + deltaY * deltaY) * weightPerUnit);
+	}
+}
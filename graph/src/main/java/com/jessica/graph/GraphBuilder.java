@@ -0,0 +1,425 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.LabelDictionary;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Loads many edges into a graph at once. Adding edges one at a time checks every edge against the graph, hashes its
+ * label into the maps and grows the edge lists step by step; the builder instead only gives every vertex label a
+ * dense id in its own {@link LabelDictionary} as the edges arrive, and keeps the edges in primitive arrays sized from
+ * the expected counts.
+ *
+ * Nothing is checked against duplicates until the edges are added to a graph or compiled. The edges are then grouped
+ * by their from vertex with a counting sort, and every group is sorted by to vertex and weight in parallel on a
+ * {@link ForkJoinPool}, so that equal edges end up next to each other and are found in one pass. Either every edge
+ * is added, or none is. Only then are the maps and edge lists filled in, each sized for its final number of elements,
+ * and the edge lists of different vertices are filled in parallel.
+ *
+ * The groups can also be packed into a {@link CompiledGraph} directly, without building a graph, for loads that are
+ * only traversed; edges added by their vertices and weight then never become Edge objects at all.
+ */
+public class GraphBuilder {
+
+	private static final int MINIMUM_GRAIN = 256;
+
+	// Groups of at least this many edges are sorted with a parallel sort of their own
+	private static final int PARALLEL_SORT_SIZE = 1 << 16;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+
+	// The id of every vertex label in the load, which is the index of its vertex
+	private final LabelDictionary labels;
+	private Vertex[] vertices;
+	private int vertexCount;
+	private final BitSet addedVertices = new BitSet();
+
+	// The ends and weight of every edge, and the edge itself, if it was added as one
+	private int[] sources;
+	private int[] targets;
+	private int[] weights;
+	private Edge[] edges;
+	private int edgeCount;
+
+	/**
+	 * Class constructor that runs on the common fork join pool, for a load of unknown size.
+	 */
+	public GraphBuilder() {
+		this(ForkJoinPool.commonPool(), 0, 0);
+	}
+
+	/**
+	 * Class constructor that runs on the common fork join pool.
+	 *
+	 * @param expectedVertexCount
+	 *            The number of vertices the load is expected to have
+	 * @param expectedEdgeCount
+	 *            The number of edges the load is expected to have
+	 */
+	public GraphBuilder(int expectedVertexCount, int expectedEdgeCount) {
+		this(ForkJoinPool.commonPool(), expectedVertexCount, expectedEdgeCount);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 * @param expectedVertexCount
+	 *            The number of vertices the load is expected to have, so that nothing has to grow while it is loaded
+	 * @param expectedEdgeCount
+	 *            The number of edges the load is expected to have
+	 */
+	public GraphBuilder(ForkJoinPool pool, int expectedVertexCount, int expectedEdgeCount) {
+		this.pool = pool;
+		int vertexCapacity = Math.max(16, expectedVertexCount);
+		int edgeCapacity = Math.max(16, expectedEdgeCount);
+		labels = new LabelDictionary(vertexCapacity);
+		vertices = new Vertex[vertexCapacity];
+		sources = new int[edgeCapacity];
+		targets = new int[edgeCapacity];
+		weights = new int[edgeCapacity];
+	}
+
+	/**
+	 *
+	 * @return The number of vertices added so far, including the ends of the edges
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 *
+	 * @return The number of edges added so far
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Adds a vertex, which is only needed for vertices without edges.
+	 *
+	 * @param vertex
+	 *            The vertex to add
+	 * @return This builder
+	 * @throws GraphException
+	 *             PREEXISTING_VERTEX if a vertex with the same label was already added, by itself or as the end of an
+	 *             edge
+	 */
+	public GraphBuilder addVertex(Vertex vertex) throws GraphException {
+		// Validate the vertex
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		if (labels.getVertexId(vertex) != LabelDictionary.NO_LABEL) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_VERTEX);
+		}
+
+		addedVertices.set(getId(vertex));
+		return this;
+	}
+
+	/**
+	 * Adds an edge. It is only checked against duplicates when the graph is built.
+	 *
+	 * @param edge
+	 *            The edge to add
+	 * @return This builder
+	 */
+	public GraphBuilder addEdge(Edge edge) throws GraphException {
+		// Validate the edge
+		if (edge == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
+		}
+
+		if (edge.getFromVertex() == null || edge.getToVertex() == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EDGE_MISSING_VERTEX);
+		}
+
+		if (edges == null) {
+			edges = new Edge[sources.length];
+		}
+		edges[edgeCount] = edge;
+		addEdge(getId(edge.getFromVertex()), getId(edge.getToVertex()), edge.getWeight());
+		return this;
+	}
+
+	/**
+	 * Adds an edge by its vertices and weight. The Edge object is only created if the edges are added to a graph,
+	 * between the first vertices added with the labels of these ones, and with the default label.
+	 *
+	 * @param fromVertex
+	 *            The vertex the edge starts at
+	 * @param toVertex
+	 *            The vertex the edge ends at
+	 * @param weight
+	 *            The weight of the edge
+	 * @return This builder
+	 */
+	public GraphBuilder addEdge(Vertex fromVertex, Vertex toVertex, int weight) throws GraphException {
+		// Validate the vertices
+		if (fromVertex == null || toVertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EDGE_MISSING_VERTEX);
+		}
+
+		addEdge(getId(fromVertex), getId(toVertex), weight);
+		return this;
+	}
+
+	/**
+	 * Adds every edge of a stream, in the order of the stream.
+	 *
+	 * @param edges
+	 *            The edges to add
+	 * @return This builder
+	 */
+	public GraphBuilder addEdges(Stream<Edge> edges) throws GraphException {
+		if (edges == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
+		}
+
+		for (Iterator<Edge> iterator = edges.iterator(); iterator.hasNext();) {
+			addEdge(iterator.next());
+		}
+		return this;
+	}
+
+	/**
+	 * Builds a new graph, with its maps sized for the vertices and edges that were added.
+	 *
+	 * @return The graph
+	 * @throws GraphException
+	 *             PREEXISTING_EDGE if two of the edges are equal
+	 */
+	public Graph build() throws GraphException {
+		Graph graph = new Graph(vertexCount, edgeCount);
+		addTo(graph);
+		return graph;
+	}
+
+	/**
+	 * Adds the vertices and edges to a graph, the same way adding them one at a time with GraphManagement would: the
+	 * edges join the edge lists of their own vertices, and vertices are only added to the graph if it has none with
+	 * their label yet. Nothing is added if any edge is equal to another one or to an edge of the graph, or if a vertex
+	 * added by itself is already part of the graph.
+	 *
+	 * @param graph
+	 *            The graph to add to
+	 * @throws GraphException
+	 *             PREEXISTING_EDGE or PREEXISTING_VERTEX if something is already part of the graph or the load, or
+	 *             READ_ONLY_GRAPH if the graph cannot be added to
+	 */
+	public void addTo(Graph graph) throws GraphException {
+		// Validate the graph
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		// Validate that the graph can be modified
+		if (graph.isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
+		}
+
+		createEdges();
+		int[] outOffsets = getOffsets(sources);
+		int[] outOrder = getOrder(sources, outOffsets);
+		validateEdges(outOffsets, outOrder);
+
+		// Validate the load against what the graph already has
+		for (int vertex = addedVertices.nextSetBit(0); vertex >= 0; vertex = addedVertices.nextSetBit(vertex + 1)) {
+			if (graph.getVertices().containsKey(vertices[vertex].getLabel())) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_VERTEX);
+			}
+		}
+		if (!graph.getEdges().isEmpty()) {
+			for (int edge = 0; edge < edgeCount; edge++) {
+				if (graph.containsEdge(edges[edge])) {
+					throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_EDGE);
+				}
+			}
+		}
+
+		int[] inOffsets = getOffsets(targets);
+		int[] inOrder = getOrder(targets, inOffsets);
+		int grain = ParallelRange.getGrain(pool, vertexCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, vertexCount, grain, (start, end) -> {
+			for (int vertex = start; vertex < end; vertex++) {
+				Vertex current = vertices[vertex];
+				graph.getVertices().putIfAbsent(current.getLabel(), current);
+				current.ensureEdgeCapacity(current.getOutgoingEdges().size() + outOffsets[vertex + 1]
+						- outOffsets[vertex], current.getIncomingEdges().size() + inOffsets[vertex + 1]
+								- inOffsets[vertex]);
+
+				// Every edge joins the lists of its own vertices, which have the label of this id
+				for (int position = outOffsets[vertex]; position < outOffsets[vertex + 1]; position++) {
+					Edge edge = edges[outOrder[position]];
+					edge.getFromVertex().getOutgoingEdges().add(edge);
+					edge.setGraph(graph);
+				}
+				for (int position = inOffsets[vertex]; position < inOffsets[vertex + 1]; position++) {
+					Edge edge = edges[inOrder[position]];
+					edge.getToVertex().getIncomingEdges().add(edge);
+				}
+			}
+		});
+		graph.putEdges(Arrays.asList(edges).subList(0, edgeCount));
+		graph.incrementVersion();
+	}
+
+	/**
+	 * Packs the vertices and edges into a compiled graph, without building a graph or filling in the edge lists of
+	 * the vertices. The outgoing edges of every vertex keep the order they were added in.
+	 *
+	 * @return The compiled graph
+	 * @throws GraphException
+	 *             PREEXISTING_EDGE if two of the edges are equal
+	 */
+	public CompiledGraph compile() throws GraphException {
+		int[] outOffsets = getOffsets(sources);
+		int[] outOrder = getOrder(sources, outOffsets);
+		validateEdges(outOffsets, outOrder);
+
+		// Reuse the order for the targets once the weights are copied out of it
+		int[] outWeights = new int[edgeCount];
+		int grain = ParallelRange.getGrain(pool, edgeCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, edgeCount, grain, (start, end) -> {
+			for (int position = start; position < end; position++) {
+				outWeights[position] = weights[outOrder[position]];
+				outOrder[position] = targets[outOrder[position]];
+			}
+		});
+		return new CompiledGraph(Arrays.copyOf(vertices, vertexCount), outOffsets, outOrder, outWeights);
+	}
+
+	/**
+	 * Gets the id in the load of a vertex label, giving it the next id if it is new.
+	 */
+	private int getId(Vertex vertex) {
+		int id = labels.internVertex(vertex);
+		if (id < vertexCount) {
+			return id;
+		}
+
+		if (vertexCount == vertices.length) {
+			vertices = Arrays.copyOf(vertices, vertexCount + (vertexCount >> 1));
+		}
+		vertices[vertexCount] = vertex;
+		return vertexCount++;
+	}
+
+	private void addEdge(int source, int target, int weight) {
+		sources[edgeCount] = source;
+		targets[edgeCount] = target;
+		weights[edgeCount] = weight;
+		edgeCount++;
+
+		if (edgeCount == sources.length) {
+			int capacity = edgeCount + (edgeCount >> 1);
+			sources = Arrays.copyOf(sources, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			if (edges != null) {
+				edges = Arrays.copyOf(edges, capacity);
+			}
+		}
+	}
+
+	/**
+	 * Creates the Edge objects of the edges that were added by their vertices and weight.
+	 */
+	private void createEdges() {
+		if (edges == null) {
+			edges = new Edge[sources.length];
+		}
+		int grain = ParallelRange.getGrain(pool, edgeCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, edgeCount, grain, (start, end) -> {
+			for (int edge = start; edge < end; edge++) {
+				if (edges[edge] == null) {
+					edges[edge] = new Edge(vertices[sources[edge]], vertices[targets[edge]], weights[edge]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Counts the edges at every vertex and turns the counts into offsets.
+	 *
+	 * @param ends
+	 *            The id of the vertex at one end of every edge
+	 * @return The position of the first edge of every vertex, followed by the number of edges
+	 */
+	private int[] getOffsets(int[] ends) {
+		int[] offsets = new int[vertexCount + 1];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			offsets[ends[edge] + 1]++;
+		}
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			offsets[vertex + 1] += offsets[vertex];
+		}
+		return offsets;
+	}
+
+	/**
+	 * Groups the edges by the vertex at one of their ends with a counting sort, which keeps the edges of every vertex
+	 * in the order they were added.
+	 *
+	 * @return The index of the edge at every position of the groups
+	 */
+	private int[] getOrder(int[] ends, int[] offsets) {
+		int[] nextPosition = Arrays.copyOf(offsets, vertexCount);
+		int[] order = new int[edgeCount];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			order[nextPosition[ends[edge]]++] = edge;
+		}
+		return order;
+	}
+
+	/**
+	 * Sorts every group of edges with the same from vertex by to vertex and weight, and rejects the load if two
+	 * neighbors are equal.
+	 */
+	private void validateEdges(int[] offsets, int[] order) throws GraphException {
+		long[] keys = new long[edgeCount];
+		AtomicBoolean hasDuplicate = new AtomicBoolean();
+		int grain = ParallelRange.getGrain(pool, vertexCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, vertexCount, grain, (start, end) -> {
+			for (int vertex = start; vertex < end && !hasDuplicate.get(); vertex++) {
+				int first = offsets[vertex];
+				int last = offsets[vertex + 1];
+				for (int position = first; position < last; position++) {
+					int edge = order[position];
+					keys[position] = (long) targets[edge] << 32 | weights[edge] & 0xFFFFFFFFL;
+				}
+				if (last - first >= PARALLEL_SORT_SIZE) {
+					Arrays.parallelSort(keys, first, last);
+				} else {
+					Arrays.sort(keys, first, last);
+				}
+				for (int position = first + 1; position < last; position++) {
+					if (keys[position] == keys[position - 1]) {
+						hasDuplicate.set(true);
+						break;
+					}
+				}
+			}
+		});
+
+		if (hasDuplicate.get()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_EDGE);
+		}
+	}
+}
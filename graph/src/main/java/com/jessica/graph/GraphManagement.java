@@ -1,8 +1,12 @@
 package com.jessica.graph;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.model.CompiledGraph;
 import com.jessica.graph.model.Edge;
 import com.jessica.graph.model.Graph;
 import com.jessica.graph.model.Vertex;
@@ -38,6 +42,195 @@ public interface GraphManagement {
 	 */
 	public List<Vertex> depthFirstSeach(Vertex vertex) throws GraphException;
 
+	/**
+	 * Performs a depth first search of a compiled graph, given a starting vertex. The vertices are visited in the same
+	 * order as {@link #depthFirstSeach(Vertex)} visits them in the graph the compiled graph was created from.
+	 * 
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param vertex
+	 *            The starting vertex for the search
+	 * @return The vertices that were visited
+	 */
+	public List<Vertex> depthFirstSeach(CompiledGraph graph, Vertex vertex) throws GraphException;
+
+	/**
+	 * Performs a breadth first search of the graph, given a starting vertex. Vertices are visited by increasing number
+	 * of edges from the starting vertex, and vertices at the same number of edges in the order of the graph's vertices.
+	 * 
+	 * @param vertex
+	 *            The starting vertex for the search
+	 * @return The vertices that were visited
+	 */
+	public List<Vertex> breadthFirstSearch(Vertex vertex) throws GraphException;
+
+	/**
+	 * Gets the smallest number of edges on a path from the source vertex to the destination vertex, ignoring the edge
+	 * weights.
+	 * 
+	 * @param source
+	 *            The vertex to start the search from
+	 * @param destination
+	 *            The vertex to end the search at
+	 * @return The number of edges on the path, or Integer.MAX_VALUE if the destination cannot be reached
+	 */
+	public Integer getHopDistance(Vertex source, Vertex destination) throws GraphException;
+
+	/**
+	 * Lazily walks the graph depth first from a starting vertex, in the order of {@link #depthFirstSeach(Vertex)}.
+	 * Vertices are only visited as the stream is consumed, so stopping early only costs what was reached.
+	 * 
+	 * @param vertex
+	 *            The starting vertex for the traversal
+	 * @param maxDepth
+	 *            The largest number of edges between the starting vertex and a visited vertex, or
+	 *            GraphTraversal.UNLIMITED_DEPTH
+	 * @return The vertices that are visited
+	 */
+	public Stream<Vertex> depthFirstStream(Vertex vertex, int maxDepth) throws GraphException;
+
+	/**
+	 * Lazily walks the graph breadth first from a starting vertex, following the outgoing edges of every vertex in
+	 * order. Vertices are only visited as the stream is consumed, so stopping early only costs what was reached.
+	 * 
+	 * @param vertex
+	 *            The starting vertex for the traversal
+	 * @param maxDepth
+	 *            The largest number of edges between the starting vertex and a visited vertex, or
+	 *            GraphTraversal.UNLIMITED_DEPTH
+	 * @return The vertices that are visited
+	 */
+	public Stream<Vertex> breadthFirstStream(Vertex vertex, int maxDepth) throws GraphException;
+
+	/**
+	 * Streams the vertices adjacent to the given vertex, without building a list of them.
+	 * 
+	 * @param vertex
+	 *            The vertex whose next vertices are desired
+	 * @return All adjacent vertices to vertex, in the order of its outgoing edges
+	 */
+	public Stream<Vertex> nextVertexStream(Vertex vertex) throws GraphException;
+
+	/**
+	 * Finds the strongly connected components of the graph, which are the largest sets of vertices that can all reach
+	 * each other.
+	 * 
+	 * @return The component of every vertex, and the condensation of the graph into its components
+	 */
+	public StronglyConnectedComponents getStronglyConnectedComponents() throws GraphException;
+
+	/**
+	 * Finds the weakly connected components of the graph, which are the largest sets of vertices that are joined by
+	 * paths when the direction of the edges is ignored.
+	 * 
+	 * @return The component of every vertex
+	 */
+	public WeaklyConnectedComponents getWeaklyConnectedComponents() throws GraphException;
+
+	/**
+	 * Checks whether two vertices are in the same weakly connected component. The components are found on the first
+	 * query and kept up to date as vertices and edges are added. While they are up to date, getShortestPath fails with
+	 * NO_PATH, and getShortestDistance returns Integer.MAX_VALUE, for vertices in different components without running
+	 * a search, which is what the search would give. Removing a vertex or an edge, or modifying the graph other than
+	 * through this interface, finds them again on the next query.
+	 * 
+	 * @param first
+	 *            A vertex
+	 * @param second
+	 *            Another vertex
+	 * @return Whether the vertices are joined by a path that may follow edges in either direction
+	 */
+	public boolean isWeaklyConnected(Vertex first, Vertex second) throws GraphException;
+
+	/**
+	 * Checks whether there is a path from the source vertex to the destination vertex. The answers come from a
+	 * reachability index, which is built on the first query and kept up to date as vertices and edges are added.
+	 * Removing a vertex or an edge, or modifying the graph other than through this interface, rebuilds it on the next
+	 * query.
+	 * 
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return Whether the destination can be reached from the source, which is always the case for the same vertex
+	 */
+	public boolean canReach(Vertex source, Vertex destination) throws GraphException;
+
+	/**
+	 * Builds the transitive closure of the graph, which lists every vertex that each vertex can reach. The closure is
+	 * meant for bulk queries, such as all of the descendants of a vertex, on graphs of up to around 100,000 vertices.
+	 * 
+	 * @return The transitive closure of the current state of the graph
+	 */
+	public TransitiveClosure getTransitiveClosure() throws GraphException;
+
+	/**
+	 * Ranks the vertices of the graph by importance with PageRank, using the default damping factor, tolerance and
+	 * maximum number of iterations, and following every edge with the same probability.
+	 * 
+	 * @return The score of every vertex, which add up to 1
+	 */
+	public PageRankScores getPageRank() throws GraphException;
+
+	/**
+	 * Turns DAG mode on or off. In DAG mode, the graph must stay acyclic: a topological order of the vertices is kept
+	 * up to date as vertices and edges are added and removed, and addEdge rejects an edge that would create a cycle
+	 * with CYCLIC_EDGE, looking only at the vertices between the two ends of the edge in the order.
+	 * 
+	 * @param dagMode
+	 *            Whether the graph must stay acyclic
+	 * @throws GraphException
+	 *             CYCLIC_GRAPH if DAG mode is turned on while the graph contains a cycle
+	 */
+	public void setDagMode(boolean dagMode) throws GraphException;
+
+	/**
+	 * 
+	 * @return Whether the graph must stay acyclic
+	 */
+	public boolean isDagMode();
+
+	/**
+	 * Turns concurrent mode on or off. In concurrent mode, any number of threads can add and remove vertices and edges
+	 * at the same time. Every change locks the vertices it touches, which are spread over a fixed number of locks by
+	 * the hash codes of their labels, so threads that change different vertices rarely wait for each other. Removing a
+	 * vertex, adding a stream of edges, and every change in DAG mode lock the whole graph instead, as does turning
+	 * either mode on or off, which waits for the changes in progress. The reachability index and connected components
+	 * are found again when they are next needed, rather than updated by every change.
+	 * 
+	 * Queries answered from a compiled snapshot of the graph, such as searches, connected components, k shortest
+	 * paths and distance matrices, compile it while the whole graph is locked, so they can run while other threads
+	 * change the graph. Other queries, such as shortest paths and reachability, read the graph or its indexes as they
+	 * change and must not run at the same time as changes.
+	 * 
+	 * @param concurrentMode
+	 *            Whether several threads can change the graph at the same time
+	 */
+	public void setConcurrentMode(boolean concurrentMode);
+
+	/**
+	 * 
+	 * @return Whether several threads can change the graph at the same time
+	 */
+	public boolean isConcurrentMode();
+
+	/**
+	 * Lists the vertices in a topological order, where every edge goes from an earlier vertex to a later one. In DAG
+	 * mode this takes time proportional to the number of vertices; otherwise the order is computed from scratch.
+	 * 
+	 * @return The vertices in topological order
+	 * @throws GraphException
+	 *             CYCLIC_GRAPH if the graph contains a cycle
+	 */
+	public Iterator<Vertex> topologicalOrderIterator() throws GraphException;
+
+	/**
+	 * Compiles the in-memory graph into a read-only, array based snapshot for query workloads.
+	 * 
+	 * @return The compiled snapshot of the in-memory graph
+	 */
+	public CompiledGraph compileGraph();
+
 	/**
 	 * Saves the graph to a specified file.
 	 * 
@@ -96,6 +289,16 @@ public interface GraphManagement {
 	 */
 	public void addEdge(Edge edge) throws GraphException;
 
+	/**
+	 * Adds many edges to the graph at once with a {@link GraphBuilder}, which checks all of them for duplicates in one
+	 * pass and then adds either every edge or none. In DAG mode the edges are added one at a time instead, so that an
+	 * edge that would close a cycle is rejected, with the edges before it kept.
+	 * 
+	 * @param edges
+	 *            The edges to add to the graph, in order
+	 */
+	public void addEdges(Stream<Edge> edges) throws GraphException;
+
 	/**
 	 * Gets the shortest path from the source vertex to the destination vertex.
 	 * 
@@ -119,4 +322,31 @@ public interface GraphManagement {
 	 * @return The total distance along the shortest path from the source vertex to the destination vertex
 	 */
 	public Integer getShortestDistance(Vertex source, Vertex destination) throws GraphException;
+
+	/**
+	 * Gets the k shortest paths from the source vertex to the destination vertex that do not visit any vertex twice.
+	 * 
+	 * @param source
+	 *            The vertex to start the search from
+	 * @param destination
+	 *            The vertex to end the search at
+	 * @param k
+	 *            The largest number of paths to return
+	 * @return The paths, shortest first, which are fewer than k if the graph does not have that many, and which all go
+	 *         through a different sequence of vertices
+	 */
+	public List<List<Vertex>> getKShortestPaths(Vertex source, Vertex destination, int k) throws GraphException;
+
+	/**
+	 * Gets the shortest distance from every source vertex to every target vertex. The searches for different sources
+	 * run in parallel, and each one stops as soon as it has reached all of the targets.
+	 * 
+	 * @param sources
+	 *            The vertices to start the searches from, one row of the matrix each
+	 * @param targets
+	 *            The vertices to end the searches at, one column of the matrix each
+	 * @return The distances indexed by [source][target], in the iteration order of the collections. A target that
+	 *         cannot be reached from a source has a distance of Integer.MAX_VALUE.
+	 */
+	public int[][] getDistanceMatrix(Collection<Vertex> sources, Collection<Vertex> targets) throws GraphException;
 }
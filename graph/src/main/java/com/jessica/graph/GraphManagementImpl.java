@@ -7,15 +7,21 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.jessica.graph.exception.GraphException;
 import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
 import com.jessica.graph.model.Edge;
 import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.OffHeapGraph;
 import com.jessica.graph.model.Vertex;
 
 @Component
@@ -23,8 +29,27 @@ public class GraphManagementImpl implements GraphManagement {
 
 	private Graph graph;
 	private transient ShortestPathHelper shortestPathHelper;
+	private transient DistanceMatrixCalculator distanceMatrixCalculator = new DistanceMatrixCalculator();
+	private transient KShortestPaths kShortestPaths = new KShortestPaths();
+	private transient CompiledGraph compiledGraph;
+	private transient Graph compiledFrom;
+	private transient long compiledVersion;
+	private transient volatile boolean dagMode;
+	private transient TopologicalOrder topologicalOrder;
+	private transient Graph orderedFrom;
+	private transient long orderedVersion;
+	private transient ReachabilityIndex reachabilityIndex;
+	private transient Graph indexedFrom;
+	private transient long indexedVersion;
+	private transient IncrementalConnectedComponents connectedComponents;
+	private transient Graph connectedFrom;
+	private transient long connectedVersion;
+	private transient volatile StripedLocks locks;
 	private final String CLASSNAME = this.getClass().getSimpleName();
 
+	// The number of locks to spread vertices over in concurrent mode, for every processor
+	private static final int STRIPES_PER_THREAD = 16;
+
 	@Autowired
 	public void setShortestPathHelper(ShortestPathHelper shortestPathHelper) {
 		this.shortestPathHelper = shortestPathHelper;
@@ -45,39 +70,301 @@ public class GraphManagementImpl implements GraphManagement {
 
 	@Override
 	public List<Vertex> depthFirstSeach(Vertex vertex) throws GraphException {
-		List<Vertex> vistedList = new ArrayList<Vertex>();
+		// Validate that the vertex is non-null
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		// Validate that the graph contains this vertex
+		if (!getGraph().getVertices().containsKey(vertex.getLabel())) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+
+		// An off-heap graph is walked through its views, which read its arrays where they are
+		if (getGraph() instanceof OffHeapGraph) {
+			return collect(GraphTraversal.depthFirstIterator(getGraphVertex(vertex), GraphTraversal.UNLIMITED_DEPTH));
+		}
+
+		return depthFirstSeach(getCompiledGraph(), vertex);
+	}
+
+	@Override
+	public List<Vertex> depthFirstSeach(CompiledGraph graph, Vertex vertex) throws GraphException {
+		// Validate the graph and the starting vertex
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		int vertexId = graph.getId(vertex);
+		if (vertexId == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+
+		int[] visitedIds = DepthFirstSearch.search(graph, vertexId);
+		List<Vertex> visitedList = new ArrayList<Vertex>(visitedIds.length);
+		for (int visitedId : visitedIds) {
+			visitedList.add(graph.getVertex(visitedId));
+		}
+
+		return visitedList;
+	}
+
+	@Override
+	public List<Vertex> breadthFirstSearch(Vertex vertex) throws GraphException {
+		if (getGraph() instanceof OffHeapGraph) {
+			return collect(GraphTraversal.breadthFirstIterator(getGraphVertex(vertex), GraphTraversal.UNLIMITED_DEPTH));
+		}
 
-		depthFirstSearch(vertex, vistedList);
+		CompiledGraph compiled = getCompiledGraph();
+		int[] visitedIds = new BreadthFirstSearch(compiled).search(vertex);
 
-		return vistedList;
+		List<Vertex> visitedList = new ArrayList<Vertex>(visitedIds.length);
+		for (int visitedId : visitedIds) {
+			visitedList.add(compiled.getVertex(visitedId));
+		}
+		return visitedList;
+	}
+
+	@Override
+	public Integer getHopDistance(Vertex source, Vertex destination) throws GraphException {
+		// Validate the destination vertex (the source is validated when the search starts)
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		return new BreadthFirstSearch(getCompiledGraph()).getHopDistance(source, destination);
+	}
+
+	@Override
+	public Stream<Vertex> depthFirstStream(Vertex vertex, int maxDepth) throws GraphException {
+		// Validate the depth (the vertex is validated in getGraphVertex)
+		if (maxDepth < 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_DEPTH);
+		}
+
+		return GraphTraversal.stream(GraphTraversal.depthFirstIterator(getGraphVertex(vertex), maxDepth));
+	}
+
+	@Override
+	public Stream<Vertex> breadthFirstStream(Vertex vertex, int maxDepth) throws GraphException {
+		// Validate the depth (the vertex is validated in getGraphVertex)
+		if (maxDepth < 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_DEPTH);
+		}
+
+		return GraphTraversal.stream(GraphTraversal.breadthFirstIterator(getGraphVertex(vertex), maxDepth));
+	}
+
+	@Override
+	public Stream<Vertex> nextVertexStream(Vertex vertex) throws GraphException {
+		return GraphTraversal.nextVertexStream(getGraphVertex(vertex));
+	}
+
+	@Override
+	public StronglyConnectedComponents getStronglyConnectedComponents() throws GraphException {
+		return new StronglyConnectedComponentsFinder().find(getCompiledGraph());
+	}
+
+	@Override
+	public WeaklyConnectedComponents getWeaklyConnectedComponents() throws GraphException {
+		return new WeaklyConnectedComponentsFinder().find(getCompiledGraph());
+	}
+
+	@Override
+	public boolean isWeaklyConnected(Vertex first, Vertex second) throws GraphException {
+		IncrementalConnectedComponents components = getCurrentConnectedComponents();
+		if (components == null) {
+			// The version is read first, so that a change made while the components are found makes them out of date
+			long version = getGraph().getVersion();
+			components = new IncrementalConnectedComponents(getWeaklyConnectedComponents());
+			connectedComponents = components;
+			connectedFrom = getGraph();
+			connectedVersion = version;
+		}
+		return components.isConnected(first, second);
 	}
 
 	/**
-	 * Performs a depth first search of the graph, given a starting vertex and a visited list of vertices.
+	 * Gets the weakly connected components if they are up to date with the in-memory graph, so that they can be
+	 * updated along with the graph instead of being found again.
+	 * 
+	 * @return The weakly connected components of the current version of the in-memory graph, or null if there are none
+	 */
+	private IncrementalConnectedComponents getCurrentConnectedComponents() {
+		Graph currentGraph = getGraph();
+		if (connectedComponents == null || connectedFrom != currentGraph
+				|| connectedVersion != currentGraph.getVersion()) {
+			return null;
+		}
+		return connectedComponents;
+	}
+
+	@Override
+	public boolean canReach(Vertex source, Vertex destination) throws GraphException {
+		ReachabilityIndex index = getCurrentReachabilityIndex();
+		if (index == null) {
+			// The version is read first, so that a change made while the index is built makes it out of date
+			long version = getGraph().getVersion();
+			index = new ReachabilityIndex(getCompiledGraph());
+			reachabilityIndex = index;
+			indexedFrom = getGraph();
+			indexedVersion = version;
+		}
+		return index.canReach(source, destination);
+	}
+
+	/**
+	 * Gets the reachability index if it is up to date with the in-memory graph, so that it can be updated along with
+	 * the graph instead of being built again.
+	 * 
+	 * @return The reachability index of the current version of the in-memory graph, or null if there is none
+	 */
+	private ReachabilityIndex getCurrentReachabilityIndex() {
+		Graph currentGraph = getGraph();
+		if (reachabilityIndex == null || indexedFrom != currentGraph || indexedVersion != currentGraph.getVersion()) {
+			return null;
+		}
+		return reachabilityIndex;
+	}
+
+	@Override
+	public TransitiveClosure getTransitiveClosure() throws GraphException {
+		return new TransitiveClosureBuilder().build(getCompiledGraph());
+	}
+
+	@Override
+	public PageRankScores getPageRank() throws GraphException {
+		return new PageRank().compute(getCompiledGraph());
+	}
+
+	@Override
+	public void setDagMode(boolean dagMode) throws GraphException {
+		// Writers in concurrent mode lock every stripe or only their own by the mode, so it changes between writes
+		HeldLocks currentLocks = lockAll();
+		try {
+			// Validate that the graph is acyclic before turning DAG mode on
+			topologicalOrder = null;
+			if (dagMode) {
+				getTopologicalOrder();
+			}
+			this.dagMode = dagMode;
+		} finally {
+			unlockAll(currentLocks);
+		}
+	}
+
+	@Override
+	public boolean isDagMode() {
+		return dagMode;
+	}
+
+	@Override
+	public Iterator<Vertex> topologicalOrderIterator() throws GraphException {
+		return dagMode ? getTopologicalOrder().iterator() : TopologicalOrder.build(getGraph()).iterator();
+	}
+
+	/**
+	 * Gets the topological order kept in DAG mode, building it again only when the graph has been replaced or
+	 * modified other than through this class since the order was last updated.
+	 * 
+	 * @return The topological order of the current version of the in-memory graph
+	 */
+	private TopologicalOrder getTopologicalOrder() throws GraphException {
+		Graph currentGraph = getGraph();
+		long version = currentGraph.getVersion();
+		if (topologicalOrder == null || orderedFrom != currentGraph || orderedVersion != version) {
+			topologicalOrder = TopologicalOrder.build(currentGraph);
+			orderedFrom = currentGraph;
+			orderedVersion = version;
+		}
+		return topologicalOrder;
+	}
+
+	/**
+	 * Looks up the vertex of the in-memory graph with the same label as the given vertex, so that traversals follow
+	 * the edges of the graph even if the given vertex is a new object.
 	 * 
 	 * @param vertex
-	 *            The starting vertex for the search
-	 * @param visitedList
-	 *            The vertices that were visited
+	 *            The vertex to look up
+	 * @return The vertex of the graph
 	 */
-	private void depthFirstSearch(Vertex vertex, List<Vertex> visitedList) throws GraphException {
-
-		// Add the vertex to the list of visited vertices
-		visitedList.add(vertex);
-
-		// Traverse the graph by getting the next vertex that this vertex can
-		// get to, and if it hasn't been visited
-		// add it to the list and perform the search on that next vertex
-		List<Vertex> nextVertices = getNextVertices(vertex);
-		if (nextVertices != null && !nextVertices.isEmpty()) {
-			for (Vertex nextVertex : getNextVertices(vertex)) {
-				if (!visitedList.contains(nextVertex)) {
-					depthFirstSearch(nextVertex, visitedList);
+	private Vertex getGraphVertex(Vertex vertex) throws GraphException {
+		// Validate that the vertex is non-null
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		// Validate that the graph contains this vertex
+		Vertex graphVertex = getGraph().getVertices().get(vertex.getLabel());
+		if (graphVertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return graphVertex;
+	}
+
+	@Override
+	public CompiledGraph compileGraph() {
+		return getGraph().compile();
+	}
+
+	/**
+	 * Runs a lazy traversal to the end.
+	 * 
+	 * @return The vertices in the order the traversal reports them
+	 */
+	private static List<Vertex> collect(Iterator<Vertex> traversal) {
+		List<Vertex> visitedList = new ArrayList<Vertex>();
+		traversal.forEachRemaining(visitedList::add);
+		return visitedList;
+	}
+
+	/**
+	 * Gets a compiled snapshot of the in-memory graph, compiling it again only when the graph has been modified since
+	 * the last snapshot was taken. In concurrent mode the graph is compiled while every stripe is locked, so that no
+	 * edge list changes while it is read; a snapshot that is still current is returned without taking the locks.
+	 * 
+	 * @return The compiled snapshot of the current version of the in-memory graph
+	 * @throws GraphException
+	 *             If the graph is an off-heap graph, which would have to be copied onto the heap
+	 */
+	private CompiledGraph getCompiledGraph() throws GraphException {
+		// Validate that the graph can be compiled without copying it onto the heap
+		if (getGraph() instanceof OffHeapGraph) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.OFF_HEAP_GRAPH);
+		}
+
+		synchronized (this) {
+			if (isCompiledGraphCurrent()) {
+				return compiledGraph;
+			}
+		}
+
+		// The stripes are locked before the monitor is taken, so a thread holding the monitor never waits for them
+		HeldLocks currentLocks = lockAll();
+		try {
+			synchronized (this) {
+				if (!isCompiledGraphCurrent()) {
+					Graph currentGraph = getGraph();
+					compiledVersion = currentGraph.getVersion();
+					compiledGraph = currentGraph.compile();
+					compiledFrom = currentGraph;
 				}
+				return compiledGraph;
 			}
+		} finally {
+			unlockAll(currentLocks);
 		}
 	}
 
+	private boolean isCompiledGraphCurrent() {
+		Graph currentGraph = getGraph();
+		return compiledGraph != null && compiledFrom == currentGraph && compiledVersion == currentGraph.getVersion();
+	}
+
 	@Override
 	public void saveGraphToFile(String fileName) throws GraphException {
 		// Validate that the graph is not empty
@@ -157,20 +444,34 @@ public class GraphManagementImpl implements GraphManagement {
 			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
 		}
 
-		// Validate that the vertex doesn't already exist in the graph
-		if (!getGraph().getVertices().containsValue(vertex)) {
-			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		// Validate that the graph can be modified
+		if (getGraph().isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
 		}
 
-		// Remove the vertex from the graph
-		getGraph().getVertices().remove(vertex.getLabel());
+		// The edges of the vertex reach into the edge lists of all of its neighbors, so lock the whole graph
+		HeldLocks currentLocks = lockAll();
+		try {
+			// Validate that the vertex doesn't already exist in the graph
+			if (!getGraph().getVertices().containsKey(vertex.getLabel())) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+			}
+
+			// Remove the vertex from the graph
+			TopologicalOrder order = dagMode ? getTopologicalOrder() : null;
+			getGraph().getVertices().remove(vertex.getLabel());
 
-		// Remove all edges associated with this vertex
-		List<Edge> allEdges = vertex.getAllEdges();
-		if (allEdges != null && !allEdges.isEmpty()) {
-			while (allEdges.size() > 0) {
-				removeEdge(allEdges.remove(0));
+			// Remove all edges associated with this vertex
+			for (Edge edge : vertex.getAllEdges()) {
+				removeEdge(edge);
 			}
+			getGraph().incrementVersion();
+			if (order != null) {
+				order.removeVertex(vertex);
+				orderedVersion = getGraph().getVersion();
+			}
+		} finally {
+			unlockAll(currentLocks);
 		}
 	}
 
@@ -181,13 +482,39 @@ public class GraphManagementImpl implements GraphManagement {
 			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
 		}
 
-		// Validate that the vertex doesn't already exist in the graph
-		if (getGraph().getVertices().containsValue(vertex)) {
-			throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_VERTEX);
+		// Validate that the graph can be modified
+		if (getGraph().isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
 		}
 
-		// Add the vertex to the graph
-		getGraph().getVertices().put(vertex.getLabel(), vertex);
+		HeldLocks currentLocks = lock(vertex, vertex);
+		try {
+			// Validate that the vertex doesn't already exist in the graph
+			if (getGraph().getVertices().containsKey(vertex.getLabel())) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_VERTEX);
+			}
+
+			// Add the vertex to the graph, at the end of the topological order in DAG mode
+			TopologicalOrder order = dagMode ? getTopologicalOrder() : null;
+			ReachabilityIndex index = isSerialized() ? getCurrentReachabilityIndex() : null;
+			IncrementalConnectedComponents components = isSerialized() ? getCurrentConnectedComponents() : null;
+			getGraph().getVertices().put(vertex.getLabel(), vertex);
+			getGraph().incrementVersion();
+			if (order != null) {
+				order.addVertex(vertex);
+				orderedVersion = getGraph().getVersion();
+			}
+			if (index != null) {
+				index.addVertex(vertex);
+				indexedVersion = getGraph().getVersion();
+			}
+			if (components != null) {
+				components.addVertex(vertex);
+				connectedVersion = getGraph().getVersion();
+			}
+		} finally {
+			unlock(currentLocks, vertex, vertex);
+		}
 	}
 
 	@Override
@@ -197,12 +524,32 @@ public class GraphManagementImpl implements GraphManagement {
 			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
 		}
 
-		// Remove the edge from the from and to vertices
-		edge.getFromVertex().removeEdge(edge);
-		edge.getToVertex().removeEdge(edge);
+		// Validate that the graph can be modified
+		if (getGraph().isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
+		}
+
+		HeldLocks currentLocks = lock(edge.getFromVertex(), edge.getToVertex());
+		try {
+			// Bring the topological order up to date first in DAG mode, since removing an edge never breaks it
+			if (dagMode) {
+				getTopologicalOrder();
+			}
+
+			// Remove the edge from the from and to vertices
+			edge.getFromVertex().removeEdge(edge);
+			edge.getToVertex().removeEdge(edge);
 
-		// Remove the edge from the graph
-		getGraph().getEdges().remove(edge.getLabel());
+			// Remove the edge from the graph
+			getGraph().removeEdge(edge);
+			edge.setGraph(null);
+			getGraph().incrementVersion();
+			if (dagMode) {
+				orderedVersion = getGraph().getVersion();
+			}
+		} finally {
+			unlock(currentLocks, edge.getFromVertex(), edge.getToVertex());
+		}
 	}
 
 	@Override
@@ -212,36 +559,221 @@ public class GraphManagementImpl implements GraphManagement {
 			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
 		}
 
+		// Validate that the graph can be modified
+		if (getGraph().isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
+		}
+
 		// Validate that the edge has both a from and to vertex
 		if (edge.getFromVertex() == null || edge.getToVertex() == null) {
 			throw new GraphException(CLASSNAME, GraphExceptionMsg.EDGE_MISSING_VERTEX);
 		}
 
-		// Validate that the edge doesn't already exist in the graph
-		if (getGraph().getEdges().containsValue(edge)) {
-			throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_EDGE);
-		}
-
 		// Get the from and to vertices from the edge
 		Vertex fromVertex = edge.getFromVertex();
 		Vertex toVertex = edge.getToVertex();
 
-		// If the from vertex does not yet exist, add it
-		if (!getGraph().getVertices().containsKey(fromVertex.getLabel())) {
-			addVertex(fromVertex);
+		// Equal edges share their from vertex, so they are checked and added one at a time
+		HeldLocks currentLocks = lock(fromVertex, toVertex);
+		try {
+			// Validate that the edge doesn't already exist in the graph
+			if (getGraph().containsEdge(edge)) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_EDGE);
+			}
+
+			// In DAG mode, reject an edge that would create a cycle before changing anything, and move the vertices
+			// between its ends in the topological order otherwise
+			TopologicalOrder order = dagMode ? getTopologicalOrder() : null;
+			if (order != null) {
+				order.addEdge(fromVertex, toVertex);
+			}
+			ReachabilityIndex index = isSerialized() ? getCurrentReachabilityIndex() : null;
+			IncrementalConnectedComponents components = isSerialized() ? getCurrentConnectedComponents() : null;
+
+			// If the from vertex does not yet exist, add it
+			if (!getGraph().getVertices().containsKey(fromVertex.getLabel())) {
+				addVertex(fromVertex);
+			}
+
+			// If the to vertex does not yet exist, add it
+			if (!getGraph().getVertices().containsKey(toVertex.getLabel())) {
+				addVertex(toVertex);
+			}
+
+			// Add the edge to the appropriate list for each of the vertices
+			fromVertex.addOutgoingEdge(edge);
+			toVertex.addIncomingEdge(edge);
+
+			// Add the edge to the map of edges
+			getGraph().putEdge(edge);
+			edge.setGraph(getGraph());
+			getGraph().incrementVersion();
+			if (order != null) {
+				orderedVersion = getGraph().getVersion();
+			}
+			if (index != null) {
+				index.addEdge(fromVertex, toVertex);
+				indexedVersion = getGraph().getVersion();
+			}
+			if (components != null) {
+				components.addEdge(fromVertex, toVertex);
+				connectedVersion = getGraph().getVersion();
+			}
+		} finally {
+			unlock(currentLocks, fromVertex, toVertex);
+		}
+	}
+
+	@Override
+	public void addEdges(Stream<Edge> edges) throws GraphException {
+		// Validate that the stream is non-null
+		if (edges == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
+		}
+
+		// Validate that the graph can be modified
+		if (getGraph().isReadOnly()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.READ_ONLY_GRAPH);
+		}
+
+		if (dagMode) {
+			addEachEdge(edges.iterator());
+			return;
+		}
+
+		// The load is read before taking the locks, and checked against the graph and added while holding them all,
+		// unless DAG mode was turned on in the meantime
+		List<Edge> load = edges.collect(Collectors.toList());
+		GraphBuilder builder = new GraphBuilder().addEdges(load.stream());
+		HeldLocks currentLocks = lockAll();
+		try {
+			if (dagMode) {
+				addEachEdge(load.iterator());
+			} else {
+				builder.addTo(getGraph());
+			}
+		} finally {
+			unlockAll(currentLocks);
+		}
+	}
+
+	private void addEachEdge(Iterator<Edge> edges) throws GraphException {
+		while (edges.hasNext()) {
+			addEdge(edges.next());
+		}
+	}
+
+	@Override
+	public void setConcurrentMode(boolean concurrentMode) {
+		if (concurrentMode) {
+			getGraph();
+		}
+
+		// Writers that hold the current locks finish first, and writers waiting for them lock the new ones instead
+		HeldLocks currentLocks = lockAll();
+		try {
+			locks = concurrentMode ? new StripedLocks(Runtime.getRuntime().availableProcessors() * STRIPES_PER_THREAD)
+					: null;
+		} finally {
+			unlockAll(currentLocks);
+		}
+	}
+
+	@Override
+	public boolean isConcurrentMode() {
+		return locks != null;
+	}
+
+	/**
+	 * Locks the stripes of the two vertices a change touches in concurrent mode, or every stripe in DAG mode, where
+	 * every change also updates the topological order that all writers share. The modes only change while every
+	 * stripe is locked, so they stay the same until the locks are released; if they changed while this thread was
+	 * waiting, it locks again for the new modes.
+	 * 
+	 * @return The locks that were taken, to be released with {@link #unlock(HeldLocks, Vertex, Vertex)}, or null
+	 *         outside of concurrent mode
+	 */
+	private HeldLocks lock(Vertex first, Vertex second) {
+		while (true) {
+			StripedLocks currentLocks = locks;
+			if (currentLocks == null) {
+				return null;
+			}
+
+			boolean all = dagMode;
+			if (all) {
+				currentLocks.lockAll();
+			} else {
+				currentLocks.lock(first, second);
+			}
+			HeldLocks held = new HeldLocks(currentLocks, all);
+			if (locks == currentLocks && (all || !dagMode)) {
+				return held;
+			}
+			unlock(held, first, second);
 		}
+	}
+
+	/**
+	 * Releases the locks taken by {@link #lock(Vertex, Vertex)} the way they were taken, whatever the modes are now.
+	 */
+	private void unlock(HeldLocks held, Vertex first, Vertex second) {
+		if (held != null) {
+			if (held.all) {
+				held.locks.unlockAll();
+			} else {
+				held.locks.unlock(first, second);
+			}
+		}
+	}
 
-		// If the to vertex does not yet exist, add it
-		if (!getGraph().getVertices().containsKey(toVertex.getLabel())) {
-			addVertex(toVertex);
+	/**
+	 * Locks every stripe in concurrent mode, for a change that touches the whole graph or changes the modes.
+	 * 
+	 * @return The locks that were taken, or null outside of concurrent mode
+	 */
+	private HeldLocks lockAll() {
+		while (true) {
+			StripedLocks currentLocks = locks;
+			if (currentLocks == null) {
+				return null;
+			}
+
+			currentLocks.lockAll();
+			if (locks == currentLocks) {
+				return new HeldLocks(currentLocks, true);
+			}
+			currentLocks.unlockAll();
 		}
+	}
+
+	private void unlockAll(HeldLocks held) {
+		unlock(held, null, null);
+	}
+
+	/**
+	 * The locks a change took, and whether it took every stripe, so that they are released the same way even if the
+	 * modes change before then.
+	 */
+	private static final class HeldLocks {
 
-		// Add the edge to the appropriate list for each of the vertices
-		fromVertex.addOutgoingEdge(edge);
-		toVertex.addIncomingEdge(edge);
+		private final StripedLocks locks;
+		private final boolean all;
 
-		// Add the edge to the map of edges
-		getGraph().getEdges().put(edge.getLabel(), edge);
+		HeldLocks(StripedLocks locks, boolean all) {
+			this.locks = locks;
+			this.all = all;
+		}
+	}
+
+	/**
+	 * Changes only update the reachability index and connected components when they are made one at a time. In
+	 * concurrent mode, outside of DAG mode, writers do not take turns, so they are found again when next needed.
+	 * 
+	 * @return Whether changes to the graph are made one at a time
+	 */
+	private boolean isSerialized() {
+		return locks == null || dagMode;
 	}
 
 	@Override
@@ -251,12 +783,86 @@ public class GraphManagementImpl implements GraphManagement {
 
 	@Override
 	public List<Vertex> getShortestPath(Vertex source, Vertex destination) throws GraphException {
+		// Validate that the vertices are not in different components, if the components are up to date
+		if (isDisconnected(source, destination)) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
 		return shortestPathHelper.getShortestPath(getGraph(), source, destination);
 	}
 
 	@Override
 	public Integer getShortestDistance(Vertex source, Vertex destination) throws GraphException {
+		// Vertices in different components are as far apart as the search would find them
+		if (isDisconnected(source, destination)) {
+			return Integer.MAX_VALUE;
+		}
 		return shortestPathHelper.getShortestDistance(getGraph(), source, destination);
 	}
 
+	/**
+	 * Checks whether a shortest path query is between vertices in different weakly connected components, if the
+	 * components are up to date. Any other problem with the vertices is left to the shortest path helper to report.
+	 * 
+	 * @param source
+	 *            The vertex to start the search from
+	 * @param destination
+	 *            The vertex to end the search at
+	 * @return Whether the components are up to date and show that no path joins the vertices
+	 */
+	private boolean isDisconnected(Vertex source, Vertex destination) throws GraphException {
+		IncrementalConnectedComponents components = getCurrentConnectedComponents();
+		return components != null && components.contains(source) && components.contains(destination)
+				&& !components.isConnected(source, destination);
+	}
+
+	@Override
+	public List<List<Vertex>> getKShortestPaths(Vertex source, Vertex destination, int k) throws GraphException {
+		return kShortestPaths.getKShortestPaths(getCompiledGraph(), source, destination, k);
+	}
+
+	@Override
+	public int[][] getDistanceMatrix(Collection<Vertex> sources, Collection<Vertex> targets) throws GraphException {
+		// Validate that both collections were provided
+		if (sources == null || targets == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTICES);
+		}
+
+		// Validate that the graph is not empty
+		if (getGraph().getVertices() == null || getGraph().getVertices().isEmpty()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EMPTY_GRAPH);
+		}
+
+		CompiledGraph compiled = getCompiledGraph();
+		return distanceMatrixCalculator.getDistanceMatrix(compiled, getVertexIds(compiled, sources),
+				getVertexIds(compiled, targets));
+	}
+
+	/**
+	 * Looks up the ids of vertices in a compiled graph, making sure that every vertex is part of the graph.
+	 * 
+	 * @param graph
+	 *            The compiled graph
+	 * @param vertices
+	 *            The vertices to look up
+	 * @return The ids of the vertices, in the iteration order of the collection
+	 */
+	private int[] getVertexIds(CompiledGraph graph, Collection<Vertex> vertices) throws GraphException {
+		int[] ids = new int[vertices.size()];
+		int index = 0;
+		for (Vertex vertex : vertices) {
+			// Validate that the vertex is non-null
+			if (vertex == null) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+			}
+
+			// Validate that the graph contains this vertex
+			ids[index] = graph.getId(vertex);
+			if (ids[index] == CompiledGraph.NO_VERTEX) {
+				throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+			}
+			index++;
+		}
+		return ids;
+	}
+
 }
@@ -0,0 +1,239 @@
+package com.jessica.graph;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Lazy traversals of a graph, which walk the outgoing edges of the vertices one step at a time as the results are
+ * consumed. Nothing is visited ahead of the caller, so stopping early (for example with Stream.findFirst or
+ * Stream.limit) only costs the part of the graph that was actually reached.
+ *
+ * Every vertex is reported once, the first time it is reached, and outgoing edges are followed in the order of the
+ * vertex's edge list. The graph must not be modified while a traversal is in progress.
+ */
+public final class GraphTraversal {
+
+	/**
+	 * The maximum depth that does not limit a traversal.
+	 */
+	public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+	private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+	private GraphTraversal() {
+	}
+
+	/**
+	 * Walks the graph depth first, reporting the vertices in pre-order. Without a depth limit, this is the order of
+	 * {@link GraphManagement#depthFirstSeach(Vertex)}. With a limit, every vertex within that many edges of the
+	 * starting vertex is reported, even one that the traversal first reached over a longer path: when it is reached
+	 * again over a shorter one, its edges are followed again from there.
+	 *
+	 * @param start
+	 *            The starting vertex for the traversal
+	 * @param maxDepth
+	 *            The largest number of edges between the starting vertex and a reported vertex
+	 * @return The vertices, computed as the iterator advances
+	 */
+	public static Iterator<Vertex> depthFirstIterator(Vertex start, int maxDepth) {
+		return new DepthFirstIterator(start, maxDepth);
+	}
+
+	/**
+	 * Walks the graph breadth first, reporting the vertices by increasing number of edges from the starting vertex.
+	 *
+	 * @param start
+	 *            The starting vertex for the traversal
+	 * @param maxDepth
+	 *            The largest number of edges between the starting vertex and a reported vertex
+	 * @return The vertices, computed as the iterator advances
+	 */
+	public static Iterator<Vertex> breadthFirstIterator(Vertex start, int maxDepth) {
+		return new BreadthFirstIterator(start, maxDepth);
+	}
+
+	/**
+	 * Wraps a traversal in a stream. The spliterator of the stream can be split, which hands batches of vertices that
+	 * were already reached to other threads, so a parallel stream runs the downstream operations in parallel while the
+	 * traversal itself stays sequential.
+	 *
+	 * @param traversal
+	 *            The traversal to wrap
+	 * @return The stream of vertices
+	 */
+	public static Stream<Vertex> stream(Iterator<Vertex> traversal) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(traversal, CHARACTERISTICS), false);
+	}
+
+	/**
+	 * Streams the vertices at the end of the outgoing edges of a vertex. The stream is backed by the edge list, so it
+	 * is sized and splits evenly.
+	 *
+	 * @param vertex
+	 *            The vertex whose next vertices are desired
+	 * @return The next vertices, in the order of the outgoing edges
+	 */
+	public static Stream<Vertex> nextVertexStream(Vertex vertex) {
+		return getOutgoingEdges(vertex).stream().map(Edge::getToVertex);
+	}
+
+	private static List<Edge> getOutgoingEdges(Vertex vertex) {
+		List<Edge> edges = vertex.getOutgoingEdges();
+		return edges != null ? edges : Collections.<Edge> emptyList();
+	}
+
+	/**
+	 * A depth first traversal, which keeps the iterator over the remaining outgoing edges of every vertex on the
+	 * current path, and the smallest depth every vertex was reached at.
+	 */
+	private static class DepthFirstIterator implements Iterator<Vertex> {
+		private final Deque<Iterator<Edge>> path = new ArrayDeque<Iterator<Edge>>();
+		private final Map<Vertex, Integer> depths = new HashMap<Vertex, Integer>();
+		private final int maxDepth;
+		private Vertex next;
+		private Vertex unexpanded;
+
+		// Whether a vertex was reached at the limit, so that its edges were not followed
+		private boolean limited;
+
+		DepthFirstIterator(Vertex start, int maxDepth) {
+			this.maxDepth = maxDepth;
+			depths.put(start, 0);
+			next = start;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = advance();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Vertex next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			// The vertex is at the depth of the path, so its edges are only followed while that is below the limit,
+			// and not before the next vertex is asked for
+			Vertex vertex = next;
+			next = null;
+			if (path.size() < maxDepth) {
+				unexpanded = vertex;
+			} else {
+				unexpanded = null;
+				limited = true;
+			}
+			return vertex;
+		}
+
+		private Vertex advance() {
+			if (unexpanded != null) {
+				path.push(getOutgoingEdges(unexpanded).iterator());
+				unexpanded = null;
+			}
+
+			while (!path.isEmpty()) {
+				Iterator<Edge> edges = path.peek();
+				if (!edges.hasNext()) {
+					path.pop();
+					continue;
+				}
+
+				Vertex toVertex = edges.next().getToVertex();
+				int depth = path.size();
+				Integer reachedDepth = depths.get(toVertex);
+				if (reachedDepth == null) {
+					depths.put(toVertex, depth);
+					return toVertex;
+				}
+
+				// A vertex reached again closer to the start can lead to vertices that were beyond the limit before,
+				// which only happens once the limit has kept the edges of some vertex from being followed
+				if (limited && depth < reachedDepth && depth < maxDepth) {
+					depths.put(toVertex, depth);
+					path.push(getOutgoingEdges(toVertex).iterator());
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * A breadth first traversal, which keeps the reported vertices whose outgoing edges have not been followed yet.
+	 */
+	private static class BreadthFirstIterator implements Iterator<Vertex> {
+		private final Deque<Vertex> queue = new ArrayDeque<Vertex>();
+		private final Deque<Integer> queueDepths = new ArrayDeque<Integer>();
+		private final Set<Vertex> visited = new HashSet<Vertex>();
+		private final int maxDepth;
+		private Iterator<Edge> edges;
+		private int edgesDepth;
+		private Vertex next;
+		private int nextDepth;
+
+		BreadthFirstIterator(Vertex start, int maxDepth) {
+			this.maxDepth = maxDepth;
+			visited.add(start);
+			next = start;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = advance();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Vertex next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			Vertex vertex = next;
+			next = null;
+			if (nextDepth < maxDepth) {
+				queue.add(vertex);
+				queueDepths.add(nextDepth);
+			}
+			return vertex;
+		}
+
+		private Vertex advance() {
+			while (true) {
+				while (edges != null && edges.hasNext()) {
+					Vertex toVertex = edges.next().getToVertex();
+					if (visited.add(toVertex)) {
+						nextDepth = edgesDepth + 1;
+						return toVertex;
+					}
+				}
+
+				if (queue.isEmpty()) {
+					return null;
+				}
+				edges = getOutgoingEdges(queue.poll()).iterator();
+				edgesDepth = queueDepths.poll();
+			}
+		}
+	}
+}
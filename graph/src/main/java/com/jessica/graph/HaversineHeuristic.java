@@ -0,0 +1,54 @@
+package com.jessica.graph;
+
+import com.jessica.graph.model.Coordinates;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Estimates distances with the great circle distance between the {@link Coordinates} of two vertices, where x is the
+ * longitude and y is the latitude in degrees. The estimate is a lower bound as long as no edge weight is less than
+ * the great circle distance it covers multiplied by the weight per meter. Vertices without coordinates are estimated
+ * at 0.
+ */
+public class HaversineHeuristic implements DistanceHeuristic {
+
+	private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+	private final double weightPerMeter;
+
+	/**
+	 * Class constructor for graphs whose edge weights are lengths in meters.
+	 */
+	public HaversineHeuristic() {
+		this(1.0);
+	}
+
+	/**
+	 * Class constructor.
+	 * 
+	 * @param weightPerMeter
+	 *            The smallest edge weight per meter of great circle distance, for example 1 / (top speed in meters per
+	 *            second) for edges weighted by travel time in seconds
+	 */
+	public HaversineHeuristic(double weightPerMeter) {
+		this.weightPerMeter = weightPerMeter;
+	}
+
+	@Override
+	public long getLowerBound(Vertex vertex, Vertex target) {
+		Coordinates from = vertex.getCoordinates();
+		Coordinates to = target.getCoordinates();
+		if (from == null || to == null) {
+			return 0;
+		}
+
+		double fromLatitude = Math.toRadians(from.getY());
+		double toLatitude = Math.toRadians(to.getY());
+		double sinHalfDeltaLatitude = Math.sin((toLatitude - fromLatitude) / 2);
+		double sinHalfDeltaLongitude = Math.sin(Math.toRadians(to.getX() - from.getX()) / 2);
+		double haversine = sinHalfDeltaLatitude * sinHalfDeltaLatitude
+				+ Math.cos(fromLatitude) * Math.cos(toLatitude) * sinHalfDeltaLongitude * sinHalfDeltaLongitude;
+		double meters = 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(haversine)));
+
+		return (long) Math.floor(meters * weightPerMeter);
+	}
+}
@@ -0,0 +1,78 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Dijkstra's Algorithm backed by an indexed d-ary heap with decrease-key. Each query only discovers the vertices that
+ * are closer to the source than the destination, and stops as soon as the destination is settled, so a query costs
+ * O((V' + E') log V') for the V' vertices and E' edges it touches.
+ */
+public class HeapDijkstrasShortestPath extends AbstractShortestPath {
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		SearchSpace searchSpace = search(graph, source, destination);
+
+		int destinationId = searchSpace.idOf(destination);
+		if (destinationId == SearchSpace.NO_VERTEX || !searchSpace.isSettled(destinationId)) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+
+		return searchSpace.getPath(destinationId);
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		SearchSpace searchSpace = search(graph, source, destination);
+
+		// An unreachable destination has a distance of Integer.MAX_VALUE, same as DijkstrasShortestPath
+		return toDistance(searchSpace.getDistance(destination));
+	}
+
+	/**
+	 * Runs Dijkstra's Algorithm from the source until the destination is settled or every reachable vertex has been
+	 * settled.
+	 *
+	 * @param graph
+	 *            The directed graph on which to execute this algorithm
+	 * @param source
+	 *            The vertex that is the source / starting point of the search
+	 * @param destination
+	 *            The vertex at which the search can stop
+	 * @return The state of the search
+	 */
+	private SearchSpace search(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+
+		SearchSpace searchSpace = new SearchSpace();
+		searchSpace.start(graph.getVertices().get(source.getLabel()), 0);
+
+		while (searchSpace.hasNext()) {
+			int vertexId = searchSpace.settleNext();
+			Vertex vertex = searchSpace.getVertex(vertexId);
+
+			// Once the destination is settled its distance is final
+			if (vertex.equals(destination)) {
+				break;
+			}
+
+			List<Edge> edgesToTraverse = vertex.getOutgoingEdges();
+			if (edgesToTraverse == null) {
+				continue;
+			}
+
+			long vertexDistance = searchSpace.getDistance(vertexId);
+			for (Edge edge : edgesToTraverse) {
+				long distance = vertexDistance + edge.getWeight();
+				searchSpace.relax(vertexId, edge.getToVertex(), distance, distance);
+			}
+		}
+		return searchSpace;
+	}
+}
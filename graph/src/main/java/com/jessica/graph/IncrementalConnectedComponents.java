@@ -0,0 +1,187 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The weakly connected components of a graph, kept up to date as vertices and edges are added. It starts from the
+ * components found by {@link WeaklyConnectedComponentsFinder}, with every component as a flat set of a union-find,
+ * and merges the sets of the ends of every new edge. Union by size and path halving keep both operations within the
+ * inverse Ackermann function of the number of vertices.
+ *
+ * Removing a vertex or an edge can split a component, which a union-find cannot undo, so that needs a new instance.
+ * This class is not thread-safe.
+ */
+public class IncrementalConnectedComponents {
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final CompiledGraph graph;
+
+	// The ids of vertices that were added after the components were found
+	private final Map<Vertex, Integer> addedIds = new HashMap<Vertex, Integer>();
+
+	private int[] parents;
+	private int[] sizes;
+	private int vertexCount;
+	private int componentCount;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param components
+	 *            The components of a compiled graph to start from
+	 */
+	public IncrementalConnectedComponents(WeaklyConnectedComponents components) throws GraphException {
+		if (components == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		graph = components.getGraph();
+		vertexCount = graph.getVertexCount();
+		componentCount = components.getComponentCount();
+		parents = new int[Math.max(16, vertexCount)];
+		sizes = new int[parents.length];
+
+		// The first vertex of every component becomes its root
+		int[] roots = new int[componentCount];
+		Arrays.fill(roots, -1);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int component = components.getComponentId(vertex);
+			if (roots[component] < 0) {
+				roots[component] = vertex;
+			}
+			parents[vertex] = roots[component];
+			sizes[roots[component]]++;
+		}
+	}
+
+	/**
+	 * Adds a vertex without edges, as a component of its own.
+	 *
+	 * @param vertex
+	 *            The vertex to add, which is ignored if it is already known
+	 */
+	public void addVertex(Vertex vertex) throws GraphException {
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+		if (getId(vertex) >= 0) {
+			return;
+		}
+
+		if (vertexCount == parents.length) {
+			parents = Arrays.copyOf(parents, vertexCount * 2);
+			sizes = Arrays.copyOf(sizes, vertexCount * 2);
+		}
+		parents[vertexCount] = vertexCount;
+		sizes[vertexCount] = 1;
+		addedIds.put(vertex, vertexCount++);
+		componentCount++;
+	}
+
+	/**
+	 * Merges the components of the ends of a new edge, adding the vertices first if they are not known yet.
+	 *
+	 * @param fromVertex
+	 *            The vertex the edge starts at
+	 * @param toVertex
+	 *            The vertex the edge ends at
+	 */
+	public void addEdge(Vertex fromVertex, Vertex toVertex) throws GraphException {
+		addVertex(fromVertex);
+		addVertex(toVertex);
+		int fromRoot = find(getId(fromVertex));
+		int toRoot = find(getId(toVertex));
+		if (fromRoot == toRoot) {
+			return;
+		}
+
+		// Hang the smaller tree below the root of the larger one
+		if (sizes[fromRoot] < sizes[toRoot]) {
+			int root = fromRoot;
+			fromRoot = toRoot;
+			toRoot = root;
+		}
+		parents[toRoot] = fromRoot;
+		sizes[fromRoot] += sizes[toRoot];
+		componentCount--;
+	}
+
+	/**
+	 *
+	 * @param first
+	 *            A vertex
+	 * @param second
+	 *            Another vertex
+	 * @return Whether the vertices are in the same component
+	 */
+	public boolean isConnected(Vertex first, Vertex second) throws GraphException {
+		return getComponentId(first) == getComponentId(second);
+	}
+
+	/**
+	 * Gets the id of the component of a vertex. The id is the id of one of its vertices, which may change when the
+	 * component is merged with another.
+	 *
+	 * @param vertex
+	 *            A vertex
+	 * @return The id of the component of the vertex
+	 */
+	public int getComponentId(Vertex vertex) throws GraphException {
+		// Validate that the vertex is non-null and known
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		int id = getId(vertex);
+		if (id < 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return find(id);
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            A vertex
+	 * @return Whether the vertex is part of the components
+	 */
+	public boolean contains(Vertex vertex) {
+		return vertex != null && getId(vertex) >= 0;
+	}
+
+	/**
+	 *
+	 * @return The number of components
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	private int find(int id) {
+		int current = id;
+		while (parents[current] != current) {
+			parents[current] = parents[parents[current]];
+			current = parents[current];
+		}
+		return current;
+	}
+
+	/**
+	 * @return The id of the vertex, or -1 if it is not known
+	 */
+	private int getId(Vertex vertex) {
+		int id = graph.getId(vertex);
+		if (id != CompiledGraph.NO_VERTEX) {
+			return id;
+		}
+		Integer addedId = addedIds.get(vertex);
+		return addedId != null ? addedId : -1;
+	}
+}
@@ -0,0 +1,227 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min heap of integer ids, ordered by a long key. Each id can be in the heap at most once, and the
+ * heap tracks the position of every id so that its key can be decreased in O(log n) instead of searching for it. Ids
+ * are expected to be dense (0..n-1); the heap grows as larger ids are inserted.
+ */
+final class IndexedMinHeap {
+
+	private static final int DEFAULT_ARITY = 4;
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int NOT_IN_HEAP = -1;
+
+	private final int arity;
+
+	// Heap slot -> id
+	private int[] heap;
+
+	// Id -> heap slot, or NOT_IN_HEAP
+	private int[] positions;
+
+	// Id -> key
+	private long[] keys;
+
+	private int size;
+
+	/**
+	 * Class constructor that creates a 4-ary heap with a default initial capacity.
+	 */
+	IndexedMinHeap() {
+		this(DEFAULT_CAPACITY, DEFAULT_ARITY);
+	}
+
+	/**
+	 * Class constructor that creates a 4-ary heap.
+	 *
+	 * @param capacity
+	 *            The number of ids expected to be stored in the heap
+	 */
+	IndexedMinHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity
+	 *            The number of ids expected to be stored in the heap
+	 * @param arity
+	 *            The number of children of each heap node, must be at least 2
+	 */
+	IndexedMinHeap(int capacity, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("The heap arity must be at least 2.");
+		}
+		this.arity = arity;
+		int initialCapacity = Math.max(capacity, 1);
+		heap = new int[initialCapacity];
+		keys = new long[initialCapacity];
+		positions = new int[initialCapacity];
+		Arrays.fill(positions, NOT_IN_HEAP);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(int id) {
+		return id < positions.length && positions[id] != NOT_IN_HEAP;
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            An id currently in the heap
+	 * @return The key of the id
+	 */
+	long getKey(int id) {
+		return keys[id];
+	}
+
+	/**
+	 * Inserts the id with the given key, or lowers its key if it is already in the heap with a larger key.
+	 *
+	 * @param id
+	 *            The id to insert or update
+	 * @param key
+	 *            The new key
+	 * @return True if the heap changed
+	 */
+	boolean insertOrDecrease(int id, long key) {
+		if (contains(id)) {
+			if (key >= keys[id]) {
+				return false;
+			}
+			keys[id] = key;
+			siftUp(positions[id]);
+			return true;
+		}
+
+		ensureCapacity(id + 1);
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		keys[id] = key;
+		heap[size] = id;
+		positions[id] = size;
+		siftUp(size++);
+		return true;
+	}
+
+	/**
+	 *
+	 * @return The id with the smallest key, without removing it
+	 */
+	int peek() {
+		return heap[0];
+	}
+
+	/**
+	 *
+	 * @return The smallest key in the heap
+	 */
+	long peekKey() {
+		return keys[heap[0]];
+	}
+
+	/**
+	 * Removes and returns the id with the smallest key.
+	 *
+	 * @return The id with the smallest key
+	 */
+	int poll() {
+		int min = heap[0];
+		positions[min] = NOT_IN_HEAP;
+		size--;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			positions[last] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	/**
+	 * Removes every id from the heap. This only touches the ids that are currently in the heap.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = NOT_IN_HEAP;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Makes sure that ids up to (capacity - 1) can be inserted.
+	 *
+	 * @param capacity
+	 *            The number of ids that must fit
+	 */
+	void ensureCapacity(int capacity) {
+		if (capacity > positions.length) {
+			int newCapacity = Math.max(capacity, positions.length * 2);
+			int oldCapacity = positions.length;
+			positions = Arrays.copyOf(positions, newCapacity);
+			Arrays.fill(positions, oldCapacity, newCapacity, NOT_IN_HEAP);
+			keys = Arrays.copyOf(keys, newCapacity);
+		}
+	}
+
+	private void siftUp(int slot) {
+		int id = heap[slot];
+		long key = keys[id];
+		while (slot > 0) {
+			int parentSlot = (slot - 1) / arity;
+			int parent = heap[parentSlot];
+			if (keys[parent] <= key) {
+				break;
+			}
+			heap[slot] = parent;
+			positions[parent] = slot;
+			slot = parentSlot;
+		}
+		heap[slot] = id;
+		positions[id] = slot;
+	}
+
+	private void siftDown(int slot) {
+		int id = heap[slot];
+		long key = keys[id];
+		while (true) {
+			int firstChild = slot * arity + 1;
+			if (firstChild >= size) {
+				break;
+			}
+
+			// Find the smallest of the children
+			int lastChild = Math.min(firstChild + arity, size);
+			int minSlot = firstChild;
+			long minKey = keys[heap[firstChild]];
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				long childKey = keys[heap[child]];
+				if (childKey < minKey) {
+					minKey = childKey;
+					minSlot = child;
+				}
+			}
+
+			if (minKey >= key) {
+				break;
+			}
+			int minId = heap[minSlot];
+			heap[slot] = minId;
+			positions[minId] = slot;
+			slot = minSlot;
+		}
+		heap[slot] = id;
+		positions[id] = slot;
+	}
+}
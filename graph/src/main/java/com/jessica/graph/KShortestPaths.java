@@ -0,0 +1,392 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Yen's Algorithm for the k shortest loopless paths between two vertices of a compiled graph. After the shortest path
+ * is found, every further path deviates from one of the paths already found at a spur vertex: it shares the root of
+ * that path up to the spur vertex, and then follows the shortest spur path to the destination that avoids the root
+ * vertices and every edge out of the spur vertex that an accepted path with the same root already took. The
+ * candidates of all spur vertices are collected, and the cheapest one becomes the next path.
+ *
+ * Parallel edges between the same two vertices would only give more paths through the same vertices, so the searches
+ * only follow the lightest edge between any two vertices, and every path returned goes through a different sequence of
+ * vertices, at the lowest distance it has. An edge out of the spur vertex is removed by removing the vertex it leads
+ * to as a next step from the spur vertex, which removes its parallel edges along with it.
+ *
+ * The spur searches of one iteration are independent, so they run in parallel on a {@link ForkJoinPool}. The removed
+ * vertices and edges are not taken out of the graph; each search skips them by checking stamps in its workspace, so
+ * masking costs nothing per search beyond the removed elements themselves. The workspaces are kept by the instance and
+ * reused by later calls, growing to the largest graph searched, so a call only allocates what its paths need.
+ */
+public class KShortestPaths {
+
+	private static final long INFINITY = Long.MAX_VALUE;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final WorkspacePool<Workspace> workspaces = new WorkspacePool<Workspace>(Workspace::new);
+
+	/**
+	 * Class constructor that runs the spur searches on the common fork join pool.
+	 */
+	public KShortestPaths() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run the spur searches on
+	 */
+	public KShortestPaths(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Gets the k shortest loopless paths between two vertices of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to search
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @param k
+	 *            The largest number of paths to return
+	 * @return The paths, shortest first, which are fewer than k if the graph does not have that many, and which all go
+	 *         through a different sequence of vertices
+	 */
+	public List<List<Vertex>> getKShortestPaths(Graph graph, Vertex source, Vertex destination, int k)
+			throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return getKShortestPaths(graph.compile(), source, destination, k);
+	}
+
+	/**
+	 * Gets the k shortest loopless paths between two vertices of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @param k
+	 *            The largest number of paths to return
+	 * @return The paths, shortest first, which are fewer than k if the graph does not have that many, and which all go
+	 *         through a different sequence of vertices
+	 */
+	public List<List<Vertex>> getKShortestPaths(CompiledGraph graph, Vertex source, Vertex destination, int k)
+			throws GraphException {
+		// Validate the graph, the vertices and the number of paths
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		if (source == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		if (k < 1) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_PATH_COUNT);
+		}
+
+		int sourceId = graph.getId(source);
+		int destinationId = graph.getId(destination);
+		if (sourceId == CompiledGraph.NO_VERTEX || destinationId == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+
+		List<List<Vertex>> paths = new ArrayList<List<Vertex>>();
+		for (Path path : findPaths(graph, sourceId, destinationId, k)) {
+			List<Vertex> pathOfVertices = new ArrayList<Vertex>(path.vertices.length);
+			for (int vertex : path.vertices) {
+				pathOfVertices.add(graph.getVertex(vertex));
+			}
+			paths.add(pathOfVertices);
+		}
+		return paths;
+	}
+
+	/**
+	 * Runs Yen's Algorithm on vertex ids.
+	 */
+	private List<Path> findPaths(CompiledGraph graph, int source, int destination, int k) {
+		List<Path> accepted = new ArrayList<Path>();
+		Workspace firstWorkspace = acquireWorkspace(graph);
+		firstWorkspace.nextStamp();
+		Path shortest = firstWorkspace.search(graph, source, destination, Path.EMPTY);
+		workspaces.release(firstWorkspace);
+		if (shortest == null) {
+			return accepted;
+		}
+		accepted.add(shortest);
+
+		// Candidates are ordered by distance, and then by the order they were found in so that ties are stable
+		PriorityQueue<Path> candidates = new PriorityQueue<Path>((first, second) -> first.distance != second.distance
+				? Long.compare(first.distance, second.distance) : Long.compare(first.sequence, second.sequence));
+		Set<Path> seen = new HashSet<Path>();
+		seen.add(shortest);
+		long sequence = 0;
+
+		while (accepted.size() < k) {
+			Path previous = accepted.get(accepted.size() - 1);
+			int spurCount = previous.vertices.length - 1;
+			Path[] spurPaths = new Path[spurCount];
+
+			ParallelRange.forEachChunk(pool, 0, spurCount, 1, (start, end) -> {
+				Workspace workspace = acquireWorkspace(graph);
+				for (int spur = start; spur < end; spur++) {
+					spurPaths[spur] = findSpurPath(graph, workspace, accepted, previous, spur, destination);
+				}
+				workspaces.release(workspace);
+			});
+
+			for (Path candidate : spurPaths) {
+				if (candidate != null && seen.add(candidate)) {
+					candidate.sequence = sequence++;
+					candidates.add(candidate);
+				}
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			accepted.add(candidates.poll());
+		}
+		return accepted;
+	}
+
+	private Workspace acquireWorkspace(CompiledGraph graph) {
+		Workspace workspace = workspaces.acquire();
+		workspace.ensureCapacity(graph.getVertexCount());
+		return workspace;
+	}
+
+	/**
+	 * Finds the cheapest path that follows the previous path up to its spur vertex, and then deviates from every
+	 * accepted path with the same root.
+	 *
+	 * @return The candidate path, or null if the destination cannot be reached after the masks are applied
+	 */
+	private static Path findSpurPath(CompiledGraph graph, Workspace workspace, List<Path> accepted, Path previous,
+			int spur, int destination) {
+		workspace.nextStamp();
+
+		// Mask the root vertices, so that the spur path cannot loop back into the root
+		for (int i = 0; i < spur; i++) {
+			workspace.vertexStamps[previous.vertices[i]] = workspace.stamp;
+		}
+
+		// Mask the next step of every accepted path that shares the root
+		for (Path path : accepted) {
+			if (path.edges.length > spur && path.hasRoot(previous, spur)) {
+				workspace.stepStamps[path.vertices[spur + 1]] = workspace.stamp;
+			}
+		}
+
+		Path root = previous.getRoot(spur);
+		return workspace.search(graph, previous.vertices[spur], destination, root);
+	}
+
+	/**
+	 * A path as vertex ids and the positions of its edges in the compiled graph's outgoing edge arrays, so that
+	 * parallel edges between the same vertices are told apart.
+	 */
+	private static class Path {
+		private static final Path EMPTY = new Path(new int[0], new int[0], 0);
+
+		private final int[] vertices;
+		private final int[] edges;
+		private final long distance;
+		private long sequence;
+
+		Path(int[] vertices, int[] edges, long distance) {
+			this.vertices = vertices;
+			this.edges = edges;
+			this.distance = distance;
+		}
+
+		/**
+		 * @return Whether this path starts with the same edges as the other path up to its vertex at the index
+		 */
+		boolean hasRoot(Path other, int index) {
+			for (int i = 0; i < index; i++) {
+				if (edges[i] != other.edges[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return The part of this path up to its vertex at the index, without that vertex
+		 */
+		Path getRoot(int index) {
+			return new Path(Arrays.copyOf(vertices, index), Arrays.copyOf(edges, index), 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Path && Arrays.equals(edges, ((Path) obj).edges)
+					&& Arrays.equals(vertices, ((Path) obj).vertices);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(edges) * 31 + Arrays.hashCode(vertices);
+		}
+	}
+
+	/**
+	 * The arrays used by one search at a time. A vertex, or a step from the start of the search to a vertex, is masked
+	 * when its stamp equals the current stamp, so the masks of the previous search never have to be cleared.
+	 */
+	private static class Workspace {
+		private long[] distances = new long[0];
+		private int[] previousEdges = new int[0];
+		private int[] previousVertices = new int[0];
+		private int[] vertexStamps = new int[0];
+		private int[] stepStamps = new int[0];
+		private IndexedMinHeap queue = new IndexedMinHeap(0);
+
+		// Starts above the initial stamps of 0, so that nothing is masked for the first search
+		private int stamp = 1;
+		private int[] touched = new int[64];
+		private int touchedCount;
+
+		/**
+		 * Grows the arrays to hold every vertex of a graph. The new entries are unreached and unmasked.
+		 */
+		void ensureCapacity(int vertexCount) {
+			if (distances.length >= vertexCount) {
+				return;
+			}
+
+			int oldCount = distances.length;
+			distances = Arrays.copyOf(distances, vertexCount);
+			Arrays.fill(distances, oldCount, vertexCount, INFINITY);
+			previousEdges = new int[vertexCount];
+			previousVertices = new int[vertexCount];
+			vertexStamps = Arrays.copyOf(vertexStamps, vertexCount);
+			stepStamps = Arrays.copyOf(stepStamps, vertexCount);
+			queue = new IndexedMinHeap(vertexCount);
+		}
+
+		/**
+		 * Starts a new set of masks, clearing the stamps if they would run out.
+		 */
+		void nextStamp() {
+			if (stamp == Integer.MAX_VALUE) {
+				Arrays.fill(vertexStamps, 0);
+				Arrays.fill(stepStamps, 0);
+				stamp = 0;
+			}
+			stamp++;
+		}
+
+		/**
+		 * Runs Dijkstra's Algorithm from the start to the destination, skipping masked vertices and edges, and joins
+		 * the result to the root.
+		 *
+		 * @return The root followed by the shortest path, or null if there is none
+		 */
+		Path search(CompiledGraph graph, int start, int destination, Path root) {
+			int[] offsets = graph.getOutOffsets();
+			int[] targets = graph.getOutTargets();
+			int[] weights = graph.getOutWeights();
+
+			setDistance(start, 0, -1, -1);
+			queue.insertOrDecrease(start, 0);
+			while (!queue.isEmpty()) {
+				int vertex = queue.poll();
+				if (vertex == destination) {
+					break;
+				}
+
+				long distance = distances[vertex];
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int next = targets[edge];
+					if (vertexStamps[next] == stamp || (vertex == start && stepStamps[next] == stamp)) {
+						continue;
+					}
+
+					// Only a strictly shorter distance replaces the previous edge, so of parallel edges the lightest,
+					// and the first of equally light ones, is the one kept
+					long nextDistance = distance + weights[edge];
+					if (nextDistance < distances[next]) {
+						setDistance(next, nextDistance, edge, vertex);
+						queue.insertOrDecrease(next, nextDistance);
+					}
+				}
+			}
+
+			Path path = distances[destination] == INFINITY ? null : join(root, start, destination, graph);
+			reset();
+			return path;
+		}
+
+		private Path join(Path root, int start, int destination, CompiledGraph graph) {
+			int length = 0;
+			for (int vertex = destination; vertex != start; vertex = previousVertices[vertex]) {
+				length++;
+			}
+
+			int rootLength = root.vertices.length;
+			int[] vertices = Arrays.copyOf(root.vertices, rootLength + length + 1);
+			int[] edges = Arrays.copyOf(root.edges, rootLength + length);
+			int position = rootLength + length;
+			for (int vertex = destination; vertex != start; vertex = previousVertices[vertex]) {
+				vertices[position] = vertex;
+				edges[--position] = previousEdges[vertex];
+			}
+			vertices[rootLength] = start;
+
+			long distance = distances[destination];
+			int[] weights = graph.getOutWeights();
+			for (int edge : root.edges) {
+				distance += weights[edge];
+			}
+			return new Path(vertices, edges, distance);
+		}
+
+		private void setDistance(int vertex, long distance, int previousEdge, int previousVertex) {
+			if (distances[vertex] == INFINITY) {
+				if (touchedCount == touched.length) {
+					touched = Arrays.copyOf(touched, touchedCount * 2);
+				}
+				touched[touchedCount++] = vertex;
+			}
+			distances[vertex] = distance;
+			previousEdges[vertex] = previousEdge;
+			previousVertices[vertex] = previousVertex;
+		}
+
+		private void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				distances[touched[i]] = INFINITY;
+			}
+			touchedCount = 0;
+			queue.clear();
+		}
+	}
+}
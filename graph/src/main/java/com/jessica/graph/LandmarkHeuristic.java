@@ -0,0 +1,55 @@
+package com.jessica.graph;
+
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Estimates distances with the triangle inequality over the landmarks of a {@link LandmarkIndex}. The estimate is a
+ * lower bound for the graph the index was built from, as long as no edge weight has been lowered since. Vertices that
+ * are not part of the index are estimated at 0.
+ */
+public class LandmarkHeuristic implements DistanceHeuristic {
+
+	private final LandmarkIndex index;
+	private final int[] activeLandmarks;
+
+	/**
+	 * Class constructor that uses every landmark of the index.
+	 *
+	 * @param index
+	 *            The landmark distances of the graph being searched
+	 */
+	public LandmarkHeuristic(LandmarkIndex index) {
+		this(index, null);
+	}
+
+	/**
+	 * Class constructor that only uses some of the landmarks of the index, which makes every estimate cheaper.
+	 *
+	 * @param index
+	 *            The landmark distances of the graph being searched
+	 * @param activeLandmarks
+	 *            The positions of the landmarks to use, or null to use all of them
+	 */
+	public LandmarkHeuristic(LandmarkIndex index, int[] activeLandmarks) {
+		this.index = index;
+		this.activeLandmarks = activeLandmarks;
+	}
+
+	@Override
+	public long getLowerBound(Vertex vertex, Vertex target) {
+		int from = index.getId(vertex.getLabel());
+		int to = index.getId(target.getLabel());
+		if (from == LandmarkIndex.NO_VERTEX || to == LandmarkIndex.NO_VERTEX) {
+			return 0;
+		}
+
+		if (activeLandmarks == null) {
+			return index.getLowerBound(from, to);
+		}
+		long bound = 0;
+		for (int landmark : activeLandmarks) {
+			bound = Math.max(bound, index.getLowerBound(landmark, from, to));
+		}
+		return bound;
+	}
+}
@@ -0,0 +1,290 @@
+package com.jessica.graph;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+
+/**
+ * The index built by {@link LandmarkIndexBuilder}. For a few chosen vertices, the landmarks, it stores the shortest
+ * distance from each landmark to every vertex and from every vertex to each landmark. By the triangle inequality, for
+ * any landmark L the shortest distance from v to t is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L), which
+ * gives A* a lower bound on graphs that have no coordinates.
+ *
+ * The distances of a vertex to all landmarks are stored next to each other, so computing a bound reads one short run
+ * of each array. Distances that do not fit in an int are stored as Integer.MAX_VALUE, which keeps every bound a lower
+ * bound. The index only depends on vertex labels and edge weights, so it can be saved next to the graph file and used
+ * with the graph after reading it back.
+ */
+public class LandmarkIndex implements Serializable {
+
+	private static final long serialVersionUID = -3081747521389106502L;
+
+	/**
+	 * The extension added to the name of a graph file to get the name of its landmark file.
+	 */
+	public static final String FILE_EXTENSION = ".landmarks";
+
+	/**
+	 * The stored distance between a landmark and a vertex when there is no path between them.
+	 */
+	public static final int UNREACHABLE = -1;
+
+	/**
+	 * The id returned for a vertex that is not part of the index.
+	 */
+	public static final int NO_VERTEX = -1;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+
+	private final String[] labels;
+	private final int[] landmarks;
+
+	// Indexed by vertex * landmark count + landmark
+	private final int[] fromLandmarks;
+	private final int[] toLandmarks;
+
+	// The id of every label, built when the index is created or read, so that queries on any thread only read it
+	private transient Map<String, Integer> ids;
+
+	LandmarkIndex(String[] labels, int[] landmarks, int[] fromLandmarks, int[] toLandmarks) {
+		this.labels = labels;
+		this.landmarks = landmarks;
+		this.fromLandmarks = fromLandmarks;
+		this.toLandmarks = toLandmarks;
+		this.ids = buildIds(labels);
+	}
+
+	/**
+	 * Gets the name of the landmark file stored next to a graph file.
+	 *
+	 * @param graphFileName
+	 *            The name of the graph file
+	 * @return The name of the landmark file
+	 */
+	public static String getFileName(String graphFileName) {
+		return graphFileName + FILE_EXTENSION;
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in the index
+	 */
+	public int getVertexCount() {
+		return labels.length;
+	}
+
+	/**
+	 *
+	 * @return The number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarks.length;
+	}
+
+	/**
+	 *
+	 * @param landmark
+	 *            The position of the landmark, from 0 to getLandmarkCount() - 1
+	 * @return The label of the landmark vertex
+	 */
+	public String getLandmarkLabel(int landmark) {
+		return labels[landmarks[landmark]];
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            The label of a vertex
+	 * @return The id of the vertex in the index, or NO_VERTEX if it is not part of the index
+	 */
+	public int getId(String label) {
+		Integer id = ids.get(label);
+		return id == null ? NO_VERTEX : id;
+	}
+
+	private static Map<String, Integer> buildIds(String[] labels) {
+		Map<String, Integer> labelIds = new HashMap<String, Integer>(labels.length * 2);
+		for (int id = 0; id < labels.length; id++) {
+			labelIds.put(labels[id], id);
+		}
+		return labelIds;
+	}
+
+	/**
+	 * The ids of the labels are not saved with the index, so they are built again when it is read.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		ids = buildIds(labels);
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The label of the vertex
+	 */
+	public String getLabel(int id) {
+		return labels[id];
+	}
+
+	/**
+	 *
+	 * @param landmark
+	 *            The position of the landmark
+	 * @param id
+	 *            The id of a vertex
+	 * @return The shortest distance from the landmark to the vertex, or UNREACHABLE
+	 */
+	public int getDistanceFromLandmark(int landmark, int id) {
+		return fromLandmarks[id * landmarks.length + landmark];
+	}
+
+	/**
+	 *
+	 * @param landmark
+	 *            The position of the landmark
+	 * @param id
+	 *            The id of a vertex
+	 * @return The shortest distance from the vertex to the landmark, or UNREACHABLE
+	 */
+	public int getDistanceToLandmark(int landmark, int id) {
+		return toLandmarks[id * landmarks.length + landmark];
+	}
+
+	/**
+	 * Gets the best lower bound any landmark gives on the distance between two vertices.
+	 *
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return A lower bound on the shortest distance from one vertex to the other
+	 */
+	public long getLowerBound(int from, int to) {
+		long bound = 0;
+		for (int landmark = 0; landmark < landmarks.length; landmark++) {
+			bound = Math.max(bound, getLowerBound(landmark, from, to));
+		}
+		return bound;
+	}
+
+	/**
+	 * Gets the lower bound one landmark gives on the distance between two vertices.
+	 *
+	 * @param landmark
+	 *            The position of the landmark
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return A lower bound on the shortest distance from one vertex to the other
+	 */
+	public long getLowerBound(int landmark, int from, int to) {
+		int fromOffset = from * landmarks.length + landmark;
+		int toOffset = to * landmarks.length + landmark;
+		long bound = 0;
+
+		// d(from, to) >= d(L, to) - d(L, from)
+		if (fromLandmarks[fromOffset] != UNREACHABLE && fromLandmarks[toOffset] != UNREACHABLE) {
+			bound = Math.max(bound, (long) fromLandmarks[toOffset] - fromLandmarks[fromOffset]);
+		}
+
+		// d(from, to) >= d(from, L) - d(to, L)
+		if (toLandmarks[fromOffset] != UNREACHABLE && toLandmarks[toOffset] != UNREACHABLE) {
+			bound = Math.max(bound, (long) toLandmarks[fromOffset] - toLandmarks[toOffset]);
+		}
+		return bound;
+	}
+
+	/**
+	 * Checks whether the landmarks prove that there is no path between two vertices: a landmark that reaches the start
+	 * but not the end, or that is reached from the end but not from the start.
+	 *
+	 * @param from
+	 *            The id of the vertex the path starts at
+	 * @param to
+	 *            The id of the vertex the path ends at
+	 * @return True if there is certainly no path, false if there may be one
+	 */
+	public boolean isUnreachable(int from, int to) {
+		int fromOffset = from * landmarks.length;
+		int toOffset = to * landmarks.length;
+		for (int landmark = 0; landmark < landmarks.length; landmark++) {
+			if (fromLandmarks[fromOffset + landmark] != UNREACHABLE
+					&& fromLandmarks[toOffset + landmark] == UNREACHABLE) {
+				return true;
+			}
+			if (toLandmarks[toOffset + landmark] != UNREACHABLE
+					&& toLandmarks[fromOffset + landmark] == UNREACHABLE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Saves the index to a file.
+	 *
+	 * @param fileName
+	 *            The name of the file
+	 */
+	public void save(String fileName) throws GraphException {
+		if (fileName == null || fileName.isEmpty()) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_FILENAME);
+		}
+
+		try (ObjectOutputStream objectOutStream = new ObjectOutputStream(new FileOutputStream(fileName))) {
+			objectOutStream.writeObject(this);
+			objectOutStream.flush();
+		} catch (FileNotFoundException exception) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.FILE_NOT_FOUND, exception);
+		} catch (IOException exception) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.FILE_SAVE_ERROR, exception);
+		}
+	}
+
+	/**
+	 * Reads an index that was saved with {@link #save(String)}.
+	 *
+	 * @param fileName
+	 *            The name of the file
+	 * @return The index stored in the file
+	 */
+	public static LandmarkIndex load(String fileName) throws GraphException {
+		String className = LandmarkIndex.class.getSimpleName();
+		if (fileName == null || fileName.isEmpty()) {
+			throw new GraphException(className, GraphExceptionMsg.NULL_FILENAME);
+		}
+
+		Object objectFromFile;
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream(fileName))) {
+			objectFromFile = objectInputStream.readObject();
+		} catch (Exception exception) {
+			throw new GraphException(className, GraphExceptionMsg.FILE_READ_ERROR, exception);
+		}
+
+		if (!(objectFromFile instanceof LandmarkIndex)) {
+			throw new GraphException(className, GraphExceptionMsg.UNEXPECTED_INDEX_CONTENTS);
+		}
+		return (LandmarkIndex) objectFromFile;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the index
+	 */
+	@Override
+	public String toString() {
+		return "Landmark Index: " + getVertexCount() + " vertices, " + getLandmarkCount() + " landmarks";
+	}
+}
@@ -0,0 +1,321 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Builds a {@link LandmarkIndex} by choosing landmarks one after another and running Dijkstra's Algorithm from each of
+ * them, forward over the outgoing edges and backward over the incoming edges.
+ *
+ * Landmarks are chosen with one of two strategies:
+ * <ul>
+ * <li>FARTHEST picks the vertex that is farthest from all landmarks chosen so far, preferring vertices that none of
+ * them reach.</li>
+ * <li>AVOID grows a shortest path tree from a random vertex, and walks down to a leaf of the subtree whose distances
+ * are covered worst by the landmarks chosen so far. It usually gives better bounds than FARTHEST.</li>
+ * </ul>
+ * Choosing the next landmark only needs the forward distances of the previous ones, so the backward searches run on
+ * the pool while the next landmarks are chosen.
+ */
+public class LandmarkIndexBuilder {
+
+	/**
+	 * The strategy used to choose landmarks.
+	 */
+	public enum Selection {
+		FARTHEST, AVOID
+	}
+
+	private static final int DEFAULT_LANDMARK_COUNT = 16;
+	private static final long SEED = 0x5DEECE66DL;
+	private static final long INFINITY = Long.MAX_VALUE;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final int landmarkCount;
+	private final Selection selection;
+
+	/**
+	 * Class constructor that chooses 16 landmarks with the AVOID strategy on the common fork join pool.
+	 */
+	public LandmarkIndexBuilder() {
+		this(ForkJoinPool.commonPool(), DEFAULT_LANDMARK_COUNT, Selection.AVOID);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run the landmark searches on
+	 * @param landmarkCount
+	 *            The number of landmarks to choose. More landmarks give better bounds, but take more memory and
+	 *            preprocessing time.
+	 * @param selection
+	 *            The strategy used to choose landmarks
+	 */
+	public LandmarkIndexBuilder(ForkJoinPool pool, int landmarkCount, Selection selection) {
+		this.pool = pool;
+		this.landmarkCount = landmarkCount;
+		this.selection = selection;
+	}
+
+	/**
+	 * Builds the landmark index of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to preprocess
+	 * @return The landmark index
+	 */
+	public LandmarkIndex build(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return build(graph.compile());
+	}
+
+	/**
+	 * Builds the landmark index of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to preprocess
+	 * @return The landmark index
+	 */
+	public LandmarkIndex build(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		if (graph.getVertexCount() == 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EMPTY_GRAPH);
+		}
+
+		int vertexCount = graph.getVertexCount();
+		int count = Math.max(1, Math.min(landmarkCount, vertexCount));
+		int[] landmarks = new int[count];
+		boolean[] isLandmark = new boolean[vertexCount];
+		int[] fromLandmarks = new int[vertexCount * count];
+		int[] toLandmarks = new int[vertexCount * count];
+		Random random = new Random(SEED);
+
+		List<ForkJoinTask<?>> backwardSearches = new ArrayList<ForkJoinTask<?>>();
+		for (int i = 0; i < count; i++) {
+			int landmark = i == 0 ? selectFirst(graph, random) : select(graph, i, isLandmark, fromLandmarks,
+					random);
+			landmarks[i] = landmark;
+			isLandmark[landmark] = true;
+
+			final int position = i;
+			backwardSearches.add(pool.submit(() -> {
+				long[] distances = findDistances(vertexCount, graph.getInOffsets(), graph.getInSources(),
+						graph.getInWeights(), landmark, null, null);
+				store(distances, toLandmarks, position, count);
+			}));
+			long[] distances = findDistances(vertexCount, graph.getOutOffsets(), graph.getOutTargets(),
+					graph.getOutWeights(), landmark, null, null);
+			store(distances, fromLandmarks, position, count);
+		}
+		for (ForkJoinTask<?> backwardSearch : backwardSearches) {
+			backwardSearch.join();
+		}
+
+		String[] labels = new String[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			labels[vertex] = graph.getVertex(vertex).getLabel();
+		}
+		return new LandmarkIndex(labels, landmarks, fromLandmarks, toLandmarks);
+	}
+
+	/**
+	 * The first landmark is the vertex farthest from a random vertex.
+	 */
+	private int selectFirst(CompiledGraph graph, Random random) {
+		int vertexCount = graph.getVertexCount();
+		int root = random.nextInt(vertexCount);
+		long[] distances = findDistances(vertexCount, graph.getOutOffsets(), graph.getOutTargets(),
+				graph.getOutWeights(), root, null, null);
+
+		int farthest = root;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			if (distances[vertex] != INFINITY && distances[vertex] > distances[farthest]) {
+				farthest = vertex;
+			}
+		}
+		return farthest;
+	}
+
+	private int select(CompiledGraph graph, int chosen, boolean[] isLandmark, int[] fromLandmarks, Random random) {
+		if (selection == Selection.AVOID) {
+			int landmark = selectAvoid(graph, chosen, isLandmark, fromLandmarks, random);
+			if (landmark != CompiledGraph.NO_VERTEX) {
+				return landmark;
+			}
+		}
+		return selectFarthest(graph, chosen, isLandmark, fromLandmarks);
+	}
+
+	/**
+	 * Picks the vertex whose smallest distance from the chosen landmarks is the largest. A vertex no landmark reaches
+	 * counts as infinitely far away.
+	 */
+	private int selectFarthest(CompiledGraph graph, int chosen, boolean[] isLandmark, int[] fromLandmarks) {
+		int count = fromLandmarks.length / graph.getVertexCount();
+		int farthest = CompiledGraph.NO_VERTEX;
+		long farthestDistance = -1;
+		for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+			if (isLandmark[vertex]) {
+				continue;
+			}
+
+			long distance = INFINITY;
+			for (int landmark = 0; landmark < chosen; landmark++) {
+				int fromLandmark = fromLandmarks[vertex * count + landmark];
+				if (fromLandmark != LandmarkIndex.UNREACHABLE) {
+					distance = Math.min(distance, fromLandmark);
+				}
+			}
+			if (distance > farthestDistance) {
+				farthest = vertex;
+				farthestDistance = distance;
+			}
+		}
+		return farthest;
+	}
+
+	/**
+	 * Grows a shortest path tree from a random vertex, and weighs every vertex by how much its distance from the root
+	 * exceeds the lower bound the chosen landmarks give. Starting at the root, it then follows the child with the
+	 * largest total weight in its subtree, skipping subtrees that already contain a landmark, down to a leaf.
+	 *
+	 * @return The new landmark, or NO_VERTEX if no subtree of the root is worth covering
+	 */
+	private int selectAvoid(CompiledGraph graph, int chosen, boolean[] isLandmark, int[] fromLandmarks,
+			Random random) {
+		int vertexCount = graph.getVertexCount();
+		int count = fromLandmarks.length / vertexCount;
+		int root;
+		do {
+			root = random.nextInt(vertexCount);
+		} while (isLandmark[root]);
+
+		int[] previous = new int[vertexCount];
+		int[] order = new int[vertexCount];
+		long[] distances = findDistances(vertexCount, graph.getOutOffsets(), graph.getOutTargets(),
+				graph.getOutWeights(), root, previous, order);
+
+		// Visit the tree bottom up, in the reverse of the order in which the search settled the vertices
+		long[] sizes = new long[vertexCount];
+		int[] bestChildren = new int[vertexCount];
+		boolean[] hasLandmark = new boolean[vertexCount];
+		Arrays.fill(bestChildren, CompiledGraph.NO_VERTEX);
+		for (int i = vertexCount - 1; i >= 0; i--) {
+			int vertex = order[i];
+			if (vertex == CompiledGraph.NO_VERTEX) {
+				continue;
+			}
+
+			if (isLandmark[vertex] || hasLandmark[vertex]) {
+				hasLandmark[vertex] = true;
+				sizes[vertex] = 0;
+			} else {
+				long bound = 0;
+				for (int landmark = 0; landmark < chosen; landmark++) {
+					int toVertex = fromLandmarks[vertex * count + landmark];
+					int toRoot = fromLandmarks[root * count + landmark];
+					if (toVertex != LandmarkIndex.UNREACHABLE && toRoot != LandmarkIndex.UNREACHABLE) {
+						bound = Math.max(bound, (long) toVertex - toRoot);
+					}
+				}
+				sizes[vertex] += distances[vertex] - Math.min(bound, distances[vertex]);
+			}
+
+			int parent = previous[vertex];
+			if (parent != CompiledGraph.NO_VERTEX) {
+				hasLandmark[parent] |= hasLandmark[vertex];
+				sizes[parent] += sizes[vertex];
+				if (!hasLandmark[vertex] && (bestChildren[parent] == CompiledGraph.NO_VERTEX
+						|| sizes[vertex] > sizes[bestChildren[parent]])) {
+					bestChildren[parent] = vertex;
+				}
+			}
+		}
+
+		if (bestChildren[root] == CompiledGraph.NO_VERTEX || sizes[bestChildren[root]] == 0) {
+			return CompiledGraph.NO_VERTEX;
+		}
+		int vertex = bestChildren[root];
+		while (bestChildren[vertex] != CompiledGraph.NO_VERTEX) {
+			vertex = bestChildren[vertex];
+		}
+		return vertex;
+	}
+
+	/**
+	 * Runs Dijkstra's Algorithm over one direction of a compiled graph.
+	 *
+	 * @param previous
+	 *            If not null, filled with the parent of every vertex in the shortest path tree
+	 * @param order
+	 *            If not null, filled with the vertices in the order they were settled, followed by NO_VERTEX
+	 * @return The distance of every vertex from the source, or INFINITY
+	 */
+	private static long[] findDistances(int vertexCount, int[] offsets, int[] neighbors, int[] weights, int source,
+			int[] previous, int[] order) {
+		long[] distances = new long[vertexCount];
+		Arrays.fill(distances, INFINITY);
+		if (previous != null) {
+			Arrays.fill(previous, CompiledGraph.NO_VERTEX);
+		}
+		if (order != null) {
+			Arrays.fill(order, CompiledGraph.NO_VERTEX);
+		}
+
+		IndexedMinHeap verticesToBeProcessed = new IndexedMinHeap(vertexCount);
+		distances[source] = 0;
+		verticesToBeProcessed.insertOrDecrease(source, 0);
+
+		int settled = 0;
+		while (!verticesToBeProcessed.isEmpty()) {
+			int vertex = verticesToBeProcessed.poll();
+			if (order != null) {
+				order[settled++] = vertex;
+			}
+
+			long distance = distances[vertex];
+			for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+				int next = neighbors[edge];
+				long nextDistance = distance + weights[edge];
+				if (nextDistance < distances[next]) {
+					distances[next] = nextDistance;
+					if (previous != null) {
+						previous[next] = vertex;
+					}
+					verticesToBeProcessed.insertOrDecrease(next, nextDistance);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Copies the distances of one landmark into its slot of every vertex, capping them to fit in an int.
+	 */
+	private static void store(long[] distances, int[] table, int position, int count) {
+		for (int vertex = 0; vertex < distances.length; vertex++) {
+			int value;
+			if (distances[vertex] == INFINITY) {
+				value = LandmarkIndex.UNREACHABLE;
+			} else {
+				value = (int) Math.min(distances[vertex], Integer.MAX_VALUE);
+			}
+			table[vertex * count + position] = value;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.jessica.graph;
+
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The ALT algorithm (A*, Landmarks and the Triangle inequality). Each query runs {@link AStarShortestPath} with a
+ * {@link LandmarkHeuristic}, which guides the search on graphs that have no coordinates. Only the few landmarks that
+ * give the best bound between the source and the destination are used, which keeps every estimate cheap. When the
+ * landmarks prove that the destination cannot be reached, no search is run at all.
+ *
+ * The index is only valid for the graph it was built from. When this class builds the index itself, it builds it for
+ * the first graph it is asked about, and rebuilds it when asked about a different graph or when the version of the
+ * graph changes, since a lowered weight makes the landmark distances overestimate. An index given to the constructor
+ * is used as it is, so changes made to the graph after it was built are not seen.
+ */
+public class LandmarkShortestPath extends AbstractShortestPath {
+
+	private static final int ACTIVE_LANDMARK_COUNT = 4;
+
+	private final LandmarkIndexBuilder builder;
+	private volatile LandmarkIndex index;
+	private volatile Graph indexedGraph;
+	private volatile long indexedVersion;
+
+	/**
+	 * Class constructor that builds the landmark index the first time a graph is queried.
+	 */
+	public LandmarkShortestPath() {
+		this(new LandmarkIndexBuilder());
+	}
+
+	/**
+	 * Class constructor that builds the landmark index with the given builder the first time a graph is queried.
+	 *
+	 * @param builder
+	 *            The builder used to preprocess graphs
+	 */
+	public LandmarkShortestPath(LandmarkIndexBuilder builder) {
+		this.builder = builder;
+	}
+
+	/**
+	 * Class constructor that uses an index that was already built, for example one read from the file next to the
+	 * graph file, for every query.
+	 *
+	 * @param index
+	 *            The landmark index of the graphs that will be queried
+	 */
+	public LandmarkShortestPath(LandmarkIndex index) {
+		this.builder = null;
+		this.index = index;
+	}
+
+	/**
+	 * Gets the index used for the current version of a graph, building it if needed.
+	 *
+	 * @param graph
+	 *            The graph being queried
+	 * @return The landmark index of the graph
+	 */
+	public LandmarkIndex getIndex(Graph graph) throws GraphException {
+		if (builder == null) {
+			return index;
+		}
+
+		synchronized (this) {
+			long version = graph.getVersion();
+			if (index == null || indexedGraph != graph || indexedVersion != version) {
+				index = builder.build(graph);
+				indexedGraph = graph;
+				indexedVersion = version;
+			}
+			return index;
+		}
+	}
+
+	@Override
+	public List<Vertex> getShortestPath(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		LandmarkIndex landmarks = getIndex(graph);
+		if (isUnreachable(landmarks, source, destination)) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NO_PATH);
+		}
+		return getSearch(landmarks, source, destination).getShortestPath(graph, source, destination);
+	}
+
+	@Override
+	public Integer getShortestDistance(Graph graph, Vertex source, Vertex destination) throws GraphException {
+		validate(graph, source, destination);
+		LandmarkIndex landmarks = getIndex(graph);
+		if (isUnreachable(landmarks, source, destination)) {
+			return Integer.MAX_VALUE;
+		}
+		return getSearch(landmarks, source, destination).getShortestDistance(graph, source, destination);
+	}
+
+	private boolean isUnreachable(LandmarkIndex landmarks, Vertex source, Vertex destination) {
+		int from = landmarks.getId(source.getLabel());
+		int to = landmarks.getId(destination.getLabel());
+		return from != LandmarkIndex.NO_VERTEX && to != LandmarkIndex.NO_VERTEX && landmarks.isUnreachable(from, to);
+	}
+
+	/**
+	 * Creates the A* search for a query, using the landmarks that give the best bound from the source to the
+	 * destination.
+	 */
+	private AStarShortestPath getSearch(LandmarkIndex landmarks, Vertex source, Vertex destination) {
+		int from = landmarks.getId(source.getLabel());
+		int to = landmarks.getId(destination.getLabel());
+		if (from == LandmarkIndex.NO_VERTEX || to == LandmarkIndex.NO_VERTEX
+				|| landmarks.getLandmarkCount() <= ACTIVE_LANDMARK_COUNT) {
+			return new AStarShortestPath(new LandmarkHeuristic(landmarks));
+		}
+
+		// Keep the active landmarks sorted by their bound, best first, with a simple insertion
+		int[] active = new int[ACTIVE_LANDMARK_COUNT];
+		long[] bounds = new long[ACTIVE_LANDMARK_COUNT];
+		int activeCount = 0;
+		for (int landmark = 0; landmark < landmarks.getLandmarkCount(); landmark++) {
+			long bound = landmarks.getLowerBound(landmark, from, to);
+			int slot = Math.min(activeCount, ACTIVE_LANDMARK_COUNT - 1);
+			if (activeCount == ACTIVE_LANDMARK_COUNT && bound <= bounds[slot]) {
+				continue;
+			}
+			while (slot > 0 && bounds[slot - 1] < bound) {
+				active[slot] = active[slot - 1];
+				bounds[slot] = bounds[slot - 1];
+				slot--;
+			}
+			active[slot] = landmark;
+			bounds[slot] = bound;
+			activeCount = Math.min(activeCount + 1, ACTIVE_LANDMARK_COUNT);
+		}
+		return new AStarShortestPath(new LandmarkHeuristic(landmarks, active));
+	}
+}
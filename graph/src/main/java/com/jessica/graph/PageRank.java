@@ -0,0 +1,243 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Ranks the vertices of a compiled graph by importance with PageRank, computed by power iteration. A random surfer
+ * follows an outgoing edge with the probability of the damping factor, and jumps to a vertex chosen uniformly at
+ * random otherwise, or always when the current vertex has no outgoing edges. The score of a vertex is the probability
+ * of finding the surfer there, so the scores add up to 1.
+ *
+ * Every iteration pulls the new score of each vertex from the sources of its incoming edges in the compiled graph's
+ * reverse arrays, so every vertex is written by exactly one thread and the vertices are split into chunks that run in
+ * parallel on a {@link ForkJoinPool}. The iteration stops when the scores change by less than the tolerance in total
+ * (the L1 norm of the change), or after the maximum number of iterations.
+ *
+ * Edges are followed with equal probability, or with a probability proportional to their weight when transitions are
+ * weighted. Parallel edges count once each.
+ */
+public class PageRank {
+
+	/**
+	 * The default probability of following an edge rather than jumping to a random vertex.
+	 */
+	public static final double DEFAULT_DAMPING = 0.85;
+
+	/**
+	 * The default total change in the scores below which the iteration stops.
+	 */
+	public static final double DEFAULT_TOLERANCE = 1e-9;
+
+	/**
+	 * The default maximum number of iterations.
+	 */
+	public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+	private static final int MINIMUM_GRAIN = 1024;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final double damping;
+	private final double tolerance;
+	private final int maxIterations;
+	private final boolean weighted;
+
+	/**
+	 * Class constructor with the default settings and unweighted transitions, which runs on the common fork join pool.
+	 */
+	public PageRank() throws GraphException {
+		this(ForkJoinPool.commonPool(), DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, false);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run the iterations on
+	 * @param damping
+	 *            The probability of following an edge rather than jumping to a random vertex, from 0 to 1
+	 * @param tolerance
+	 *            The total change in the scores below which the iteration stops
+	 * @param maxIterations
+	 *            The largest number of iterations, at least 1
+	 * @param weighted
+	 *            Whether edges are followed with a probability proportional to their weight, which must not be
+	 *            negative
+	 */
+	public PageRank(ForkJoinPool pool, double damping, double tolerance, int maxIterations, boolean weighted)
+			throws GraphException {
+		if (!(damping >= 0 && damping <= 1) || !(tolerance >= 0) || maxIterations < 1) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_PAGE_RANK_SETTINGS);
+		}
+
+		this.pool = pool;
+		this.damping = damping;
+		this.tolerance = tolerance;
+		this.maxIterations = maxIterations;
+		this.weighted = weighted;
+	}
+
+	/**
+	 * Ranks the vertices of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to rank
+	 * @return The score of every vertex
+	 */
+	public PageRankScores compute(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return compute(graph.compile());
+	}
+
+	/**
+	 * Ranks the vertices of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to rank
+	 * @return The score of every vertex
+	 */
+	public PageRankScores compute(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		int vertexCount = graph.getVertexCount();
+		if (vertexCount == 0) {
+			return new PageRankScores(graph, new double[0], 0, true);
+		}
+
+		int[] inOffsets = graph.getInOffsets();
+		int[] inSources = graph.getInSources();
+		double[] transitions = weighted ? getWeightedTransitions(graph) : null;
+		boolean[] dangling = getDanglingVertices(graph, transitions);
+
+		// Without weights, the share of a vertex's score that each of its edges carries is kept per vertex
+		double[] outDegrees = new double[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			outDegrees[vertex] = graph.getOutDegree(vertex);
+		}
+
+		double[] scores = new double[vertexCount];
+		double[] nextScores = new double[vertexCount];
+		double[] shares = weighted ? null : new double[vertexCount];
+		double[] nextShares = weighted ? null : new double[vertexCount];
+		Arrays.fill(scores, 1.0 / vertexCount);
+		double danglingScore = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			if (dangling[vertex]) {
+				danglingScore += scores[vertex];
+			} else if (!weighted) {
+				shares[vertex] = scores[vertex] / outDegrees[vertex];
+			}
+		}
+
+		int grain = ParallelRange.getGrain(pool, vertexCount, MINIMUM_GRAIN);
+		int iteration = 0;
+		boolean converged = false;
+		while (iteration < maxIterations && !converged) {
+			// The surfer lands on every vertex with the same probability after a random jump, or after leaving a
+			// vertex without outgoing edges
+			double base = (1 - damping + damping * danglingScore) / vertexCount;
+			double[] currentScores = scores;
+			double[] currentShares = shares;
+			double[] newScores = nextScores;
+			double[] newShares = nextShares;
+			DoubleAdder change = new DoubleAdder();
+			DoubleAdder newDanglingScore = new DoubleAdder();
+			ParallelRange.forEachChunk(pool, 0, vertexCount, grain, (start, end) -> {
+				double chunkChange = 0;
+				double chunkDanglingScore = 0;
+				for (int vertex = start; vertex < end; vertex++) {
+					double pulled = 0;
+					if (transitions != null) {
+						for (int edge = inOffsets[vertex]; edge < inOffsets[vertex + 1]; edge++) {
+							pulled += currentScores[inSources[edge]] * transitions[edge];
+						}
+					} else {
+						for (int edge = inOffsets[vertex]; edge < inOffsets[vertex + 1]; edge++) {
+							pulled += currentShares[inSources[edge]];
+						}
+					}
+
+					double score = base + damping * pulled;
+					newScores[vertex] = score;
+					chunkChange += Math.abs(score - currentScores[vertex]);
+					if (dangling[vertex]) {
+						chunkDanglingScore += score;
+					} else if (newShares != null) {
+						newShares[vertex] = score / outDegrees[vertex];
+					}
+				}
+				change.add(chunkChange);
+				newDanglingScore.add(chunkDanglingScore);
+			});
+
+			nextScores = scores;
+			scores = newScores;
+			nextShares = shares;
+			shares = newShares;
+			danglingScore = newDanglingScore.sum();
+			converged = change.sum() < tolerance;
+			iteration++;
+		}
+		return new PageRankScores(graph, scores, iteration, converged);
+	}
+
+	/**
+	 * Computes the probability of following every edge from its source, indexed by reverse edge position.
+	 *
+	 * @return The weight of every edge divided by the total weight of the edges out of its source
+	 */
+	private double[] getWeightedTransitions(CompiledGraph graph) throws GraphException {
+		int vertexCount = graph.getVertexCount();
+		int[] outOffsets = graph.getOutOffsets();
+		int[] outWeights = graph.getOutWeights();
+		int[] inSources = graph.getInSources();
+		int[] inWeights = graph.getInWeights();
+
+		double[] totalWeights = new double[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			for (int edge = outOffsets[vertex]; edge < outOffsets[vertex + 1]; edge++) {
+				if (outWeights[edge] < 0) {
+					throw new GraphException(CLASSNAME, GraphExceptionMsg.NEGATIVE_WEIGHT);
+				}
+				totalWeights[vertex] += outWeights[edge];
+			}
+		}
+
+		double[] transitions = new double[inSources.length];
+		for (int edge = 0; edge < inSources.length; edge++) {
+			double totalWeight = totalWeights[inSources[edge]];
+			transitions[edge] = totalWeight > 0 ? inWeights[edge] / totalWeight : 0;
+		}
+		return transitions;
+	}
+
+	/**
+	 * Finds the vertices the surfer cannot leave by an edge: those without outgoing edges, and with weighted
+	 * transitions, those whose outgoing edges all have a weight of 0.
+	 */
+	private static boolean[] getDanglingVertices(CompiledGraph graph, double[] transitions) {
+		int vertexCount = graph.getVertexCount();
+		int[] outOffsets = graph.getOutOffsets();
+		int[] outWeights = graph.getOutWeights();
+		boolean[] dangling = new boolean[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			boolean canLeave = false;
+			for (int edge = outOffsets[vertex]; edge < outOffsets[vertex + 1] && !canLeave; edge++) {
+				canLeave = transitions == null || outWeights[edge] > 0;
+			}
+			dangling[vertex] = !canLeave;
+		}
+		return dangling;
+	}
+}
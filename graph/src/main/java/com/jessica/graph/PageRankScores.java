@@ -0,0 +1,134 @@
+package com.jessica.graph;
+
+import java.util.function.ObjDoubleConsumer;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The PageRank scores of the vertices of a compiled graph, computed by {@link PageRank}. The scores are kept in a
+ * primitive array indexed by vertex id, and looked up by label through the compiled graph, so that no score is ever
+ * boxed.
+ */
+public class PageRankScores {
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final CompiledGraph graph;
+	private final double[] scores;
+	private final int iterationCount;
+	private final boolean converged;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph the scores were computed for
+	 * @param scores
+	 *            The score of every vertex, indexed by its id in the compiled graph
+	 * @param iterationCount
+	 *            The number of iterations that were run
+	 * @param converged
+	 *            Whether the scores changed by less than the tolerance in the last iteration
+	 */
+	PageRankScores(CompiledGraph graph, double[] scores, int iterationCount, boolean converged) {
+		this.graph = graph;
+		this.scores = scores;
+		this.iterationCount = iterationCount;
+		this.converged = converged;
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the scores were computed for, which maps vertices to ids
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @param vertexId
+	 *            The id of a vertex in the compiled graph
+	 * @return The score of the vertex
+	 */
+	public double getScore(int vertexId) {
+		return scores[vertexId];
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            The label of a vertex
+	 * @return The score of the vertex
+	 */
+	public double getScore(String label) throws GraphException {
+		int id = graph.getId(label);
+		if (id == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return scores[id];
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            A vertex
+	 * @return The score of the vertex
+	 */
+	public double getScore(Vertex vertex) throws GraphException {
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+		return getScore(vertex.getLabel());
+	}
+
+	/**
+	 * Gets the score of every vertex. The array is shared, not copied, and must not be modified.
+	 *
+	 * @return The score of every vertex, indexed by its id in the compiled graph
+	 */
+	public double[] getScores() {
+		return scores;
+	}
+
+	/**
+	 * Passes the label and score of every vertex to an action, in the order of the vertex ids.
+	 *
+	 * @param action
+	 *            The action to perform for each vertex
+	 */
+	public void forEach(ObjDoubleConsumer<String> action) {
+		for (int id = 0; id < scores.length; id++) {
+			action.accept(graph.getVertex(id).getLabel(), scores[id]);
+		}
+	}
+
+	/**
+	 *
+	 * @return The number of iterations that were run
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 *
+	 * @return Whether the scores changed by less than the tolerance in the last iteration, rather than the iteration
+	 *         stopping at the maximum
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the scores
+	 */
+	@Override
+	public String toString() {
+		return "PageRank Scores: " + scores.length + " vertices after " + iterationCount + " iterations"
+				+ (converged ? "" : ", not converged");
+	}
+}
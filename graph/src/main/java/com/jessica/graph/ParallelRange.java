@@ -0,0 +1,104 @@
+package com.jessica.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a loop over a range of integers in parallel on a {@link ForkJoinPool}, by splitting the range in half until
+ * the pieces are no larger than the grain size.
+ */
+final class ParallelRange {
+
+	/**
+	 * The body of a loop, called once per chunk of the range.
+	 */
+	interface ChunkBody {
+
+		/**
+		 * @param start
+		 *            The first index of the chunk
+		 * @param end
+		 *            One past the last index of the chunk
+		 */
+		void run(int start, int end);
+	}
+
+	private ParallelRange() {
+	}
+
+	/**
+	 * Runs the body over every chunk of [start, end), and waits for all of them to finish. Ranges no larger than the
+	 * grain size, and pools with a parallelism of 1, run on the calling thread.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 * @param start
+	 *            The first index of the range
+	 * @param end
+	 *            One past the last index of the range
+	 * @param grain
+	 *            The largest chunk that is not split any further
+	 * @param body
+	 *            The body of the loop
+	 */
+	static void forEachChunk(ForkJoinPool pool, int start, int end, int grain, ChunkBody body) {
+		if (end <= start) {
+			return;
+		}
+
+		int grainSize = Math.max(grain, 1);
+		if (end - start <= grainSize || pool.getParallelism() == 1) {
+			body.run(start, end);
+		} else if (ForkJoinTask.getPool() == pool) {
+			// Already running inside the pool, so fork directly instead of blocking a worker
+			new ChunkAction(start, end, grainSize, body).invoke();
+		} else {
+			pool.invoke(new ChunkAction(start, end, grainSize, body));
+		}
+	}
+
+	/**
+	 * Picks a grain size that splits the range into a few chunks per worker thread, so that uneven chunks still keep
+	 * every thread busy.
+	 *
+	 * @param pool
+	 *            The pool the loop will run on
+	 * @param size
+	 *            The size of the range
+	 * @param minimumGrain
+	 *            The smallest chunk worth running as a separate task
+	 * @return The grain size
+	 */
+	static int getGrain(ForkJoinPool pool, int size, int minimumGrain) {
+		return Math.max(minimumGrain, size / (pool.getParallelism() * 8));
+	}
+
+	private static class ChunkAction extends RecursiveAction {
+
+		private static final long serialVersionUID = -1593482290471338826L;
+
+		private final int start;
+		private final int end;
+		private final int grain;
+		private final transient ChunkBody body;
+
+		ChunkAction(int start, int end, int grain, ChunkBody body) {
+			this.start = start;
+			this.end = end;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= grain) {
+				body.run(start, end);
+				return;
+			}
+
+			int middle = (start + end) >>> 1;
+			invokeAll(new ChunkAction(start, middle, grain, body), new ChunkAction(middle, end, grain, body));
+		}
+	}
+}
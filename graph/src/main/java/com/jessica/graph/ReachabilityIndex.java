@@ -0,0 +1,584 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.StronglyConnectedComponentsFinder.Algorithm;
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * An index that answers whether one vertex can reach another, built over the condensation of a compiled graph so
+ * that every strongly connected component becomes a single node of a directed acyclic graph. Every node gets labels
+ * that decide most queries without a search:
+ * <ul>
+ * <li>Hub masks. The best connected nodes are hubs, and every node records which hubs it reaches and which hubs reach
+ * it, one bit per hub. A source that reaches a hub which reaches the destination reaches the destination. A hub
+ * that reaches the source but not the destination, or that is reached from the destination but not from the source,
+ * proves that there is no path.</li>
+ * <li>A tree interval from the first search. The nodes below a node in that search's spanning forest have
+ * consecutive post-order numbers, so a node whose number falls in the interval is reachable.</li>
+ * <li>A number of hull intervals, one per search, each of which covers the post-order numbers of every node that is
+ * reachable. A node whose intervals do not all lie inside the intervals of another node cannot be reached from it.
+ * The searches visit the nodes in different random orders, so that together they rule out more pairs.</li>
+ * </ul>
+ * The rest of the queries run a depth first search of the condensation that skips every node whose labels already
+ * rule out the destination, and stops at the first node whose labels prove that it reaches the destination.
+ *
+ * The searches that label the nodes are independent, so they run in parallel on a {@link ForkJoinPool}. Edges and
+ * vertices can be added to an existing index: a new edge widens the hull intervals and hub masks of the nodes on
+ * either side of it, which keeps every answer exact without rebuilding. Removing anything from the graph needs a new
+ * index. Queries may run from several threads at once, but not while the index is being updated.
+ */
+public class ReachabilityIndex {
+
+	/**
+	 * The default number of hull intervals per node.
+	 */
+	public static final int DEFAULT_LABEL_COUNT = 3;
+
+	/**
+	 * The largest number of hubs, one bit of a mask each.
+	 */
+	public static final int HUB_COUNT = Long.SIZE;
+
+	private static final int MINIMUM_GRAIN = 1024;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final CompiledGraph graph;
+	private final int[] componentIds;
+	private final int labelCount;
+
+	// The components of vertices that were added after the index was built
+	private final Map<Vertex, Integer> addedComponents = new HashMap<Vertex, Integer>();
+	private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+	// The condensation, as lists of successors and predecessors that new edges are appended to
+	private int componentCount;
+	private int[][] successors;
+	private int[] successorCounts;
+	private int[][] predecessors;
+	private int[] predecessorCounts;
+
+	private int[] treeLows;
+	private int[] treePosts;
+	private int[][] lows;
+	private int[][] highs;
+
+	// Bit i is set when the node reaches hub i, and when hub i reaches the node, respectively
+	private long[] reachedHubs;
+	private long[] reachingHubs;
+
+	/**
+	 * Class constructor that builds the index on the common fork join pool.
+	 *
+	 * @param graph
+	 *            The compiled graph to index
+	 */
+	public ReachabilityIndex(CompiledGraph graph) throws GraphException {
+		this(graph, ForkJoinPool.commonPool(), DEFAULT_LABEL_COUNT);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph to index
+	 * @param pool
+	 *            The pool to build the index on
+	 * @param labelCount
+	 *            The number of hull intervals per node, at least 1. More intervals rule out more pairs without a
+	 *            search, but take more memory and time to build and check.
+	 */
+	public ReachabilityIndex(CompiledGraph graph, ForkJoinPool pool, int labelCount) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		this.graph = graph;
+		this.labelCount = Math.max(labelCount, 1);
+		StronglyConnectedComponents components = new StronglyConnectedComponentsFinder(pool, Algorithm.AUTOMATIC)
+				.find(graph);
+		componentIds = components.getComponentIds();
+		componentCount = components.getComponentCount();
+		buildCondensation(components, pool);
+
+		treeLows = new int[componentCount];
+		treePosts = new int[componentCount];
+		lows = new int[this.labelCount][componentCount];
+		highs = new int[this.labelCount][componentCount];
+		ParallelRange.forEachChunk(pool, 0, this.labelCount, 1, (start, end) -> {
+			for (int label = start; label < end; label++) {
+				buildLabel(label);
+			}
+		});
+		buildHubMasks(pool);
+	}
+
+	/**
+	 * Lists the successors and predecessors of every node of the condensation.
+	 */
+	private void buildCondensation(StronglyConnectedComponents components, ForkJoinPool pool) {
+		successors = components.getComponentSuccessors(pool);
+		successorCounts = new int[componentCount];
+		for (int component = 0; component < componentCount; component++) {
+			successorCounts[component] = successors[component].length;
+		}
+
+		predecessorCounts = new int[componentCount];
+		for (int from = 0; from < componentCount; from++) {
+			for (int to : successors[from]) {
+				predecessorCounts[to]++;
+			}
+		}
+		predecessors = new int[componentCount][];
+		for (int to = 0; to < componentCount; to++) {
+			predecessors[to] = new int[predecessorCounts[to]];
+			predecessorCounts[to] = 0;
+		}
+		for (int from = 0; from < componentCount; from++) {
+			for (int to : successors[from]) {
+				predecessors[to][predecessorCounts[to]++] = from;
+			}
+		}
+	}
+
+	/**
+	 * Runs one depth first search of the condensation, numbering the nodes in post-order. The first search visits
+	 * roots and successors in order and also records the tree intervals, while the others start every node's
+	 * successors at a random position and visit the roots in a random order.
+	 */
+	private void buildLabel(int label) {
+		int[] low = lows[label];
+		int[] high = highs[label];
+		Random random = new Random(label);
+
+		int[] roots = new int[componentCount];
+		for (int component = 0; component < componentCount; component++) {
+			roots[component] = component;
+		}
+		if (label > 0) {
+			for (int i = componentCount - 1; i > 0; i--) {
+				int swap = random.nextInt(i + 1);
+				int root = roots[i];
+				roots[i] = roots[swap];
+				roots[swap] = root;
+			}
+		}
+
+		// The stack holds the nodes on the current path, with the number of successors each one has gone through
+		boolean[] visited = new boolean[componentCount];
+		int[] stack = new int[componentCount];
+		int[] firstSuccessors = new int[componentCount];
+		int[] nextSuccessors = new int[componentCount];
+		int post = 0;
+		for (int root : roots) {
+			if (visited[root]) {
+				continue;
+			}
+
+			int depth = 0;
+			visited[root] = true;
+			stack[depth++] = root;
+			while (depth > 0) {
+				int node = stack[depth - 1];
+				int count = successorCounts[node];
+				if (nextSuccessors[node] == 0) {
+					firstSuccessors[node] = label > 0 && count > 0 ? random.nextInt(count) : 0;
+					low[node] = post;
+					if (label == 0) {
+						treeLows[node] = post;
+					}
+				}
+
+				if (nextSuccessors[node] < count) {
+					int next = successors[node][(firstSuccessors[node] + nextSuccessors[node]++) % count];
+					if (!visited[next]) {
+						visited[next] = true;
+						stack[depth++] = next;
+					}
+					continue;
+				}
+
+				// Every successor is finished, since the condensation is acyclic, so the hull is complete
+				depth--;
+				high[node] = post;
+				for (int i = 0; i < count; i++) {
+					low[node] = Math.min(low[node], low[successors[node][i]]);
+				}
+				if (label == 0) {
+					treePosts[node] = post;
+				}
+				post++;
+				nextSuccessors[node] = count + 1;
+			}
+		}
+	}
+
+	/**
+	 * Picks the nodes with the largest product of in and out degree as hubs, since the most paths go through them, and
+	 * marks every node with the hubs it reaches and the hubs that reach it. Every hub searches the condensation in both
+	 * directions in parallel into a bit set of its own, and the bit sets are then turned into one mask per node.
+	 */
+	private void buildHubMasks(ForkJoinPool pool) {
+		Integer[] byDegree = new Integer[componentCount];
+		for (int component = 0; component < componentCount; component++) {
+			byDegree[component] = component;
+		}
+		Arrays.sort(byDegree, (first, second) -> Long.compare(getDegreeProduct(second), getDegreeProduct(first)));
+		int hubCount = Math.min(HUB_COUNT, componentCount);
+
+		// Bit set 2 * i holds the nodes hub i reaches, and bit set 2 * i + 1 holds the nodes that reach hub i
+		long[][] reached = new long[hubCount * 2][];
+		ParallelRange.forEachChunk(pool, 0, hubCount * 2, 1, (start, end) -> {
+			int[] queue = new int[componentCount];
+			for (int search = start; search < end; search++) {
+				boolean forward = search % 2 == 0;
+				reached[search] = search(byDegree[search / 2], forward ? successors : predecessors,
+						forward ? successorCounts : predecessorCounts, queue);
+			}
+		});
+
+		reachedHubs = new long[componentCount];
+		reachingHubs = new long[componentCount];
+		int grain = ParallelRange.getGrain(pool, componentCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, componentCount, grain, (start, end) -> {
+			for (int component = start; component < end; component++) {
+				long word = 1L << component;
+				for (int hub = 0; hub < hubCount; hub++) {
+					if ((reached[hub * 2][component >>> 6] & word) != 0) {
+						reachingHubs[component] |= 1L << hub;
+					}
+					if ((reached[hub * 2 + 1][component >>> 6] & word) != 0) {
+						reachedHubs[component] |= 1L << hub;
+					}
+				}
+			}
+		});
+	}
+
+	private long getDegreeProduct(int component) {
+		return (successorCounts[component] + 1L) * (predecessorCounts[component] + 1L);
+	}
+
+	/**
+	 * Runs a breadth first search of the condensation in one direction.
+	 *
+	 * @return The nodes that were reached, including the start, as a bit set
+	 */
+	private long[] search(int start, int[][] neighbors, int[] neighborCounts, int[] queue) {
+		long[] reached = new long[(componentCount + 63) >>> 6];
+		reached[start >>> 6] |= 1L << start;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		while (head < tail) {
+			int node = queue[head++];
+			for (int i = 0; i < neighborCounts[node]; i++) {
+				int next = neighbors[node][i];
+				if ((reached[next >>> 6] & 1L << next) == 0) {
+					reached[next >>> 6] |= 1L << next;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return reached;
+	}
+
+	/**
+	 * Checks whether there is a path from one vertex to another. Every vertex can reach itself.
+	 *
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return Whether the destination can be reached from the source
+	 */
+	public boolean canReach(Vertex source, Vertex destination) throws GraphException {
+		// Validate that the vertices are non-null and part of the index
+		if (source == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		if (destination == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_DESTINATION);
+		}
+
+		int sourceComponent = getComponent(source);
+		int destinationComponent = getComponent(destination);
+		if (sourceComponent < 0 || destinationComponent < 0) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return canReachComponent(sourceComponent, destinationComponent);
+	}
+
+	/**
+	 * Checks whether there is a path from one vertex of the compiled graph to another.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at in the compiled graph
+	 * @param destination
+	 *            The id of the vertex to end at in the compiled graph
+	 * @return Whether the destination can be reached from the source
+	 */
+	public boolean canReach(int source, int destination) {
+		return canReachComponent(componentIds[source], componentIds[destination]);
+	}
+
+	private boolean canReachComponent(int source, int destination) {
+		if (source == destination || reachesThroughHub(source, destination) || isTreeDescendant(source, destination)) {
+			return true;
+		}
+		if (!mayReach(source, destination)) {
+			return false;
+		}
+
+		// Search the nodes that the labels do not rule out
+		Workspace workspace = workspaces.get();
+		int stamp = workspace.nextStamp(componentCount);
+		int[] stack = workspace.stack;
+		int depth = 0;
+		workspace.stamps[source] = stamp;
+		stack[depth++] = source;
+		while (depth > 0) {
+			int node = stack[--depth];
+			for (int i = 0; i < successorCounts[node]; i++) {
+				int next = successors[node][i];
+				if (next == destination || reachesThroughHub(next, destination)
+						|| isTreeDescendant(next, destination)) {
+					return true;
+				}
+				if (workspace.stamps[next] != stamp && mayReach(next, destination)) {
+					workspace.stamps[next] = stamp;
+					stack[depth++] = next;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Whether the source reaches a hub that reaches the destination
+	 */
+	private boolean reachesThroughHub(int source, int destination) {
+		return (reachedHubs[source] & reachingHubs[destination]) != 0;
+	}
+
+	/**
+	 * @return Whether the destination lies below the source in the spanning forest of the first search
+	 */
+	private boolean isTreeDescendant(int source, int destination) {
+		return treeLows[source] <= treePosts[destination] && treePosts[destination] <= treePosts[source];
+	}
+
+	/**
+	 * @return Whether no hub proves that there is no path, and every hull interval of the destination lies inside the
+	 *         source's, all of which is necessary for a path
+	 */
+	private boolean mayReach(int source, int destination) {
+		if ((reachingHubs[source] & ~reachingHubs[destination]) != 0
+				|| (reachedHubs[destination] & ~reachedHubs[source]) != 0) {
+			return false;
+		}
+		for (int label = 0; label < labelCount; label++) {
+			if (lows[label][destination] < lows[label][source] || highs[label][destination] > highs[label][source]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a vertex without edges to the index, as a node of its own.
+	 *
+	 * @param vertex
+	 *            The vertex to add, which is ignored if it is already part of the index
+	 */
+	public void addVertex(Vertex vertex) throws GraphException {
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+		if (getComponent(vertex) < 0) {
+			addedComponents.put(vertex, addComponent());
+		}
+	}
+
+	/**
+	 * Adds an edge to the index, adding its vertices first if they are not part of it yet. Nothing changes if the
+	 * destination could already be reached from the source. Otherwise, the hull intervals and reached hubs of the
+	 * source's node and of every node that reaches it are widened to cover the destination's, and the hubs reaching
+	 * the source are added to the destination's node and to every node it reaches.
+	 *
+	 * @param fromVertex
+	 *            The vertex the edge starts at
+	 * @param toVertex
+	 *            The vertex the edge ends at
+	 */
+	public void addEdge(Vertex fromVertex, Vertex toVertex) throws GraphException {
+		addVertex(fromVertex);
+		addVertex(toVertex);
+		int from = getComponent(fromVertex);
+		int to = getComponent(toVertex);
+		if (canReachComponent(from, to)) {
+			return;
+		}
+
+		successors[from] = append(successors[from], successorCounts[from]++, to);
+		predecessors[to] = append(predecessors[to], predecessorCounts[to]++, from);
+
+		// The edge may close a cycle, so a node can be widened more than once, but every widening grows a label
+		int[] stack = new int[16];
+		int depth = 0;
+		if (widen(from, to)) {
+			stack[depth++] = from;
+		}
+		while (depth > 0) {
+			int node = stack[--depth];
+			for (int i = 0; i < predecessorCounts[node]; i++) {
+				int previous = predecessors[node][i];
+				if (widen(previous, node)) {
+					stack = append(stack, depth++, previous);
+				}
+			}
+		}
+
+		long hubs = reachingHubs[from];
+		if ((reachingHubs[to] | hubs) != reachingHubs[to]) {
+			reachingHubs[to] |= hubs;
+			stack[depth++] = to;
+		}
+		while (depth > 0) {
+			int node = stack[--depth];
+			for (int i = 0; i < successorCounts[node]; i++) {
+				int next = successors[node][i];
+				if ((reachingHubs[next] | hubs) != reachingHubs[next]) {
+					reachingHubs[next] |= hubs;
+					stack = append(stack, depth++, next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Widens the hull intervals of a node to cover those of one of its successors, and adds the successor's reached
+	 * hubs to the node's.
+	 *
+	 * @return Whether any label changed
+	 */
+	private boolean widen(int node, int successor) {
+		boolean changed = (reachedHubs[node] | reachedHubs[successor]) != reachedHubs[node];
+		reachedHubs[node] |= reachedHubs[successor];
+		for (int label = 0; label < labelCount; label++) {
+			if (lows[label][successor] < lows[label][node]) {
+				lows[label][node] = lows[label][successor];
+				changed = true;
+			}
+			if (highs[label][successor] > highs[label][node]) {
+				highs[label][node] = highs[label][successor];
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Adds a node without edges. Its id is above every post-order number, so all of its intervals contain only
+	 * itself, and it is not a hub.
+	 *
+	 * @return The id of the node
+	 */
+	private int addComponent() {
+		int component = componentCount++;
+		if (component == successors.length) {
+			int capacity = Math.max(16, component * 2);
+			successors = Arrays.copyOf(successors, capacity);
+			successorCounts = Arrays.copyOf(successorCounts, capacity);
+			predecessors = Arrays.copyOf(predecessors, capacity);
+			predecessorCounts = Arrays.copyOf(predecessorCounts, capacity);
+			treeLows = Arrays.copyOf(treeLows, capacity);
+			treePosts = Arrays.copyOf(treePosts, capacity);
+			reachedHubs = Arrays.copyOf(reachedHubs, capacity);
+			reachingHubs = Arrays.copyOf(reachingHubs, capacity);
+			for (int label = 0; label < labelCount; label++) {
+				lows[label] = Arrays.copyOf(lows[label], capacity);
+				highs[label] = Arrays.copyOf(highs[label], capacity);
+			}
+		}
+
+		successors[component] = new int[0];
+		predecessors[component] = new int[0];
+		reachedHubs[component] = 0;
+		reachingHubs[component] = 0;
+		treeLows[component] = component;
+		treePosts[component] = component;
+		for (int label = 0; label < labelCount; label++) {
+			lows[label][component] = component;
+			highs[label][component] = component;
+		}
+		return component;
+	}
+
+	private static int[] append(int[] values, int count, int value) {
+		int[] result = count < values.length ? values : Arrays.copyOf(values, Math.max(4, count * 2));
+		result[count] = value;
+		return result;
+	}
+
+	/**
+	 * @return The node of the vertex, or -1 if it is not part of the index
+	 */
+	private int getComponent(Vertex vertex) {
+		int id = graph.getId(vertex);
+		if (id != CompiledGraph.NO_VERTEX) {
+			return componentIds[id];
+		}
+		Integer component = addedComponents.get(vertex);
+		return component != null ? component : -1;
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the index was built from
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @return The number of nodes in the index, which is the number of strongly connected components of the graph
+	 *         plus the number of vertices added later
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * The arrays used by the searches of one thread. A node has been visited by the current search when its stamp
+	 * equals the current stamp, so the stamps of the previous search never have to be cleared.
+	 */
+	private static class Workspace {
+		private int[] stamps = new int[0];
+		private int[] stack = new int[0];
+		private int stamp;
+
+		/**
+		 * Starts a new search, growing the arrays if nodes were added since the last one.
+		 *
+		 * @return The stamp of the new search
+		 */
+		int nextStamp(int componentCount) {
+			if (stamps.length < componentCount) {
+				stamps = new int[componentCount];
+				stack = new int[componentCount];
+				stamp = 0;
+			}
+			return ++stamp;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The state of a single label-setting search (Dijkstra, A*) over the vertices of a graph. Vertices are given dense ids
+ * as they are discovered, so the cost of a search only depends on the part of the graph that it touches, and not on
+ * the size of the whole graph.
+ */
+final class SearchSpace {
+
+	static final long INFINITY = Long.MAX_VALUE;
+	static final int NO_VERTEX = -1;
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private final Map<Vertex, Integer> ids;
+	private final IndexedMinHeap queue;
+	private final BitSet settled;
+	private Vertex[] vertices;
+	private long[] distances;
+	private int[] previous;
+	private int size;
+
+	SearchSpace() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity
+	 *            The number of vertices the search is expected to discover
+	 */
+	SearchSpace(int capacity) {
+		int initialCapacity = Math.max(capacity, 1);
+		ids = new HashMap<>(initialCapacity * 2);
+		queue = new IndexedMinHeap(initialCapacity);
+		settled = new BitSet();
+		vertices = new Vertex[initialCapacity];
+		distances = new long[initialCapacity];
+		previous = new int[initialCapacity];
+	}
+
+	/**
+	 * Starts the search at the given vertex.
+	 *
+	 * @param source
+	 *            The vertex the search starts at
+	 * @param priority
+	 *            The priority of the source in the queue (0 for Dijkstra, the heuristic estimate for A*)
+	 */
+	void start(Vertex source, long priority) {
+		int id = discover(source);
+		distances[id] = 0;
+		queue.insertOrDecrease(id, priority);
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            The vertex to look up
+	 * @return The id of the vertex, or NO_VERTEX if the search has not reached it
+	 */
+	int idOf(Vertex vertex) {
+		Integer id = ids.get(vertex);
+		return id == null ? NO_VERTEX : id;
+	}
+
+	Vertex getVertex(int id) {
+		return vertices[id];
+	}
+
+	long getDistance(int id) {
+		return distances[id];
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            The vertex to look up
+	 * @return The best distance found so far to the vertex, or INFINITY if it has not been reached
+	 */
+	long getDistance(Vertex vertex) {
+		int id = idOf(vertex);
+		return id == NO_VERTEX ? INFINITY : distances[id];
+	}
+
+	boolean isSettled(int id) {
+		return settled.get(id);
+	}
+
+	boolean hasNext() {
+		return !queue.isEmpty();
+	}
+
+	/**
+	 *
+	 * @return The smallest priority still in the queue
+	 */
+	long peekPriority() {
+		return queue.peekKey();
+	}
+
+	/**
+	 * Removes the vertex with the smallest priority from the queue and marks it as settled.
+	 *
+	 * @return The id of the settled vertex
+	 */
+	int settleNext() {
+		int id = queue.poll();
+		settled.set(id);
+		return id;
+	}
+
+	/**
+	 * Offers a new distance for a vertex. If it improves on the best known distance, the vertex is (re)queued with the
+	 * given priority. A vertex that was already settled is reopened, which only happens with inconsistent heuristics.
+	 *
+	 * @param fromId
+	 *            The id of the vertex the distance was reached from
+	 * @param vertex
+	 *            The vertex being relaxed
+	 * @param distance
+	 *            The distance to the vertex through fromId
+	 * @param priority
+	 *            The priority of the vertex in the queue
+	 * @return True if the distance was improved
+	 */
+	boolean relax(int fromId, Vertex vertex, long distance, long priority) {
+		int id = discover(vertex);
+		if (distance >= distances[id]) {
+			return false;
+		}
+		distances[id] = distance;
+		previous[id] = fromId;
+		settled.clear(id);
+		queue.insertOrDecrease(id, priority);
+		return true;
+	}
+
+	/**
+	 * Builds the path found by the search, by walking backward from the given vertex to the start of the search.
+	 *
+	 * @param id
+	 *            The id of the last vertex of the path
+	 * @return The vertices on the path, starting with the source of the search
+	 */
+	List<Vertex> getPath(int id) {
+		List<Vertex> path = new ArrayList<Vertex>();
+		for (int current = id; current != NO_VERTEX; current = previous[current]) {
+			path.add(vertices[current]);
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	private int discover(Vertex vertex) {
+		Integer existing = ids.get(vertex);
+		if (existing != null) {
+			return existing;
+		}
+
+		if (size == vertices.length) {
+			int newCapacity = size * 2;
+			vertices = Arrays.copyOf(vertices, newCapacity);
+			distances = Arrays.copyOf(distances, newCapacity);
+			previous = Arrays.copyOf(previous, newCapacity);
+			queue.ensureCapacity(newCapacity);
+		}
+
+		int id = size++;
+		ids.put(vertex, id);
+		vertices[id] = vertex;
+		distances[id] = INFINITY;
+		previous[id] = NO_VERTEX;
+		return id;
+	}
+}
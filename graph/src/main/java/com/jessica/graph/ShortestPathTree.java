@@ -0,0 +1,137 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The result of a single source shortest path search over a {@link CompiledGraph}. For every vertex id, holds the
+ * distance from the source and the id of the previous vertex on the shortest path.
+ */
+public class ShortestPathTree {
+
+	/**
+	 * The distance of a vertex that cannot be reached from the source.
+	 */
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private final CompiledGraph graph;
+	private final int source;
+	private final long[] distances;
+	private final int[] previous;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph the tree was computed on
+	 * @param source
+	 *            The id of the source vertex
+	 * @param distances
+	 *            For each vertex id, the distance from the source, or UNREACHABLE
+	 * @param previous
+	 *            For each vertex id, the id of the previous vertex on the shortest path, or CompiledGraph.NO_VERTEX
+	 */
+	public ShortestPathTree(CompiledGraph graph, int source, long[] distances, int[] previous) {
+		this.graph = graph;
+		this.source = source;
+		this.distances = distances;
+		this.previous = previous;
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the tree was computed on
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @return The vertex the tree is rooted at
+	 */
+	public Vertex getSource() {
+		return graph.getVertex(source);
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The distance from the source to the vertex, or UNREACHABLE
+	 */
+	public long getDistance(int id) {
+		return distances[id];
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The id of the previous vertex on the shortest path, or CompiledGraph.NO_VERTEX
+	 */
+	public int getPrevious(int id) {
+		return previous[id];
+	}
+
+	/**
+	 * Gets the distance the same way as {@link ShortestPathHelper#getShortestDistance}, where a vertex that cannot be
+	 * reached has a distance of Integer.MAX_VALUE.
+	 *
+	 * @param destination
+	 *            The vertex to get the distance to
+	 * @return The distance from the source to the destination
+	 */
+	public Integer getDistance(Vertex destination) {
+		int id = graph.getId(destination);
+		if (id == CompiledGraph.NO_VERTEX || distances[id] >= Integer.MAX_VALUE) {
+			return Integer.MAX_VALUE;
+		}
+		return (int) distances[id];
+	}
+
+	/**
+	 *
+	 * @param destination
+	 *            The vertex to check
+	 * @return True if there is a path from the source to the destination
+	 */
+	public boolean isReachable(Vertex destination) {
+		int id = graph.getId(destination);
+		return id != CompiledGraph.NO_VERTEX && distances[id] != UNREACHABLE;
+	}
+
+	/**
+	 *
+	 * @param destination
+	 *            The id of the last vertex of the path
+	 * @return The vertices on the shortest path from the source to the destination, or null if it cannot be reached
+	 */
+	public List<Vertex> getPath(int destination) {
+		if (distances[destination] == UNREACHABLE) {
+			return null;
+		}
+
+		List<Vertex> pathOfVertices = new ArrayList<Vertex>();
+		for (int current = destination; current != CompiledGraph.NO_VERTEX; current = previous[current]) {
+			pathOfVertices.add(graph.getVertex(current));
+		}
+		Collections.reverse(pathOfVertices);
+		return pathOfVertices;
+	}
+
+	/**
+	 *
+	 * @param destination
+	 *            The last vertex of the path
+	 * @return The vertices on the shortest path from the source to the destination, or null if it cannot be reached
+	 */
+	public List<Vertex> getPath(Vertex destination) {
+		int id = graph.getId(destination);
+		return id == CompiledGraph.NO_VERTEX ? null : getPath(id);
+	}
+}
@@ -0,0 +1,161 @@
+package com.jessica.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * A bounded cache of shortest path trees, one per source vertex. When the cache is full, the tree that was used least
+ * recently is evicted.
+ *
+ * Every tree belongs to one version of one graph (see {@link Graph#getVersion()}). As soon as the graph is modified,
+ * or a different graph is queried, all cached trees are dropped, so a tree computed before a change is never
+ * returned. The trees are computed outside of the lock, so threads looking up different sources do not wait for each
+ * other.
+ */
+public class ShortestPathTreeCache {
+
+	private static final int DEFAULT_MAX_TREES = 64;
+
+	private final int maxTrees;
+	private final Map<String, ShortestPathTree> trees;
+
+	private Graph cachedGraph;
+	private long cachedVersion;
+	private CompiledGraph compiledGraph;
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * Class constructor that keeps up to 64 trees.
+	 */
+	public ShortestPathTreeCache() {
+		this(DEFAULT_MAX_TREES);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param maxTrees
+	 *            The most trees to keep. Every tree takes about 12 bytes per vertex of the graph.
+	 */
+	public ShortestPathTreeCache(int maxTrees) {
+		this.maxTrees = Math.max(1, maxTrees);
+		this.trees = new LinkedHashMap<String, ShortestPathTree>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -6305948254906364914L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ShortestPathTree> eldest) {
+				if (size() > ShortestPathTreeCache.this.maxTrees) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets the shortest path tree rooted at a vertex of a graph, computing it with Dijkstra's Algorithm if it is not
+	 * cached for the current version of the graph.
+	 *
+	 * @param graph
+	 *            The graph to search
+	 * @param source
+	 *            The root of the tree, which must be a vertex of the graph
+	 * @return The shortest path tree rooted at the source
+	 */
+	public ShortestPathTree getTree(Graph graph, Vertex source) {
+		CompiledGraph compiled;
+		long version;
+		synchronized (this) {
+			if (graph != cachedGraph || graph.getVersion() != cachedVersion) {
+				trees.clear();
+				cachedGraph = graph;
+				cachedVersion = graph.getVersion();
+				compiledGraph = null;
+			}
+
+			ShortestPathTree tree = trees.get(source.getLabel());
+			if (tree != null) {
+				hitCount++;
+				return tree;
+			}
+			missCount++;
+			compiled = compiledGraph;
+			version = cachedVersion;
+		}
+
+		if (compiled == null) {
+			compiled = graph.compile();
+		}
+		ShortestPathTree tree = DijkstrasShortestPath.findMinimumDistance(compiled, compiled.getId(source),
+				CompiledGraph.NO_VERTEX);
+
+		synchronized (this) {
+			// Only keep the tree if the graph did not change while it was computed
+			if (graph == cachedGraph && version == cachedVersion) {
+				compiledGraph = compiled;
+				trees.put(source.getLabel(), tree);
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Drops every cached tree.
+	 */
+	public synchronized void clear() {
+		trees.clear();
+		cachedGraph = null;
+		compiledGraph = null;
+	}
+
+	/**
+	 *
+	 * @return The number of trees currently cached
+	 */
+	public synchronized int size() {
+		return trees.size();
+	}
+
+	/**
+	 *
+	 * @return The number of lookups that found a cached tree
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 *
+	 * @return The number of lookups that had to compute a tree
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 *
+	 * @return The number of trees dropped to make room for newer ones
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the cache counters
+	 */
+	@Override
+	public synchronized String toString() {
+		return "Shortest Path Tree Cache: " + trees.size() + " trees, " + hitCount + " hits, " + missCount
+				+ " misses, " + evictionCount + " evictions";
+	}
+}
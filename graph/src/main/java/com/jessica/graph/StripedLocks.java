@@ -0,0 +1,75 @@
+package com.jessica.graph;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.jessica.graph.model.Vertex;
+
+/**
+ * A fixed number of locks that vertices are spread over by the hash code of their label, so that threads changing
+ * different vertices rarely wait for each other, without keeping a lock for every vertex. Vertices with the same label
+ * always share a lock, whichever objects stand for them.
+ *
+ * A change that touches two vertices locks both of their stripes, in the order of the stripes, and a change that
+ * touches the whole graph locks every stripe in the same order, so threads can never wait for each other in a cycle.
+ * The locks are reentrant, so a change that holds a stripe can make smaller changes that lock it again.
+ */
+final class StripedLocks {
+
+	private final ReentrantLock[] locks;
+	private final int mask;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param stripeCount
+	 *            The lowest number of locks, which is rounded up to a power of two
+	 */
+	StripedLocks(int stripeCount) {
+		int size = Integer.highestOneBit(Math.max(2, stripeCount) * 2 - 1);
+		locks = new ReentrantLock[size];
+		for (int stripe = 0; stripe < size; stripe++) {
+			locks[stripe] = new ReentrantLock();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Locks the stripes of two vertices, which may be the same vertex.
+	 */
+	void lock(Vertex first, Vertex second) {
+		int firstStripe = getStripe(first);
+		int secondStripe = getStripe(second);
+		locks[Math.min(firstStripe, secondStripe)].lock();
+		locks[Math.max(firstStripe, secondStripe)].lock();
+	}
+
+	/**
+	 * Unlocks the stripes of two vertices, which were locked with {@link #lock(Vertex, Vertex)}.
+	 */
+	void unlock(Vertex first, Vertex second) {
+		int firstStripe = getStripe(first);
+		int secondStripe = getStripe(second);
+		locks[Math.max(firstStripe, secondStripe)].unlock();
+		locks[Math.min(firstStripe, secondStripe)].unlock();
+	}
+
+	void lockAll() {
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+	}
+
+	void unlockAll() {
+		for (int stripe = locks.length - 1; stripe >= 0; stripe--) {
+			locks[stripe].unlock();
+		}
+	}
+
+	/**
+	 * Spreads the bits of the hash code, whose low bits alone cluster for labels that share a prefix.
+	 */
+	private int getStripe(Vertex vertex) {
+		int hash = vertex.getLabel().hashCode() * 0x9E3779B9;
+		return (hash ^ hash >>> 16) & mask;
+	}
+}
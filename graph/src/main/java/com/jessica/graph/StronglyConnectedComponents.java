@@ -0,0 +1,240 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The strongly connected components of a compiled graph, found by {@link StronglyConnectedComponentsFinder}. Two
+ * vertices are in the same component when each can be reached from the other.
+ *
+ * Components are numbered 0..k-1 in reverse topological order: every edge between two components goes from the
+ * component with the higher id to the component with the lower id, so component 0 has no outgoing edges.
+ */
+public class StronglyConnectedComponents {
+
+	private static final int MINIMUM_GRAIN = 1024;
+
+	private final CompiledGraph graph;
+	private final int[] componentIds;
+	private final int componentCount;
+	private final int[] memberOffsets;
+	private final int[] members;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph the components were found in
+	 * @param componentIds
+	 *            The component of every vertex, indexed by its id in the compiled graph
+	 * @param componentCount
+	 *            The number of components
+	 */
+	StronglyConnectedComponents(CompiledGraph graph, int[] componentIds, int componentCount) {
+		this.graph = graph;
+		this.componentIds = componentIds;
+		this.componentCount = componentCount;
+
+		// Group the vertices by component
+		int vertexCount = graph.getVertexCount();
+		memberOffsets = new int[componentCount + 1];
+		for (int componentId : componentIds) {
+			memberOffsets[componentId + 1]++;
+		}
+		for (int component = 0; component < componentCount; component++) {
+			memberOffsets[component + 1] += memberOffsets[component];
+		}
+		members = new int[vertexCount];
+		int[] positions = Arrays.copyOf(memberOffsets, componentCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			members[positions[componentIds[vertex]]++] = vertex;
+		}
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the components were found in, which maps vertices to ids
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @return The number of components
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Gets the component of every vertex. The array is shared, not copied, and must not be modified.
+	 *
+	 * @return The component of every vertex, indexed by its id in the compiled graph
+	 */
+	public int[] getComponentIds() {
+		return componentIds;
+	}
+
+	/**
+	 *
+	 * @param vertexId
+	 *            The id of a vertex in the compiled graph
+	 * @return The component of the vertex
+	 */
+	public int getComponentId(int vertexId) {
+		return componentIds[vertexId];
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in every component, indexed by component id
+	 */
+	public int[] getComponentSizes() {
+		int[] sizes = new int[componentCount];
+		for (int componentId : componentIds) {
+			sizes[componentId]++;
+		}
+		return sizes;
+	}
+
+	/**
+	 * Gets where the vertices of every component start in getMembers. The array is shared, not copied, and must not
+	 * be modified.
+	 *
+	 * @return The offsets, indexed by component id, with one more entry at the end for the total number of vertices
+	 */
+	public int[] getMemberOffsets() {
+		return memberOffsets;
+	}
+
+	/**
+	 * Gets the vertices grouped by component, so that the vertices of component c are at [getMemberOffsets()[c],
+	 * getMemberOffsets()[c + 1]). The array is shared, not copied, and must not be modified.
+	 *
+	 * @return The ids of the vertices in the compiled graph
+	 */
+	public int[] getMembers() {
+		return members;
+	}
+
+	/**
+	 * Gets the edges of the condensation as lists of component ids, without building the condensation as a graph.
+	 * Every component that any vertex of a component has an edge to appears once in its list, and the lists are
+	 * filled in parallel.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 * @return The components that every component has an edge to, indexed by component id
+	 */
+	public int[][] getComponentSuccessors(ForkJoinPool pool) {
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+
+		// Every chunk of components has its own stamps, which mark the components already seen from the current one
+		int[][] successors = new int[componentCount][];
+		int grain = ParallelRange.getGrain(pool, componentCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, componentCount, grain, (start, end) -> {
+			int[] stamps = new int[componentCount];
+			Arrays.fill(stamps, -1);
+			int[] seen = new int[componentCount];
+			for (int from = start; from < end; from++) {
+				int seenCount = 0;
+				for (int member = memberOffsets[from]; member < memberOffsets[from + 1]; member++) {
+					int vertex = members[member];
+					for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+						int to = componentIds[targets[edge]];
+						if (to != from && stamps[to] != from) {
+							stamps[to] = from;
+							seen[seenCount++] = to;
+						}
+					}
+				}
+				successors[from] = Arrays.copyOf(seen, seenCount);
+			}
+		});
+		return successors;
+	}
+
+	/**
+	 *
+	 * @param componentId
+	 *            The id of a component
+	 * @return The label of the vertex that stands for the component in the condensation
+	 */
+	public static String getComponentLabel(int componentId) {
+		return "C" + componentId;
+	}
+
+	/**
+	 * Builds the condensation of the graph, which has one vertex per component (labeled with getComponentLabel) and
+	 * one edge between two components when any vertex of the first has an edge to any vertex of the second. The
+	 * weight of that edge is the smallest weight among those edges. The condensation is always acyclic.
+	 *
+	 * @return The condensation as a new graph
+	 */
+	public Graph getCondensation() {
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		Graph condensation = new Graph();
+		Vertex[] componentVertices = new Vertex[componentCount];
+		for (int component = 0; component < componentCount; component++) {
+			componentVertices[component] = new Vertex(getComponentLabel(component));
+			condensation.getVertices().put(componentVertices[component].getLabel(), componentVertices[component]);
+		}
+
+		// For every component, keep the lightest edge to each other component. The stamps mark which components
+		// have already been seen from the current one, so each pair is only added once.
+		int[] stamps = new int[componentCount];
+		Arrays.fill(stamps, -1);
+		int[] lightest = new int[componentCount];
+		int[] seen = new int[componentCount];
+		for (int from = 0; from < componentCount; from++) {
+			int seenCount = 0;
+			for (int member = memberOffsets[from]; member < memberOffsets[from + 1]; member++) {
+				int vertex = members[member];
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int to = componentIds[targets[edge]];
+					if (to == from) {
+						continue;
+					}
+					if (stamps[to] != from) {
+						stamps[to] = from;
+						lightest[to] = weights[edge];
+						seen[seenCount++] = to;
+					} else {
+						lightest[to] = Math.min(lightest[to], weights[edge]);
+					}
+				}
+			}
+
+			// The pairs are distinct, so the edges are added to the lists directly instead of searching them first
+			for (int i = 0; i < seenCount; i++) {
+				int to = seen[i];
+				Edge edge = new Edge(componentVertices[from], componentVertices[to], lightest[to]);
+				componentVertices[from].getOutgoingEdges().add(edge);
+				componentVertices[to].getIncomingEdges().add(edge);
+				condensation.getEdges().put(edge.getLabel(), edge);
+				edge.setGraph(condensation);
+			}
+		}
+		return condensation;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the components
+	 */
+	@Override
+	public String toString() {
+		return "Strongly Connected Components: " + componentCount + " components of " + graph.getVertexCount()
+				+ " vertices";
+	}
+}
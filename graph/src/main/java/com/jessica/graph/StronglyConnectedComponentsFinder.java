@@ -0,0 +1,485 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Finds the {@link StronglyConnectedComponents} of a graph with one of two algorithms, both of which run without
+ * recursion so that they handle graphs of any depth:
+ * <ul>
+ * <li>Tarjan's Algorithm, on a single thread. A depth first search with an explicit stack gives every vertex an index
+ * and the lowest index it can reach back to, and a component is complete when a vertex cannot reach back past
+ * itself.</li>
+ * <li>Forward-backward, for several threads. Vertices that have no incoming or no outgoing edges left are trimmed off
+ * as components of their own first. Then, for a pivot vertex of a subset, the vertices that are reachable from it and
+ * that can reach it make up its component, and the rest splits into three subsets (only forward, only backward,
+ * neither) that no component crosses. Subsets are colored so that searches stay inside them, large subsets are
+ * searched with parallel levels, and the small subsets of a round are solved in parallel with each other.</li>
+ * </ul>
+ */
+public class StronglyConnectedComponentsFinder {
+
+	/**
+	 * The algorithm used to find the components.
+	 */
+	public enum Algorithm {
+		/**
+		 * Forward-backward when the pool has more than one thread and the graph has at least PARALLEL_THRESHOLD
+		 * vertices, and Tarjan's Algorithm otherwise.
+		 */
+		AUTOMATIC, TARJAN, FORWARD_BACKWARD
+	}
+
+	/**
+	 * The number of vertices below which AUTOMATIC uses Tarjan's Algorithm.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private static final int MINIMUM_GRAIN = 1024;
+	private static final int DONE = -1;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+	private final Algorithm algorithm;
+
+	/**
+	 * Class constructor that picks the algorithm from the size of the graph, and runs on the common fork join pool.
+	 */
+	public StronglyConnectedComponentsFinder() {
+		this(ForkJoinPool.commonPool(), Algorithm.AUTOMATIC);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 * @param algorithm
+	 *            The algorithm used to find the components
+	 */
+	public StronglyConnectedComponentsFinder(ForkJoinPool pool, Algorithm algorithm) {
+		this.pool = pool;
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Finds the components of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to search
+	 * @return The component of every vertex
+	 */
+	public StronglyConnectedComponents find(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return find(graph.compile());
+	}
+
+	/**
+	 * Finds the components of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @return The component of every vertex
+	 */
+	public StronglyConnectedComponents find(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		boolean forwardBackward = algorithm == Algorithm.FORWARD_BACKWARD || algorithm == Algorithm.AUTOMATIC
+				&& pool.getParallelism() > 1 && graph.getVertexCount() >= PARALLEL_THRESHOLD;
+		return forwardBackward ? new ForwardBackward(graph).execute() : runTarjan(graph);
+	}
+
+	/**
+	 * Runs Tarjan's Algorithm with an explicit call stack of vertices and the position of their next edge. Components
+	 * are completed sinks first, so they are already numbered in reverse topological order.
+	 */
+	private static StronglyConnectedComponents runTarjan(CompiledGraph graph) {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+
+		int[] componentIds = new int[vertexCount];
+		int[] indexes = new int[vertexCount];
+		int[] lowLinks = new int[vertexCount];
+		Arrays.fill(indexes, -1);
+		BitSet onStack = new BitSet(vertexCount);
+
+		// The vertices of components that are not complete yet
+		int[] componentStack = new int[vertexCount];
+		int componentStackSize = 0;
+
+		// The vertices on the current search path, and the next edge to follow for each
+		int[] callVertices = new int[vertexCount];
+		int[] callEdges = new int[vertexCount];
+		int callSize = 0;
+
+		int nextIndex = 0;
+		int componentCount = 0;
+		for (int root = 0; root < vertexCount; root++) {
+			if (indexes[root] != -1) {
+				continue;
+			}
+
+			indexes[root] = lowLinks[root] = nextIndex++;
+			componentStack[componentStackSize++] = root;
+			onStack.set(root);
+			callVertices[callSize] = root;
+			callEdges[callSize++] = offsets[root];
+
+			while (callSize > 0) {
+				int vertex = callVertices[callSize - 1];
+				int edge = callEdges[callSize - 1];
+				if (edge < offsets[vertex + 1]) {
+					callEdges[callSize - 1] = edge + 1;
+					int next = targets[edge];
+					if (indexes[next] == -1) {
+						indexes[next] = lowLinks[next] = nextIndex++;
+						componentStack[componentStackSize++] = next;
+						onStack.set(next);
+						callVertices[callSize] = next;
+						callEdges[callSize++] = offsets[next];
+					} else if (onStack.get(next)) {
+						lowLinks[vertex] = Math.min(lowLinks[vertex], indexes[next]);
+					}
+					continue;
+				}
+
+				// All edges are followed, so the vertex either completes a component or passes its low link up
+				callSize--;
+				if (lowLinks[vertex] == indexes[vertex]) {
+					int member;
+					do {
+						member = componentStack[--componentStackSize];
+						onStack.clear(member);
+						componentIds[member] = componentCount;
+					} while (member != vertex);
+					componentCount++;
+				}
+				if (callSize > 0) {
+					int parent = callVertices[callSize - 1];
+					lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[vertex]);
+				}
+			}
+		}
+		return new StronglyConnectedComponents(graph, componentIds, componentCount);
+	}
+
+	/**
+	 * The state of one forward-backward run.
+	 */
+	private class ForwardBackward {
+		private final CompiledGraph graph;
+		private final int vertexCount;
+		private final int[] componentIds;
+		private final AtomicInteger nextComponent = new AtomicInteger();
+		private final AtomicInteger nextColor = new AtomicInteger();
+
+		// The subset every vertex belongs to, or DONE once its component is known. A subset is only written by the
+		// task that solves it.
+		private final int[] colors;
+
+		// The color of the last subset whose forward or backward search reached the vertex
+		private final AtomicIntegerArray forwardMarks;
+		private final AtomicIntegerArray backwardMarks;
+
+		ForwardBackward(CompiledGraph graph) {
+			this.graph = graph;
+			this.vertexCount = graph.getVertexCount();
+			componentIds = new int[vertexCount];
+			colors = new int[vertexCount];
+			forwardMarks = new AtomicIntegerArray(vertexCount);
+			backwardMarks = new AtomicIntegerArray(vertexCount);
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				forwardMarks.set(vertex, DONE);
+				backwardMarks.set(vertex, DONE);
+			}
+		}
+
+		StronglyConnectedComponents execute() {
+			trim();
+
+			int[] remaining = new int[vertexCount];
+			int remainingCount = 0;
+			int color = nextColor.getAndIncrement();
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				if (colors[vertex] != DONE) {
+					colors[vertex] = color;
+					remaining[remainingCount++] = vertex;
+				}
+			}
+
+			// Solve the subsets round by round instead of recursively, so that unlucky pivots cannot overflow the
+			// stack
+			List<Subset> pending = new ArrayList<Subset>();
+			if (remainingCount > 0) {
+				pending.add(new Subset(color, Arrays.copyOf(remaining, remainingCount)));
+			}
+			while (!pending.isEmpty()) {
+				ConcurrentLinkedQueue<Subset> next = new ConcurrentLinkedQueue<Subset>();
+				List<Subset> small = new ArrayList<Subset>();
+				for (Subset subset : pending) {
+					if (subset.vertices.length >= MINIMUM_GRAIN * pool.getParallelism()) {
+						solve(subset, true, next);
+					} else {
+						small.add(subset);
+					}
+				}
+				ParallelRange.forEachChunk(pool, 0, small.size(), 1, (start, end) -> {
+					for (int i = start; i < end; i++) {
+						solve(small.get(i), false, next);
+					}
+				});
+				pending = new ArrayList<Subset>(next);
+			}
+
+			return new StronglyConnectedComponents(graph, renumber(), nextComponent.get());
+		}
+
+		/**
+		 * Repeatedly removes the vertices with no incoming or no outgoing edges from other remaining vertices, each of
+		 * which is a component of its own. Removing a vertex is queued as soon as it qualifies, and its edges are
+		 * taken away from its neighbors when it is dequeued.
+		 */
+		private void trim() {
+			int[] outOffsets = graph.getOutOffsets();
+			int[] outTargets = graph.getOutTargets();
+			int[] inOffsets = graph.getInOffsets();
+			int[] inSources = graph.getInSources();
+
+			int[] inDegrees = new int[vertexCount];
+			int[] outDegrees = new int[vertexCount];
+			int[] queue = new int[vertexCount];
+			int head = 0;
+			int tail = 0;
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				inDegrees[vertex] = inOffsets[vertex + 1] - inOffsets[vertex];
+				outDegrees[vertex] = outOffsets[vertex + 1] - outOffsets[vertex];
+				if (inDegrees[vertex] == 0 || outDegrees[vertex] == 0) {
+					colors[vertex] = DONE;
+					queue[tail++] = vertex;
+				}
+			}
+
+			while (head < tail) {
+				int vertex = queue[head++];
+				componentIds[vertex] = nextComponent.getAndIncrement();
+				for (int edge = outOffsets[vertex]; edge < outOffsets[vertex + 1]; edge++) {
+					int next = outTargets[edge];
+					if (colors[next] != DONE && --inDegrees[next] == 0) {
+						colors[next] = DONE;
+						queue[tail++] = next;
+					}
+				}
+				for (int edge = inOffsets[vertex]; edge < inOffsets[vertex + 1]; edge++) {
+					int previous = inSources[edge];
+					if (colors[previous] != DONE && --outDegrees[previous] == 0) {
+						colors[previous] = DONE;
+						queue[tail++] = previous;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Finds the component of a pivot of the subset, and queues the three subsets that are left.
+		 */
+		private void solve(Subset subset, boolean parallel, ConcurrentLinkedQueue<Subset> next) {
+			int[] vertices = subset.vertices;
+			int color = subset.color;
+			int component = nextComponent.getAndIncrement();
+			if (vertices.length == 1) {
+				componentIds[vertices[0]] = component;
+				colors[vertices[0]] = DONE;
+				return;
+			}
+
+			// Spread the pivots over the subset, since the first vertex tends to sit at the edge of it
+			int pivot = vertices[(int) (((color * 0x9E3779B97F4A7C15L) >>> 33) % vertices.length)];
+			reach(pivot, color, graph.getOutOffsets(), graph.getOutTargets(), forwardMarks, vertices.length,
+					parallel);
+			reach(pivot, color, graph.getInOffsets(), graph.getInSources(), backwardMarks, vertices.length,
+					parallel);
+
+			int[] forwardOnly = new int[vertices.length];
+			int[] backwardOnly = new int[vertices.length];
+			int[] neither = new int[vertices.length];
+			int forwardCount = 0;
+			int backwardCount = 0;
+			int neitherCount = 0;
+			for (int vertex : vertices) {
+				boolean forward = forwardMarks.get(vertex) == color;
+				boolean backward = backwardMarks.get(vertex) == color;
+				if (forward && backward) {
+					componentIds[vertex] = component;
+					colors[vertex] = DONE;
+				} else if (forward) {
+					forwardOnly[forwardCount++] = vertex;
+				} else if (backward) {
+					backwardOnly[backwardCount++] = vertex;
+				} else {
+					neither[neitherCount++] = vertex;
+				}
+			}
+
+			queueSubset(forwardOnly, forwardCount, next);
+			queueSubset(backwardOnly, backwardCount, next);
+			queueSubset(neither, neitherCount, next);
+		}
+
+		private void queueSubset(int[] vertices, int count, ConcurrentLinkedQueue<Subset> next) {
+			if (count == 0) {
+				return;
+			}
+
+			int color = nextColor.getAndIncrement();
+			for (int i = 0; i < count; i++) {
+				colors[vertices[i]] = color;
+			}
+			next.add(new Subset(color, Arrays.copyOf(vertices, count)));
+		}
+
+		/**
+		 * Marks every vertex of the subset that the pivot reaches over the given edges. The vertices that still have
+		 * to be expanded are kept in a queue. In parallel, whenever the queue holds enough vertices, all of them are
+		 * expanded at once over the pool, and vertices are claimed with compare-and-set.
+		 */
+		private void reach(int pivot, int color, int[] offsets, int[] neighbors, AtomicIntegerArray marks,
+				int subsetSize, boolean parallel) {
+			int[] queue = new int[subsetSize];
+			int head = 0;
+			int tail = 0;
+			marks.set(pivot, color);
+			queue[tail++] = pivot;
+
+			while (head < tail) {
+				if (parallel && tail - head >= MINIMUM_GRAIN) {
+					int[] pending = queue;
+					ConcurrentLinkedQueue<int[]> reached = new ConcurrentLinkedQueue<int[]>();
+					ParallelRange.forEachChunk(pool, head, tail, ParallelRange.getGrain(pool, tail - head,
+							MINIMUM_GRAIN), (start, end) -> {
+								int[] claimed = new int[16];
+								int claimedCount = 0;
+								for (int i = start; i < end; i++) {
+									int vertex = pending[i];
+									for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+										int neighbor = neighbors[edge];
+										int mark = marks.get(neighbor);
+										if (colors[neighbor] == color && mark != color
+												&& marks.compareAndSet(neighbor, mark, color)) {
+											if (claimedCount == claimed.length) {
+												claimed = Arrays.copyOf(claimed, claimedCount * 2);
+											}
+											claimed[claimedCount++] = neighbor;
+										}
+									}
+								}
+								reached.add(Arrays.copyOf(claimed, claimedCount));
+							});
+
+					head = tail;
+					for (int[] claimed : reached) {
+						System.arraycopy(claimed, 0, queue, tail, claimed.length);
+						tail += claimed.length;
+					}
+				} else {
+					int vertex = queue[head++];
+					for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+						int neighbor = neighbors[edge];
+						if (colors[neighbor] == color && marks.get(neighbor) != color) {
+							marks.set(neighbor, color);
+							queue[tail++] = neighbor;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Numbers the components in reverse topological order, by repeatedly taking a component whose edges all lead
+		 * to components that are already numbered.
+		 */
+		private int[] renumber() {
+			int componentCount = nextComponent.get();
+			int[] offsets = graph.getOutOffsets();
+			int[] targets = graph.getOutTargets();
+
+			// Count the edges out of every component, and list the components at the start of the edges into it
+			int[] outDegrees = new int[componentCount];
+			int[] predecessorOffsets = new int[componentCount + 1];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int to = componentIds[targets[edge]];
+					if (to != componentIds[vertex]) {
+						outDegrees[componentIds[vertex]]++;
+						predecessorOffsets[to + 1]++;
+					}
+				}
+			}
+			for (int component = 0; component < componentCount; component++) {
+				predecessorOffsets[component + 1] += predecessorOffsets[component];
+			}
+			int[] predecessors = new int[predecessorOffsets[componentCount]];
+			int[] positions = Arrays.copyOf(predecessorOffsets, componentCount);
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					int to = componentIds[targets[edge]];
+					if (to != componentIds[vertex]) {
+						predecessors[positions[to]++] = componentIds[vertex];
+					}
+				}
+			}
+
+			int[] newIds = new int[componentCount];
+			int[] queue = new int[componentCount];
+			int head = 0;
+			int tail = 0;
+			for (int component = 0; component < componentCount; component++) {
+				if (outDegrees[component] == 0) {
+					queue[tail++] = component;
+				}
+			}
+			while (head < tail) {
+				int component = queue[head];
+				newIds[component] = head++;
+				for (int i = predecessorOffsets[component]; i < predecessorOffsets[component + 1]; i++) {
+					if (--outDegrees[predecessors[i]] == 0) {
+						queue[tail++] = predecessors[i];
+					}
+				}
+			}
+
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				componentIds[vertex] = newIds[componentIds[vertex]];
+			}
+			return componentIds;
+		}
+	}
+
+	/**
+	 * A set of vertices that no component crosses, and the color that marks them.
+	 */
+	private static class Subset {
+		private final int color;
+		private final int[] vertices;
+
+		Subset(int color, int[] vertices) {
+			this.color = color;
+			this.vertices = vertices;
+		}
+	}
+}
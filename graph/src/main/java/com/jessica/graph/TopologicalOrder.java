@@ -0,0 +1,268 @@
+package com.jessica.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * A topological order of an acyclic graph, kept up to date as edges are added with the algorithm of Pearce and Kelly.
+ * Every vertex has a position, and every edge goes from a lower position to a higher one. When a new edge goes the
+ * other way, only the vertices with positions between its two ends can be affected: the ones reachable from the head
+ * of the edge and the ones that reach its tail. If the head reaches the tail, the edge would close a cycle and is
+ * rejected; otherwise the two groups swap into the positions they occupy together, backward group first.
+ *
+ * Removing an edge never breaks the order. Removing a vertex leaves a gap in the positions, which is closed once the
+ * gaps make up half of the positions.
+ */
+public class TopologicalOrder {
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+
+	// The vertex at every position, with null for the gaps left by removed vertices
+	private final List<Vertex> order = new ArrayList<Vertex>();
+	private final Map<Vertex, Integer> positions = new HashMap<Vertex, Integer>();
+	private int gapCount;
+
+	/**
+	 * Class constructor for an order with no vertices.
+	 */
+	public TopologicalOrder() {
+	}
+
+	/**
+	 * Builds the order of the current state of a graph with Kahn's Algorithm, which repeatedly takes a vertex whose
+	 * incoming edges all come from vertices that were already taken.
+	 *
+	 * @param graph
+	 *            The graph to order
+	 * @return The order of the vertices
+	 */
+	public static TopologicalOrder build(Graph graph) throws GraphException {
+		TopologicalOrder topologicalOrder = new TopologicalOrder();
+		if (graph == null) {
+			throw new GraphException(topologicalOrder.CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		Map<Vertex, Integer> inDegrees = new HashMap<Vertex, Integer>();
+		for (Vertex vertex : graph.getVertices().values()) {
+			inDegrees.putIfAbsent(vertex, 0);
+			for (Edge edge : getOutgoingEdges(vertex)) {
+				inDegrees.merge(edge.getToVertex(), 1, Integer::sum);
+			}
+		}
+
+		Deque<Vertex> ready = new ArrayDeque<Vertex>();
+		for (Vertex vertex : graph.getVertices().values()) {
+			if (inDegrees.get(vertex) == 0) {
+				ready.add(vertex);
+			}
+		}
+		while (!ready.isEmpty()) {
+			Vertex vertex = ready.poll();
+			topologicalOrder.addVertex(vertex);
+			for (Edge edge : getOutgoingEdges(vertex)) {
+				if (inDegrees.merge(edge.getToVertex(), -1, Integer::sum) == 0) {
+					ready.add(edge.getToVertex());
+				}
+			}
+		}
+
+		// Every vertex on a cycle keeps an incoming edge from the cycle, so it is never taken
+		if (topologicalOrder.size() < inDegrees.size()) {
+			throw new GraphException(topologicalOrder.CLASSNAME, GraphExceptionMsg.CYCLIC_GRAPH);
+		}
+		return topologicalOrder;
+	}
+
+	private static List<Edge> getOutgoingEdges(Vertex vertex) {
+		return vertex.getOutgoingEdges() != null ? vertex.getOutgoingEdges() : Collections.<Edge> emptyList();
+	}
+
+	private static List<Edge> getIncomingEdges(Vertex vertex) {
+		return vertex.getIncomingEdges() != null ? vertex.getIncomingEdges() : Collections.<Edge> emptyList();
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in the order
+	 */
+	public int size() {
+		return positions.size();
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            A vertex
+	 * @return Whether the vertex is part of the order
+	 */
+	public boolean contains(Vertex vertex) {
+		return positions.containsKey(vertex);
+	}
+
+	/**
+	 * Gets the position of a vertex. Positions only compare vertices; they are not consecutive.
+	 *
+	 * @param vertex
+	 *            A vertex of the order
+	 * @return The position of the vertex, or -1 if it is not part of the order
+	 */
+	public int getPosition(Vertex vertex) {
+		Integer position = positions.get(vertex);
+		return position != null ? position : -1;
+	}
+
+	/**
+	 * Adds a vertex after all other vertices, which is always valid for a vertex without edges.
+	 *
+	 * @param vertex
+	 *            The vertex to add, which is ignored if it is already part of the order
+	 */
+	public void addVertex(Vertex vertex) {
+		if (!positions.containsKey(vertex)) {
+			positions.put(vertex, order.size());
+			order.add(vertex);
+		}
+	}
+
+	/**
+	 * Removes a vertex from the order.
+	 *
+	 * @param vertex
+	 *            The vertex to remove
+	 */
+	public void removeVertex(Vertex vertex) {
+		Integer position = positions.remove(vertex);
+		if (position == null) {
+			return;
+		}
+
+		order.set(position, null);
+		gapCount++;
+		if (gapCount * 2 > order.size()) {
+			order.removeAll(Collections.singleton(null));
+			for (int i = 0; i < order.size(); i++) {
+				positions.put(order.get(i), i);
+			}
+			gapCount = 0;
+		}
+	}
+
+	/**
+	 * Updates the order for a new edge, which must not yet be part of the vertices' edge lists. Vertices that are not
+	 * part of the order yet are added first. The order is left unchanged if the edge is rejected.
+	 *
+	 * @param fromVertex
+	 *            The vertex the edge starts at
+	 * @param toVertex
+	 *            The vertex the edge ends at
+	 * @throws GraphException
+	 *             CYCLIC_EDGE if the edge would close a cycle
+	 */
+	public void addEdge(Vertex fromVertex, Vertex toVertex) throws GraphException {
+		if (fromVertex.equals(toVertex)) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.CYCLIC_EDGE);
+		}
+
+		addVertex(fromVertex);
+		addVertex(toVertex);
+		int lowerBound = positions.get(toVertex);
+		int upperBound = positions.get(fromVertex);
+		if (lowerBound > upperBound) {
+			return;
+		}
+
+		// The vertices after the head of the edge that it reaches, which must not include the tail
+		List<Vertex> forward = new ArrayList<Vertex>();
+		Set<Vertex> visited = new HashSet<Vertex>();
+		Deque<Vertex> stack = new ArrayDeque<Vertex>();
+		visited.add(toVertex);
+		stack.push(toVertex);
+		while (!stack.isEmpty()) {
+			Vertex vertex = stack.pop();
+			forward.add(vertex);
+			for (Edge edge : getOutgoingEdges(vertex)) {
+				Vertex next = edge.getToVertex();
+				int position = getPosition(next);
+				if (position == upperBound) {
+					throw new GraphException(CLASSNAME, GraphExceptionMsg.CYCLIC_EDGE);
+				}
+				if (position >= 0 && position < upperBound && visited.add(next)) {
+					stack.push(next);
+				}
+			}
+		}
+
+		// The vertices before the tail of the edge that reach it
+		List<Vertex> backward = new ArrayList<Vertex>();
+		visited.clear();
+		visited.add(fromVertex);
+		stack.push(fromVertex);
+		while (!stack.isEmpty()) {
+			Vertex vertex = stack.pop();
+			backward.add(vertex);
+			for (Edge edge : getIncomingEdges(vertex)) {
+				Vertex previous = edge.getFromVertex();
+				if (getPosition(previous) > lowerBound && visited.add(previous)) {
+					stack.push(previous);
+				}
+			}
+		}
+
+		// Both groups keep their own relative order, and take the positions they hold together, backward first
+		Comparator<Vertex> byPosition = Comparator.comparingInt(this::getPosition);
+		forward.sort(byPosition);
+		backward.sort(byPosition);
+		List<Integer> freedPositions = new ArrayList<Integer>(forward.size() + backward.size());
+		for (Vertex vertex : backward) {
+			freedPositions.add(positions.get(vertex));
+		}
+		for (Vertex vertex : forward) {
+			freedPositions.add(positions.get(vertex));
+		}
+		Collections.sort(freedPositions);
+
+		int next = 0;
+		for (Vertex vertex : backward) {
+			place(vertex, freedPositions.get(next++));
+		}
+		for (Vertex vertex : forward) {
+			place(vertex, freedPositions.get(next++));
+		}
+	}
+
+	private void place(Vertex vertex, int position) {
+		positions.put(vertex, position);
+		order.set(position, vertex);
+	}
+
+	/**
+	 * Lists the vertices in order. This takes time proportional to the number of vertices, and the iterator is not
+	 * affected by later changes to the order.
+	 *
+	 * @return The vertices, such that every edge goes from an earlier vertex to a later one
+	 */
+	public Iterator<Vertex> iterator() {
+		List<Vertex> snapshot = new ArrayList<Vertex>(positions.size());
+		for (Vertex vertex : order) {
+			if (vertex != null) {
+				snapshot.add(vertex);
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+}
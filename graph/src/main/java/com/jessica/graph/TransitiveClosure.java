@@ -0,0 +1,174 @@
+package com.jessica.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * The transitive closure of a compiled graph, built by {@link TransitiveClosureBuilder}, which lists every vertex that
+ * each vertex can reach. Every vertex can reach itself. The closure is kept as one compressed row of reachable
+ * components per strongly connected component, so a query looks up the components of the vertices and checks one
+ * bit, and listing the descendants of a vertex expands the components of its row into their vertices.
+ */
+public class TransitiveClosure {
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final StronglyConnectedComponents components;
+	private final CompressedBitmap[] rows;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param components
+	 *            The strongly connected components of the graph
+	 * @param rows
+	 *            The components that every component can reach, indexed by component id
+	 */
+	TransitiveClosure(StronglyConnectedComponents components, CompressedBitmap[] rows) {
+		this.components = components;
+		this.rows = rows;
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the closure was built from, which maps vertices to ids
+	 */
+	public CompiledGraph getGraph() {
+		return components.getGraph();
+	}
+
+	/**
+	 *
+	 * @return The strongly connected components the rows of the closure are made of
+	 */
+	public StronglyConnectedComponents getComponents() {
+		return components;
+	}
+
+	/**
+	 * Checks whether there is a path from one vertex of the compiled graph to another.
+	 *
+	 * @param source
+	 *            The id of the vertex to start at in the compiled graph
+	 * @param destination
+	 *            The id of the vertex to end at in the compiled graph
+	 * @return Whether the destination can be reached from the source
+	 */
+	public boolean canReach(int source, int destination) {
+		return rows[components.getComponentId(source)].contains(components.getComponentId(destination));
+	}
+
+	/**
+	 * Checks whether there is a path from one vertex to another.
+	 *
+	 * @param source
+	 *            The vertex to start at
+	 * @param destination
+	 *            The vertex to end at
+	 * @return Whether the destination can be reached from the source
+	 */
+	public boolean canReach(Vertex source, Vertex destination) throws GraphException {
+		return canReach(getVertexId(source, GraphExceptionMsg.NULL_VERTEX), getVertexId(destination,
+				GraphExceptionMsg.NULL_DESTINATION));
+	}
+
+	/**
+	 * Counts the vertices that a vertex of the compiled graph can reach, including itself, without listing them.
+	 *
+	 * @param vertex
+	 *            The id of the vertex in the compiled graph
+	 * @return The number of vertices the vertex can reach
+	 */
+	public int getDescendantCount(int vertex) {
+		int[] memberOffsets = components.getMemberOffsets();
+		int count = 0;
+		for (int component : rows[components.getComponentId(vertex)].toArray()) {
+			count += memberOffsets[component + 1] - memberOffsets[component];
+		}
+		return count;
+	}
+
+	/**
+	 * Lists the vertices that a vertex of the compiled graph can reach, including itself.
+	 *
+	 * @param vertex
+	 *            The id of the vertex in the compiled graph
+	 * @return The ids of the vertices in the compiled graph, in ascending order
+	 */
+	public int[] getDescendantIds(int vertex) {
+		int[] memberOffsets = components.getMemberOffsets();
+		int[] members = components.getMembers();
+		int[] reached = rows[components.getComponentId(vertex)].toArray();
+
+		int count = 0;
+		for (int component : reached) {
+			count += memberOffsets[component + 1] - memberOffsets[component];
+		}
+		int[] descendants = new int[count];
+		int position = 0;
+		for (int component : reached) {
+			int size = memberOffsets[component + 1] - memberOffsets[component];
+			System.arraycopy(members, memberOffsets[component], descendants, position, size);
+			position += size;
+		}
+		Arrays.sort(descendants);
+		return descendants;
+	}
+
+	/**
+	 * Lists the vertices that a vertex can reach, including itself.
+	 *
+	 * @param vertex
+	 *            The vertex to start at
+	 * @return The vertices, in the order of their ids in the compiled graph
+	 */
+	public List<Vertex> getDescendants(Vertex vertex) throws GraphException {
+		CompiledGraph graph = getGraph();
+		int[] descendantIds = getDescendantIds(getVertexId(vertex, GraphExceptionMsg.NULL_VERTEX));
+		List<Vertex> descendants = new ArrayList<Vertex>(descendantIds.length);
+		for (int descendantId : descendantIds) {
+			descendants.add(graph.getVertex(descendantId));
+		}
+		return descendants;
+	}
+
+	/**
+	 *
+	 * @return The approximate number of bytes used by the rows of the closure
+	 */
+	public long getSizeInBytes() {
+		long size = 0;
+		for (CompressedBitmap row : rows) {
+			size += row.getSizeInBytes();
+		}
+		return size;
+	}
+
+	private int getVertexId(Vertex vertex, GraphExceptionMsg nullMessage) throws GraphException {
+		// Validate that the vertex is non-null and part of the graph
+		if (vertex == null) {
+			throw new GraphException(CLASSNAME, nullMessage);
+		}
+
+		int id = getGraph().getId(vertex);
+		if (id == CompiledGraph.NO_VERTEX) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.INVALID_VERTEX);
+		}
+		return id;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the closure
+	 */
+	@Override
+	public String toString() {
+		return "Transitive Closure: " + getGraph().getVertexCount() + " vertices in " + rows.length + " components, "
+				+ getSizeInBytes() + " bytes";
+	}
+}
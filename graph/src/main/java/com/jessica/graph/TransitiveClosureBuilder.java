@@ -0,0 +1,131 @@
+package com.jessica.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.StronglyConnectedComponentsFinder.Algorithm;
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Builds the {@link TransitiveClosure} of a graph over its condensation, in which every strongly connected component
+ * is a single node. Components are numbered in reverse topological order, so the row of a component (every component
+ * it reaches) is the union of the rows of its successors, which all have lower ids, plus itself.
+ *
+ * The components are grouped into levels by the longest path from them to a component without successors. The
+ * successors of a component are all on lower levels, so the rows of one level are independent of each other and are
+ * computed in parallel on a {@link ForkJoinPool}. Every row is the union of its successors' rows in a plain array of
+ * words, 64 components at a time, and is then stored as a {@link CompressedBitmap}. Since rows only ever hold lower
+ * ids, only the words below the component's own id are scanned.
+ *
+ * The rows hold components rather than vertices, and the compressed bitmaps collapse the long runs of consecutive
+ * components that the numbering produces, which keeps the closure small enough for graphs of around 100,000 vertices.
+ */
+public class TransitiveClosureBuilder {
+
+	private static final int MINIMUM_GRAIN = 64;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+
+	/**
+	 * Class constructor that runs on the common fork join pool.
+	 */
+	public TransitiveClosureBuilder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 */
+	public TransitiveClosureBuilder(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Builds the transitive closure of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to build the closure of
+	 * @return The closure
+	 */
+	public TransitiveClosure build(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return build(graph.compile());
+	}
+
+	/**
+	 * Builds the transitive closure of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to build the closure of
+	 * @return The closure
+	 */
+	public TransitiveClosure build(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		StronglyConnectedComponents components = new StronglyConnectedComponentsFinder(pool, Algorithm.AUTOMATIC)
+				.find(graph);
+		int componentCount = components.getComponentCount();
+		int[][] successors = components.getComponentSuccessors(pool);
+
+		// Successors have lower ids, so their levels are known by the time a component is reached
+		int[] levels = new int[componentCount];
+		int levelCount = 0;
+		for (int component = 0; component < componentCount; component++) {
+			for (int successor : successors[component]) {
+				levels[component] = Math.max(levels[component], levels[successor] + 1);
+			}
+			levelCount = Math.max(levelCount, levels[component] + 1);
+		}
+
+		// Group the components by level
+		int[] levelOffsets = new int[levelCount + 1];
+		for (int level : levels) {
+			levelOffsets[level + 1]++;
+		}
+		for (int level = 0; level < levelCount; level++) {
+			levelOffsets[level + 1] += levelOffsets[level];
+		}
+		int[] byLevel = new int[componentCount];
+		int[] positions = Arrays.copyOf(levelOffsets, levelCount);
+		for (int component = 0; component < componentCount; component++) {
+			byLevel[positions[levels[component]]++] = component;
+		}
+
+		CompressedBitmap[] rows = new CompressedBitmap[componentCount];
+		int wordCount = (componentCount + 63) >>> 6;
+		WorkspacePool<long[]> workspaces = new WorkspacePool<long[]>(() -> new long[wordCount]);
+		for (int level = 0; level < levelCount; level++) {
+			int start = levelOffsets[level];
+			int end = levelOffsets[level + 1];
+			ParallelRange.forEachChunk(pool, start, end, ParallelRange.getGrain(pool, end - start, MINIMUM_GRAIN),
+					(chunkStart, chunkEnd) -> {
+						long[] words = workspaces.acquire();
+						for (int i = chunkStart; i < chunkEnd; i++) {
+							int component = byLevel[i];
+							int startWord = component >>> 6;
+							int endWord = startWord + 1;
+							words[startWord] |= 1L << component;
+							for (int successor : successors[component]) {
+								rows[successor].orInto(words);
+								startWord = Math.min(startWord, rows[successor].getFirst() >>> 6);
+							}
+							rows[component] = CompressedBitmap.fromWords(words, startWord, endWord);
+							Arrays.fill(words, startWord, endWord, 0);
+						}
+						workspaces.release(words);
+					});
+		}
+		return new TransitiveClosure(components, rows);
+	}
+}
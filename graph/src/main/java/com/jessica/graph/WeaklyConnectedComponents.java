@@ -0,0 +1,102 @@
+package com.jessica.graph;
+
+import com.jessica.graph.model.CompiledGraph;
+
+/**
+ * The weakly connected components of a compiled graph, found by {@link WeaklyConnectedComponentsFinder}. Two vertices
+ * are in the same component when they are joined by a path that may follow edges in either direction, so vertices in
+ * different components can never reach each other.
+ *
+ * Components are numbered 0..k-1 in the order of the lowest vertex id in each.
+ */
+public class WeaklyConnectedComponents {
+
+	private final CompiledGraph graph;
+	private final int[] componentIds;
+	private final int componentCount;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param graph
+	 *            The compiled graph the components were found in
+	 * @param componentIds
+	 *            The component of every vertex, indexed by its id in the compiled graph
+	 * @param componentCount
+	 *            The number of components
+	 */
+	WeaklyConnectedComponents(CompiledGraph graph, int[] componentIds, int componentCount) {
+		this.graph = graph;
+		this.componentIds = componentIds;
+		this.componentCount = componentCount;
+	}
+
+	/**
+	 *
+	 * @return The compiled graph the components were found in, which maps vertices to ids
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 *
+	 * @return The number of components
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Gets the component of every vertex. The array is shared, not copied, and must not be modified.
+	 *
+	 * @return The component of every vertex, indexed by its id in the compiled graph
+	 */
+	public int[] getComponentIds() {
+		return componentIds;
+	}
+
+	/**
+	 *
+	 * @param vertexId
+	 *            The id of a vertex in the compiled graph
+	 * @return The component of the vertex
+	 */
+	public int getComponentId(int vertexId) {
+		return componentIds[vertexId];
+	}
+
+	/**
+	 *
+	 * @param first
+	 *            The id of a vertex in the compiled graph
+	 * @param second
+	 *            The id of another vertex in the compiled graph
+	 * @return Whether the vertices are in the same component
+	 */
+	public boolean isConnected(int first, int second) {
+		return componentIds[first] == componentIds[second];
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in every component, indexed by component id
+	 */
+	public int[] getComponentSizes() {
+		int[] sizes = new int[componentCount];
+		for (int componentId : componentIds) {
+			sizes[componentId]++;
+		}
+		return sizes;
+	}
+
+	/**
+	 *
+	 * @return A string representation of the components
+	 */
+	@Override
+	public String toString() {
+		return "Weakly Connected Components: " + componentCount + " components of " + graph.getVertexCount()
+				+ " vertices";
+	}
+}
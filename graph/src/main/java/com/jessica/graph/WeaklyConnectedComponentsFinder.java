@@ -0,0 +1,92 @@
+package com.jessica.graph;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+
+/**
+ * Finds the {@link WeaklyConnectedComponents} of a graph with a {@link ConcurrentUnionFind}. The edges of the
+ * compiled graph are split into chunks by source vertex, and every chunk merges the sets of the ends of its edges in
+ * parallel on a {@link ForkJoinPool}. The roots of the sets are then found in parallel, and numbered in vertex order.
+ */
+public class WeaklyConnectedComponentsFinder {
+
+	private static final int MINIMUM_GRAIN = 1024;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+	private final ForkJoinPool pool;
+
+	/**
+	 * Class constructor that runs on the common fork join pool.
+	 */
+	public WeaklyConnectedComponentsFinder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param pool
+	 *            The pool to run on
+	 */
+	public WeaklyConnectedComponentsFinder(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Finds the components of the current state of a graph.
+	 *
+	 * @param graph
+	 *            The graph to search
+	 * @return The component of every vertex
+	 */
+	public WeaklyConnectedComponents find(Graph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+		return find(graph.compile());
+	}
+
+	/**
+	 * Finds the components of a compiled graph.
+	 *
+	 * @param graph
+	 *            The compiled graph to search
+	 * @return The component of every vertex
+	 */
+	public WeaklyConnectedComponents find(CompiledGraph graph) throws GraphException {
+		if (graph == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_GRAPH);
+		}
+
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		ConcurrentUnionFind unionFind = new ConcurrentUnionFind(vertexCount);
+		int grain = ParallelRange.getGrain(pool, vertexCount, MINIMUM_GRAIN);
+		ParallelRange.forEachChunk(pool, 0, vertexCount, grain, (start, end) -> {
+			for (int vertex = start; vertex < end; vertex++) {
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					unionFind.union(vertex, targets[edge]);
+				}
+			}
+		});
+
+		// Every root is the lowest vertex of its set, so it is numbered before any other vertex of the set
+		int[] componentIds = new int[vertexCount];
+		ParallelRange.forEachChunk(pool, 0, vertexCount, grain, (start, end) -> {
+			for (int vertex = start; vertex < end; vertex++) {
+				componentIds[vertex] = unionFind.find(vertex);
+			}
+		});
+		int componentCount = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int root = componentIds[vertex];
+			componentIds[vertex] = root == vertex ? componentCount++ : componentIds[root];
+		}
+		return new WeaklyConnectedComponents(graph, componentIds, componentCount);
+	}
+}
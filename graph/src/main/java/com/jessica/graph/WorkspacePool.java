@@ -0,0 +1,47 @@
+package com.jessica.graph;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * The workspaces of the tasks of one parallel loop. A task takes a workspace when it starts and gives it back when it
+ * is done, so the loop creates about one workspace per thread that runs it, and they can all be collected as soon as
+ * the loop is over. A thread local would keep every workspace attached to the pool threads after the loop.
+ *
+ * @param <T>
+ *            The type of the workspaces
+ */
+final class WorkspacePool<T> {
+
+	private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<T>();
+	private final Supplier<T> factory;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param factory
+	 *            Creates a workspace when none is idle
+	 */
+	WorkspacePool(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 *
+	 * @return An idle workspace, or a new one if there is none
+	 */
+	T acquire() {
+		T workspace = idle.poll();
+		return workspace != null ? workspace : factory.get();
+	}
+
+	/**
+	 * Gives a workspace back, cleared, so that another task can use it.
+	 *
+	 * @param workspace
+	 *            The workspace to give back
+	 */
+	void release(T workspace) {
+		idle.offer(workspace);
+	}
+}
@@ -17,6 +17,11 @@ public enum GraphExceptionMsg {
 	 */
 	PREEXISTING_VERTEX("The vertex already exists in the graph."),
 
+	/**
+	 * The collection of vertices must be provided.
+	 */
+	NULL_VERTICES("The collection of vertices must be provided."),
+
 	/**
 	 * An edge must have both a from and to vertex.
 	 */
@@ -75,7 +80,69 @@ public enum GraphExceptionMsg {
 	/**
 	 * The graph and source vertex must be provided.
 	 */
-	NULL_GRAPH_SRC("The graph and source vertex must be provided.");
+	NULL_GRAPH_SRC("The graph and source vertex must be provided."),
+
+	/**
+	 * There is no path from the source vertex to the destination vertex.
+	 */
+	NO_PATH("There is no path from the source vertex to the destination vertex."),
+
+	/**
+	 * The file does not contain the expected index.
+	 */
+	UNEXPECTED_INDEX_CONTENTS("The file does not contain the expected index."),
+
+	/**
+	 * The graph has too many vertices for the algorithm.
+	 */
+	GRAPH_TOO_LARGE("The graph has too many vertices for the algorithm."),
+
+	/**
+	 * The algorithm does not support negative edge weights.
+	 */
+	NEGATIVE_WEIGHT("The algorithm does not support negative edge weights."),
+
+	/**
+	 * The graph contains a cycle whose total weight is negative.
+	 */
+	NEGATIVE_CYCLE("The graph contains a cycle whose total weight is negative."),
+
+	/**
+	 * The maximum depth of a traversal must not be negative.
+	 */
+	NEGATIVE_DEPTH("The maximum depth of a traversal must not be negative."),
+
+	/**
+	 * The edge would create a cycle in a graph that must stay acyclic.
+	 */
+	CYCLIC_EDGE("The edge would create a cycle in a graph that must stay acyclic."),
+
+	/**
+	 * The graph contains a cycle, so its vertices have no topological order.
+	 */
+	CYCLIC_GRAPH("The graph contains a cycle, so its vertices have no topological order."),
+
+	/**
+	 * The number of paths must be at least 1.
+	 */
+	INVALID_PATH_COUNT("The number of paths must be at least 1."),
+
+	/**
+	 * The damping factor must be between 0 and 1, the tolerance must not be negative, and the maximum number of
+	 * iterations must be at least 1.
+	 */
+	INVALID_PAGE_RANK_SETTINGS("The damping factor must be between 0 and 1, the tolerance must not be negative, "
+			+ "and the maximum number of iterations must be at least 1."),
+
+	/**
+	 * The graph is read-only, so vertices and edges cannot be added to or removed from it.
+	 */
+	READ_ONLY_GRAPH("The graph is read-only, so vertices and edges cannot be added to or removed from it."),
+
+	/**
+	 * The graph is kept off the heap, so it cannot be compiled onto the heap for the algorithms.
+	 */
+	OFF_HEAP_GRAPH("The graph is kept off the heap, so it cannot be compiled onto the heap for the algorithms.");
 
 	private final String text;
 
@@ -0,0 +1,332 @@
+package com.jessica.graph.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only snapshot of a {@link Graph}, compiled into compressed sparse row (CSR) arrays. Every vertex is given a
+ * dense integer id (0..n-1), and the outgoing edges of vertex v are stored at positions outOffsets[v] up to (but not
+ * including) outOffsets[v + 1] of the outTargets and outWeights arrays. The incoming edges are stored the same way
+ * in the reverse arrays.
+ *
+ * The outgoing edges of each vertex keep the order of {@link Vertex#getOutgoingEdges()}, so traversals over the
+ * compiled graph visit vertices in the same order as traversals over the graph itself. The snapshot does not change
+ * when the graph is modified afterward.
+ */
+public class CompiledGraph implements Serializable {
+
+	private static final long serialVersionUID = 2716380410573390722L;
+
+	/**
+	 * The id returned for a vertex that is not part of the compiled graph.
+	 */
+	public static final int NO_VERTEX = -1;
+
+	/**
+	 * The id returned for an edge that is not part of the compiled graph.
+	 */
+	public static final int NO_EDGE = -1;
+
+	private final Vertex[] vertices;
+
+	// Gives the label of every vertex its id, in the order the vertices were given theirs
+	private final LabelDictionary labels;
+
+	private final int[] outOffsets;
+	private final int[] outTargets;
+	private final int[] outWeights;
+
+	private final int[] inOffsets;
+	private final int[] inSources;
+	private final int[] inWeights;
+	private final int[] inEdges;
+
+	/**
+	 * Class constructor that compiles the current state of the graph.
+	 *
+	 * @param graph
+	 *            The graph to compile
+	 */
+	public CompiledGraph(Graph graph) {
+		labels = new LabelDictionary(graph.getVertices().size());
+		List<Vertex> vertexList = new ArrayList<Vertex>(graph.getVertices().size());
+		for (Vertex vertex : graph.getVertices().values()) {
+			assignId(vertex, vertexList);
+		}
+
+		// Count the outgoing edges of each vertex. Edge endpoints that are missing from the vertex map are still
+		// given an id, so that the compiled graph is consistent with what a traversal of the graph would see.
+		int edgeCount = 0;
+		for (int i = 0; i < vertexList.size(); i++) {
+			List<Edge> outgoingEdges = vertexList.get(i).getOutgoingEdges();
+			if (outgoingEdges != null) {
+				for (Edge edge : outgoingEdges) {
+					assignId(edge.getToVertex(), vertexList);
+					edgeCount++;
+				}
+			}
+		}
+
+		int vertexCount = vertexList.size();
+		vertices = vertexList.toArray(new Vertex[vertexCount]);
+
+		// Fill in the forward arrays
+		outOffsets = new int[vertexCount + 1];
+		outTargets = new int[edgeCount];
+		outWeights = new int[edgeCount];
+		int position = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			outOffsets[vertex] = position;
+			List<Edge> outgoingEdges = vertices[vertex].getOutgoingEdges();
+			if (outgoingEdges != null) {
+				for (Edge edge : outgoingEdges) {
+					outTargets[position] = getId(edge.getToVertex());
+					outWeights[position] = edge.getWeight();
+					position++;
+				}
+			}
+		}
+		outOffsets[vertexCount] = position;
+
+		int[][] reverse = transpose(vertexCount, outOffsets, outTargets, outWeights);
+		inOffsets = reverse[0];
+		inSources = reverse[1];
+		inWeights = reverse[2];
+		inEdges = reverse[3];
+	}
+
+	/**
+	 * Class constructor for a graph that is already in the form of forward arrays, such as one loaded in bulk. The
+	 * edge lists of the vertices are not read, and do not need to match the arrays. The arrays are kept, not copied,
+	 * and must not be modified afterward.
+	 *
+	 * @param vertices
+	 *            The vertex of every id, with distinct labels
+	 * @param outOffsets
+	 *            The position of the first outgoing edge of every vertex, followed by the number of edges
+	 * @param outTargets
+	 *            The id of the vertex every edge ends at
+	 * @param outWeights
+	 *            The weight of every edge
+	 */
+	public CompiledGraph(Vertex[] vertices, int[] outOffsets, int[] outTargets, int[] outWeights) {
+		this.vertices = vertices;
+		labels = new LabelDictionary(vertices.length);
+		for (Vertex vertex : vertices) {
+			labels.internVertex(vertex);
+		}
+
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.outWeights = outWeights;
+
+		int[][] reverse = transpose(vertices.length, outOffsets, outTargets, outWeights);
+		inOffsets = reverse[0];
+		inSources = reverse[1];
+		inWeights = reverse[2];
+		inEdges = reverse[3];
+	}
+
+	/**
+	 * Fills in the reverse arrays by transposing the forward arrays.
+	 *
+	 * @return The incoming offsets, sources, weights and edge positions
+	 */
+	private static int[][] transpose(int vertexCount, int[] outOffsets, int[] outTargets, int[] outWeights) {
+		int edgeCount = outOffsets[vertexCount];
+		int[] inOffsets = new int[vertexCount + 1];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			inOffsets[outTargets[edge] + 1]++;
+		}
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			inOffsets[vertex + 1] += inOffsets[vertex];
+		}
+
+		int[] inSources = new int[edgeCount];
+		int[] inWeights = new int[edgeCount];
+		int[] inEdges = new int[edgeCount];
+		int[] nextPosition = new int[vertexCount];
+		System.arraycopy(inOffsets, 0, nextPosition, 0, vertexCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			for (int edge = outOffsets[vertex]; edge < outOffsets[vertex + 1]; edge++) {
+				int reversePosition = nextPosition[outTargets[edge]]++;
+				inSources[reversePosition] = vertex;
+				inWeights[reversePosition] = outWeights[edge];
+				inEdges[reversePosition] = edge;
+			}
+		}
+		return new int[][] { inOffsets, inSources, inWeights, inEdges };
+	}
+
+	/**
+	 *
+	 * @return The number of vertices in the compiled graph
+	 */
+	public int getVertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 *
+	 * @return The number of edges in the compiled graph
+	 */
+	public int getEdgeCount() {
+		return outTargets.length;
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The vertex with the given id
+	 */
+	public Vertex getVertex(int id) {
+		return vertices[id];
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            The vertex to look up
+	 * @return The id of the vertex, or NO_VERTEX if the vertex is null or not part of the compiled graph
+	 */
+	public int getId(Vertex vertex) {
+		int id = labels.getVertexId(vertex);
+		return id == LabelDictionary.NO_LABEL ? NO_VERTEX : id;
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            The label of the vertex to look up
+	 * @return The id of the vertex, or NO_VERTEX if it is not part of the compiled graph
+	 */
+	public int getId(String label) {
+		int id = labels.getId(label);
+		return id == LabelDictionary.NO_LABEL ? NO_VERTEX : id;
+	}
+
+	/**
+	 * Gets the id of an edge, which is its position in the outgoing edge arrays. The outgoing edges of its from vertex
+	 * are searched for one with the same to vertex and weight, so this takes time in the out degree of that vertex.
+	 *
+	 * @param edge
+	 *            The edge to look up
+	 * @return The id of the edge, or NO_EDGE if the edge is null or not part of the compiled graph
+	 */
+	public int getEdgeId(Edge edge) {
+		if (edge == null) {
+			return NO_EDGE;
+		}
+
+		int from = getId(edge.getFromVertex());
+		int to = getId(edge.getToVertex());
+		if (from == NO_VERTEX || to == NO_VERTEX) {
+			return NO_EDGE;
+		}
+		for (int position = outOffsets[from]; position < outOffsets[from + 1]; position++) {
+			if (outTargets[position] == to && outWeights[position] == edge.getWeight()) {
+				return position;
+			}
+		}
+		return NO_EDGE;
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The number of edges directed away from the vertex
+	 */
+	public int getOutDegree(int id) {
+		return outOffsets[id + 1] - outOffsets[id];
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return The number of edges directed toward the vertex
+	 */
+	public int getInDegree(int id) {
+		return inOffsets[id + 1] - inOffsets[id];
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each vertex id, the position of its first outgoing edge. Has one extra entry holding the edge count.
+	 */
+	public int[] getOutOffsets() {
+		return outOffsets;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each edge position, the id of the vertex the edge is directed toward
+	 */
+	public int[] getOutTargets() {
+		return outTargets;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each edge position, the weight of the edge
+	 */
+	public int[] getOutWeights() {
+		return outWeights;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each vertex id, the position of its first incoming edge. Has one extra entry holding the edge count.
+	 */
+	public int[] getInOffsets() {
+		return inOffsets;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each reverse edge position, the id of the vertex the edge is directed away from
+	 */
+	public int[] getInSources() {
+		return inSources;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each reverse edge position, the weight of the edge
+	 */
+	public int[] getInWeights() {
+		return inWeights;
+	}
+
+	/**
+	 * The returned array is shared with the compiled graph and must not be modified.
+	 *
+	 * @return For each reverse edge position, the position of the same edge in the forward arrays
+	 */
+	public int[] getInEdges() {
+		return inEdges;
+	}
+
+	/**
+	 * Returns a string representation of the compiled graph.
+	 */
+	@Override
+	public String toString() {
+		return "Compiled Graph: " + getVertexCount() + " vertices, " + getEdgeCount() + " edges";
+	}
+
+	private void assignId(Vertex vertex, List<Vertex> vertexList) {
+		if (labels.internVertex(vertex) == vertexList.size()) {
+			vertexList.add(vertex);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.jessica.graph.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class Coordinates implements Serializable {
+
+	private static final long serialVersionUID = -2338167350952981265L;
+
+	private final double x;
+	private final double y;
+
+	/**
+	 * Class constructor. For geographic coordinates, x is the longitude and y is the latitude, both in degrees.
+	 * 
+	 * @param x
+	 *            The x coordinate, or longitude
+	 * @param y
+	 *            The y coordinate, or latitude
+	 */
+	public Coordinates(double x, double y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * 
+	 * @return The x coordinate, or longitude in degrees
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * 
+	 * @return The y coordinate, or latitude in degrees
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * Two coordinates are considered equal if both their x and y values are equal.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+
+		if (!(obj instanceof Coordinates)) {
+			return false;
+		}
+
+		Coordinates coordinates = (Coordinates) obj;
+		return Double.compare(x, coordinates.getX()) == 0 && Double.compare(y, coordinates.getY()) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(x, y);
+	}
+
+	/**
+	 * Returns a string representation of the coordinates
+	 */
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ")";
+	}
+}
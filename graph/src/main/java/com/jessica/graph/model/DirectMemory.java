@@ -0,0 +1,102 @@
+package com.jessica.graph.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A block of memory outside of the Java heap, addressed by a long byte offset, so that it can be larger than the 2 GB
+ * a single direct buffer can hold. It is split into pages of direct buffers of the same power of two size. A block
+ * with a single page doubles that page as it grows, copying it, until the page reaches the largest size, and adds
+ * more pages after that, so small blocks stay small and large blocks are not copied again.
+ *
+ * Ints and longs are read and written at offsets that are a multiple of their size, so that they never span two
+ * pages; callers multiply the index of an element by its size. The memory is zeroed when it is allocated, and is freed
+ * when the block is no longer reachable. Reads do not change the block, so any number of threads can read it once it
+ * is filled in.
+ */
+final class DirectMemory {
+
+	private static final int MIN_PAGE_SHIFT = 6;
+	private static final int MAX_PAGE_SHIFT = 30;
+
+	private ByteBuffer[] pages;
+	private int pageShift;
+	private long pageMask;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity
+	 *            The number of bytes the block is expected to hold
+	 */
+	DirectMemory(long capacity) {
+		pageShift = MIN_PAGE_SHIFT;
+		while (pageShift < MAX_PAGE_SHIFT && 1L << pageShift < capacity) {
+			pageShift++;
+		}
+		pageMask = (1L << pageShift) - 1;
+		pages = new ByteBuffer[] { allocate(pageShift) };
+		ensureCapacity(capacity);
+	}
+
+	/**
+	 * Grows the block so that it holds at least a number of bytes.
+	 *
+	 * @param capacity
+	 *            The number of bytes the block must hold
+	 */
+	void ensureCapacity(long capacity) {
+		if (pages.length == 1 && pageShift < MAX_PAGE_SHIFT && 1L << pageShift < capacity) {
+			int newShift = pageShift;
+			while (newShift < MAX_PAGE_SHIFT && 1L << newShift < capacity) {
+				newShift++;
+			}
+			ByteBuffer page = allocate(newShift);
+			ByteBuffer oldPage = pages[0].duplicate();
+			oldPage.clear();
+			page.put(oldPage);
+			page.clear();
+			pages[0] = page;
+			pageShift = newShift;
+			pageMask = (1L << pageShift) - 1;
+		}
+
+		long pageCount = (capacity + pageMask) >>> pageShift;
+		if (pageCount > pages.length) {
+			int oldLength = pages.length;
+			pages = Arrays.copyOf(pages, (int) pageCount);
+			for (int page = oldLength; page < pages.length; page++) {
+				pages[page] = allocate(pageShift);
+			}
+		}
+	}
+
+	byte getByte(long offset) {
+		return pages[(int) (offset >>> pageShift)].get((int) (offset & pageMask));
+	}
+
+	void putByte(long offset, byte value) {
+		pages[(int) (offset >>> pageShift)].put((int) (offset & pageMask), value);
+	}
+
+	int getInt(long offset) {
+		return pages[(int) (offset >>> pageShift)].getInt((int) (offset & pageMask));
+	}
+
+	void putInt(long offset, int value) {
+		pages[(int) (offset >>> pageShift)].putInt((int) (offset & pageMask), value);
+	}
+
+	long getLong(long offset) {
+		return pages[(int) (offset >>> pageShift)].getLong((int) (offset & pageMask));
+	}
+
+	void putLong(long offset, long value) {
+		pages[(int) (offset >>> pageShift)].putLong((int) (offset & pageMask), value);
+	}
+
+	private static ByteBuffer allocate(int shift) {
+		return ByteBuffer.allocateDirect(1 << shift).order(ByteOrder.nativeOrder());
+	}
+}
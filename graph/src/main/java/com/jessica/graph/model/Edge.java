@@ -9,8 +9,11 @@ public class Edge implements Serializable {
 
 	private Vertex fromVertex;
 	private Vertex toVertex;
+
+	// Null for the default label, which is derived from the vertices the first time it is needed
 	private String label;
 	private int weight;
+	private Graph graph;
 	private final static int DEFAULT_WEIGHT = 1;
 
 	/**
@@ -60,13 +63,34 @@ public class Edge implements Serializable {
 
 		if (label != null && label != "") {
 			this.label = label;
-		} else if (fromVertex != null && toVertex != null) {
-			this.label = fromVertex.getLabel() + "-" + toVertex.getLabel();
-		} else {
+		} else if (fromVertex == null || toVertex == null) {
 			this.label = Integer.toString(hashCode());
 		}
 	}
 
+	/**
+	 * Class constructor for a view of an edge that is stored elsewhere, such as in an {@link OffHeapGraph}. Views are
+	 * created whenever the edge is read.
+	 * 
+	 * @param fromVertex
+	 *            The vertex that this edge starts at
+	 * @param toVertex
+	 *            The vertex that this edge connects to
+	 * @param weight
+	 *            The weight or cost of this edge
+	 * @param label
+	 *            The label or name, or null for the default label
+	 * @param graph
+	 *            The graph that stores this edge
+	 */
+	Edge(Vertex fromVertex, Vertex toVertex, int weight, String label, Graph graph) {
+		this.fromVertex = fromVertex;
+		this.toVertex = toVertex;
+		this.weight = weight;
+		this.label = label;
+		this.graph = graph;
+	}
+
 	/**
 	 * 
 	 * @return The from vertex, which is the starting point for this edge
@@ -84,11 +108,30 @@ public class Edge implements Serializable {
 	}
 
 	/**
+	 * Gets the label of this edge. An edge created without a label gets the labels of its vertices joined by a dash,
+	 * which is only put together the first time it is asked for.
 	 * 
 	 * @return The label or name of this edge
 	 */
 	public String getLabel() {
-		return label;
+		String currentLabel = label;
+		if (currentLabel == null && fromVertex != null && toVertex != null) {
+			currentLabel = fromVertex.getLabel() + "-" + toVertex.getLabel();
+			label = currentLabel;
+		}
+		return currentLabel;
+	}
+
+	/**
+	 * Gets the handle of this edge in a compiled graph, which is its position in the outgoing edge arrays there, so
+	 * that algorithms can keep the state of every edge in arrays.
+	 * 
+	 * @param graph
+	 *            The compiled graph that gives out the ids
+	 * @return The id of this edge, or CompiledGraph.NO_EDGE if it is not part of the compiled graph
+	 */
+	public int getId(CompiledGraph graph) {
+		return graph.getEdgeId(this);
 	}
 
 	/**
@@ -114,7 +157,39 @@ public class Edge implements Serializable {
 	 *            The weight or cost of this edge
 	 */
 	public void setWeight(int weight) {
+		int oldWeight = this.weight;
 		this.weight = weight;
+
+		// The edge lists of the vertices and the edge index of the graph find this edge by its weight
+		if (fromVertex != null) {
+			fromVertex.edgeWeightChanged();
+		}
+		if (toVertex != null && toVertex != fromVertex) {
+			toVertex.edgeWeightChanged();
+		}
+
+		// Results computed with the old weight are no longer valid
+		if (graph != null) {
+			graph.edgeWeightChanged(this, oldWeight);
+			graph.incrementVersion();
+		}
+	}
+
+	/**
+	 * 
+	 * @return The graph this edge was added to, or null if it is not part of a graph
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * 
+	 * @param graph
+	 *            The graph this edge was added to, whose version changes when the weight of this edge changes
+	 */
+	public void setGraph(Graph graph) {
+		this.graph = graph;
 	}
 
 	/**
@@ -147,9 +222,12 @@ public class Edge implements Serializable {
 		return isEqual;
 	}
 
+	/**
+	 * The hash code leaves out the label, like {@link #equals(Object)} does, so that equal edges hash the same.
+	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(fromVertex, toVertex, label, weight);
+		return Objects.hash(fromVertex, toVertex, weight);
 	}
 
 	/**
@@ -157,7 +235,7 @@ public class Edge implements Serializable {
 	 */
 	@Override
 	public String toString() {
-		return "{" + fromVertex + ", " + toVertex + "}\t\tWeight: " + weight + "\tLabel: " + label;
+		return "{" + fromVertex + ", " + toVertex + "}\t\tWeight: " + weight + "\tLabel: " + getLabel();
 	}
 
 }
@@ -0,0 +1,41 @@
+package com.jessica.graph.model;
+
+import java.util.Objects;
+
+/**
+ * The parts of an edge that {@link Edge#equals(Object)} compares: its from vertex, its to vertex and its weight. An
+ * edge's own hash code changes with its weight, so indexes of edges are keyed by a copy of these parts taken when the
+ * edge is indexed, and are told when the weight changes. The vertices are kept as their labels, whose hash codes are
+ * kept by the strings themselves.
+ */
+final class EdgeKey {
+
+	private final String fromLabel;
+	private final String toLabel;
+	private final int weight;
+
+	EdgeKey(Edge edge) {
+		this(edge.getFromVertex(), edge.getToVertex(), edge.getWeight());
+	}
+
+	EdgeKey(Vertex fromVertex, Vertex toVertex, int weight) {
+		this.fromLabel = fromVertex != null ? fromVertex.getLabel() : null;
+		this.toLabel = toVertex != null ? toVertex.getLabel() : null;
+		this.weight = weight;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof EdgeKey)) {
+			return false;
+		}
+
+		EdgeKey key = (EdgeKey) obj;
+		return weight == key.weight && Objects.equals(fromLabel, key.fromLabel) && Objects.equals(toLabel, key.toLabel);
+	}
+
+	@Override
+	public int hashCode() {
+		return (Objects.hashCode(fromLabel) * 31 + Objects.hashCode(toLabel)) * 31 + weight;
+	}
+}
@@ -0,0 +1,344 @@
+package com.jessica.graph.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The edge list of a vertex. It keeps the edges in the order they were added, like an array list, and also indexes
+ * them by their from vertex, to vertex and weight, so that looking for an equal edge or removing one takes constant
+ * time instead of a scan of the list.
+ *
+ * Removing an edge leaves a gap rather than shifting the edges after it. The gaps are skipped by the iterator, and are
+ * closed once they make up half of the list, or as soon as an edge is needed by its index. Null edges are not allowed.
+ */
+final class EdgeList extends AbstractList<Edge> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 2817419364157265834L;
+	private static final Edge[] EMPTY = new Edge[0];
+	private static final int MINIMUM_GAPS = 16;
+
+	// The edges in order, with null for the gaps left by removed edges
+	private Edge[] edges = EMPTY;
+	private int end;
+	private int gapCount;
+
+	// Changes every time the gaps are closed, so that iterators know the positions moved
+	private transient int layout;
+
+	// The position of the first edge with every key and the number of edges with it, or null until it is needed
+	private transient Map<EdgeKey, int[]> index;
+
+	/**
+	 * Class constructor for an empty list.
+	 */
+	EdgeList() {
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param edges
+	 *            The edges to start with, in order
+	 */
+	EdgeList(Collection<Edge> edges) {
+		for (Edge edge : edges) {
+			add(edge);
+		}
+	}
+
+	/**
+	 * Makes room for a number of edges in total, so that adding them does not grow the list one step at a time.
+	 *
+	 * @param capacity
+	 *            The number of edges the list is expected to hold
+	 */
+	void ensureCapacity(int capacity) {
+		if (capacity > edges.length) {
+			edges = Arrays.copyOf(edges, capacity);
+		}
+	}
+
+	@Override
+	public int size() {
+		return end - gapCount;
+	}
+
+	@Override
+	public Edge get(int position) {
+		closeGaps();
+		checkPosition(position, size() - 1);
+		return edges[position];
+	}
+
+	@Override
+	public Edge set(int position, Edge edge) {
+		Objects.requireNonNull(edge);
+		closeGaps();
+		checkPosition(position, size() - 1);
+		Edge previous = edges[position];
+		edges[position] = edge;
+		index = null;
+		return previous;
+	}
+
+	@Override
+	public boolean add(Edge edge) {
+		Objects.requireNonNull(edge);
+		if (end == edges.length) {
+			edges = Arrays.copyOf(edges, Math.max(4, end + (end >> 1)));
+		}
+		if (index != null) {
+			addToIndex(edge, end);
+		}
+		edges[end++] = edge;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int position, Edge edge) {
+		if (position == size()) {
+			add(edge);
+			return;
+		}
+
+		Objects.requireNonNull(edge);
+		closeGaps();
+		checkPosition(position, size());
+		if (end == edges.length) {
+			edges = Arrays.copyOf(edges, end + (end >> 1) + 1);
+		}
+		System.arraycopy(edges, position, edges, position + 1, end - position);
+		edges[position] = edge;
+		end++;
+		index = null;
+		modCount++;
+	}
+
+	@Override
+	public Edge remove(int position) {
+		closeGaps();
+		checkPosition(position, size() - 1);
+		Edge removed = edges[position];
+		System.arraycopy(edges, position + 1, edges, position, end - position - 1);
+		edges[--end] = null;
+		index = null;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public boolean remove(Object obj) {
+		int position = find(obj);
+		if (position < 0) {
+			return false;
+		}
+		removeAt(position);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object obj) {
+		return find(obj) >= 0;
+	}
+
+	@Override
+	public int indexOf(Object obj) {
+		closeGaps();
+		return find(obj);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(edges, 0, end, null);
+		end = 0;
+		gapCount = 0;
+		index = null;
+		modCount++;
+	}
+
+	@Override
+	public Iterator<Edge> iterator() {
+		return new EdgeIterator();
+	}
+
+	/**
+	 * Drops the index, so that it is rebuilt with the current weights the next time it is needed. This is called when
+	 * the weight of an edge changes, since the edge is indexed under its old weight.
+	 */
+	void invalidate() {
+		index = null;
+	}
+
+	/**
+	 * Finds the first edge equal to an object.
+	 *
+	 * @return The position of the edge, which can be past gaps, or -1 if there is none
+	 */
+	private int find(Object obj) {
+		if (!(obj instanceof Edge)) {
+			return -1;
+		}
+
+		Edge edge = (Edge) obj;
+		for (int attempt = 0; attempt < 2; attempt++) {
+			if (index == null) {
+				buildIndex();
+			}
+			int[] entry = index.get(new EdgeKey(edge));
+			if (entry == null) {
+				return -1;
+			}
+
+			// An edge whose weight was changed without telling its vertices is indexed under its old key
+			if (edge.equals(edges[entry[0]])) {
+				return entry[0];
+			}
+			index = null;
+		}
+		return -1;
+	}
+
+	private void removeAt(int position) {
+		Edge removed = edges[position];
+		edges[position] = null;
+		if (position == end - 1) {
+			end--;
+		} else {
+			gapCount++;
+		}
+		modCount++;
+
+		if (index != null) {
+			EdgeKey key = new EdgeKey(removed);
+			int[] entry = index.get(key);
+			if (entry == null) {
+				index = null;
+			} else if (--entry[1] == 0) {
+				index.remove(key);
+			} else if (entry[0] == position) {
+				int next = position + 1;
+				while (next < end && !removed.equals(edges[next])) {
+					next++;
+				}
+				if (next < end) {
+					entry[0] = next;
+				} else {
+					index = null;
+				}
+			}
+		}
+
+		if (gapCount >= MINIMUM_GAPS && gapCount * 2 > end) {
+			closeGaps();
+		}
+	}
+
+	private void closeGaps() {
+		if (gapCount == 0) {
+			return;
+		}
+
+		int next = 0;
+		for (int position = 0; position < end; position++) {
+			if (edges[position] != null) {
+				edges[next++] = edges[position];
+			}
+		}
+		Arrays.fill(edges, next, end, null);
+		end = next;
+		gapCount = 0;
+		index = null;
+		layout++;
+	}
+
+	private void buildIndex() {
+		index = new HashMap<EdgeKey, int[]>(Math.max(16, size() * 4 / 3 + 1));
+		for (int position = 0; position < end; position++) {
+			if (edges[position] != null) {
+				addToIndex(edges[position], position);
+			}
+		}
+	}
+
+	private void addToIndex(Edge edge, int position) {
+		int[] entry = index.get(new EdgeKey(edge));
+		if (entry == null) {
+			index.put(new EdgeKey(edge), new int[] { position, 1 });
+		} else {
+			entry[1]++;
+		}
+	}
+
+	private void checkPosition(int position, int last) {
+		if (position < 0 || position > last) {
+			throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size());
+		}
+	}
+
+	/**
+	 * Walks the edges in order, skipping the gaps. If the gaps are closed while it walks, it finds its place again by
+	 * the number of edges it has passed.
+	 */
+	private class EdgeIterator implements Iterator<Edge> {
+		private int cursor;
+		private int nextIndex;
+		private int lastReturned = -1;
+		private int expectedModCount = modCount;
+		private int expectedLayout = layout;
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size();
+		}
+
+		@Override
+		public Edge next() {
+			checkForComodification();
+			if (nextIndex >= size()) {
+				throw new NoSuchElementException();
+			}
+			while (edges[cursor] == null) {
+				cursor++;
+			}
+			lastReturned = cursor;
+			nextIndex++;
+			return edges[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			removeAt(lastReturned);
+			lastReturned = -1;
+			nextIndex--;
+			expectedModCount = modCount;
+			checkForComodification();
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (layout != expectedLayout) {
+				cursor = nextIndex;
+				if (lastReturned >= 0) {
+					lastReturned = nextIndex - 1;
+				}
+				expectedLayout = layout;
+			}
+		}
+	}
+}
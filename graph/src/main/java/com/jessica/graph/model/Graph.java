@@ -1,5 +1,8 @@
 package com.jessica.graph.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -7,6 +10,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 public class Graph implements Serializable {
@@ -16,11 +22,40 @@ public class Graph implements Serializable {
 	private Map<String, Vertex> vertices;
 	private Map<String, Edge> edges;
 
+	// The version the graph was read from a file with, and the number of changes made since. Threads making changes
+	// add to a count of their own, so they do not all update the same field.
+	private long version;
+	private transient LongAdder changes = new LongAdder();
+
+	// The number of edges in the edge map with every from vertex, to vertex and weight, and the map and size it was
+	// built for, so that it is rebuilt when the map is replaced or its size changed directly. Threads putting and
+	// removing edges count them in a count of their own, like the changes. The index is a concurrent map, so changes
+	// made through this class only take a read lock, of a stripe picked by the thread so that threads do not all share
+	// one lock. Rebuilding the index takes the write lock of every stripe.
+	private transient volatile Map<EdgeKey, Integer> edgeKeyCounts;
+	private transient volatile Map<String, Edge> indexedEdges;
+	private transient LongAdder indexedEdgeCount = new LongAdder();
+	private transient ReentrantReadWriteLock[] indexLocks = newIndexLocks();
+
 	public Graph() {
 		vertices = new ConcurrentHashMap<String, Vertex>();
 		edges = new ConcurrentHashMap<String, Edge>();
 	}
 
+	/**
+	 * Class constructor that sizes the vertex and edge maps for the number of elements they are expected to hold, so
+	 * that they do not have to grow while a large graph is loaded.
+	 * 
+	 * @param expectedVertexCount
+	 *            The number of vertices the graph is expected to have
+	 * @param expectedEdgeCount
+	 *            The number of edges the graph is expected to have
+	 */
+	public Graph(int expectedVertexCount, int expectedEdgeCount) {
+		vertices = new ConcurrentHashMap<String, Vertex>(Math.max(16, expectedVertexCount));
+		edges = new ConcurrentHashMap<String, Edge>(Math.max(16, expectedEdgeCount));
+	}
+
 	/**
 	 * 
 	 * @return Each vertex in the graph
@@ -35,6 +70,7 @@ public class Graph implements Serializable {
 	 */
 	public void setVertices(Map<String, Vertex> vertices) {
 		this.vertices = vertices;
+		incrementVersion();
 	}
 
 	/**
@@ -51,6 +87,280 @@ public class Graph implements Serializable {
 	 */
 	public void setEdges(Map<String, Edge> edges) {
 		this.edges = edges;
+		incrementVersion();
+	}
+
+	/**
+	 * 
+	 * @return Whether vertices and edges cannot be added to or removed from the graph
+	 */
+	public boolean isReadOnly() {
+		return false;
+	}
+
+	/**
+	 * Checks whether the graph has an edge equal to the given one, which is one with the same from vertex, to vertex
+	 * and weight, whatever its label. This takes constant time for edges added with {@link #putEdge(Edge)}; edges put
+	 * into the edge map directly make the next check rebuild the index. Any number of threads can check, put and
+	 * remove edges at the same time.
+	 * 
+	 * @param edge
+	 *            The edge to look for
+	 * @return Whether an equal edge is part of the edge map
+	 */
+	public boolean containsEdge(Edge edge) {
+		Lock readLock = getIndexReadLock();
+		Map<EdgeKey, Integer> counts = lockEdgeKeyCounts(readLock);
+		try {
+			return counts.containsKey(new EdgeKey(edge));
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Puts an edge into the edge map under its label, and indexes it for {@link #containsEdge(Edge)}. This does not
+	 * add it to the edge lists of its vertices or change the version; use GraphManagement for that.
+	 * 
+	 * @param edge
+	 *            The edge to put
+	 * @return The edge that had the same label before, or null if there was none
+	 */
+	public Edge putEdge(Edge edge) {
+		Lock readLock = getIndexReadLock();
+		Map<EdgeKey, Integer> counts = lockEdgeKeyCounts(readLock);
+		try {
+			Edge previous = edges.put(edge.getLabel(), edge);
+			if (previous != null) {
+				counts.computeIfPresent(new EdgeKey(previous), (key, count) -> count > 1 ? count - 1 : null);
+			} else {
+				indexedEdgeCount.increment();
+			}
+			counts.merge(new EdgeKey(edge), 1, Integer::sum);
+			return previous;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Puts many edges into the edge map under their labels, in order, so that a later edge replaces an earlier one
+	 * with the same label. The index used by {@link #containsEdge(Edge)} is not kept up to date edge by edge; it is
+	 * counted again in one pass the next time it is needed. This does not add the edges to the edge lists of their
+	 * vertices or change the version; use GraphManagement for that.
+	 * 
+	 * @param edges
+	 *            The edges to put
+	 */
+	public void putEdges(List<Edge> edges) {
+		lockIndex();
+		try {
+			for (Edge edge : edges) {
+				this.edges.put(edge.getLabel(), edge);
+			}
+			edgeKeyCounts = null;
+		} finally {
+			unlockIndex();
+		}
+	}
+
+	/**
+	 * Removes the edge with a label from the edge map and from the index used by {@link #containsEdge(Edge)}. This
+	 * does not remove it from the edge lists of its vertices or change the version; use GraphManagement for that.
+	 * 
+	 * @param label
+	 *            The label of the edge to remove
+	 * @return The edge that was removed, or null if there was none
+	 */
+	public Edge removeEdge(String label) {
+		Lock readLock = getIndexReadLock();
+		Map<EdgeKey, Integer> counts = lockEdgeKeyCounts(readLock);
+		try {
+			return unindex(counts, edges.remove(label));
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the edge with the label of the given edge from the edge map and from the index used by
+	 * {@link #containsEdge(Edge)}. This does not remove it from the edge lists of its vertices or change the version;
+	 * use GraphManagement for that.
+	 * 
+	 * @param edge
+	 *            The edge whose label is removed
+	 * @return The edge that was removed, or null if there was none
+	 */
+	public Edge removeEdge(Edge edge) {
+		Lock readLock = getIndexReadLock();
+		Map<EdgeKey, Integer> counts = lockEdgeKeyCounts(readLock);
+		try {
+			return unindex(counts, edges.remove(edge.getLabel()));
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	private Edge unindex(Map<EdgeKey, Integer> counts, Edge removed) {
+		if (removed != null) {
+			counts.computeIfPresent(new EdgeKey(removed), (key, count) -> count > 1 ? count - 1 : null);
+			indexedEdgeCount.decrement();
+		}
+		return removed;
+	}
+
+	/**
+	 * Moves an edge of the edge map to its new weight in the index used by {@link #containsEdge(Edge)}.
+	 * 
+	 * @param edge
+	 *            The edge whose weight changed
+	 * @param oldWeight
+	 *            The weight it had before
+	 */
+	void edgeWeightChanged(Edge edge, int oldWeight) {
+		Lock readLock = getIndexReadLock();
+		readLock.lock();
+		try {
+			Map<EdgeKey, Integer> counts = edgeKeyCounts;
+			String label = edge.getLabel();
+			if (counts != null && label != null && edges.get(label) == edge) {
+				counts.computeIfPresent(new EdgeKey(edge.getFromVertex(), edge.getToVertex(), oldWeight),
+						(key, count) -> count > 1 ? count - 1 : null);
+				counts.merge(new EdgeKey(edge), 1, Integer::sum);
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Takes a read lock of the index of the edge map and gets the index, counting the edges again first if the map
+	 * was replaced or its size changed without going through {@link #putEdge(Edge)} and {@link #removeEdge(Edge)}. A
+	 * size that differs only because another thread is putting or removing an edge is checked again under the write
+	 * locks, once that change is done, so it does not make the index be counted again.
+	 * 
+	 * @param readLock
+	 *            The read lock of the stripe of this thread
+	 */
+	private Map<EdgeKey, Integer> lockEdgeKeyCounts(Lock readLock) {
+		while (true) {
+			if (isIndexStale()) {
+				lockIndex();
+				try {
+					if (isIndexStale()) {
+						Map<String, Edge> currentEdges = edges;
+						Map<EdgeKey, Integer> counts = new ConcurrentHashMap<EdgeKey, Integer>(
+								Math.max(16, currentEdges.size() * 4 / 3 + 1));
+						for (Edge edge : currentEdges.values()) {
+							counts.merge(new EdgeKey(edge), 1, Integer::sum);
+						}
+						indexedEdges = currentEdges;
+						indexedEdgeCount.reset();
+						indexedEdgeCount.add(currentEdges.size());
+						edgeKeyCounts = counts;
+					}
+				} finally {
+					unlockIndex();
+				}
+			}
+
+			// Edges put all at once drop the index between the write locks and the read lock
+			readLock.lock();
+			Map<EdgeKey, Integer> counts = edgeKeyCounts;
+			if (counts != null) {
+				return counts;
+			}
+			readLock.unlock();
+		}
+	}
+
+	private boolean isIndexStale() {
+		Map<String, Edge> currentEdges = edges;
+		return edgeKeyCounts == null || indexedEdges != currentEdges || indexedEdgeCount.sum() != currentEdges.size();
+	}
+
+	/**
+	 * Gets the read lock of the stripe of the index locks that the current thread uses. Threads are spread over the
+	 * stripes by their ids, and a thread always gets the same stripe, so it unlocks the one it locked.
+	 */
+	private Lock getIndexReadLock() {
+		ReentrantReadWriteLock[] locks = indexLocks;
+		return locks[(int) Thread.currentThread().getId() & (locks.length - 1)].readLock();
+	}
+
+	private void lockIndex() {
+		for (ReentrantReadWriteLock lock : indexLocks) {
+			lock.writeLock().lock();
+		}
+	}
+
+	private void unlockIndex() {
+		for (int stripe = indexLocks.length - 1; stripe >= 0; stripe--) {
+			indexLocks[stripe].writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Creates a stripe of index locks for every processor, rounded up to a power of two.
+	 */
+	private static ReentrantReadWriteLock[] newIndexLocks() {
+		int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+		ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[size];
+		for (int stripe = 0; stripe < size; stripe++) {
+			locks[stripe] = new ReentrantReadWriteLock();
+		}
+		return locks;
+	}
+
+	/**
+	 * The modification version of the graph, which changes every time a vertex or edge is added or removed, or an
+	 * edge weight changes. Results computed from the graph can be kept for as long as the version stays the same.
+	 * Changes made directly to the edge lists of a vertex do not change the version; use GraphManagement instead.
+	 * 
+	 * @return The modification version of the graph
+	 */
+	public long getVersion() {
+		return version + changes.sum();
+	}
+
+	/**
+	 * Records that the graph was modified, so that results computed from the previous version are no longer used.
+	 */
+	public void incrementVersion() {
+		changes.increment();
+	}
+
+	/**
+	 * Freezes the current state of the graph into a read-only, array based snapshot that algorithms can traverse
+	 * without hashing labels or following object references. Changes made to the graph afterward are not reflected in
+	 * the snapshot.
+	 * 
+	 * @return The compiled snapshot of this graph
+	 */
+	public CompiledGraph compile() {
+		return new CompiledGraph(this);
+	}
+
+	/**
+	 * The version is saved as one number, along with the vertices and edges.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("vertices", vertices);
+		fields.put("edges", edges);
+		fields.put("version", getVersion());
+		out.writeFields();
+	}
+
+	/**
+	 * The count of changes and the edge index with its count and locks are not saved with the graph, so a graph read
+	 * from a file gets new ones.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		changes = new LongAdder();
+		indexedEdgeCount = new LongAdder();
+		indexLocks = newIndexLocks();
 	}
 
 	/**
@@ -0,0 +1,191 @@
+package com.jessica.graph.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Gives every distinct label a dense integer id, from 0 up to the number of labels, in the order the labels are first
+ * seen. Asking again for a label that is already known returns the same id, so that equal labels are stored once and
+ * can be compared as ints.
+ *
+ * The labels are kept in an array, indexed by an open addressing table of ids, which costs a few bytes per label
+ * rather than the entry objects of a hash map. Labels are never removed, so ids stay valid for as long as the
+ * dictionary lives. A dictionary belongs to whatever gives out the ids, such as a {@link CompiledGraph} or a load,
+ * and is gone with it. Labels are added by one thread at a time; once they are all in, any number of threads can look
+ * them up.
+ */
+public final class LabelDictionary implements Serializable {
+
+	private static final long serialVersionUID = -3385012624983541076L;
+
+	/**
+	 * The id returned for a label that is not part of the dictionary.
+	 */
+	public static final int NO_LABEL = -1;
+
+	private String[] labels;
+	private int size;
+
+	// The id plus one of the label in every slot, or 0 for an empty slot
+	private int[] table;
+
+	/**
+	 * Class constructor for an empty dictionary.
+	 */
+	public LabelDictionary() {
+		this(16);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param expectedSize
+	 *            The number of labels the dictionary is expected to hold, so that it does not have to grow
+	 */
+	public LabelDictionary(int expectedSize) {
+		int capacity = Math.max(16, expectedSize);
+		labels = new String[capacity];
+		table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+	}
+
+	/**
+	 * Gets the id of a label, giving it the next id if it is new.
+	 *
+	 * @param label
+	 *            A non-null label
+	 * @return The id of the label
+	 */
+	public int intern(String label) {
+		int slot = findSlot(label);
+		if (table[slot] != 0) {
+			return table[slot] - 1;
+		}
+
+		if (size == labels.length) {
+			labels = Arrays.copyOf(labels, size + (size >> 1));
+		}
+		labels[size] = label;
+		table[slot] = ++size;
+		if (size * 2 > table.length) {
+			rehash();
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Gets the id of the label of a vertex, giving it the next id if it is new. The vertex remembers the id, so that
+	 * asking this dictionary again for the same vertex does not look its label up.
+	 *
+	 * @param vertex
+	 *            A non-null vertex
+	 * @return The id of the label of the vertex
+	 */
+	public int internVertex(Vertex vertex) {
+		LabelId labelId = vertex.getLabelId();
+		if (labelId != null && labelId.dictionary == this) {
+			return labelId.id;
+		}
+
+		int id = intern(vertex.getLabel());
+		vertex.setLabelId(new LabelId(this, id));
+		return id;
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            A label
+	 * @return The id of the label, or NO_LABEL if it is not part of the dictionary
+	 */
+	public int getId(String label) {
+		if (label == null) {
+			return NO_LABEL;
+		}
+		return table[findSlot(label)] - 1;
+	}
+
+	/**
+	 *
+	 * @param vertex
+	 *            A vertex
+	 * @return The id of the label of the vertex, or NO_LABEL if it is not part of the dictionary
+	 */
+	public int getVertexId(Vertex vertex) {
+		if (vertex == null) {
+			return NO_LABEL;
+		}
+
+		LabelId labelId = vertex.getLabelId();
+		if (labelId != null && labelId.dictionary == this) {
+			return labelId.id;
+		}
+		return getId(vertex.getLabel());
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a label
+	 * @return The label, which is the copy kept by the dictionary
+	 */
+	public String getLabel(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("Id: " + id + ", Size: " + size);
+		}
+		return labels[id];
+	}
+
+	/**
+	 *
+	 * @return The number of labels, which is one more than the highest id
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the slot that holds a label, or the empty slot where it would go.
+	 */
+	private int findSlot(String label) {
+		int mask = table.length - 1;
+		int slot = mix(label.hashCode()) & mask;
+		while (table[slot] != 0 && !labels[table[slot] - 1].equals(label)) {
+			slot = slot + 1 & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = mix(labels[id].hashCode()) & mask;
+			while (table[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			table[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * The id a dictionary gave the label of a vertex. The vertex keeps one of these for the last dictionary that
+	 * interned it, and the pair is replaced as a whole, so threads using different dictionaries never mix them up.
+	 */
+	static final class LabelId {
+		private final LabelDictionary dictionary;
+		private final int id;
+
+		LabelId(LabelDictionary dictionary, int id) {
+			this.dictionary = dictionary;
+			this.id = id;
+		}
+	}
+
+	/**
+	 * Spreads the bits of a string hash code, whose low bits alone cluster for labels that share a prefix.
+	 */
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ hash >>> 16;
+	}
+}
@@ -0,0 +1,572 @@
+package com.jessica.graph.model;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A read-only graph kept outside of the Java heap, for graphs too large to hold as vertex and edge objects. The edges
+ * are stored in compressed sparse row (CSR) form, like {@link CompiledGraph}, in direct memory: the outgoing edges of
+ * vertex v are at positions getOutOffset(v) up to (but not including) getOutOffset(v + 1), and the incoming edges are
+ * stored the same way in the reverse arrays. Positions are longs, so a graph can have more than 2^31 edges. The
+ * vertex labels and explicit edge labels are stored as bytes, with the offset of every label.
+ *
+ * The vertex and edge maps, and the edge lists of their vertices, are views that create {@link Vertex} and
+ * {@link Edge} objects when they are read, so the heap only holds the objects that are in use, however large the
+ * graph. A view is a new object every time it is read; views of the same vertex or edge are equal but not the same.
+ * GraphManagement can traverse the graph through the views, and search it with the shortest path helpers that follow
+ * edge lists, but cannot add or remove vertices or edges. The graph cannot be compiled, since that would copy it onto
+ * the heap, so the algorithms that run on a {@link CompiledGraph} are not available for it. The weight of an edge
+ * can be changed through its view, which changes the version of the graph. Coordinates set on a vertex view are not
+ * stored.
+ *
+ * Off-heap graphs are built with {@link OffHeapGraphBuilder}, and their memory is freed when they are no longer
+ * reachable. They cannot be saved to a file, since that would read the whole graph onto the heap.
+ */
+public class OffHeapGraph extends Graph {
+
+	private static final long serialVersionUID = 3528906161944380721L;
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+
+	private final int vertexCount;
+	private final long edgeCount;
+	private final OffHeapLabels vertexLabels;
+
+	// The explicit label id plus one of every outgoing edge, or 0 for the default label, and the explicit labels.
+	// Both are null if no edge has an explicit label.
+	private final DirectMemory outLabels;
+	private final OffHeapLabels edgeLabels;
+
+	// The offset of the first edge of every vertex as longs, followed by the number of edges, and the other vertex
+	// of every edge as ints. Incoming edges keep the position of the outgoing edge they are, as longs.
+	private final DirectMemory outOffsets;
+	private final DirectMemory outTargets;
+	private final DirectMemory outWeights;
+	private final DirectMemory inOffsets;
+	private final DirectMemory inSources;
+	private final DirectMemory inEdges;
+
+	// The position plus one of the edge in every slot, or 0 for an empty slot, built the first time an edge is
+	// looked up by label
+	private DirectMemory edgeLabelTable;
+	private long edgeLabelTableSize;
+
+	private final Map<String, Vertex> vertexMap = new VertexMap();
+	private final Map<String, Edge> edgeMap = new EdgeMap();
+
+	OffHeapGraph(OffHeapLabels vertexLabels, long edgeCount, DirectMemory outOffsets, DirectMemory outTargets,
+			DirectMemory outWeights, DirectMemory outLabels, OffHeapLabels edgeLabels, DirectMemory inOffsets,
+			DirectMemory inSources, DirectMemory inEdges) {
+		this.vertexCount = vertexLabels.size();
+		this.edgeCount = edgeCount;
+		this.vertexLabels = vertexLabels;
+		this.outLabels = outLabels;
+		this.edgeLabels = edgeLabels;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.outWeights = outWeights;
+		this.inOffsets = inOffsets;
+		this.inSources = inSources;
+		this.inEdges = inEdges;
+	}
+
+	/**
+	 *
+	 * @return A read-only view of each vertex in the graph
+	 */
+	@Override
+	public Map<String, Vertex> getVertices() {
+		return vertexMap;
+	}
+
+	@Override
+	public void setVertices(Map<String, Vertex> vertices) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	/**
+	 * Gets a read-only view of each edge in the graph. Looking an edge up by label indexes the labels of all edges
+	 * the first time; if several edges share a label, one of them is returned.
+	 *
+	 * @return A read-only view of each edge in the graph
+	 */
+	@Override
+	public Map<String, Edge> getEdges() {
+		return edgeMap;
+	}
+
+	@Override
+	public void setEdges(Map<String, Edge> edges) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return true;
+	}
+
+	/**
+	 * Checks whether the graph has an edge equal to the given one, by reading the outgoing edges of its from vertex.
+	 */
+	@Override
+	public boolean containsEdge(Edge edge) {
+		if (edge.getFromVertex() == null || edge.getToVertex() == null) {
+			return false;
+		}
+
+		int from = getVertexId(edge.getFromVertex().getLabel());
+		int to = getVertexId(edge.getToVertex().getLabel());
+		if (from == CompiledGraph.NO_VERTEX || to == CompiledGraph.NO_VERTEX) {
+			return false;
+		}
+		for (long position = getOutOffset(from); position < getOutOffset(from + 1); position++) {
+			if (getOutTarget(position) == to && getOutWeight(position) == edge.getWeight()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Edge putEdge(Edge edge) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	@Override
+	public void putEdges(List<Edge> edges) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	@Override
+	public Edge removeEdge(String label) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	@Override
+	public Edge removeEdge(Edge edge) {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+	}
+
+	/**
+	 * An off-heap graph is not compiled, since the snapshot would copy every edge and a view of every vertex onto the
+	 * heap, and could not hold more than 2^31 edges. Its arrays are read directly through the getters instead.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             Always
+	 */
+	@Override
+	public CompiledGraph compile() {
+		throw new UnsupportedOperationException(CLASSNAME + ": The graph is kept off the heap and cannot be compiled");
+	}
+
+	/**
+	 *
+	 * @return The number of vertices, whose ids go from 0 up to this number
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 *
+	 * @return The number of edges, whose positions go from 0 up to this number
+	 */
+	public long getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            The label of the vertex to look up
+	 * @return The id of the vertex, or {@link CompiledGraph#NO_VERTEX} if it is not part of the graph
+	 */
+	public int getVertexId(String label) {
+		int id = vertexLabels.getId(label);
+		return id == LabelDictionary.NO_LABEL ? CompiledGraph.NO_VERTEX : id;
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex
+	 * @return A new view of the vertex
+	 */
+	public Vertex getVertex(int id) {
+		return new VertexView(id);
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            The position of an edge
+	 * @return A new view of the edge
+	 */
+	public Edge getEdge(long position) {
+		return new EdgeView(position, getVertex(getSource(position)), getVertex(getOutTarget(position)));
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex, or the number of vertices
+	 * @return The position of the first outgoing edge of the vertex, or the number of edges
+	 */
+	public long getOutOffset(int id) {
+		return outOffsets.getLong(id * 8L);
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            The position of an edge
+	 * @return The id of the vertex the edge ends at
+	 */
+	public int getOutTarget(long position) {
+		return outTargets.getInt(position * 4);
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            The position of an edge
+	 * @return The weight of the edge
+	 */
+	public int getOutWeight(long position) {
+		return outWeights.getInt(position * 4);
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a vertex, or the number of vertices
+	 * @return The position of the first incoming edge of the vertex in the reverse arrays, or the number of edges
+	 */
+	public long getInOffset(int id) {
+		return inOffsets.getLong(id * 8L);
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            The position of an incoming edge in the reverse arrays
+	 * @return The id of the vertex the edge starts at
+	 */
+	public int getInSource(long position) {
+		return inSources.getInt(position * 4);
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            The position of an incoming edge in the reverse arrays
+	 * @return The position of the same edge among the outgoing edges
+	 */
+	public long getInEdge(long position) {
+		return inEdges.getLong(position * 8);
+	}
+
+	/**
+	 * Finds the vertex an edge starts at, by searching the outgoing offsets.
+	 */
+	private int getSource(long position) {
+		int low = 0;
+		int high = vertexCount - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (getOutOffset(middle) <= position) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets the label of an edge, which is the labels of its vertices joined by a dash unless it has an explicit one.
+	 */
+	private String getEdgeLabel(long position, int source) {
+		String label = getExplicitEdgeLabel(position);
+		if (label == null) {
+			label = vertexLabels.getLabel(source) + "-" + vertexLabels.getLabel(getOutTarget(position));
+		}
+		return label;
+	}
+
+	private String getExplicitEdgeLabel(long position) {
+		int labelId = outLabels != null ? outLabels.getInt(position * 4) - 1 : LabelDictionary.NO_LABEL;
+		return labelId == LabelDictionary.NO_LABEL ? null : edgeLabels.getLabel(labelId);
+	}
+
+	/**
+	 * Finds the position of an edge with a label, indexing the labels of all edges the first time.
+	 *
+	 * @return The position of the edge, or -1 if no edge has the label
+	 */
+	private synchronized long findEdge(String label) {
+		if (edgeLabelTable == null) {
+			edgeLabelTableSize = Long.highestOneBit(Math.max(16, edgeCount * 2 - 1)) << 1;
+			DirectMemory table = new DirectMemory(edgeLabelTableSize * 8);
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				for (long position = getOutOffset(vertex); position < getOutOffset(vertex + 1); position++) {
+					long slot = getSlot(getEdgeLabel(position, vertex));
+					while (table.getLong(slot * 8) != 0) {
+						slot = slot + 1 & edgeLabelTableSize - 1;
+					}
+					table.putLong(slot * 8, position + 1);
+				}
+			}
+			edgeLabelTable = table;
+		}
+
+		for (long slot = getSlot(label);; slot = slot + 1 & edgeLabelTableSize - 1) {
+			long position = edgeLabelTable.getLong(slot * 8) - 1;
+			if (position < 0 || getEdgeLabel(position, getSource(position)).equals(label)) {
+				return position;
+			}
+		}
+	}
+
+	private long getSlot(String label) {
+		int hash = label.hashCode() * 0x9E3779B9;
+		return (hash ^ hash >>> 16) & 0xFFFFFFFFL & edgeLabelTableSize - 1;
+	}
+
+	/**
+	 * Returns a string representation of the graph, which does not list the vertices and edges.
+	 */
+	@Override
+	public String toString() {
+		return "Off-Heap Graph: " + vertexCount + " vertices, " + edgeCount + " edges";
+	}
+
+	/**
+	 * An off-heap graph is only equal to itself, since comparing the vertices and edges would read the whole graph.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj == this;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(CLASSNAME);
+	}
+
+	/**
+	 * A vertex whose label and edge lists are read from the graph.
+	 */
+	private final class VertexView extends Vertex {
+
+		private static final long serialVersionUID = -2954817066420170931L;
+
+		VertexView(int id) {
+			this(id, new AdjacencyList(id, true), new AdjacencyList(id, false));
+		}
+
+		private VertexView(int id, AdjacencyList outgoingEdges, AdjacencyList incomingEdges) {
+			super(vertexLabels.getLabel(id), outgoingEdges, incomingEdges);
+			outgoingEdges.vertex = this;
+			incomingEdges.vertex = this;
+		}
+	}
+
+	/**
+	 * An edge whose weight is written back to the graph when it changes.
+	 */
+	private final class EdgeView extends Edge {
+
+		private static final long serialVersionUID = 5120460964474466271L;
+
+		private final long position;
+
+		EdgeView(long position, Vertex fromVertex, Vertex toVertex) {
+			super(fromVertex, toVertex, getOutWeight(position), getExplicitEdgeLabel(position), OffHeapGraph.this);
+			this.position = position;
+		}
+
+		@Override
+		public void setWeight(int weight) {
+			outWeights.putInt(position * 4, weight);
+			super.setWeight(weight);
+		}
+
+		@Override
+		public void setLabel(String label) {
+			throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+		}
+	}
+
+	/**
+	 * The outgoing or incoming edges of a vertex, as views that share the vertex the list belongs to.
+	 */
+	private final class AdjacencyList extends AbstractList<Edge> implements RandomAccess {
+
+		private final int id;
+		private final boolean outgoing;
+		private Vertex vertex;
+
+		AdjacencyList(int id, boolean outgoing) {
+			this.id = id;
+			this.outgoing = outgoing;
+		}
+
+		@Override
+		public Edge get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			if (outgoing) {
+				long position = getOutOffset(id) + index;
+				return new EdgeView(position, vertex, getVertex(getOutTarget(position)));
+			}
+			long position = getInOffset(id) + index;
+			return new EdgeView(getInEdge(position), getVertex(getInSource(position)), vertex);
+		}
+
+		@Override
+		public int size() {
+			return outgoing ? (int) (getOutOffset(id + 1) - getOutOffset(id))
+					: (int) (getInOffset(id + 1) - getInOffset(id));
+		}
+	}
+
+	private final class VertexMap extends AbstractMap<String, Vertex> {
+
+		@Override
+		public int size() {
+			return vertexCount;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && getVertexId((String) key) != CompiledGraph.NO_VERTEX;
+		}
+
+		@Override
+		public Vertex get(Object key) {
+			int id = key instanceof String ? getVertexId((String) key) : CompiledGraph.NO_VERTEX;
+			return id == CompiledGraph.NO_VERTEX ? null : getVertex(id);
+		}
+
+		@Override
+		public Vertex remove(Object key) {
+			throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+		}
+
+		@Override
+		public Set<Map.Entry<String, Vertex>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Vertex>>() {
+
+				@Override
+				public Iterator<Map.Entry<String, Vertex>> iterator() {
+					return new Iterator<Map.Entry<String, Vertex>>() {
+
+						private int next;
+
+						@Override
+						public boolean hasNext() {
+							return next < vertexCount;
+						}
+
+						@Override
+						public Map.Entry<String, Vertex> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							Vertex vertex = getVertex(next++);
+							return new AbstractMap.SimpleImmutableEntry<String, Vertex>(vertex.getLabel(), vertex);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return vertexCount;
+				}
+			};
+		}
+	}
+
+	private final class EdgeMap extends AbstractMap<String, Edge> {
+
+		@Override
+		public int size() {
+			return (int) Math.min(edgeCount, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return edgeCount == 0;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && findEdge((String) key) >= 0;
+		}
+
+		@Override
+		public Edge get(Object key) {
+			long position = key instanceof String ? findEdge((String) key) : -1;
+			return position < 0 ? null : getEdge(position);
+		}
+
+		@Override
+		public Edge remove(Object key) {
+			throw new UnsupportedOperationException(CLASSNAME + ": The graph is read-only");
+		}
+
+		@Override
+		public Set<Map.Entry<String, Edge>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Edge>>() {
+
+				@Override
+				public Iterator<Map.Entry<String, Edge>> iterator() {
+					return new Iterator<Map.Entry<String, Edge>>() {
+
+						private int source;
+						private long next;
+
+						@Override
+						public boolean hasNext() {
+							return next < edgeCount;
+						}
+
+						@Override
+						public Map.Entry<String, Edge> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							while (getOutOffset(source + 1) <= next) {
+								source++;
+							}
+							Edge edge = new EdgeView(next++, getVertex(source), getVertex(getOutTarget(next - 1)));
+							return new AbstractMap.SimpleImmutableEntry<String, Edge>(edge.getLabel(), edge);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return EdgeMap.this.size();
+				}
+			};
+		}
+	}
+}
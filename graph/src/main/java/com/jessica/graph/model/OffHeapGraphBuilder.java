@@ -0,0 +1,311 @@
+package com.jessica.graph.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+
+/**
+ * Loads vertices and edges into an {@link OffHeapGraph} without creating a vertex or edge object on the heap. Vertices
+ * are given by their labels, which are stored outside of the heap as they arrive, and the edges are kept as ints in
+ * direct memory in the order they are added. Building the graph sorts them by their from vertex and then by their to
+ * vertex with two counting passes, which also run in direct memory.
+ *
+ * Duplicate edges are only looked for when the graph is built: the edges of every vertex are sorted by their other
+ * vertex and weight, so checking costs O(E log d) for a highest degree of d, rather than a lookup in a hash map for
+ * every edge. A builder is used by one thread, and is empty again once it has built a graph.
+ */
+public class OffHeapGraphBuilder {
+
+	private final String CLASSNAME = this.getClass().getSimpleName();
+
+	private final long expectedVertexCount;
+	private final long expectedEdgeCount;
+
+	private OffHeapLabels vertexLabels;
+	private OffHeapLabels edgeLabels;
+
+	// The from vertex, to vertex and weight of every edge, and its explicit label id plus one, or 0 for the default
+	// label. The labels are only stored once an edge has an explicit one, since the memory is zeroed for the edges
+	// before it.
+	private DirectMemory sources;
+	private DirectMemory targets;
+	private DirectMemory weights;
+	private DirectMemory labels;
+	private long edgeCount;
+
+	/**
+	 * Class constructor for a load of unknown size.
+	 */
+	public OffHeapGraphBuilder() {
+		this(0, 0);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param expectedVertexCount
+	 *            The number of vertices the load is expected to have
+	 * @param expectedEdgeCount
+	 *            The number of edges the load is expected to have
+	 */
+	public OffHeapGraphBuilder(long expectedVertexCount, long expectedEdgeCount) {
+		this.expectedVertexCount = expectedVertexCount;
+		this.expectedEdgeCount = expectedEdgeCount;
+		clear();
+	}
+
+	/**
+	 * Adds a vertex, if the load has no vertex with its label yet. Vertices that edges start or end at are added with
+	 * the edges, so this is only needed for vertices without edges.
+	 *
+	 * @param label
+	 *            The label of the vertex
+	 * @return This builder
+	 * @throws GraphException
+	 *             NULL_VERTEX if the label is null
+	 */
+	public OffHeapGraphBuilder addVertex(String label) throws GraphException {
+		// Validate that the label is non-null
+		if (label == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_VERTEX);
+		}
+
+		vertexLabels.add(label);
+		return this;
+	}
+
+	/**
+	 * Adds an edge with the default label, which is the labels of its vertices joined by a dash.
+	 *
+	 * @param fromLabel
+	 *            The label of the vertex the edge starts at
+	 * @param toLabel
+	 *            The label of the vertex the edge ends at
+	 * @param weight
+	 *            The weight of the edge
+	 * @return This builder
+	 * @throws GraphException
+	 *             EDGE_MISSING_VERTEX if either label is null
+	 */
+	public OffHeapGraphBuilder addEdge(String fromLabel, String toLabel, int weight) throws GraphException {
+		return addEdge(fromLabel, toLabel, weight, null);
+	}
+
+	/**
+	 * Adds an edge.
+	 *
+	 * @param fromLabel
+	 *            The label of the vertex the edge starts at
+	 * @param toLabel
+	 *            The label of the vertex the edge ends at
+	 * @param weight
+	 *            The weight of the edge
+	 * @param label
+	 *            The label of the edge, or null or empty for the default label
+	 * @return This builder
+	 * @throws GraphException
+	 *             EDGE_MISSING_VERTEX if either vertex label is null
+	 */
+	public OffHeapGraphBuilder addEdge(String fromLabel, String toLabel, int weight, String label)
+			throws GraphException {
+		// Validate that the edge has both a from and to vertex
+		if (fromLabel == null || toLabel == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EDGE_MISSING_VERTEX);
+		}
+
+		sources.ensureCapacity((edgeCount + 1) * 4);
+		targets.ensureCapacity((edgeCount + 1) * 4);
+		weights.ensureCapacity((edgeCount + 1) * 4);
+		sources.putInt(edgeCount * 4, vertexLabels.add(fromLabel));
+		targets.putInt(edgeCount * 4, vertexLabels.add(toLabel));
+		weights.putInt(edgeCount * 4, weight);
+
+		// Keep the label only if it is not the one the edge would get anyway
+		boolean explicit = label != null && !label.isEmpty() && !label.equals(fromLabel + "-" + toLabel);
+		if (explicit && labels == null) {
+			edgeLabels = new OffHeapLabels(0, false);
+			labels = new DirectMemory(Math.max(expectedEdgeCount, edgeCount + 1) * 4);
+		}
+		if (labels != null) {
+			labels.ensureCapacity((edgeCount + 1) * 4);
+			labels.putInt(edgeCount * 4, explicit ? edgeLabels.add(label) + 1 : 0);
+		}
+		edgeCount++;
+		return this;
+	}
+
+	/**
+	 * Adds an edge by the labels of its vertices, its weight and its label.
+	 *
+	 * @param edge
+	 *            The edge to add, which is not kept
+	 * @return This builder
+	 * @throws GraphException
+	 *             NULL_EDGE or EDGE_MISSING_VERTEX if the edge is not complete
+	 */
+	public OffHeapGraphBuilder addEdge(Edge edge) throws GraphException {
+		// Validate that the edge is non-null
+		if (edge == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.NULL_EDGE);
+		}
+
+		// Validate that the edge has both a from and to vertex
+		if (edge.getFromVertex() == null || edge.getToVertex() == null) {
+			throw new GraphException(CLASSNAME, GraphExceptionMsg.EDGE_MISSING_VERTEX);
+		}
+
+		return addEdge(edge.getFromVertex().getLabel(), edge.getToVertex().getLabel(), edge.getWeight(),
+				edge.getLabel());
+	}
+
+	/**
+	 * Adds every edge of a stream, in order.
+	 *
+	 * @param edges
+	 *            The edges to add
+	 * @return This builder
+	 * @throws GraphException
+	 *             NULL_EDGE or EDGE_MISSING_VERTEX if an edge is not complete
+	 */
+	public OffHeapGraphBuilder addEdges(Stream<Edge> edges) throws GraphException {
+		for (Iterator<Edge> iterator = edges.iterator(); iterator.hasNext();) {
+			addEdge(iterator.next());
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @return The number of distinct vertices added so far
+	 */
+	public int getVertexCount() {
+		return vertexLabels.size();
+	}
+
+	/**
+	 *
+	 * @return The number of edges added so far
+	 */
+	public long getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Builds an off-heap graph of everything added, and leaves the builder empty.
+	 *
+	 * @return The graph
+	 * @throws GraphException
+	 *             PREEXISTING_EDGE if an edge is equal to another one, which is when they have the same from vertex,
+	 *             to vertex and weight
+	 */
+	public OffHeapGraph build() throws GraphException {
+		int vertexCount = vertexLabels.size();
+
+		// Group the edges by their from vertex, keeping the order they were added in
+		DirectMemory outOffsets = getOffsets(sources, vertexCount);
+		DirectMemory next = copy(outOffsets, vertexCount);
+		DirectMemory outTargets = new DirectMemory(edgeCount * 4);
+		DirectMemory outWeights = new DirectMemory(edgeCount * 4);
+		DirectMemory outLabels = labels != null ? new DirectMemory(edgeCount * 4) : null;
+		for (long edge = 0; edge < edgeCount; edge++) {
+			long source = sources.getInt(edge * 4);
+			long position = next.getLong(source * 8);
+			next.putLong(source * 8, position + 1);
+			outTargets.putInt(position * 4, targets.getInt(edge * 4));
+			outWeights.putInt(position * 4, weights.getInt(edge * 4));
+			if (outLabels != null) {
+				outLabels.putInt(position * 4, labels.getInt(edge * 4));
+			}
+		}
+		validateEdges(vertexCount, outOffsets, outTargets, outWeights);
+
+		// Group them again by their to vertex, in order of their from vertex
+		DirectMemory inOffsets = getOffsets(targets, vertexCount);
+		next = copy(inOffsets, vertexCount);
+		DirectMemory inSources = new DirectMemory(edgeCount * 4);
+		DirectMemory inEdges = new DirectMemory(edgeCount * 8);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			long end = outOffsets.getLong((vertex + 1L) * 8);
+			for (long position = outOffsets.getLong(vertex * 8L); position < end; position++) {
+				long target = outTargets.getInt(position * 4);
+				long inPosition = next.getLong(target * 8);
+				next.putLong(target * 8, inPosition + 1);
+				inSources.putInt(inPosition * 4, vertex);
+				inEdges.putLong(inPosition * 8, position);
+			}
+		}
+
+		OffHeapGraph graph = new OffHeapGraph(vertexLabels, edgeCount, outOffsets, outTargets, outWeights, outLabels,
+				edgeLabels, inOffsets, inSources, inEdges);
+		clear();
+		return graph;
+	}
+
+	/**
+	 * Counts the edges of every vertex, and turns the counts into the position of the first edge of every vertex,
+	 * followed by the number of edges.
+	 */
+	private DirectMemory getOffsets(DirectMemory vertices, int vertexCount) {
+		DirectMemory offsets = new DirectMemory((vertexCount + 1L) * 8);
+		for (long edge = 0; edge < edgeCount; edge++) {
+			long offset = (vertices.getInt(edge * 4) + 1L) * 8;
+			offsets.putLong(offset, offsets.getLong(offset) + 1);
+		}
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			long offset = (vertex + 1L) * 8;
+			offsets.putLong(offset, offsets.getLong(offset) + offsets.getLong(offset - 8));
+		}
+		return offsets;
+	}
+
+	private static DirectMemory copy(DirectMemory offsets, int vertexCount) {
+		DirectMemory copy = new DirectMemory(vertexCount * 8L);
+		for (long offset = 0; offset < vertexCount * 8L; offset += 8) {
+			copy.putLong(offset, offsets.getLong(offset));
+		}
+		return copy;
+	}
+
+	/**
+	 * Sorts the edges of every vertex by their to vertex and weight, packed into a long, so that equal edges end up
+	 * next to each other.
+	 */
+	private void validateEdges(int vertexCount, DirectMemory outOffsets, DirectMemory outTargets,
+			DirectMemory outWeights) throws GraphException {
+		long[] keys = new long[0];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			long start = outOffsets.getLong(vertex * 8L);
+			int degree = (int) (outOffsets.getLong((vertex + 1L) * 8) - start);
+			if (degree < 2) {
+				continue;
+			}
+
+			if (keys.length < degree) {
+				keys = new long[Math.max(degree, keys.length * 2)];
+			}
+			for (int i = 0; i < degree; i++) {
+				long position = start + i;
+				keys[i] = (long) outTargets.getInt(position * 4) << 32 | outWeights.getInt(position * 4) & 0xFFFFFFFFL;
+			}
+			Arrays.sort(keys, 0, degree);
+			for (int i = 1; i < degree; i++) {
+				if (keys[i] == keys[i - 1]) {
+					throw new GraphException(CLASSNAME, GraphExceptionMsg.PREEXISTING_EDGE);
+				}
+			}
+		}
+	}
+
+	private void clear() {
+		vertexLabels = new OffHeapLabels(expectedVertexCount, true);
+		edgeLabels = null;
+		sources = new DirectMemory(expectedEdgeCount * 4);
+		targets = new DirectMemory(expectedEdgeCount * 4);
+		weights = new DirectMemory(expectedEdgeCount * 4);
+		labels = null;
+		edgeCount = 0;
+	}
+}
@@ -0,0 +1,178 @@
+package com.jessica.graph.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Labels kept outside of the Java heap, given dense integer ids in the order they are added. The labels are stored
+ * one after another as UTF-8 bytes, with the offset of every label, so a label costs its bytes and a few more rather
+ * than a string object. A label is only turned back into a string when it is asked for.
+ *
+ * An indexed store gives every distinct label one id, like {@link LabelDictionary}, and finds labels through an open
+ * addressing table of ids, which compares the hash of a label before its bytes. A store that is not indexed keeps
+ * every label it is given, and can only be read by id. The store is not synchronized; it is filled in by one thread
+ * and can then be read by any number of threads.
+ */
+final class OffHeapLabels {
+
+	private final boolean indexed;
+	private int size;
+	private long byteCount;
+
+	// The bytes of every label, the offset of every label followed by the total number of bytes, and the hash of
+	// every label so that the table can grow without reading the labels again
+	private final DirectMemory bytes;
+	private final DirectMemory offsets;
+	private final DirectMemory hashes;
+
+	// The id plus one of the label in every slot, or 0 for an empty slot
+	private DirectMemory table;
+	private long tableSize;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param expectedSize
+	 *            The number of labels the store is expected to hold
+	 * @param indexed
+	 *            Whether to give equal labels the same id and allow labels to be looked up
+	 */
+	OffHeapLabels(long expectedSize, boolean indexed) {
+		this.indexed = indexed;
+		bytes = new DirectMemory(expectedSize * 8);
+		offsets = new DirectMemory((expectedSize + 1) * 8);
+		hashes = indexed ? new DirectMemory(expectedSize * 4) : null;
+		if (indexed) {
+			tableSize = Long.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+			table = new DirectMemory(tableSize * 4);
+		}
+	}
+
+	/**
+	 * Adds a label and gives it the next id, or gets the id it already has if the store is indexed.
+	 *
+	 * @param label
+	 *            A non-null label
+	 * @return The id of the label
+	 */
+	int add(String label) {
+		byte[] encoded = label.getBytes(StandardCharsets.UTF_8);
+		int hash = mix(label.hashCode());
+		long slot = indexed ? findSlot(encoded, hash) : 0;
+		if (indexed && table.getInt(slot * 4) != 0) {
+			return table.getInt(slot * 4) - 1;
+		}
+
+		// Validate that there is an id left for the label
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("A store holds at most " + Integer.MAX_VALUE + " labels");
+		}
+
+		bytes.ensureCapacity(byteCount + encoded.length);
+		for (int i = 0; i < encoded.length; i++) {
+			bytes.putByte(byteCount + i, encoded[i]);
+		}
+		byteCount += encoded.length;
+		offsets.ensureCapacity((size + 2L) * 8);
+		offsets.putLong((size + 1L) * 8, byteCount);
+		size++;
+
+		if (indexed) {
+			hashes.ensureCapacity(size * 4L);
+			hashes.putInt((size - 1L) * 4, hash);
+			table.putInt(slot * 4, size);
+			if (size * 2L > tableSize) {
+				rehash();
+			}
+		}
+		return size - 1;
+	}
+
+	/**
+	 *
+	 * @param label
+	 *            A label
+	 * @return The id of the label, or {@link LabelDictionary#NO_LABEL} if the store does not hold it or is not indexed
+	 */
+	int getId(String label) {
+		if (label == null || !indexed) {
+			return LabelDictionary.NO_LABEL;
+		}
+		return table.getInt(findSlot(label.getBytes(StandardCharsets.UTF_8), mix(label.hashCode())) * 4) - 1;
+	}
+
+	/**
+	 *
+	 * @param id
+	 *            The id of a label
+	 * @return The label
+	 */
+	String getLabel(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("Id: " + id + ", Size: " + size);
+		}
+
+		long start = offsets.getLong(id * 8L);
+		byte[] encoded = new byte[(int) (offsets.getLong((id + 1L) * 8) - start)];
+		for (int i = 0; i < encoded.length; i++) {
+			encoded[i] = bytes.getByte(start + i);
+		}
+		return new String(encoded, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 *
+	 * @return The number of labels, which is one more than the highest id
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the slot that holds a label, or the empty slot where it would go.
+	 */
+	private long findSlot(byte[] encoded, int hash) {
+		long mask = tableSize - 1;
+		long slot = hash & 0xFFFFFFFFL & mask;
+		for (int id = table.getInt(slot * 4) - 1; id >= 0; id = table.getInt(slot * 4) - 1) {
+			if (hashes.getInt(id * 4L) == hash && equals(id, encoded)) {
+				break;
+			}
+			slot = slot + 1 & mask;
+		}
+		return slot;
+	}
+
+	private boolean equals(int id, byte[] encoded) {
+		long start = offsets.getLong(id * 8L);
+		if (offsets.getLong((id + 1L) * 8) - start != encoded.length) {
+			return false;
+		}
+		for (int i = 0; i < encoded.length; i++) {
+			if (bytes.getByte(start + i) != encoded[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void rehash() {
+		tableSize *= 2;
+		table = new DirectMemory(tableSize * 4);
+		long mask = tableSize - 1;
+		for (int id = 0; id < size; id++) {
+			long slot = hashes.getInt(id * 4L) & 0xFFFFFFFFL & mask;
+			while (table.getInt(slot * 4) != 0) {
+				slot = slot + 1 & mask;
+			}
+			table.putInt(slot * 4, id + 1);
+		}
+	}
+
+	/**
+	 * Spreads the bits of a string hash code, whose low bits alone cluster for labels that share a prefix.
+	 */
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ hash >>> 16;
+	}
+}
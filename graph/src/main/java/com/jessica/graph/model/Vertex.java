@@ -1,16 +1,24 @@
 package com.jessica.graph.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.jessica.graph.model.LabelDictionary.LabelId;
+
 public class Vertex implements Serializable {
 
 	private static final long serialVersionUID = -7465770451734993616L;
 
 	private String label;
+
+	// The id of the label in the last dictionary that interned it
+	private transient LabelId labelId;
 	private List<Edge> outgoingEdges;
 	private List<Edge> incomingEdges;
+	private Coordinates coordinates;
 
 	/**
 	 * Class constructor
@@ -19,8 +27,8 @@ public class Vertex implements Serializable {
 	 *            The label which uniquely identifies this vertex
 	 */
 	public Vertex(String label) {
-		outgoingEdges = new ArrayList<Edge>();
-		incomingEdges = new ArrayList<Edge>();
+		outgoingEdges = new EdgeList();
+		incomingEdges = new EdgeList();
 		if (label != null && label != "") {
 			this.label = label;
 		} else {
@@ -29,6 +37,33 @@ public class Vertex implements Serializable {
 	}
 
 	/**
+	 * Class constructor for a view of a vertex that is stored elsewhere, such as in an {@link OffHeapGraph}, with
+	 * edge lists that read from that storage.
+	 * 
+	 * @param label
+	 *            The label which uniquely identifies this vertex
+	 * @param outgoingEdges
+	 *            The list of all edges that are directed away from this vertex
+	 * @param incomingEdges
+	 *            The list of all edges that are directed toward this vertex
+	 */
+	Vertex(String label, List<Edge> outgoingEdges, List<Edge> incomingEdges) {
+		this.label = label;
+		this.outgoingEdges = outgoingEdges;
+		this.incomingEdges = incomingEdges;
+	}
+
+	LabelId getLabelId() {
+		return labelId;
+	}
+
+	void setLabelId(LabelId labelId) {
+		this.labelId = labelId;
+	}
+
+	/**
+	 * The edge lists keep the order the edges were added in, and find an edge equal to a given one in constant time,
+	 * so adding, checking and removing edges do not depend on the degree of the vertex. They do not allow null edges.
 	 * 
 	 * @return The list of all edges that are directed toward this vertex
 	 */
@@ -52,6 +87,36 @@ public class Vertex implements Serializable {
 		return label;
 	}
 
+	/**
+	 * Gets the handle of this vertex in a compiled graph, which is its dense id there, so that algorithms can keep the
+	 * state of every vertex in arrays. The id is remembered with the vertex, so asking the same compiled graph again
+	 * does not look up the label.
+	 * 
+	 * @param graph
+	 *            The compiled graph that gives out the ids
+	 * @return The id of this vertex, or CompiledGraph.NO_VERTEX if it is not part of the compiled graph
+	 */
+	public int getId(CompiledGraph graph) {
+		return graph.getId(this);
+	}
+
+	/**
+	 * 
+	 * @return The location of this vertex, or null if it has none
+	 */
+	public Coordinates getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * 
+	 * @param coordinates
+	 *            The location of this vertex, used by goal directed searches such as A*
+	 */
+	public void setCoordinates(Coordinates coordinates) {
+		this.coordinates = coordinates;
+	}
+
 	/**
 	 * Adds an incoming edge to the list of incoming edges. If the edge is null, an error will be printed out and the
 	 * method will return immediately. If the list already contains this edge, it will not be added.
@@ -69,7 +134,7 @@ public class Vertex implements Serializable {
 
 		// Initialize the list if it hasn't yet been initialized
 		if (incomingEdges == null) {
-			incomingEdges = new ArrayList<Edge>();
+			incomingEdges = new EdgeList();
 		}
 
 		// Add the edge if it doesn't already exist
@@ -95,7 +160,7 @@ public class Vertex implements Serializable {
 
 		// Initialize the list if it hasn't yet been initialized
 		if (outgoingEdges == null) {
-			outgoingEdges = new ArrayList<Edge>();
+			outgoingEdges = new EdgeList();
 		}
 
 		// Add the edge if it doesn't already exist
@@ -136,6 +201,30 @@ public class Vertex implements Serializable {
 		}
 	}
 
+	/**
+	 * Makes room in the edge lists for a number of edges each, so that loading many edges does not grow the lists one
+	 * step at a time.
+	 * 
+	 * @param outgoingCount
+	 *            The number of outgoing edges this vertex is expected to have
+	 * @param incomingCount
+	 *            The number of incoming edges this vertex is expected to have
+	 */
+	public void ensureEdgeCapacity(int outgoingCount, int incomingCount) {
+		if (outgoingEdges == null) {
+			outgoingEdges = new EdgeList();
+		}
+		if (incomingEdges == null) {
+			incomingEdges = new EdgeList();
+		}
+		if (outgoingEdges instanceof EdgeList) {
+			((EdgeList) outgoingEdges).ensureCapacity(outgoingCount);
+		}
+		if (incomingEdges instanceof EdgeList) {
+			((EdgeList) incomingEdges).ensureCapacity(incomingCount);
+		}
+	}
+
 	/**
 	 * 
 	 * @return A new list comprised of all incoming and outgoing edges.
@@ -148,7 +237,32 @@ public class Vertex implements Serializable {
 	}
 
 	/**
-	 * Two vertices are considered equal if their labels are the same
+	 * Tells the edge lists that the weight of one of their edges changed, since they find edges by their weight.
+	 */
+	void edgeWeightChanged() {
+		if (incomingEdges instanceof EdgeList) {
+			((EdgeList) incomingEdges).invalidate();
+		}
+		if (outgoingEdges instanceof EdgeList) {
+			((EdgeList) outgoingEdges).invalidate();
+		}
+	}
+
+	/**
+	 * Graphs saved before the edge lists were indexed hold plain lists, which are copied into indexed ones.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (outgoingEdges != null && !(outgoingEdges instanceof EdgeList)) {
+			outgoingEdges = new EdgeList(outgoingEdges);
+		}
+		if (incomingEdges != null && !(incomingEdges instanceof EdgeList)) {
+			incomingEdges = new EdgeList(incomingEdges);
+		}
+	}
+
+	/**
+	 * Two vertices are considered equal if their labels are the same.
 	 */
 	@Override
 	public boolean equals(Object obj) {
@@ -164,9 +278,7 @@ public class Vertex implements Serializable {
 			return false;
 		}
 
-		Vertex lVertex = (Vertex) obj;
-
-		return ((label == null && lVertex.getLabel() == null) || label != null && label.equals(lVertex.getLabel()));
+		return label.equals(((Vertex) obj).label);
 	}
 
 	@Override
@@ -0,0 +1,113 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jessica.graph.model.Coordinates;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class AStarShortestPathTest {
+
+	private static final int GRID_SIZE = 30;
+
+	AStarShortestPath shortestPathAlgorithm = new AStarShortestPath(new EuclideanHeuristic());
+
+	@Test
+	public void testGetShortestDistance_MatchesHeapDijkstrasShortestPath() throws Exception {
+		Graph graph = getGridGraph(5);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		Random random = new Random(9);
+		for (int i = 0; i < 100; i++) {
+			Vertex source = getGridVertex(random.nextInt(GRID_SIZE), random.nextInt(GRID_SIZE));
+			Vertex destination = getGridVertex(random.nextInt(GRID_SIZE), random.nextInt(GRID_SIZE));
+
+			Integer expected = reference.getShortestDistance(graph, source, destination);
+			assertEquals(expected, shortestPathAlgorithm.getShortestDistance(graph, source, destination));
+
+			List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, source, destination);
+			assertEquals(source, path.get(0));
+			assertEquals(destination, path.get(path.size() - 1));
+		}
+	}
+
+	@Test
+	public void testGetShortestDistance_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		// Vertices without coordinates are estimated at 0, so this works like Dijkstra's Algorithm
+		assertEquals(12, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(Integer.MAX_VALUE,
+				shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+	}
+
+	@Test
+	public void testEuclideanHeuristic() {
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		vertex1.setCoordinates(new Coordinates(0, 0));
+		vertex2.setCoordinates(new Coordinates(3, 4));
+
+		assertEquals(5, new EuclideanHeuristic().getLowerBound(vertex1, vertex2));
+		assertEquals(50, new EuclideanHeuristic(10).getLowerBound(vertex1, vertex2));
+		assertEquals(0, new EuclideanHeuristic().getLowerBound(vertex1, new Vertex("V3")));
+	}
+
+	@Test
+	public void testHaversineHeuristic() {
+		Vertex paris = new Vertex("Paris");
+		Vertex london = new Vertex("London");
+		paris.setCoordinates(new Coordinates(2.3522, 48.8566));
+		london.setCoordinates(new Coordinates(-0.1276, 51.5072));
+
+		// The great circle distance is about 343.5 km
+		long meters = new HaversineHeuristic().getLowerBound(paris, london);
+		assertTrue(meters > 343000 && meters < 344000);
+		assertEquals(meters / 1000, new HaversineHeuristic(0.001).getLowerBound(paris, london), 1);
+	}
+
+	/**
+	 * Builds a grid of vertices with coordinates, connected in both directions to their horizontal and vertical
+	 * neighbors. Each edge weighs at least 1, which is the straight line distance between neighbors.
+	 */
+	private Graph getGridGraph(long seed) throws Exception {
+		Random random = new Random(seed);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex[][] grid = new Vertex[GRID_SIZE][GRID_SIZE];
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				grid[x][y] = getGridVertex(x, y);
+				graphMgmt.addVertex(grid[x][y]);
+			}
+		}
+
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				if (x + 1 < GRID_SIZE) {
+					graphMgmt.addEdge(new Edge(grid[x][y], grid[x + 1][y], 1 + random.nextInt(3)));
+					graphMgmt.addEdge(new Edge(grid[x + 1][y], grid[x][y], 1 + random.nextInt(3)));
+				}
+				if (y + 1 < GRID_SIZE) {
+					graphMgmt.addEdge(new Edge(grid[x][y], grid[x][y + 1], 1 + random.nextInt(3)));
+					graphMgmt.addEdge(new Edge(grid[x][y + 1], grid[x][y], 1 + random.nextInt(3)));
+				}
+			}
+		}
+		return graphMgmt.getGraph();
+	}
+
+	private Vertex getGridVertex(int x, int y) {
+		Vertex vertex = new Vertex(x + "," + y);
+		vertex.setCoordinates(new Coordinates(x, y));
+		return vertex;
+	}
+}
@@ -0,0 +1,204 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.AllPairsShortestPathBuilder.Algorithm;
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class AllPairsShortestPathTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		for (Algorithm algorithm : Arrays.asList(Algorithm.FLOYD_WARSHALL, Algorithm.JOHNSON)) {
+			AllPairsShortestPath shortestPathAlgorithm = new AllPairsShortestPath(
+					new AllPairsShortestPathBuilder(pool, algorithm));
+
+			assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+					new Vertex("F")), shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("F")));
+			assertEquals(12,
+					shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+			assertEquals(0,
+					shortestPathAlgorithm.getShortestDistance(graph, new Vertex("C"), new Vertex("C")).intValue());
+			assertEquals(Integer.MAX_VALUE,
+					shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+
+			try {
+				shortestPathAlgorithm.getShortestPath(graph, new Vertex("F"), new Vertex("A"));
+				fail();
+			} catch (GraphException exception) {
+				assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesHeapDijkstrasShortestPath() throws Exception {
+		// More vertices than one block, so that the blocked phases of Floyd-Warshall are all exercised
+		Graph graph = GraphTestUtils.getRandomGraph(8, 150, 900, 30);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		for (Algorithm algorithm : Algorithm.values()) {
+			AllPairsShortestPath shortestPathAlgorithm = new AllPairsShortestPath(
+					new AllPairsShortestPathBuilder(pool, algorithm));
+			for (int source = 0; source < 150; source += 3) {
+				for (int destination = 0; destination < 150; destination += 2) {
+					Vertex sourceVertex = new Vertex("V" + source);
+					Vertex destinationVertex = new Vertex("V" + destination);
+					Integer expected = reference.getShortestDistance(graph, sourceVertex, destinationVertex);
+					assertEquals(expected,
+							shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+					if (expected != Integer.MAX_VALUE) {
+						assertEquals(expected.intValue(), getPathLength(
+								shortestPathAlgorithm.getShortestPath(graph, sourceVertex, destinationVertex)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNegativeWeights() throws Exception {
+		// Shifting every weight by a potential keeps cycles non-negative while making some weights negative
+		Graph graph = GraphTestUtils.getRandomGraph(4, 120, 600, 10);
+		Random random = new Random(4);
+		int[] potentials = new int[120];
+		for (int i = 0; i < potentials.length; i++) {
+			potentials[i] = random.nextInt(20);
+		}
+		for (Edge edge : graph.getEdges().values()) {
+			edge.setWeight(edge.getWeight() + potential(potentials, edge.getFromVertex())
+					- potential(potentials, edge.getToVertex()));
+		}
+
+		AllPairsShortestPathTable floydWarshall = new AllPairsShortestPathBuilder(pool, Algorithm.FLOYD_WARSHALL)
+				.build(graph);
+		AllPairsShortestPathTable johnson = new AllPairsShortestPathBuilder(pool, Algorithm.JOHNSON).build(graph);
+		for (int source = 0; source < 120; source++) {
+			for (int destination = 0; destination < 120; destination++) {
+				int from = floydWarshall.getGraph().getId("V" + source);
+				int to = floydWarshall.getGraph().getId("V" + destination);
+				int distance = floydWarshall.getDistance(from, to);
+				assertEquals(distance, johnson.getDistance(johnson.getGraph().getId("V" + source),
+						johnson.getGraph().getId("V" + destination)));
+				if (distance != AllPairsShortestPathTable.UNREACHABLE) {
+					assertEquals(distance, getPathLength(floydWarshall.getPath(from, to)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testZeroWeights() throws Exception {
+		// Both ways between A and B cost nothing, so both paths to T are equally short
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexT = new Vertex("T");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 0));
+		graphMgmt.addEdge(new Edge(vertexB, vertexA, 0));
+		graphMgmt.addEdge(new Edge(vertexA, vertexT, 1));
+		graphMgmt.addEdge(new Edge(vertexB, vertexT, 1));
+
+		// Ties between many paths, across more vertices than one block
+		Graph graph = GraphTestUtils.getRandomGraph(12, 150, 900, 3);
+		for (Edge edge : graph.getEdges().values()) {
+			edge.setWeight(edge.getWeight() - 1);
+		}
+
+		for (Algorithm algorithm : Arrays.asList(Algorithm.FLOYD_WARSHALL, Algorithm.JOHNSON)) {
+			AllPairsShortestPath shortestPathAlgorithm = new AllPairsShortestPath(
+					new AllPairsShortestPathBuilder(pool, algorithm));
+			for (Vertex source : Arrays.asList(vertexA, vertexB)) {
+				List<Vertex> path = shortestPathAlgorithm.getShortestPath(graphMgmt.getGraph(), source, vertexT);
+				assertEquals(source, path.get(0));
+				assertEquals(vertexT, path.get(path.size() - 1));
+				assertEquals(1, getPathLength(path));
+			}
+
+			AllPairsShortestPathTable table = new AllPairsShortestPathBuilder(pool, algorithm).build(graph);
+			for (int from = 0; from < table.getVertexCount(); from++) {
+				for (int to = 0; to < table.getVertexCount(); to++) {
+					int distance = table.getDistance(from, to);
+					if (distance != AllPairsShortestPathTable.UNREACHABLE) {
+						assertEquals(distance, getPathLength(table.getPath(from, to)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNegativeCycle() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		graph.getEdges().get("E-D").setWeight(-20);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(graph);
+		graphMgmt.addEdge(new Edge(graph.getVertices().get("D"), graph.getVertices().get("B"), 1));
+
+		for (Algorithm algorithm : Arrays.asList(Algorithm.FLOYD_WARSHALL, Algorithm.JOHNSON)) {
+			try {
+				new AllPairsShortestPathBuilder(pool, algorithm).build(graph);
+				fail();
+			} catch (GraphException exception) {
+				assertTrue(exception.getMessage().contains(GraphExceptionMsg.NEGATIVE_CYCLE.toString()));
+			}
+		}
+	}
+
+	@Test
+	public void testRebuildAfterChange() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+		AllPairsShortestPath shortestPathAlgorithm = new AllPairsShortestPath();
+		Graph graph = graphMgmt.getGraph();
+
+		AllPairsShortestPathTable table = shortestPathAlgorithm.getTable(graph);
+		assertTrue(table == shortestPathAlgorithm.getTable(graph));
+
+		graphMgmt.addEdge(new Edge(graph.getVertices().get("A"), graph.getVertices().get("F"), 3));
+		assertEquals(3, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+		assertTrue(table != shortestPathAlgorithm.getTable(graph));
+	}
+
+	private int potential(int[] potentials, Vertex vertex) {
+		return potentials[Integer.parseInt(vertex.getLabel().substring(1))];
+	}
+
+	private int getPathLength(List<Vertex> path) {
+		int length = 0;
+		for (int i = 0; i < path.size() - 1; i++) {
+			int shortestEdge = Integer.MAX_VALUE;
+			for (Edge edge : path.get(i).getOutgoingEdges()) {
+				if (edge.getToVertex().equals(path.get(i + 1))) {
+					shortestEdge = Math.min(shortestEdge, edge.getWeight());
+				}
+			}
+			assertTrue(shortestEdge != Integer.MAX_VALUE);
+			length += shortestEdge;
+		}
+		return length;
+	}
+}
@@ -0,0 +1,94 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class BidirectionalDijkstrasShortestPathTest {
+
+	BidirectionalDijkstrasShortestPath shortestPathAlgorithm = new BidirectionalDijkstrasShortestPath();
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		// Test finding the shortest path from vertex A to vertex F
+		List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("F"));
+
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+				new Vertex("F")), path);
+		assertEquals(12, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+	}
+
+	@Test
+	public void testGetShortestPath_SameVertex() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		assertEquals(Arrays.asList(new Vertex("B")),
+				shortestPathAlgorithm.getShortestPath(graph, new Vertex("B"), new Vertex("B")));
+		assertEquals(0, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("B"), new Vertex("B")).intValue());
+	}
+
+	@Test
+	public void testGetShortestPath_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		assertEquals(Integer.MAX_VALUE,
+				shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+		try {
+			shortestPathAlgorithm.getShortestPath(graph, new Vertex("F"), new Vertex("A"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+	}
+
+	@Test
+	public void testGetShortestDistance_MatchesHeapDijkstrasShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(11, 300, 1200, 25);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		for (int source = 0; source < 300; source += 7) {
+			for (int destination = 0; destination < 300; destination += 5) {
+				Vertex sourceVertex = new Vertex("V" + source);
+				Vertex destinationVertex = new Vertex("V" + destination);
+				Integer expected = reference.getShortestDistance(graph, sourceVertex, destinationVertex);
+				assertEquals(expected, shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+
+				// The path must start and end at the right vertices and have the shortest length
+				if (expected != Integer.MAX_VALUE) {
+					List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, sourceVertex, destinationVertex);
+					assertEquals(sourceVertex, path.get(0));
+					assertEquals(destinationVertex, path.get(path.size() - 1));
+					assertEquals(expected.intValue(), getPathLength(graph, path));
+				}
+			}
+		}
+	}
+
+	private int getPathLength(Graph graph, List<Vertex> path) {
+		int length = 0;
+		for (int i = 0; i < path.size() - 1; i++) {
+			int shortestEdge = Integer.MAX_VALUE;
+			for (Edge edge : graph.getVertices().get(path.get(i).getLabel()).getOutgoingEdges()) {
+				if (edge.getToVertex().equals(path.get(i + 1))) {
+					shortestEdge = Math.min(shortestEdge, edge.getWeight());
+				}
+			}
+			assertTrue(shortestEdge != Integer.MAX_VALUE);
+			length += shortestEdge;
+		}
+		return length;
+	}
+}
@@ -0,0 +1,106 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Vertex;
+
+public class BreadthFirstSearchTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testComputeHopDistances() throws Exception {
+		CompiledGraph graph = GraphTestUtils.getWeightedGraph().compile();
+		BreadthFirstSearch search = new BreadthFirstSearch(graph);
+
+		int[] distances = search.computeHopDistances(graph.getId("A"));
+
+		assertEquals(0, distances[graph.getId("A")]);
+		assertEquals(1, distances[graph.getId("B")]);
+		assertEquals(1, distances[graph.getId("C")]);
+		assertEquals(2, distances[graph.getId("D")]);
+		assertEquals(2, distances[graph.getId("E")]);
+		assertEquals(3, distances[graph.getId("F")]);
+		assertEquals(3, distances[graph.getId("G")]);
+		assertEquals(BreadthFirstSearch.UNREACHABLE, search.getHopDistance(new Vertex("F"), new Vertex("A")));
+	}
+
+	@Test
+	public void testMatchesSequentialSearch() throws Exception {
+		CompiledGraph graph = GraphTestUtils.getRandomGraph(13, 3000, 12000, 10).compile();
+
+		// Only top-down, only bottom-up once the frontier is not a single vertex, and switching with the defaults
+		BreadthFirstSearch[] searches = new BreadthFirstSearch[] { new BreadthFirstSearch(graph, pool, 0, 0),
+				new BreadthFirstSearch(graph, pool, Integer.MAX_VALUE, 0), new BreadthFirstSearch(graph, pool) };
+		for (int source = 0; source < graph.getVertexCount(); source += 211) {
+			int[] expected = getHopDistances(graph, source);
+			for (BreadthFirstSearch search : searches) {
+				assertArrayEquals(expected, search.computeHopDistances(source));
+
+				int[] order = search.search(source);
+				for (int i = 1; i < order.length; i++) {
+					assertTrue(expected[order[i - 1]] < expected[order[i]]
+							|| expected[order[i - 1]] == expected[order[i]] && order[i - 1] < order[i]);
+				}
+				assertEquals(Arrays.stream(expected).filter(d -> d != BreadthFirstSearch.UNREACHABLE).count(),
+						order.length);
+
+				int destination = (source * 7 + 5) % graph.getVertexCount();
+				assertEquals(expected[destination], search.getHopDistance(source, destination));
+			}
+		}
+	}
+
+	@Test
+	public void testSearch_InvalidVertex() throws Exception {
+		BreadthFirstSearch search = new BreadthFirstSearch(GraphTestUtils.getWeightedGraph().compile());
+		try {
+			search.search(new Vertex("Z"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
+	/**
+	 * The hop distances found by a plain queue based search.
+	 */
+	private static int[] getHopDistances(CompiledGraph graph, int source) {
+		int[] distances = new int[graph.getVertexCount()];
+		Arrays.fill(distances, BreadthFirstSearch.UNREACHABLE);
+		distances[source] = 0;
+
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			int vertex = queue.poll();
+			for (int edge = graph.getOutOffsets()[vertex]; edge < graph.getOutOffsets()[vertex + 1]; edge++) {
+				int target = graph.getOutTargets()[edge];
+				if (distances[target] == BreadthFirstSearch.UNREACHABLE) {
+					distances[target] = distances[vertex] + 1;
+					queue.add(target);
+				}
+			}
+		}
+		return distances;
+	}
+}
@@ -0,0 +1,125 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class CachedDijkstrasShortestPathTest {
+
+	private GraphManagementImpl graphMgmt;
+	private CachedDijkstrasShortestPath shortestPathAlgorithm;
+
+	@Before
+	public void setupBeforeEachTest() throws GraphException {
+		shortestPathAlgorithm = new CachedDijkstrasShortestPath(new ShortestPathTreeCache(2));
+		graphMgmt = new GraphManagementImpl();
+		graphMgmt.setShortestPathHelper(shortestPathAlgorithm);
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+	}
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+				new Vertex("F")), graphMgmt.getShortestPath(new Vertex("A"), new Vertex("F")));
+		assertEquals(12, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(0, graphMgmt.getShortestDistance(new Vertex("C"), new Vertex("C")).intValue());
+		assertEquals(Integer.MAX_VALUE, graphMgmt.getShortestDistance(new Vertex("F"), new Vertex("A")).intValue());
+
+		try {
+			graphMgmt.getShortestPath(new Vertex("F"), new Vertex("A"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+	}
+
+	@Test
+	public void testCounters() throws Exception {
+		ShortestPathTreeCache cache = shortestPathAlgorithm.getCache();
+
+		graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F"));
+		graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("D"));
+		graphMgmt.getShortestPath(new Vertex("A"), new Vertex("G"));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+
+		// The cache holds two trees, so a third source evicts the least recently used one (B)
+		graphMgmt.getShortestDistance(new Vertex("B"), new Vertex("F"));
+		graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F"));
+		graphMgmt.getShortestDistance(new Vertex("E"), new Vertex("F"));
+		assertEquals(3, cache.getMissCount());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2, cache.size());
+
+		graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F"));
+		assertEquals(4, cache.getHitCount());
+	}
+
+	@Test
+	public void testInvalidation_AddAndRemoveEdge() throws Exception {
+		Graph graph = graphMgmt.getGraph();
+		assertEquals(12, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+
+		long version = graph.getVersion();
+		Edge shortcut = new Edge(graph.getVertices().get("A"), graph.getVertices().get("F"), 4);
+		graphMgmt.addEdge(shortcut);
+		assertTrue(graph.getVersion() > version);
+		assertEquals(4, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+
+		graphMgmt.removeEdge(shortcut);
+		assertEquals(12, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(3, shortestPathAlgorithm.getCache().getMissCount());
+	}
+
+	@Test
+	public void testInvalidation_SetWeight() throws Exception {
+		Graph graph = graphMgmt.getGraph();
+		assertEquals(12, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+
+		graph.getEdges().get("G-F").setWeight(20);
+		assertEquals(16, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("D"),
+				new Vertex("F")), graphMgmt.getShortestPath(new Vertex("A"), new Vertex("F")));
+	}
+
+	@Test
+	public void testInvalidation_AddAndRemoveVertex() throws Exception {
+		Graph graph = graphMgmt.getGraph();
+		assertEquals(12, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+
+		graphMgmt.removeVertex(graph.getVertices().get("G"));
+		assertEquals(16, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("F")).intValue());
+
+		long version = graph.getVersion();
+		graphMgmt.addVertex(new Vertex("H"));
+		assertTrue(graph.getVersion() > version);
+		assertEquals(Integer.MAX_VALUE, graphMgmt.getShortestDistance(new Vertex("A"), new Vertex("H")).intValue());
+	}
+
+	@Test
+	public void testMatchesHeapDijkstrasShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(3, 200, 800, 25);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		for (int source = 0; source < 200; source += 13) {
+			for (int destination = 0; destination < 200; destination += 3) {
+				Vertex sourceVertex = new Vertex("V" + source);
+				Vertex destinationVertex = new Vertex("V" + destination);
+				assertEquals(reference.getShortestDistance(graph, sourceVertex, destinationVertex),
+						shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+			}
+		}
+	}
+}
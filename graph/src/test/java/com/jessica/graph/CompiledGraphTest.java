@@ -0,0 +1,105 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class CompiledGraphTest {
+
+	@Test
+	public void testCompile() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		CompiledGraph compiledGraph = graph.compile();
+
+		assertEquals(7, compiledGraph.getVertexCount());
+		assertEquals(9, compiledGraph.getEdgeCount());
+		assertEquals(CompiledGraph.NO_VERTEX, compiledGraph.getId(new Vertex("Z")));
+
+		// Every vertex should have the same outgoing and incoming edges, in the same order
+		for (Vertex vertex : graph.getVertices().values()) {
+			int id = compiledGraph.getId(vertex);
+			assertEquals(vertex, compiledGraph.getVertex(id));
+			assertEquals(vertex.getOutgoingEdges().size(), compiledGraph.getOutDegree(id));
+			assertEquals(vertex.getIncomingEdges().size(), compiledGraph.getInDegree(id));
+
+			List<String> outgoing = new ArrayList<String>();
+			for (Edge edge : vertex.getOutgoingEdges()) {
+				outgoing.add(edge.getToVertex().getLabel() + edge.getWeight());
+			}
+			List<String> compiledOutgoing = new ArrayList<String>();
+			for (int edge = compiledGraph.getOutOffsets()[id]; edge < compiledGraph.getOutOffsets()[id + 1]; edge++) {
+				compiledOutgoing.add(compiledGraph.getVertex(compiledGraph.getOutTargets()[edge]).getLabel()
+						+ compiledGraph.getOutWeights()[edge]);
+			}
+			assertEquals(outgoing, compiledOutgoing);
+
+			for (int edge = compiledGraph.getInOffsets()[id]; edge < compiledGraph.getInOffsets()[id + 1]; edge++) {
+				int forwardEdge = compiledGraph.getInEdges()[edge];
+				assertEquals(id, compiledGraph.getOutTargets()[forwardEdge]);
+				assertEquals(compiledGraph.getInWeights()[edge], compiledGraph.getOutWeights()[forwardEdge]);
+			}
+		}
+	}
+
+	@Test
+	public void testCompile_IsSnapshot() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+		CompiledGraph compiledGraph = graphMgmt.compileGraph();
+
+		// Changes to the graph should not show up in the compiled graph
+		graphMgmt.addEdge(new Edge(new Vertex("F"), new Vertex("H")));
+
+		assertEquals(7, compiledGraph.getVertexCount());
+		assertEquals(9, compiledGraph.getEdgeCount());
+		assertEquals(8, graphMgmt.compileGraph().getVertexCount());
+	}
+
+	@Test
+	public void testShortestPath_CompiledGraph() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(7, 150, 600, 15);
+		CompiledGraph compiledGraph = graph.compile();
+		DijkstrasShortestPath shortestPathAlgorithm = new DijkstrasShortestPath();
+
+		for (int source = 0; source < 150; source += 13) {
+			Vertex sourceVertex = new Vertex("V" + source);
+			ShortestPathTree tree = shortestPathAlgorithm.getShortestPathTree(compiledGraph, sourceVertex);
+			for (int destination = 0; destination < 150; destination += 11) {
+				if (source == destination) {
+					continue;
+				}
+				Vertex destinationVertex = new Vertex("V" + destination);
+				Integer expected = shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex);
+				assertEquals(expected,
+						shortestPathAlgorithm.getShortestDistance(compiledGraph, sourceVertex, destinationVertex));
+				assertEquals(expected, tree.getDistance(destinationVertex));
+
+				if (tree.isReachable(destinationVertex)) {
+					assertEquals(tree.getPath(destinationVertex),
+							shortestPathAlgorithm.getShortestPath(compiledGraph, sourceVertex, destinationVertex));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDepthFirstSearch_CompiledGraph() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(3, 100, 250, 5));
+		CompiledGraph compiledGraph = graphMgmt.compileGraph();
+
+		// The compiled graph should be visited in the same order as the graph
+		for (int start = 0; start < 100; start += 9) {
+			Vertex vertex = graphMgmt.getGraph().getVertices().get("V" + start);
+			assertEquals(graphMgmt.depthFirstSeach(vertex), graphMgmt.depthFirstSeach(compiledGraph, vertex));
+		}
+	}
+}
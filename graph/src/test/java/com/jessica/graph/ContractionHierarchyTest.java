@@ -0,0 +1,156 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class ContractionHierarchyTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		ContractionHierarchyShortestPath shortestPathAlgorithm = new ContractionHierarchyShortestPath();
+
+		List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("F"));
+
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+				new Vertex("F")), path);
+		assertEquals(12, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(0, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("C"), new Vertex("C")).intValue());
+	}
+
+	@Test
+	public void testGraphChanges() throws Exception {
+		GraphManagementImpl graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Edge edgeAB = new Edge(vertexA, vertexB, 10);
+		graphMgmt.addEdge(edgeAB);
+		graphMgmt.addVertex(vertexC);
+		Graph graph = graphMgmt.getGraph();
+		ContractionHierarchyShortestPath shortestPathAlgorithm = new ContractionHierarchyShortestPath();
+		assertEquals(Integer.MAX_VALUE, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexC).intValue());
+
+		// Adding an edge and lowering a weight change the version of the graph, so the queries see both
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 1));
+		edgeAB.setWeight(2);
+		assertEquals(2, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexB).intValue());
+		assertEquals(3, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexC).intValue());
+		assertEquals(Arrays.asList(vertexA, vertexB, vertexC),
+				shortestPathAlgorithm.getShortestPath(graph, vertexA, vertexC));
+	}
+
+	@Test
+	public void testGetShortestPath_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		ContractionHierarchyShortestPath shortestPathAlgorithm = new ContractionHierarchyShortestPath();
+
+		assertEquals(Integer.MAX_VALUE,
+				shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+		try {
+			shortestPathAlgorithm.getShortestPath(graph, new Vertex("F"), new Vertex("A"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+	}
+
+	@Test
+	public void testMatchesHeapDijkstrasShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(21, 400, 1600, 30);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		// Use a small witness limit, a dedicated pool, and check both paths and distances
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(pool, 20).build(graph);
+			ContractionHierarchyShortestPath shortestPathAlgorithm = new ContractionHierarchyShortestPath(hierarchy);
+
+			for (int source = 0; source < 400; source += 9) {
+				for (int destination = 0; destination < 400; destination += 7) {
+					Vertex sourceVertex = new Vertex("V" + source);
+					Vertex destinationVertex = new Vertex("V" + destination);
+					Integer expected = reference.getShortestDistance(graph, sourceVertex, destinationVertex);
+					assertEquals(expected,
+							shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+
+					if (expected != Integer.MAX_VALUE) {
+						List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, sourceVertex,
+								destinationVertex);
+						assertEquals(sourceVertex, path.get(0));
+						assertEquals(destinationVertex, path.get(path.size() - 1));
+						assertEquals(expected.intValue(), getPathLength(graph, path));
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(5, 100, 400, 10);
+		ContractionHierarchy hierarchy = new ContractionHierarchyBuilder().build(graph);
+
+		File file = folder.newFile("graph.ch");
+		hierarchy.save(file.getAbsolutePath());
+		ContractionHierarchy loaded = ContractionHierarchy.load(file.getAbsolutePath());
+
+		assertEquals(hierarchy.getVertexCount(), loaded.getVertexCount());
+		assertEquals(hierarchy.getEdgeCount(), loaded.getEdgeCount());
+
+		ContractionHierarchyShortestPath original = new ContractionHierarchyShortestPath(hierarchy);
+		ContractionHierarchyShortestPath fromFile = new ContractionHierarchyShortestPath(loaded);
+		for (int destination = 0; destination < 100; destination++) {
+			Vertex destinationVertex = new Vertex("V" + destination);
+			assertEquals(original.getShortestDistance(graph, new Vertex("V0"), destinationVertex),
+					fromFile.getShortestDistance(graph, new Vertex("V0"), destinationVertex));
+		}
+	}
+
+	@Test
+	public void testLoad_NullFileName() throws Exception {
+		try {
+			ContractionHierarchy.load(null);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_FILENAME.toString()));
+		}
+	}
+
+	private int getPathLength(Graph graph, List<Vertex> path) {
+		int length = 0;
+		for (int i = 0; i < path.size() - 1; i++) {
+			int shortestEdge = Integer.MAX_VALUE;
+			for (Edge edge : graph.getVertices().get(path.get(i).getLabel()).getOutgoingEdges()) {
+				if (edge.getToVertex().equals(path.get(i + 1))) {
+					shortestEdge = Math.min(shortestEdge, edge.getWeight());
+				}
+			}
+			assertTrue(shortestEdge != Integer.MAX_VALUE);
+			length += shortestEdge;
+		}
+		return length;
+	}
+}
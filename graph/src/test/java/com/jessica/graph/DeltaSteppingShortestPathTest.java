@@ -0,0 +1,106 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class DeltaSteppingShortestPathTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testComputeAllDistances() throws Exception {
+		CompiledGraph graph = GraphTestUtils.getWeightedGraph().compile();
+		DeltaSteppingShortestPath deltaStepping = new DeltaSteppingShortestPath(graph);
+
+		long[] distances = deltaStepping.computeAllDistances(new Vertex("A"));
+
+		assertEquals(0, distances[graph.getId("A")]);
+		assertEquals(5, distances[graph.getId("B")]);
+		assertEquals(10, distances[graph.getId("C")]);
+		assertEquals(12, distances[graph.getId("F")]);
+		assertEquals(ShortestPathTree.UNREACHABLE, deltaStepping.computeAllDistances(new Vertex("F"))[graph
+				.getId("A")]);
+	}
+
+	@Test
+	public void testMatchesDijkstrasShortestPath() throws Exception {
+		Graph randomGraph = GraphTestUtils.getRandomGraph(12, 2000, 9000, 100);
+		randomGraph.getEdges().values().iterator().next().setWeight(0);
+		CompiledGraph graph = randomGraph.compile();
+
+		// Deltas below, around and above the edge weights, so that buckets hold both light and heavy edges
+		for (long delta : new long[] { 1, 7, 50, 1000 }) {
+			DeltaSteppingShortestPath deltaStepping = new DeltaSteppingShortestPath(graph, delta, pool);
+			for (int source = 0; source < graph.getVertexCount(); source += 97) {
+				long[] expected = new long[graph.getVertexCount()];
+				ShortestPathTree tree = DijkstrasShortestPath.findMinimumDistance(graph, source,
+						CompiledGraph.NO_VERTEX);
+				for (int vertex = 0; vertex < expected.length; vertex++) {
+					expected[vertex] = tree.getDistance(vertex);
+				}
+				assertArrayEquals(expected, deltaStepping.computeAllDistances(source));
+			}
+		}
+	}
+
+	@Test
+	public void testHeavyEdgeWithSmallDelta() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		graph.getEdges().get("A-B").setWeight(Integer.MAX_VALUE);
+		CompiledGraph compiled = graph.compile();
+
+		// A bucket per unit of distance would need billions of buckets to reach B
+		long[] distances = new DeltaSteppingShortestPath(compiled, 1, pool).computeAllDistances(new Vertex("A"));
+
+		ShortestPathTree tree = DijkstrasShortestPath.findMinimumDistance(compiled, compiled.getId("A"),
+				CompiledGraph.NO_VERTEX);
+		for (int vertex = 0; vertex < distances.length; vertex++) {
+			assertEquals(tree.getDistance(vertex), distances[vertex]);
+		}
+		assertEquals(Integer.MAX_VALUE, distances[compiled.getId("B")]);
+		assertEquals(Integer.MAX_VALUE + 3L, distances[compiled.getId("E")]);
+		assertEquals(10, distances[compiled.getId("C")]);
+	}
+
+	@Test
+	public void testNegativeWeight() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		graph.getEdges().get("A-B").setWeight(-1);
+		try {
+			new DeltaSteppingShortestPath(graph.compile());
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NEGATIVE_WEIGHT.toString()));
+		}
+	}
+
+	@Test
+	public void testComputeAllDistances_InvalidVertex() throws Exception {
+		DeltaSteppingShortestPath deltaStepping = new DeltaSteppingShortestPath(GraphTestUtils.getWeightedGraph()
+				.compile());
+		try {
+			deltaStepping.computeAllDistances(new Vertex("Z"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class GraphBuilderTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testBuild_MatchesAddingOneAtATime() throws Exception {
+		List<Edge> edges = getRandomEdges(1, 500, 3000);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		for (Edge edge : edges) {
+			graphMgmt.addEdge(edge);
+		}
+		Graph expected = graphMgmt.getGraph();
+
+		// The same edges, between copies of the vertices so that both graphs keep their own edge lists
+		Graph graph = new GraphBuilder(pool, 500, 3000).addEdges(copy(edges).stream()).build();
+		assertEquals(expected.getVertices().keySet(), graph.getVertices().keySet());
+		assertEquals(expected.getEdges().keySet(), graph.getEdges().keySet());
+		assertTrue(graph.getVersion() > 0);
+		for (Vertex vertex : graph.getVertices().values()) {
+			Vertex expectedVertex = expected.getVertices().get(vertex.getLabel());
+			assertEquals(getLabels(expectedVertex.getOutgoingEdges()), getLabels(vertex.getOutgoingEdges()));
+			assertEquals(getLabels(expectedVertex.getIncomingEdges()), getLabels(vertex.getIncomingEdges()));
+		}
+		for (Edge edge : graph.getEdges().values()) {
+			assertEquals(graph, edge.getGraph());
+			assertTrue(graph.containsEdge(edge));
+		}
+	}
+
+	@Test
+	public void testCompile_MatchesCompiledGraph() throws Exception {
+		List<Edge> edges = getRandomEdges(2, 400, 2500);
+		GraphBuilder builder = new GraphBuilder(pool, 0, 0);
+		for (Edge edge : edges) {
+			builder.addEdge(edge.getFromVertex(), edge.getToVertex(), edge.getWeight());
+		}
+		builder.addVertex(new Vertex("Alone"));
+		CompiledGraph compiled = builder.compile();
+		CompiledGraph expected = new GraphBuilder(pool, 0, 0).addEdges(edges.stream())
+				.addVertex(new Vertex("Alone")).build().compile();
+
+		// Ids differ between the two, so the edges are compared by label in their order
+		assertEquals(expected.getVertexCount(), compiled.getVertexCount());
+		assertEquals(expected.getEdgeCount(), compiled.getEdgeCount());
+		for (int vertex = 0; vertex < compiled.getVertexCount(); vertex++) {
+			int expectedVertex = expected.getId(compiled.getVertex(vertex));
+			assertEquals(getOutgoing(expected, expectedVertex), getOutgoing(compiled, vertex));
+			assertEquals(expected.getInDegree(expectedVertex), compiled.getInDegree(vertex));
+		}
+	}
+
+	@Test
+	public void testBuild_DuplicateEdges() throws Exception {
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		GraphBuilder builder = new GraphBuilder(pool, 0, 0).addEdge(new Edge(vertex1, vertex2, 4, "first"))
+				.addEdge(new Edge(vertex2, vertex1, 4, "second")).addEdge(new Edge(vertex1, vertex2, 4, "third"));
+		try {
+			builder.build();
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+
+		try {
+			builder.compile();
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+	}
+
+	@Test
+	public void testAddEdges_ExistingEdge() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Vertex vertex3 = new Vertex("V3");
+		graphMgmt.addEdge(new Edge(vertex1, vertex2, 1, "existing"));
+
+		// Nothing is added if one edge of the load is already part of the graph
+		List<Edge> edges = new ArrayList<Edge>();
+		edges.add(new Edge(vertex2, vertex3, 1, "new"));
+		edges.add(new Edge(vertex1, vertex2, 1, "duplicate"));
+		try {
+			graphMgmt.addEdges(edges.stream());
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+		assertEquals(1, graphMgmt.getGraph().getEdges().size());
+		assertEquals(2, graphMgmt.getGraph().getVertices().size());
+
+		edges.remove(1);
+		graphMgmt.addEdges(edges.stream());
+		assertEquals(2, graphMgmt.getGraph().getEdges().size());
+		assertEquals(3, graphMgmt.getGraph().getVertices().size());
+		assertEquals(1, vertex2.getOutgoingEdges().size());
+		assertEquals(1, vertex3.getIncomingEdges().size());
+		assertTrue(graphMgmt.getGraph().containsEdge(new Edge(vertex2, vertex3, 1)));
+	}
+
+	@Test
+	public void testAddVertex_ExistingVertex() throws Exception {
+		GraphBuilder builder = new GraphBuilder(pool, 0, 0).addEdge(new Edge(new Vertex("V1"), new Vertex("V2")));
+		try {
+			builder.addVertex(new Vertex("V2"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_VERTEX.toString()));
+		}
+
+		Graph graph = new Graph();
+		graph.getVertices().put("V3", new Vertex("V3"));
+		try {
+			builder.addVertex(new Vertex("V3")).addTo(graph);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_VERTEX.toString()));
+		}
+		assertEquals(1, graph.getVertices().size());
+	}
+
+	@Test
+	public void testCompile_LargeLoad() throws Exception {
+
+		// A million edges, loaded without creating an Edge object for any of them
+		int vertexCount = 100000;
+		int edgeCount = 1000000;
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+		GraphBuilder builder = new GraphBuilder(pool, vertexCount, edgeCount);
+		for (int i = 0; i < edgeCount; i++) {
+			builder.addEdge(vertices[i % vertexCount], vertices[(i * 7 + 1) % vertexCount], i / vertexCount);
+		}
+
+		CompiledGraph graph = builder.compile();
+		assertEquals(vertexCount, graph.getVertexCount());
+		assertEquals(edgeCount, graph.getEdgeCount());
+		for (int vertex = 0; vertex < vertexCount; vertex += 997) {
+			assertEquals(edgeCount / vertexCount, graph.getOutDegree(vertex));
+			assertEquals(edgeCount / vertexCount, graph.getInDegree(vertex));
+		}
+	}
+
+	@Test
+	public void testAddTo_NullGraph() throws Exception {
+		try {
+			new GraphBuilder(pool, 0, 0).addTo(null);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_GRAPH.toString()));
+		}
+	}
+
+	/**
+	 * Picks distinct edges between random vertices, with weights that repeat between the same two vertices.
+	 */
+	private static List<Edge> getRandomEdges(long seed, int vertexCount, int edgeCount) {
+		Random random = new Random(seed);
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < edgeCount; i++) {
+			Vertex from = vertices[random.nextInt(vertexCount)];
+			Vertex to = vertices[random.nextInt(vertexCount)];
+			edges.add(new Edge(from, to, 1 + random.nextInt(5), "E" + i));
+		}
+		edges.removeIf(edge -> edges.indexOf(edge) != edges.lastIndexOf(edge));
+		return edges;
+	}
+
+	private static List<Edge> copy(List<Edge> edges) {
+		List<Edge> copies = new ArrayList<Edge>();
+		Map<String, Vertex> vertices = new HashMap<String, Vertex>();
+		for (Edge edge : edges) {
+			Vertex from = vertices.computeIfAbsent(edge.getFromVertex().getLabel(), Vertex::new);
+			Vertex to = vertices.computeIfAbsent(edge.getToVertex().getLabel(), Vertex::new);
+			copies.add(new Edge(from, to, edge.getWeight(), edge.getLabel()));
+		}
+		return copies;
+	}
+
+	private static List<String> getLabels(List<Edge> edges) {
+		List<String> labels = new ArrayList<String>();
+		for (Edge edge : edges) {
+			labels.add(edge.getLabel());
+		}
+		return labels;
+	}
+
+	private static List<String> getOutgoing(CompiledGraph graph, int vertex) {
+		List<String> outgoing = new ArrayList<String>();
+		for (int edge = graph.getOutOffsets()[vertex]; edge < graph.getOutOffsets()[vertex + 1]; edge++) {
+			outgoing.add(graph.getVertex(graph.getOutTargets()[edge]).getLabel() + ":" + graph.getOutWeights()[edge]);
+		}
+		return outgoing;
+	}
+}
@@ -1,5 +1,6 @@
 package com.jessica.graph;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -8,7 +9,14 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.junit.After;
@@ -326,6 +334,235 @@ public class GraphManagementTest {
 		}
 	}
 
+	@Test
+	public void testAddEdge_EqualEdgeWithOtherLabel() throws Exception {
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		graphMgmt.addEdge(new Edge(vertex1, vertex2, 5, "first"));
+
+		// An edge with the same vertices and weight is a duplicate, whatever its label
+		try {
+			graphMgmt.addEdge(new Edge(vertex1, vertex2, 5, "second"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+
+		// A different weight makes a different edge
+		graphMgmt.addEdge(new Edge(vertex1, vertex2, 6, "third"));
+		assertEquals(2, graphMgmt.getGraph().getEdges().size());
+		assertEquals(2, vertex1.getOutgoingEdges().size());
+		assertEquals(2, vertex2.getIncomingEdges().size());
+	}
+
+	@Test
+	public void testAddEdge_AfterWeightChange() throws Exception {
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Edge edge = new Edge(vertex1, vertex2, 1, "first");
+		graphMgmt.addEdge(edge);
+		edge.setWeight(2);
+
+		// The edge is found under its new weight, and no longer under its old one
+		assertTrue(vertex1.getOutgoingEdges().contains(new Edge(vertex1, vertex2, 2)));
+		assertTrue(!vertex1.getOutgoingEdges().contains(new Edge(vertex1, vertex2, 1)));
+		try {
+			graphMgmt.addEdge(new Edge(vertex1, vertex2, 2, "second"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+		graphMgmt.addEdge(new Edge(vertex1, vertex2, 1, "third"));
+
+		graphMgmt.removeEdge(edge);
+		assertEquals(1, graphMgmt.getGraph().getEdges().size());
+		assertEquals(1, vertex1.getOutgoingEdges().size());
+		assertEquals("third", vertex1.getOutgoingEdges().get(0).getLabel());
+	}
+
+	@Test
+	public void testRemoveEdge_HighDegreeVertex() throws Exception {
+
+		// Every change to a vertex with this many edges would scan its edge lists without the indexes
+		int spokeCount = 50000;
+		Vertex hub = new Vertex("Hub");
+		List<Edge> spokes = new ArrayList<Edge>();
+		for (int i = 0; i < spokeCount; i++) {
+			Edge edge = new Edge(hub, new Vertex("V" + i));
+			graphMgmt.addEdge(edge);
+			spokes.add(edge);
+		}
+		assertEquals(spokeCount, hub.getOutgoingEdges().size());
+
+		// Removing every other edge keeps the rest in the order they were added
+		for (int i = 0; i < spokeCount; i += 2) {
+			graphMgmt.removeEdge(spokes.get(i));
+		}
+		List<Edge> outgoingEdges = hub.getOutgoingEdges();
+		assertEquals(spokeCount / 2, outgoingEdges.size());
+		for (int i = 0; i < outgoingEdges.size(); i++) {
+			assertEquals("Hub-V" + (2 * i + 1), outgoingEdges.get(i).getLabel());
+		}
+
+		graphMgmt.removeVertex(hub);
+		assertEquals(0, graphMgmt.getGraph().getEdges().size());
+		assertEquals(spokeCount, graphMgmt.getGraph().getVertices().size());
+		for (Edge edge : spokes) {
+			assertTrue(edge.getToVertex().getIncomingEdges().isEmpty());
+		}
+	}
+
+	@Test
+	public void testAddEdge_ConcurrentMode() throws Exception {
+		graphMgmt.setConcurrentMode(true);
+		assertTrue(graphMgmt.isConcurrentMode());
+		int vertexCount = 100;
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+
+		// Every thread adds the same edges in its own order, so each one is only added by the thread that gets to it
+		// first
+		int threadCount = 4;
+		int edgeCount = vertexCount * 20;
+		ForkJoinPool pool = new ForkJoinPool(threadCount);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int thread = 0; thread < threadCount; thread++) {
+				long seed = thread;
+				results.add(pool.submit(() -> {
+					List<Integer> order = new ArrayList<Integer>();
+					for (int i = 0; i < edgeCount; i++) {
+						order.add(i);
+					}
+					Collections.shuffle(order, new Random(seed));
+					int rejected = 0;
+					for (int i : order) {
+						try {
+							graphMgmt.addEdge(new Edge(vertices[i % vertexCount],
+									vertices[(i * 7 + i / vertexCount) % vertexCount], i / vertexCount));
+						} catch (GraphException exception) {
+							assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+							rejected++;
+						}
+					}
+					return rejected;
+				}));
+			}
+			int rejected = 0;
+			for (Future<Integer> result : results) {
+				rejected += result.get();
+			}
+			assertEquals((threadCount - 1) * edgeCount, rejected);
+		} finally {
+			pool.shutdown();
+		}
+
+		// The edge map and the edge lists of every vertex agree
+		assertEquals(vertexCount, graphMgmt.getGraph().getVertices().size());
+		assertEquals(edgeCount, graphMgmt.getGraph().getEdges().size());
+		for (Vertex vertex : vertices) {
+			assertEquals(edgeCount / vertexCount, vertex.getOutgoingEdges().size());
+			assertEquals(edgeCount / vertexCount, vertex.getIncomingEdges().size());
+		}
+		for (int i = 0; i < edgeCount; i++) {
+			assertTrue(graphMgmt.getGraph().containsEdge(new Edge(vertices[i % vertexCount],
+					vertices[(i * 7 + i / vertexCount) % vertexCount], i / vertexCount)));
+		}
+		graphMgmt.setConcurrentMode(false);
+		assertEquals(1, graphMgmt.getWeaklyConnectedComponents().getComponentCount());
+	}
+
+	@Test
+	public void testSetDagMode_ConcurrentMode() throws Exception {
+		graphMgmt.setConcurrentMode(true);
+		int vertexCount = 60;
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+
+		// Every edge goes from a lower vertex to a higher one, so the graph stays acyclic while DAG mode is turned on
+		// and off under the threads adding them
+		int threadCount = 4;
+		ForkJoinPool pool = new ForkJoinPool(threadCount);
+		try {
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for (int thread = 0; thread < threadCount; thread++) {
+				int firstVertex = thread;
+				results.add(pool.submit(() -> {
+					for (int from = firstVertex; from < vertexCount; from += threadCount) {
+						for (int to = from + 1; to < vertexCount; to++) {
+							graphMgmt.addEdge(new Edge(vertices[from], vertices[to]));
+						}
+					}
+					return null;
+				}));
+			}
+			while (!results.stream().allMatch(Future::isDone)) {
+				graphMgmt.setDagMode(!graphMgmt.isDagMode());
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(vertexCount * (vertexCount - 1) / 2, graphMgmt.getGraph().getEdges().size());
+		graphMgmt.setDagMode(true);
+		List<Vertex> order = new ArrayList<Vertex>();
+		graphMgmt.topologicalOrderIterator().forEachRemaining(order::add);
+		assertEquals(Arrays.asList(vertices), order);
+		try {
+			graphMgmt.addEdge(new Edge(vertices[vertexCount - 1], vertices[0]));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.CYCLIC_EDGE.toString()));
+		}
+		graphMgmt.setDagMode(false);
+		graphMgmt.setConcurrentMode(false);
+	}
+
+	@Test
+	public void testGetWeaklyConnectedComponents_ConcurrentMode() throws Exception {
+		graphMgmt.setConcurrentMode(true);
+		int vertexCount = 400;
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+
+		// The threads join the vertices into one chain while the components are found from snapshots of the graph
+		int threadCount = 4;
+		ForkJoinPool pool = new ForkJoinPool(threadCount);
+		try {
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for (int thread = 0; thread < threadCount; thread++) {
+				int firstVertex = thread;
+				results.add(pool.submit(() -> {
+					for (int i = firstVertex; i < vertexCount - 1; i += threadCount) {
+						graphMgmt.addEdge(new Edge(vertices[i], vertices[i + 1]));
+					}
+					return null;
+				}));
+			}
+			while (!results.stream().allMatch(Future::isDone)) {
+				int componentCount = graphMgmt.getWeaklyConnectedComponents().getComponentCount();
+				assertTrue(componentCount <= vertexCount);
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(1, graphMgmt.getWeaklyConnectedComponents().getComponentCount());
+		graphMgmt.setConcurrentMode(false);
+	}
+
 	@Test
 	public void testGetNextVertices() throws Exception {
 
@@ -445,6 +682,232 @@ public class GraphManagementTest {
 		assertEquals(vertex4, listOfVertices.get(3));
 	}
 
+	@Test
+	public void testDepthFirstSearch_SameOrderAsRecursiveSearch() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(11, 300, 900, 5));
+
+		for (int start = 0; start < 300; start += 13) {
+			Vertex vertex = graphMgmt.getGraph().getVertices().get("V" + start);
+			List<Vertex> expected = new ArrayList<Vertex>();
+			recursiveDepthFirstSearch(vertex, expected);
+			assertEquals(expected, graphMgmt.depthFirstSeach(vertex));
+		}
+	}
+
+	@Test
+	public void testDepthFirstSearch_DeepGraph() throws Exception {
+
+		// A chain this long overflows the thread stack of a recursive search
+		int vertexCount = 200000;
+		Graph graph = new Graph();
+		Vertex previous = new Vertex("V0");
+		graph.getVertices().put(previous.getLabel(), previous);
+		for (int i = 1; i < vertexCount; i++) {
+			Vertex vertex = new Vertex("V" + i);
+			Edge edge = new Edge(previous, vertex);
+			previous.addOutgoingEdge(edge);
+			vertex.addIncomingEdge(edge);
+			graph.getVertices().put(vertex.getLabel(), vertex);
+			graph.getEdges().put(edge.getLabel(), edge);
+			previous = vertex;
+		}
+		graphMgmt.setGraph(graph);
+
+		List<Vertex> listOfVertices = graphMgmt.depthFirstSeach(graph.getVertices().get("V0"));
+		assertEquals(vertexCount, listOfVertices.size());
+		for (int i = 0; i < vertexCount; i++) {
+			assertEquals("V" + i, listOfVertices.get(i).getLabel());
+		}
+	}
+
+	@Test
+	public void testDepthFirstSearch_InvalidVertex() throws Exception {
+		graphMgmt.addEdge(new Edge(new Vertex("V1"), new Vertex("V2")));
+
+		try {
+			graphMgmt.depthFirstSeach(new Vertex("V3"));
+			fail("Expected an exception for a vertex that is not in the graph");
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
+	@Test
+	public void testBreadthFirstSearch() throws Exception {
+
+		// Create the vertices
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Vertex vertex3 = new Vertex("V3");
+		Vertex vertex4 = new Vertex("V4");
+		Vertex vertex5 = new Vertex("V5");
+
+		// Add edges between the vertices
+		graphMgmt.addEdge(new Edge(vertex1, vertex2));
+		graphMgmt.addEdge(new Edge(vertex1, vertex3));
+		graphMgmt.addEdge(new Edge(vertex2, vertex3));
+		graphMgmt.addEdge(new Edge(vertex3, vertex1));
+		graphMgmt.addEdge(new Edge(vertex3, vertex4));
+		graphMgmt.addVertex(vertex5);
+
+		// Run the breadth first search with vertex V3 as the root
+		List<Vertex> listOfVertices = graphMgmt.breadthFirstSearch(vertex3);
+
+		// Assert the expected levels of the results: 3, then 1 and 4, then 2
+		assertEquals(4, listOfVertices.size());
+		assertEquals(vertex3, listOfVertices.get(0));
+		assertTrue(listOfVertices.subList(1, 3).containsAll(Arrays.asList(vertex1, vertex4)));
+		assertEquals(vertex2, listOfVertices.get(3));
+	}
+
+	@Test
+	public void testGetHopDistance() throws Exception {
+
+		// Create the vertices
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Vertex vertex3 = new Vertex("V3");
+		Vertex vertex4 = new Vertex("V4");
+
+		// The heavy direct edge is still the path with the fewest edges
+		graphMgmt.addEdge(new Edge(vertex1, vertex2, 1));
+		graphMgmt.addEdge(new Edge(vertex2, vertex3, 1));
+		graphMgmt.addEdge(new Edge(vertex1, vertex3, 50));
+		graphMgmt.addVertex(vertex4);
+
+		assertEquals(Integer.valueOf(0), graphMgmt.getHopDistance(vertex1, vertex1));
+		assertEquals(Integer.valueOf(1), graphMgmt.getHopDistance(vertex1, vertex3));
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), graphMgmt.getHopDistance(vertex1, vertex4));
+
+		try {
+			graphMgmt.getHopDistance(vertex1, null);
+			fail("Expected an exception for a missing destination");
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_DESTINATION.toString()));
+		}
+	}
+
+	@Test
+	public void testDepthFirstStream() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(17, 300, 900, 5));
+
+		for (int start = 0; start < 300; start += 29) {
+			Vertex vertex = new Vertex("V" + start);
+			List<Vertex> expected = graphMgmt.depthFirstSeach(vertex);
+			assertEquals(expected, graphMgmt.depthFirstStream(vertex, GraphTraversal.UNLIMITED_DEPTH).collect(
+					Collectors.toList()));
+			assertEquals(expected, graphMgmt.depthFirstStream(vertex, GraphTraversal.UNLIMITED_DEPTH).parallel()
+					.collect(Collectors.toList()));
+			assertEquals(expected.size(), graphMgmt.breadthFirstStream(vertex, GraphTraversal.UNLIMITED_DEPTH)
+					.parallel().count());
+		}
+	}
+
+	@Test
+	public void testStream_MaxDepth() throws Exception {
+
+		// Create the vertices
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Vertex vertex3 = new Vertex("V3");
+		Vertex vertex4 = new Vertex("V4");
+
+		// V4 is three edges away through V2, but one edge away directly
+		graphMgmt.addEdge(new Edge(vertex1, vertex2));
+		graphMgmt.addEdge(new Edge(vertex2, vertex3));
+		graphMgmt.addEdge(new Edge(vertex3, vertex4));
+		graphMgmt.addEdge(new Edge(vertex1, vertex4));
+
+		assertEquals(Arrays.asList(vertex1), graphMgmt.depthFirstStream(vertex1, 0).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(vertex1, vertex2, vertex4), graphMgmt.depthFirstStream(vertex1, 1).collect(
+				Collectors.toList()));
+		assertEquals(Arrays.asList(vertex1, vertex2, vertex3, vertex4), graphMgmt.depthFirstStream(vertex1, 3)
+				.collect(Collectors.toList()));
+		assertEquals(Arrays.asList(vertex1, vertex2, vertex4), graphMgmt.breadthFirstStream(vertex1, 1).collect(
+				Collectors.toList()));
+		assertEquals(Arrays.asList(vertex1, vertex2, vertex4, vertex3), graphMgmt.breadthFirstStream(vertex1, 2)
+				.collect(Collectors.toList()));
+		assertEquals(Arrays.asList(vertex2, vertex4), graphMgmt.nextVertexStream(vertex1).collect(Collectors
+				.toList()));
+
+		try {
+			graphMgmt.breadthFirstStream(vertex1, -1);
+			fail("Expected an exception for a negative depth");
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NEGATIVE_DEPTH.toString()));
+		}
+	}
+
+	@Test
+	public void testDepthFirstStream_ShorterPathFoundLater() throws Exception {
+
+		// C is first reached at depth 2 through B, and only then directly from A at depth 1
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Vertex vertexD = new Vertex("D");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB));
+		graphMgmt.addEdge(new Edge(vertexB, vertexC));
+		graphMgmt.addEdge(new Edge(vertexC, vertexD));
+		graphMgmt.addEdge(new Edge(vertexA, vertexC));
+
+		assertEquals(Arrays.asList(vertexA, vertexB, vertexC, vertexD), graphMgmt.depthFirstStream(vertexA, 2)
+				.collect(Collectors.toList()));
+		assertEquals(Arrays.asList(vertexA, vertexB, vertexC), graphMgmt.depthFirstStream(vertexA, 1).collect(
+				Collectors.toList()));
+		assertEquals(graphMgmt.breadthFirstStream(vertexA, 2).count(), graphMgmt.depthFirstStream(vertexA, 2)
+				.count());
+	}
+
+	@Test
+	public void testDepthFirstStream_MatchesBreadthFirstWithinDepth() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(23, 200, 500, 5));
+
+		for (int start = 0; start < 200; start += 17) {
+			Vertex vertex = new Vertex("V" + start);
+			for (int maxDepth = 0; maxDepth < 6; maxDepth++) {
+				Set<Vertex> expected = graphMgmt.breadthFirstStream(vertex, maxDepth).collect(Collectors.toSet());
+				List<Vertex> actual = graphMgmt.depthFirstStream(vertex, maxDepth).collect(Collectors.toList());
+				assertEquals(expected.size(), actual.size());
+				assertEquals(expected, new HashSet<Vertex>(actual));
+			}
+		}
+	}
+
+	@Test
+	public void testDepthFirstStream_StopsEarly() throws Exception {
+
+		// The edges of V2 fail when they are read, so the traversal must not look past what is consumed
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2") {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public List<Edge> getOutgoingEdges() {
+				throw new IllegalStateException();
+			}
+		};
+		Vertex vertex3 = new Vertex("V3");
+		graphMgmt.addEdge(new Edge(vertex1, vertex2));
+		graphMgmt.addEdge(new Edge(vertex1, vertex3));
+		graphMgmt.addEdge(new Edge(vertex2, vertex3));
+
+		assertEquals(vertex2, graphMgmt.depthFirstStream(vertex1, GraphTraversal.UNLIMITED_DEPTH).filter(
+				vertex -> vertex.getLabel().equals("V2")).findFirst().get());
+	}
+
+	/**
+	 * The recursive search over the vertex objects, which the depth first search has to match.
+	 */
+	private void recursiveDepthFirstSearch(Vertex vertex, List<Vertex> visitedList) {
+		visitedList.add(vertex);
+		for (Edge edge : vertex.getOutgoingEdges()) {
+			if (!visitedList.contains(edge.getToVertex())) {
+				recursiveDepthFirstSearch(edge.getToVertex(), visitedList);
+			}
+		}
+	}
+
 	@Test
 	public void testSaveAndReadFromFile() throws Exception {
 
@@ -551,6 +1014,74 @@ public class GraphManagementTest {
 		}
 	}
 
+	@Test
+	public void testGetDistanceMatrix() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+		List<Vertex> sources = Arrays.asList(new Vertex("A"), new Vertex("F"), new Vertex("B"));
+		List<Vertex> targets = Arrays.asList(new Vertex("F"), new Vertex("A"), new Vertex("C"), new Vertex("F"));
+
+		int[][] matrix = graphMgmt.getDistanceMatrix(sources, targets);
+
+		assertArrayEquals(new int[] { 12, 0, 10, 12 }, matrix[0]);
+		assertArrayEquals(new int[] { 0, Integer.MAX_VALUE, Integer.MAX_VALUE, 0 }, matrix[1]);
+		assertArrayEquals(new int[] { 7, Integer.MAX_VALUE, 5, 7 }, matrix[2]);
+
+		// The matrix must reflect changes made to the graph after the previous call
+		graphMgmt.addEdge(new Edge(graphMgmt.getGraph().getVertices().get("F"), graphMgmt.getGraph().getVertices()
+				.get("A"), 1));
+		assertArrayEquals(new int[] { 0, 1, 11, 0 }, graphMgmt.getDistanceMatrix(sources, targets)[1]);
+	}
+
+	@Test
+	public void testGetDistanceMatrix_MatchesShortestDistance() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(17, 300, 1200, 20));
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		List<Vertex> sources = new ArrayList<Vertex>();
+		List<Vertex> targets = new ArrayList<Vertex>();
+		for (int i = 0; i < 300; i += 7) {
+			sources.add(new Vertex("V" + i));
+			targets.add(new Vertex("V" + (299 - i)));
+		}
+
+		int[][] matrix = graphMgmt.getDistanceMatrix(sources, targets);
+		for (int i = 0; i < sources.size(); i++) {
+			for (int j = 0; j < targets.size(); j++) {
+				assertEquals(reference.getShortestDistance(graphMgmt.getGraph(), sources.get(i), targets.get(j))
+						.intValue(), matrix[i][j]);
+			}
+		}
+	}
+
+	@Test
+	public void testGetDistanceMatrix_NoTargets() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+		int[][] matrix = graphMgmt.getDistanceMatrix(Arrays.asList(new Vertex("A"), new Vertex("B")),
+				new ArrayList<Vertex>());
+
+		assertEquals(2, matrix.length);
+		assertEquals(0, matrix[0].length);
+		assertEquals(0, matrix[1].length);
+	}
+
+	@Test
+	public void testGetDistanceMatrix_InvalidVertices() throws Exception {
+		graphMgmt.setGraph(GraphTestUtils.getWeightedGraph());
+		try {
+			graphMgmt.getDistanceMatrix(null, Arrays.asList(new Vertex("A")));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_VERTICES.toString()));
+		}
+
+		try {
+			graphMgmt.getDistanceMatrix(Arrays.asList(new Vertex("A")), Arrays.asList(new Vertex("Z")));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
 	private List<String> getVertexLabels(Graph graph) {
 		return graph.getVertices().values().stream().map(Vertex::getLabel).collect(Collectors.toList());
 	}
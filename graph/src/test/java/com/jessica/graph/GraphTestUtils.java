@@ -0,0 +1,84 @@
+package com.jessica.graph;
+
+import java.util.Random;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+/**
+ * Graphs shared by the algorithm tests. All graphs are built through GraphManagementImpl, so both the outgoing and
+ * incoming edges of every vertex are populated.
+ */
+final class GraphTestUtils {
+
+	private GraphTestUtils() {
+	}
+
+	/**
+	 * The shortest path from A to F is A, B, E, G, F with a distance of 12.
+	 *
+	 * @return A small weighted directed graph with vertices A through G
+	 */
+	static Graph getWeightedGraph() throws GraphException {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Vertex vertexD = new Vertex("D");
+		Vertex vertexE = new Vertex("E");
+		Vertex vertexF = new Vertex("F");
+		Vertex vertexG = new Vertex("G");
+
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 5));
+		graphMgmt.addEdge(new Edge(vertexA, vertexC, 10));
+		graphMgmt.addEdge(new Edge(vertexB, vertexD, 6));
+		graphMgmt.addEdge(new Edge(vertexB, vertexE, 3));
+		graphMgmt.addEdge(new Edge(vertexD, vertexF, 6));
+		graphMgmt.addEdge(new Edge(vertexE, vertexC, 2));
+		graphMgmt.addEdge(new Edge(vertexE, vertexD, 2));
+		graphMgmt.addEdge(new Edge(vertexE, vertexG, 2));
+		graphMgmt.addEdge(new Edge(vertexG, vertexF, 2));
+
+		return graphMgmt.getGraph();
+	}
+
+	/**
+	 * Builds a random directed graph with vertices labeled V0 through V(vertexCount - 1). Duplicate edges are skipped,
+	 * so the graph may have slightly fewer edges than requested.
+	 *
+	 * @param seed
+	 *            The seed for the random generator
+	 * @param vertexCount
+	 *            The number of vertices
+	 * @param edgeCount
+	 *            The number of edges to attempt to add
+	 * @param maxWeight
+	 *            The largest edge weight
+	 * @return The random graph
+	 */
+	static Graph getRandomGraph(long seed, int vertexCount, int edgeCount, int maxWeight) throws GraphException {
+		Random random = new Random(seed);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+			graphMgmt.addVertex(vertices[i]);
+		}
+
+		for (int i = 0; i < edgeCount; i++) {
+			Vertex from = vertices[random.nextInt(vertexCount)];
+			Vertex to = vertices[random.nextInt(vertexCount)];
+			Edge edge = new Edge(from, to, 1 + random.nextInt(maxWeight));
+			if (from != to && !graphMgmt.getGraph().getEdges().containsKey(edge.getLabel())) {
+				graphMgmt.addEdge(edge);
+			}
+		}
+		return graphMgmt.getGraph();
+	}
+}
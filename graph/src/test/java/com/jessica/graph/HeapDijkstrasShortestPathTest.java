@@ -0,0 +1,111 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class HeapDijkstrasShortestPathTest {
+
+	HeapDijkstrasShortestPath shortestPathAlgorithm = new HeapDijkstrasShortestPath();
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		// Test finding the shortest path from vertex A to vertex F
+		List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("F"));
+
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+				new Vertex("F")), path);
+	}
+
+	@Test
+	public void testGetShortestDistance() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		assertEquals(12, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(10, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("C")).intValue());
+		assertEquals(0, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("A")).intValue());
+	}
+
+	@Test
+	public void testGetShortestDistance_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		// Nothing can reach vertex A
+		assertEquals(Integer.MAX_VALUE,
+				shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+	}
+
+	@Test
+	public void testGetShortestPath_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		try {
+			shortestPathAlgorithm.getShortestPath(graph, new Vertex("F"), new Vertex("A"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+	}
+
+	@Test
+	public void testGetShortestPath_VertexNotInGraph() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+
+		try {
+			shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("Z"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
+	@Test
+	public void testGetShortestPath_NullDestination() throws Exception {
+		try {
+			shortestPathAlgorithm.getShortestPath(GraphTestUtils.getWeightedGraph(), new Vertex("A"), null);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_DESTINATION.toString()));
+		}
+	}
+
+	@Test
+	public void testGetShortestDistance_EmptyGraph() throws Exception {
+		try {
+			shortestPathAlgorithm.getShortestDistance(new Graph(), new Vertex("A"), new Vertex("B"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.EMPTY_GRAPH.toString()));
+		}
+	}
+
+	@Test
+	public void testGetShortestDistance_MatchesDijkstrasShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(42, 200, 1000, 20);
+		DijkstrasShortestPath reference = new DijkstrasShortestPath();
+
+		for (int source = 0; source < 200; source += 17) {
+			for (int destination = 0; destination < 200; destination += 7) {
+				if (source == destination) {
+					continue;
+				}
+				Vertex sourceVertex = new Vertex("V" + source);
+				Vertex destinationVertex = new Vertex("V" + destination);
+				assertEquals(reference.getShortestDistance(graph, sourceVertex, destinationVertex),
+						shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+			}
+		}
+	}
+}
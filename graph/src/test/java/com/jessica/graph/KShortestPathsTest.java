@@ -0,0 +1,172 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class KShortestPathsTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testGetKShortestPaths() throws Exception {
+		KShortestPaths kShortestPaths = new KShortestPaths(pool);
+
+		List<List<Vertex>> paths = kShortestPaths.getKShortestPaths(GraphTestUtils.getWeightedGraph(), new Vertex(
+				"A"), new Vertex("F"), 5);
+
+		// Only three paths lead from A to F
+		assertEquals(3, paths.size());
+		assertEquals(getVertices("A", "B", "E", "G", "F"), paths.get(0));
+		assertEquals(getVertices("A", "B", "E", "D", "F"), paths.get(1));
+		assertEquals(getVertices("A", "B", "D", "F"), paths.get(2));
+
+		assertEquals(Collections.singletonList(getVertices("A")), kShortestPaths.getKShortestPaths(GraphTestUtils
+				.getWeightedGraph(), new Vertex("A"), new Vertex("A"), 3));
+		assertTrue(kShortestPaths.getKShortestPaths(GraphTestUtils.getWeightedGraph(), new Vertex("F"), new Vertex(
+				"A"), 3).isEmpty());
+	}
+
+	@Test
+	public void testMatchesAllLooplessPaths() throws Exception {
+		KShortestPaths kShortestPaths = new KShortestPaths(pool);
+		for (long seed = 1; seed <= 6; seed++) {
+			CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 14, 40, 9).compile();
+			for (int source = 0; source < 14; source += 5) {
+				for (int destination = 1; destination < 14; destination += 4) {
+					List<Long> expected = new ArrayList<Long>();
+					findPathDistances(graph, source, destination, new boolean[14], 0, expected);
+					Collections.sort(expected);
+
+					List<List<Vertex>> paths = kShortestPaths.getKShortestPaths(graph, graph.getVertex(source), graph
+							.getVertex(destination), 8);
+					assertEquals(Math.min(8, expected.size()), paths.size());
+					assertEquals(paths.size(), new HashSet<List<Vertex>>(paths).size());
+					for (int i = 0; i < paths.size(); i++) {
+						assertEquals(expected.get(i).longValue(), getDistance(graph, paths.get(i)));
+						assertEquals(paths.get(i).size(), new HashSet<Vertex>(paths.get(i)).size());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testReusedAcrossGraphs() throws Exception {
+		KShortestPaths kShortestPaths = new KShortestPaths(pool);
+		CompiledGraph largeGraph = GraphTestUtils.getRandomGraph(3, 400, 1600, 9).compile();
+		CompiledGraph smallGraph = GraphTestUtils.getRandomGraph(4, 30, 90, 9).compile();
+
+		// The workspaces kept from the searches of one graph must not leak masks or distances into the next one
+		for (CompiledGraph graph : Arrays.asList(smallGraph, largeGraph, smallGraph, largeGraph)) {
+			for (int source = 0; source < 30; source += 7) {
+				Vertex from = graph.getVertex(source);
+				Vertex to = graph.getVertex(29 - source);
+				assertEquals(new KShortestPaths(pool).getKShortestPaths(graph, from, to, 6), kShortestPaths
+						.getKShortestPaths(graph, from, to, 6));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelEdges() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertexX = new Vertex("X");
+		Vertex vertexY = new Vertex("Y");
+		Vertex vertexZ = new Vertex("Z");
+		graphMgmt.addEdge(new Edge(vertexX, vertexY, 2, "heavy"));
+		graphMgmt.addEdge(new Edge(vertexX, vertexY, 1, "light"));
+		graphMgmt.addEdge(new Edge(vertexX, vertexZ, 1));
+		graphMgmt.addEdge(new Edge(vertexZ, vertexY, 1));
+		graphMgmt.addEdge(new Edge(vertexZ, vertexY, 5, "detour"));
+
+		// The parallel edges only give one path each, at the distance of the lightest edge
+		CompiledGraph graph = graphMgmt.getGraph().compile();
+		List<List<Vertex>> paths = new KShortestPaths(pool).getKShortestPaths(graph, vertexX, vertexY, 3);
+		assertEquals(Arrays.asList(getVertices("X", "Y"), getVertices("X", "Z", "Y")), paths);
+		assertEquals(1, getDistance(graph, paths.get(0)));
+		assertEquals(2, getDistance(graph, paths.get(1)));
+	}
+
+	@Test
+	public void testInvalidPathCount() throws Exception {
+		try {
+			new KShortestPaths(pool).getKShortestPaths(GraphTestUtils.getWeightedGraph(), new Vertex("A"),
+					new Vertex("F"), 0);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_PATH_COUNT.toString()));
+		}
+	}
+
+	private static List<Vertex> getVertices(String... labels) {
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		for (String label : Arrays.asList(labels)) {
+			vertices.add(new Vertex(label));
+		}
+		return vertices;
+	}
+
+	/**
+	 * Collects the distance of every loopless path by trying all of them.
+	 */
+	private static void findPathDistances(CompiledGraph graph, int vertex, int destination, boolean[] onPath,
+			long distance, List<Long> distances) {
+		if (vertex == destination) {
+			distances.add(distance);
+			return;
+		}
+
+		onPath[vertex] = true;
+		for (int edge = graph.getOutOffsets()[vertex]; edge < graph.getOutOffsets()[vertex + 1]; edge++) {
+			int next = graph.getOutTargets()[edge];
+			if (!onPath[next]) {
+				findPathDistances(graph, next, destination, onPath, distance + graph.getOutWeights()[edge],
+						distances);
+			}
+		}
+		onPath[vertex] = false;
+	}
+
+	/**
+	 * The distance of a path, using the lightest edge between each pair of vertices.
+	 */
+	private static long getDistance(CompiledGraph graph, List<Vertex> path) {
+		long distance = 0;
+		for (int i = 1; i < path.size(); i++) {
+			int from = graph.getId(path.get(i - 1));
+			int to = graph.getId(path.get(i));
+			int lightest = Integer.MAX_VALUE;
+			for (int edge = graph.getOutOffsets()[from]; edge < graph.getOutOffsets()[from + 1]; edge++) {
+				if (graph.getOutTargets()[edge] == to) {
+					lightest = Math.min(lightest, graph.getOutWeights()[edge]);
+				}
+			}
+			distance += lightest;
+		}
+		return distance;
+	}
+}
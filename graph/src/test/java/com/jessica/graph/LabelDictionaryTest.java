@@ -0,0 +1,187 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.LabelDictionary;
+import com.jessica.graph.model.Vertex;
+
+public class LabelDictionaryTest {
+
+	@Test
+	public void testIntern() {
+		LabelDictionary dictionary = new LabelDictionary();
+		int labelCount = 100000;
+		for (int i = 0; i < labelCount; i++) {
+			assertEquals(i, dictionary.intern("Label" + i));
+		}
+
+		// Known labels keep their ids through every time the table grew
+		assertEquals(labelCount, dictionary.size());
+		for (int i = 0; i < labelCount; i += 7) {
+			String label = new String("Label" + i);
+			assertEquals(i, dictionary.intern(label));
+			assertEquals(i, dictionary.getId(label));
+			assertEquals(label, dictionary.getLabel(i));
+			assertSame(dictionary.getLabel(i), dictionary.getLabel(dictionary.getId(label)));
+		}
+		assertEquals(LabelDictionary.NO_LABEL, dictionary.getId("Missing"));
+		assertEquals(LabelDictionary.NO_LABEL, dictionary.getId(null));
+		assertEquals(labelCount, dictionary.size());
+	}
+
+	@Test
+	public void testVertexIds() throws Exception {
+		Vertex vertex = new Vertex("Shared");
+		Vertex copy = new Vertex(new String("Shared"));
+		Vertex other = new Vertex("Other");
+		assertEquals(vertex, copy);
+		assertNotEquals(vertex, other);
+
+		// A compiled graph gives the labels of its own vertices dense ids, which any vertex with the label finds
+		CompiledGraph graph = new CompiledGraph(new Vertex[] { other, vertex }, new int[3], new int[0], new int[0]);
+		assertEquals(0, graph.getId(other));
+		assertEquals(1, graph.getId(copy));
+		assertEquals(CompiledGraph.NO_VERTEX, graph.getId(new Vertex("Missing")));
+
+		// The ids stay the same for vertices and compiled graphs read back from a stream
+		Vertex readVertex = (Vertex) roundTrip(vertex);
+		assertEquals(vertex, readVertex);
+		assertEquals(1, graph.getId(readVertex));
+		assertEquals(1, ((CompiledGraph) roundTrip(graph)).getId(vertex));
+	}
+
+	@Test
+	public void testHandles() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		CompiledGraph compiled = graph.compile();
+
+		// Every vertex and edge of the graph has a distinct dense id in the compiled graph, which indexes its arrays
+		boolean[] vertexSeen = new boolean[compiled.getVertexCount()];
+		for (Vertex vertex : graph.getVertices().values()) {
+			int id = vertex.getId(compiled);
+			assertFalse(vertexSeen[id]);
+			vertexSeen[id] = true;
+			assertSame(vertex, compiled.getVertex(id));
+			assertEquals(id, new Vertex(vertex.getLabel()).getId(compiled));
+		}
+
+		boolean[] edgeSeen = new boolean[compiled.getEdgeCount()];
+		for (Edge edge : graph.getEdges().values()) {
+			int id = edge.getId(compiled);
+			assertFalse(edgeSeen[id]);
+			edgeSeen[id] = true;
+			assertEquals(edge.getToVertex().getId(compiled), compiled.getOutTargets()[id]);
+			assertEquals(edge.getWeight(), compiled.getOutWeights()[id]);
+			assertTrue(id >= compiled.getOutOffsets()[edge.getFromVertex().getId(compiled)]);
+			assertTrue(id < compiled.getOutOffsets()[edge.getFromVertex().getId(compiled) + 1]);
+		}
+
+		// Elements that are not part of the compiled graph have no id
+		Vertex vertexA = graph.getVertices().get("A");
+		Vertex vertexB = graph.getVertices().get("B");
+		assertEquals(CompiledGraph.NO_VERTEX, new Vertex("Z").getId(compiled));
+		assertEquals(CompiledGraph.NO_EDGE, new Edge(vertexB, vertexA).getId(compiled));
+		assertEquals(CompiledGraph.NO_EDGE, new Edge(vertexA, vertexB, 6).getId(compiled));
+		assertEquals(CompiledGraph.NO_EDGE, compiled.getEdgeId(null));
+	}
+
+	@Test
+	public void testEdgeLabels() throws Exception {
+		Vertex vertex1 = new Vertex("V1");
+		Vertex vertex2 = new Vertex("V2");
+		Edge first = new Edge(vertex1, vertex2);
+		Edge second = new Edge(vertex2, vertex1, 3, "Named");
+
+		// The default label is put together when it is asked for, and explicit labels are kept
+		assertEquals("V1-V2", first.getLabel());
+		assertSame(first.getLabel(), first.getLabel());
+		assertEquals("Named", second.getLabel());
+		first.setLabel("Renamed");
+		assertEquals("Renamed", first.getLabel());
+
+		Edge readEdge = (Edge) roundTrip(new Edge(vertex1, vertex2, 5));
+		assertEquals("V1-V2", readEdge.getLabel());
+	}
+
+	@Test
+	public void testEdgeMapLabels() throws Exception {
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexAB = new Vertex("A-B");
+		Vertex vertexBC = new Vertex("B-C");
+		Vertex vertexC = new Vertex("C");
+		Graph graph = new Graph();
+		Map<String, Edge> edges = graph.getEdges();
+
+		// Default labels are keyed by their string, whichever vertices they are joined from
+		Edge first = new Edge(vertexA, vertexB);
+		graph.putEdge(first);
+		assertSame(first, edges.get("A-B"));
+		Edge joined = new Edge(vertexAB, vertexC);
+		graph.putEdge(joined);
+		Edge sameLabel = new Edge(vertexA, vertexBC, 2);
+		assertSame(joined, graph.putEdge(sameLabel));
+		assertSame(sameLabel, edges.get("A-B-C"));
+		assertEquals(2, edges.size());
+
+		// Explicit labels that look like default ones replace them, and the other way around
+		Edge named = new Edge(vertexB, vertexA, 3, "A-B");
+		assertSame(first, graph.putEdge(named));
+		assertNull(edges.put("B-A", first));
+		assertSame(named, edges.get("A-B"));
+		assertSame(first, edges.get("B-A"));
+		assertEquals(3, edges.size());
+
+		// The keys read back as strings, and the map equals and hashes like one keyed by them
+		Map<String, Edge> copy = new HashMap<String, Edge>(edges);
+		assertEquals(3, copy.size());
+		assertSame(sameLabel, copy.get("A-B-C"));
+		assertEquals(copy, edges);
+		assertEquals(copy.hashCode(), edges.hashCode());
+
+		assertSame(sameLabel, graph.removeEdge(new Edge(vertexAB, vertexC)));
+		assertNull(edges.get("A-B-C"));
+		assertSame(named, graph.removeEdge("A-B"));
+		assertEquals(1, edges.size());
+
+		Graph readGraph = (Graph) roundTrip(graph);
+		assertEquals("B-A", readGraph.getEdges().keySet().iterator().next());
+		assertEquals(first, readGraph.getEdges().get("B-A"));
+		assertEquals(graph.getVersion(), readGraph.getVersion());
+
+		// Changes made through the map itself are counted into the index before it is next used
+		Edge readEdge = readGraph.getEdges().get("B-A");
+		assertTrue(readGraph.containsEdge(readEdge));
+		readGraph.getEdges().values().removeIf(edge -> edge == readEdge);
+		assertFalse(readGraph.containsEdge(readEdge));
+		readGraph.getEdges().put("Renamed", readEdge);
+		assertTrue(readGraph.containsEdge(readEdge));
+	}
+
+	private static Object roundTrip(Object object) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class LandmarkShortestPathTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGetShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		LandmarkShortestPath shortestPathAlgorithm = new LandmarkShortestPath();
+
+		List<Vertex> path = shortestPathAlgorithm.getShortestPath(graph, new Vertex("A"), new Vertex("F"));
+
+		assertEquals(Arrays.asList(new Vertex("A"), new Vertex("B"), new Vertex("E"), new Vertex("G"),
+				new Vertex("F")), path);
+		assertEquals(12, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("A"), new Vertex("F")).intValue());
+		assertEquals(0, shortestPathAlgorithm.getShortestDistance(graph, new Vertex("C"), new Vertex("C")).intValue());
+	}
+
+	@Test
+	public void testGraphChanges() throws Exception {
+		GraphManagementImpl graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Edge edgeAB = new Edge(vertexA, vertexB, 10);
+		graphMgmt.addEdge(edgeAB);
+		graphMgmt.addVertex(vertexC);
+		Graph graph = graphMgmt.getGraph();
+		LandmarkShortestPath shortestPathAlgorithm = new LandmarkShortestPath();
+		assertEquals(Integer.MAX_VALUE, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexC).intValue());
+
+		// Adding an edge and lowering a weight change the version of the graph, so the queries see both
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 1));
+		edgeAB.setWeight(2);
+		assertEquals(2, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexB).intValue());
+		assertEquals(3, shortestPathAlgorithm.getShortestDistance(graph, vertexA, vertexC).intValue());
+		assertEquals(Arrays.asList(vertexA, vertexB, vertexC),
+				shortestPathAlgorithm.getShortestPath(graph, vertexA, vertexC));
+	}
+
+	@Test
+	public void testGetShortestPath_Unreachable() throws Exception {
+		Graph graph = GraphTestUtils.getWeightedGraph();
+		LandmarkShortestPath shortestPathAlgorithm = new LandmarkShortestPath();
+
+		assertEquals(Integer.MAX_VALUE,
+				shortestPathAlgorithm.getShortestDistance(graph, new Vertex("F"), new Vertex("A")).intValue());
+		try {
+			shortestPathAlgorithm.getShortestPath(graph, new Vertex("F"), new Vertex("A"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+	}
+
+	@Test
+	public void testMatchesHeapDijkstrasShortestPath() throws Exception {
+		Graph graph = GraphTestUtils.getRandomGraph(13, 400, 1400, 40);
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (LandmarkIndexBuilder.Selection selection : LandmarkIndexBuilder.Selection.values()) {
+				LandmarkIndex index = new LandmarkIndexBuilder(pool, 8, selection).build(graph);
+				assertEquals(8, index.getLandmarkCount());
+				LandmarkShortestPath shortestPathAlgorithm = new LandmarkShortestPath(index);
+
+				for (int source = 0; source < 400; source += 11) {
+					for (int destination = 0; destination < 400; destination += 7) {
+						Vertex sourceVertex = new Vertex("V" + source);
+						Vertex destinationVertex = new Vertex("V" + destination);
+						Integer expected = reference.getShortestDistance(graph, sourceVertex, destinationVertex);
+						assertEquals(expected,
+								shortestPathAlgorithm.getShortestDistance(graph, sourceVertex, destinationVertex));
+
+						// Every landmark bound must be a lower bound
+						int from = index.getId(sourceVertex.getLabel());
+						int to = index.getId(destinationVertex.getLabel());
+						assertTrue(index.getLowerBound(from, to) <= expected);
+						assertTrue(expected == Integer.MAX_VALUE || !index.isUnreachable(from, to));
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSaveNextToGraphFile() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(5, 100, 400, 10));
+		LandmarkIndex index = new LandmarkIndexBuilder().build(graphMgmt.getGraph());
+
+		String graphFileName = new File(folder.getRoot(), "graph.ser").getAbsolutePath();
+		graphMgmt.saveGraphToFile(graphFileName);
+		index.save(LandmarkIndex.getFileName(graphFileName));
+
+		Graph graph = graphMgmt.readGraphFromFile(graphFileName);
+		LandmarkIndex loaded = LandmarkIndex.load(LandmarkIndex.getFileName(graphFileName));
+		assertEquals(index.getVertexCount(), loaded.getVertexCount());
+		assertEquals(index.getLandmarkCount(), loaded.getLandmarkCount());
+
+		HeapDijkstrasShortestPath reference = new HeapDijkstrasShortestPath();
+		LandmarkShortestPath fromFile = new LandmarkShortestPath(loaded);
+		for (int destination = 0; destination < 100; destination++) {
+			Vertex destinationVertex = new Vertex("V" + destination);
+			assertEquals(reference.getShortestDistance(graph, new Vertex("V0"), destinationVertex),
+					fromFile.getShortestDistance(graph, new Vertex("V0"), destinationVertex));
+		}
+	}
+
+	@Test
+	public void testLoad_NullFileName() throws Exception {
+		try {
+			LandmarkIndex.load(null);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NULL_FILENAME.toString()));
+		}
+	}
+}
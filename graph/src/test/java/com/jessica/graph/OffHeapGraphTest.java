@@ -0,0 +1,214 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.OffHeapGraph;
+import com.jessica.graph.model.OffHeapGraphBuilder;
+import com.jessica.graph.model.Vertex;
+
+public class OffHeapGraphTest {
+
+	@Test
+	public void testBuild_MatchesGraph() throws Exception {
+		List<Edge> edges = getRandomEdges(1, 300, 2000);
+		Graph expected = new GraphBuilder().addEdges(edges.stream()).addVertex(new Vertex("Alone")).build();
+		OffHeapGraph graph = new OffHeapGraphBuilder().addEdges(edges.stream()).addVertex("Alone").build();
+
+		assertEquals(expected.getVertices().keySet(), graph.getVertices().keySet());
+		assertEquals(expected.getEdges().keySet(), graph.getEdges().keySet());
+		assertEquals(expected.getEdges().size(), graph.getEdgeCount());
+		for (Vertex vertex : graph.getVertices().values()) {
+			Vertex expectedVertex = expected.getVertices().get(vertex.getLabel());
+			assertEquals(expectedVertex, vertex);
+			assertEquals(getLabels(expectedVertex.getOutgoingEdges(), false),
+					getLabels(vertex.getOutgoingEdges(), false));
+			assertEquals(getLabels(expectedVertex.getIncomingEdges(), true),
+					getLabels(vertex.getIncomingEdges(), true));
+			for (Edge edge : vertex.getOutgoingEdges()) {
+				assertEquals(vertex, edge.getFromVertex());
+				assertEquals(graph, edge.getGraph());
+			}
+		}
+
+		// Every edge can be found by its label, and equal edges are found whatever their vertex objects
+		for (Edge edge : expected.getEdges().values()) {
+			Edge view = graph.getEdges().get(edge.getLabel());
+			assertEquals(edge, view);
+			assertEquals(edge.getLabel(), view.getLabel());
+			assertTrue(graph.containsEdge(edge));
+			assertFalse(graph.containsEdge(new Edge(edge.getFromVertex(), edge.getToVertex(), 10)));
+		}
+		assertNull(graph.getEdges().get("Missing"));
+		assertNull(graph.getVertices().get("Missing"));
+		assertNotSame(graph.getVertices().get("V1"), graph.getVertices().get("V1"));
+
+		// The arrays hold the same edges as the compiled form of the graph
+		CompiledGraph expectedCompiled = expected.compile();
+		assertEquals(expectedCompiled.getEdgeCount(), graph.getEdgeCount());
+		for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+			int expectedVertex = expectedCompiled.getId(graph.getVertex(vertex));
+			assertEquals(expectedCompiled.getOutDegree(expectedVertex), graph.getOutOffset(vertex + 1) - graph
+					.getOutOffset(vertex));
+			assertEquals(expectedCompiled.getInDegree(expectedVertex), graph.getInOffset(vertex + 1) - graph
+					.getInOffset(vertex));
+		}
+
+		// The graph is not copied onto the heap to compile it
+		try {
+			graph.compile();
+			fail();
+		} catch (UnsupportedOperationException exception) {
+			assertTrue(exception.getMessage().contains("off the heap"));
+		}
+	}
+
+	@Test
+	public void testGraphManagement() throws Exception {
+		List<Edge> edges = getRandomEdges(2, 200, 800);
+		GraphManagement expected = new GraphManagementImpl();
+		expected.setGraph(new GraphBuilder().addEdges(edges.stream()).build());
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new OffHeapGraphBuilder().addEdges(edges.stream()).build());
+
+		// Traversals follow the views, and the algorithms that would copy the graph onto the heap are rejected
+		Vertex start = graphMgmt.getGraph().getVertices().get("V0");
+		Vertex expectedStart = expected.getGraph().getVertices().get("V0");
+		assertEquals(expected.depthFirstSeach(expectedStart), graphMgmt.depthFirstSeach(start));
+		assertEquals(new HashSet<Vertex>(expected.breadthFirstSearch(expectedStart)),
+				new HashSet<Vertex>(graphMgmt.breadthFirstSearch(start)));
+		try {
+			graphMgmt.getStronglyConnectedComponents();
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.OFF_HEAP_GRAPH.toString()));
+		}
+		try {
+			graphMgmt.getHopDistance(start, new Vertex("V1"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.OFF_HEAP_GRAPH.toString()));
+		}
+
+		// The weight of an edge is written back, and changes the version
+		Edge edge = start.getOutgoingEdges().get(0);
+		long version = graphMgmt.getGraph().getVersion();
+		edge.setWeight(42);
+		assertTrue(graphMgmt.getGraph().getVersion() > version);
+		assertEquals(42, graphMgmt.getGraph().getVertices().get("V0").getOutgoingEdges().get(0).getWeight());
+		assertTrue(graphMgmt.getGraph().containsEdge(new Edge(new Vertex("V0"), edge.getToVertex(), 42)));
+
+		// Vertices and edges cannot be added or removed
+		try {
+			graphMgmt.addEdge(new Edge(new Vertex("New1"), new Vertex("New2")));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.READ_ONLY_GRAPH.toString()));
+		}
+		try {
+			graphMgmt.removeVertex(start);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.READ_ONLY_GRAPH.toString()));
+		}
+		assertEquals(200, graphMgmt.getGraph().getVertices().size());
+	}
+
+	@Test
+	public void testBuild_DuplicateEdges() throws Exception {
+		OffHeapGraphBuilder builder = new OffHeapGraphBuilder().addEdge("V1", "V2", 4, "first")
+				.addEdge("V2", "V1", 4, "second").addEdge("V1", "V2", 4, "third");
+		try {
+			builder.build();
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.PREEXISTING_EDGE.toString()));
+		}
+
+		try {
+			builder.addEdge(null, "V2", 1);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.EDGE_MISSING_VERTEX.toString()));
+		}
+	}
+
+	@Test
+	public void testBuild_LargeLoad() throws Exception {
+
+		// A million edges, loaded without creating a vertex or edge object for any of them
+		int vertexCount = 100000;
+		int edgeCount = 1000000;
+		OffHeapGraphBuilder builder = new OffHeapGraphBuilder(vertexCount, edgeCount);
+		for (int i = 0; i < edgeCount; i++) {
+			builder.addEdge("V" + (i % vertexCount), "V" + ((i * 7 + 1) % vertexCount), i / vertexCount);
+		}
+		OffHeapGraph graph = builder.build();
+		assertEquals(0, builder.getEdgeCount());
+		assertEquals(vertexCount, graph.getVertexCount());
+		assertEquals(edgeCount, graph.getEdgeCount());
+		for (int i = 0; i < vertexCount; i += 997) {
+			int vertex = graph.getVertexId("V" + i);
+			assertEquals(edgeCount / vertexCount, graph.getOutOffset(vertex + 1) - graph.getOutOffset(vertex));
+			assertEquals(edgeCount / vertexCount, graph.getInOffset(vertex + 1) - graph.getInOffset(vertex));
+			assertEquals(edgeCount / vertexCount, graph.getVertex(vertex).getIncomingEdges().size());
+		}
+
+		// Each vertex has ten edges to the same vertex, which share the default label
+		Edge edge = graph.getEdges().get("V5-V36");
+		assertEquals("V36", edge.getToVertex().getLabel());
+		assertTrue(edge.getWeight() < edgeCount / vertexCount);
+	}
+
+	/**
+	 * Picks distinct edges between random vertices, with explicit labels on some of them.
+	 */
+	private static List<Edge> getRandomEdges(long seed, int vertexCount, int edgeCount) {
+		Random random = new Random(seed);
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+		}
+
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < edgeCount; i++) {
+			Vertex from = vertices[i < vertexCount ? i : random.nextInt(vertexCount)];
+			Vertex to = vertices[random.nextInt(vertexCount)];
+			edges.add(new Edge(from, to, 1 + random.nextInt(5), i % 3 == 0 ? "E" + i : ""));
+		}
+		edges.removeIf(edge -> edges.indexOf(edge) != edges.lastIndexOf(edge)
+				|| edges.stream().filter(other -> other.getLabel().equals(edge.getLabel())).count() > 1);
+		return edges;
+	}
+
+	/**
+	 * Lists the labels of some edges, sorted if their order is not kept the same by both kinds of graph.
+	 */
+	private static List<String> getLabels(List<Edge> edges, boolean sort) {
+		List<String> labels = new ArrayList<String>();
+		for (Edge edge : edges) {
+			labels.add(edge.getLabel() + ":" + edge.getWeight());
+		}
+		if (sort) {
+			Collections.sort(labels);
+		}
+		return labels;
+	}
+}
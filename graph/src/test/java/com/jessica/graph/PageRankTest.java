@@ -0,0 +1,146 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class PageRankTest {
+
+	private static final double DELTA = 1e-7;
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testCycle() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 1));
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 1));
+		graphMgmt.addEdge(new Edge(vertexC, vertexA, 1));
+
+		// Every vertex of a cycle is equally important
+		PageRankScores scores = graphMgmt.getPageRank();
+		assertTrue(scores.isConverged());
+		assertEquals(1.0 / 3, scores.getScore("A"), DELTA);
+		assertEquals(1.0 / 3, scores.getScore(vertexB), DELTA);
+		assertEquals(1.0 / 3, scores.getScore(scores.getGraph().getId("C")), DELTA);
+	}
+
+	@Test
+	public void testMatchesReference() throws Exception {
+		for (boolean weighted : new boolean[] { false, true }) {
+			for (long seed = 1; seed <= 3; seed++) {
+				CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 120, (int) (seed * 150), 10).compile();
+				PageRankScores scores = new PageRank(pool, 0.85, 1e-12, 500, weighted).compute(graph);
+				double[] expected = computeReference(graph, 0.85, scores.getIterationCount(), weighted);
+
+				double total = 0;
+				for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+					assertEquals(expected[vertex], scores.getScore(vertex), 1e-12);
+					total += scores.getScore(vertex);
+				}
+				assertTrue(scores.isConverged());
+				assertEquals(1.0, total, DELTA);
+			}
+		}
+	}
+
+	@Test
+	public void testWeightedTransitions() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 3));
+		graphMgmt.addEdge(new Edge(vertexA, vertexC, 1));
+
+		// B and C have no outgoing edges, and the surfer follows the heavier edge from A three times as often
+		PageRankScores unweighted = new PageRank(pool, 0.85, 1e-12, 100, false).compute(graphMgmt.getGraph());
+		PageRankScores weighted = new PageRank(pool, 0.85, 1e-12, 100, true).compute(graphMgmt.getGraph());
+		assertEquals(unweighted.getScore("B"), unweighted.getScore("C"), DELTA);
+		double base = weighted.getScore("C") - 0.85 * weighted.getScore("A") / 4;
+		assertEquals(base + 0.85 * weighted.getScore("A") * 3 / 4, weighted.getScore("B"), DELTA);
+
+		// A single iteration does not reach the tolerance
+		PageRankScores limited = new PageRank(pool, 0.85, 1e-12, 1, false).compute(graphMgmt.getGraph());
+		assertEquals(1, limited.getIterationCount());
+		assertFalse(limited.isConverged());
+	}
+
+	@Test
+	public void testInvalidSettings() throws Exception {
+		try {
+			new PageRank(pool, 1.5, 1e-9, 10, false);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_PAGE_RANK_SETTINGS.toString()));
+		}
+
+		try {
+			new PageRank(pool, 0.85, 1e-9, 0, false);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_PAGE_RANK_SETTINGS.toString()));
+		}
+	}
+
+	/**
+	 * Runs the power iteration the plain way, pushing every vertex's score along its outgoing edges.
+	 */
+	private static double[] computeReference(CompiledGraph graph, double damping, int iterations, boolean weighted) {
+		int vertexCount = graph.getVertexCount();
+		int[] offsets = graph.getOutOffsets();
+		int[] targets = graph.getOutTargets();
+		int[] weights = graph.getOutWeights();
+
+		double[] scores = new double[vertexCount];
+		Arrays.fill(scores, 1.0 / vertexCount);
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			double[] next = new double[vertexCount];
+			double lost = 0;
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				double total = 0;
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					total += weighted ? weights[edge] : 1;
+				}
+				if (total == 0) {
+					lost += scores[vertex];
+					continue;
+				}
+				for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+					next[targets[edge]] += damping * scores[vertex] * (weighted ? weights[edge] : 1) / total;
+				}
+			}
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				next[vertex] += (1 - damping + damping * lost) / vertexCount;
+			}
+			scores = next;
+		}
+		return scores;
+	}
+}
@@ -0,0 +1,128 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class ReachabilityIndexTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testCanReach() throws Exception {
+		ReachabilityIndex index = new ReachabilityIndex(GraphTestUtils.getWeightedGraph().compile(), pool, 2);
+
+		assertTrue(index.canReach(new Vertex("A"), new Vertex("F")));
+		assertTrue(index.canReach(new Vertex("B"), new Vertex("C")));
+		assertTrue(index.canReach(new Vertex("C"), new Vertex("C")));
+		assertFalse(index.canReach(new Vertex("F"), new Vertex("A")));
+		assertFalse(index.canReach(new Vertex("C"), new Vertex("B")));
+
+		try {
+			index.canReach(new Vertex("A"), new Vertex("Z"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
+	@Test
+	public void testMatchesBreadthFirstSearch() throws Exception {
+		for (long seed = 1; seed <= 4; seed++) {
+			// From mostly acyclic to one large component
+			CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 150, (int) (seed * 60), 10).compile();
+			for (int labelCount = 1; labelCount <= 3; labelCount += 2) {
+				ReachabilityIndex index = new ReachabilityIndex(graph, pool, labelCount);
+				assertMatches(graph, index);
+			}
+		}
+	}
+
+	@Test
+	public void testAddEdge() throws Exception {
+		Random random = new Random(17);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(17, 60, 40, 10));
+		ReachabilityIndex index = new ReachabilityIndex(graphMgmt.compileGraph(), pool, 3);
+
+		// Add edges between the existing vertices and some new ones, and compare with a fresh search after each
+		for (int i = 0; i < 120; i++) {
+			Vertex from = new Vertex("V" + random.nextInt(70));
+			Vertex to = new Vertex("V" + random.nextInt(70));
+			from = graphMgmt.getGraph().getVertices().getOrDefault(from.getLabel(), from);
+			to = graphMgmt.getGraph().getVertices().getOrDefault(to.getLabel(), to);
+			Edge edge = new Edge(from, to, 1);
+			if (from.equals(to) || graphMgmt.getGraph().getEdges().containsKey(edge.getLabel())) {
+				continue;
+			}
+
+			graphMgmt.addEdge(edge);
+			index.addEdge(from, to);
+			if (i % 10 == 0) {
+				CompiledGraph graph = graphMgmt.compileGraph();
+				BreadthFirstSearch search = new BreadthFirstSearch(graph, pool);
+				for (int source = 0; source < graph.getVertexCount(); source++) {
+					int[] hops = search.computeHopDistances(source);
+					for (int destination = 0; destination < graph.getVertexCount(); destination++) {
+						assertEquals(hops[destination] != BreadthFirstSearch.UNREACHABLE, index.canReach(graph
+								.getVertex(source), graph.getVertex(destination)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGraphManagementCanReach() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Edge edgeAB = new Edge(vertexA, vertexB, 1);
+		graphMgmt.addEdge(edgeAB);
+		graphMgmt.addVertex(vertexC);
+		assertTrue(graphMgmt.canReach(vertexA, vertexB));
+		assertFalse(graphMgmt.canReach(vertexA, vertexC));
+
+		// Additions update the index, and removals rebuild it
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 1));
+		assertTrue(graphMgmt.canReach(vertexA, vertexC));
+		graphMgmt.addEdge(new Edge(vertexC, new Vertex("D"), 1));
+		assertTrue(graphMgmt.canReach(vertexA, new Vertex("D")));
+		graphMgmt.removeEdge(edgeAB);
+		assertFalse(graphMgmt.canReach(vertexA, vertexC));
+		assertTrue(graphMgmt.canReach(vertexB, new Vertex("D")));
+	}
+
+	private static void assertMatches(CompiledGraph graph, ReachabilityIndex index) throws GraphException {
+		BreadthFirstSearch search = new BreadthFirstSearch(graph);
+		for (int source = 0; source < graph.getVertexCount(); source++) {
+			int[] hops = search.computeHopDistances(source);
+			for (int destination = 0; destination < graph.getVertexCount(); destination++) {
+				assertEquals(hops[destination] != BreadthFirstSearch.UNREACHABLE, index.canReach(source,
+						destination));
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.StronglyConnectedComponentsFinder.Algorithm;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class StronglyConnectedComponentsTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testFind() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Vertex vertexD = new Vertex("D");
+		Vertex vertexE = new Vertex("E");
+
+		// Two cycles joined by two edges, and a vertex on its own
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 1));
+		graphMgmt.addEdge(new Edge(vertexB, vertexA, 1));
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 7));
+		graphMgmt.addEdge(new Edge(vertexA, vertexD, 4));
+		graphMgmt.addEdge(new Edge(vertexC, vertexD, 1));
+		graphMgmt.addEdge(new Edge(vertexD, vertexC, 1));
+		graphMgmt.addVertex(vertexE);
+
+		for (Algorithm algorithm : Algorithm.values()) {
+			StronglyConnectedComponents components = new StronglyConnectedComponentsFinder(pool, algorithm)
+					.find(graphMgmt.getGraph());
+			CompiledGraph graph = components.getGraph();
+			int componentAB = components.getComponentId(graph.getId("A"));
+			int componentCD = components.getComponentId(graph.getId("C"));
+
+			assertEquals(3, components.getComponentCount());
+			assertEquals(componentAB, components.getComponentId(graph.getId("B")));
+			assertEquals(componentCD, components.getComponentId(graph.getId("D")));
+			assertTrue(componentAB > componentCD);
+			assertEquals(2, components.getComponentSizes()[componentAB]);
+
+			Graph condensation = components.getCondensation();
+			assertEquals(3, condensation.getVertices().size());
+			assertEquals(1, condensation.getEdges().size());
+			Edge edge = condensation.getEdges().values().iterator().next();
+			assertEquals(StronglyConnectedComponents.getComponentLabel(componentAB), edge.getFromVertex().getLabel());
+			assertEquals(StronglyConnectedComponents.getComponentLabel(componentCD), edge.getToVertex().getLabel());
+			assertEquals(4, edge.getWeight());
+		}
+
+		assertEquals(3, graphMgmt.getStronglyConnectedComponents().getComponentCount());
+	}
+
+	@Test
+	public void testAlgorithmsAgree() throws Exception {
+		for (long seed = 1; seed <= 5; seed++) {
+			CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 3000, 3000 + 500 * (int) seed, 5).compile();
+			StronglyConnectedComponents tarjan = new StronglyConnectedComponentsFinder(pool, Algorithm.TARJAN)
+					.find(graph);
+			StronglyConnectedComponents forwardBackward = new StronglyConnectedComponentsFinder(pool,
+					Algorithm.FORWARD_BACKWARD).find(graph);
+
+			assertEquals(tarjan.getComponentCount(), forwardBackward.getComponentCount());
+			assertSamePartition(tarjan, forwardBackward);
+			assertReverseTopological(tarjan);
+			assertReverseTopological(forwardBackward);
+
+			// Every component of the condensation is a single vertex, since it has no cycles
+			Graph condensation = forwardBackward.getCondensation();
+			StronglyConnectedComponents condensed = new StronglyConnectedComponentsFinder(pool, Algorithm.TARJAN)
+					.find(condensation);
+			assertEquals(forwardBackward.getComponentCount(), condensed.getComponentCount());
+		}
+	}
+
+	@Test
+	public void testDeepGraph() throws Exception {
+
+		// A long chain of two vertex cycles, which overflows the thread stack of a recursive search
+		int cycleCount = 100000;
+		Graph graph = new Graph();
+		Vertex previous = null;
+		for (int i = 0; i < cycleCount; i++) {
+			Vertex first = new Vertex("A" + i);
+			Vertex second = new Vertex("B" + i);
+			graph.getVertices().put(first.getLabel(), first);
+			graph.getVertices().put(second.getLabel(), second);
+			addEdge(graph, first, second);
+			addEdge(graph, second, first);
+			if (previous != null) {
+				addEdge(graph, previous, first);
+			}
+			previous = second;
+		}
+		CompiledGraph compiled = graph.compile();
+
+		for (Algorithm algorithm : new Algorithm[] { Algorithm.TARJAN, Algorithm.FORWARD_BACKWARD }) {
+			StronglyConnectedComponents components = new StronglyConnectedComponentsFinder(pool, algorithm).find(
+					compiled);
+			assertEquals(cycleCount, components.getComponentCount());
+			assertEquals(0, components.getComponentId(compiled.getId("B" + (cycleCount - 1))));
+			assertEquals(cycleCount - 1, components.getComponentId(compiled.getId("A0")));
+		}
+	}
+
+	private static void addEdge(Graph graph, Vertex from, Vertex to) {
+		Edge edge = new Edge(from, to);
+		from.addOutgoingEdge(edge);
+		to.addIncomingEdge(edge);
+		graph.getEdges().put(edge.getLabel(), edge);
+	}
+
+	private static void assertSamePartition(StronglyConnectedComponents expected, StronglyConnectedComponents actual) {
+		Map<Integer, Integer> mapping = new HashMap<Integer, Integer>();
+		Map<Integer, Integer> reverseMapping = new HashMap<Integer, Integer>();
+		for (int vertex = 0; vertex < expected.getComponentIds().length; vertex++) {
+			int expectedId = expected.getComponentId(vertex);
+			int actualId = actual.getComponentId(vertex);
+			assertEquals(Integer.valueOf(actualId), mapping.computeIfAbsent(expectedId, id -> actualId));
+			assertEquals(Integer.valueOf(expectedId), reverseMapping.computeIfAbsent(actualId, id -> expectedId));
+		}
+	}
+
+	private static void assertReverseTopological(StronglyConnectedComponents components) {
+		CompiledGraph graph = components.getGraph();
+		for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+			for (int edge = graph.getOutOffsets()[vertex]; edge < graph.getOutOffsets()[vertex + 1]; edge++) {
+				int from = components.getComponentId(vertex);
+				int to = components.getComponentId(graph.getOutTargets()[edge]);
+				assertTrue(from >= to);
+			}
+		}
+	}
+}
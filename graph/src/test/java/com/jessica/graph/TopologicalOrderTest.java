@@ -0,0 +1,167 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class TopologicalOrderTest {
+
+	@Test
+	public void testDagMode() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		graphMgmt.setDagMode(true);
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+
+		// Added against the order the vertices were created in, so that the order has to be repaired
+		graphMgmt.addEdge(new Edge(vertexB, vertexC));
+		graphMgmt.addEdge(new Edge(vertexA, vertexB));
+		assertOrder(graphMgmt);
+
+		assertCyclicEdge(graphMgmt, new Edge(vertexC, vertexA));
+		assertCyclicEdge(graphMgmt, new Edge(vertexB, vertexB));
+		assertEquals(2, graphMgmt.getGraph().getEdges().size());
+
+		// Removing the middle edge makes the same edge acceptable
+		graphMgmt.removeEdge(graphMgmt.getGraph().getEdges().get("A-B"));
+		graphMgmt.addEdge(new Edge(vertexC, vertexA));
+		assertOrder(graphMgmt);
+	}
+
+	@Test
+	public void testDagMode_CyclicGraph() throws Exception {
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB));
+		graphMgmt.addEdge(new Edge(vertexB, vertexA));
+
+		try {
+			graphMgmt.setDagMode(true);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.CYCLIC_GRAPH.toString()));
+		}
+		assertFalse(graphMgmt.isDagMode());
+
+		try {
+			graphMgmt.topologicalOrderIterator();
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.CYCLIC_GRAPH.toString()));
+		}
+	}
+
+	@Test
+	public void testRandomEdges() throws Exception {
+		Random random = new Random(15);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(new Graph());
+		graphMgmt.setDagMode(true);
+
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		for (int i = 0; i < 200; i++) {
+			vertices.add(new Vertex("V" + i));
+			graphMgmt.addVertex(vertices.get(i));
+		}
+
+		for (int i = 0; i < 3000; i++) {
+			Vertex from = vertices.get(random.nextInt(vertices.size()));
+			Vertex to = vertices.get(random.nextInt(vertices.size()));
+			Edge edge = new Edge(from, to);
+			if (graphMgmt.getGraph().getEdges().containsKey(edge.getLabel())) {
+				continue;
+			}
+
+			if (from == to || reaches(to, from)) {
+				assertCyclicEdge(graphMgmt, edge);
+			} else {
+				graphMgmt.addEdge(edge);
+			}
+
+			// Removals leave gaps in the positions, and edge removals allow new edges the other way
+			if (i % 10 == 0) {
+				List<Edge> edges = new ArrayList<Edge>(graphMgmt.getGraph().getEdges().values());
+				graphMgmt.removeEdge(edges.get(random.nextInt(edges.size())));
+			}
+			if (i % 100 == 0) {
+				Vertex removed = vertices.remove(random.nextInt(vertices.size()));
+				graphMgmt.removeVertex(removed);
+				Vertex added = new Vertex("W" + i);
+				vertices.add(added);
+				graphMgmt.addVertex(added);
+			}
+			if (i % 250 == 0) {
+				assertOrder(graphMgmt);
+			}
+		}
+		assertOrder(graphMgmt);
+	}
+
+	private static void assertCyclicEdge(GraphManagement graphMgmt, Edge edge) {
+		try {
+			graphMgmt.addEdge(edge);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.CYCLIC_EDGE.toString()));
+		}
+	}
+
+	/**
+	 * Checks that the order lists every vertex once, and that every edge goes forward.
+	 */
+	private static void assertOrder(GraphManagement graphMgmt) throws GraphException {
+		Map<Vertex, Integer> positions = new HashMap<Vertex, Integer>();
+		for (Iterator<Vertex> iterator = graphMgmt.topologicalOrderIterator(); iterator.hasNext();) {
+			positions.put(iterator.next(), positions.size());
+		}
+
+		assertEquals(graphMgmt.getGraph().getVertices().size(), positions.size());
+		for (Edge edge : graphMgmt.getGraph().getEdges().values()) {
+			assertTrue(positions.get(edge.getFromVertex()) < positions.get(edge.getToVertex()));
+		}
+	}
+
+	private static boolean reaches(Vertex from, Vertex to) {
+		Set<Vertex> visited = new HashSet<Vertex>();
+		Deque<Vertex> stack = new ArrayDeque<Vertex>();
+		stack.push(from);
+		visited.add(from);
+		while (!stack.isEmpty()) {
+			Vertex vertex = stack.pop();
+			if (vertex.equals(to)) {
+				return true;
+			}
+			for (Edge edge : vertex.getOutgoingEdges()) {
+				if (visited.add(edge.getToVertex())) {
+					stack.push(edge.getToVertex());
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,99 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class TransitiveClosureTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testBuild() throws Exception {
+		TransitiveClosure closure = new TransitiveClosureBuilder(pool).build(GraphTestUtils.getWeightedGraph());
+
+		assertTrue(closure.canReach(new Vertex("A"), new Vertex("F")));
+		assertTrue(closure.canReach(new Vertex("F"), new Vertex("F")));
+		assertFalse(closure.canReach(new Vertex("F"), new Vertex("A")));
+		assertEquals(Arrays.asList(new Vertex("F")), closure.getDescendants(new Vertex("F")));
+		assertEquals(7, closure.getDescendants(new Vertex("A")).size());
+
+		try {
+			closure.getDescendants(new Vertex("Z"));
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.INVALID_VERTEX.toString()));
+		}
+	}
+
+	@Test
+	public void testMatchesBreadthFirstSearch() throws Exception {
+		for (long seed = 1; seed <= 4; seed++) {
+			// From mostly acyclic to one large component
+			CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 150, (int) (seed * 60), 10).compile();
+			TransitiveClosure closure = new TransitiveClosureBuilder(pool).build(graph);
+			BreadthFirstSearch search = new BreadthFirstSearch(graph);
+			for (int source = 0; source < graph.getVertexCount(); source++) {
+				int[] hops = search.computeHopDistances(source);
+				int[] expected = new int[graph.getVertexCount()];
+				int count = 0;
+				for (int destination = 0; destination < graph.getVertexCount(); destination++) {
+					boolean reachable = hops[destination] != BreadthFirstSearch.UNREACHABLE;
+					assertEquals(reachable, closure.canReach(source, destination));
+					if (reachable) {
+						expected[count++] = destination;
+					}
+				}
+				assertArrayEquals(Arrays.copyOf(expected, count), closure.getDescendantIds(source));
+				assertEquals(count, closure.getDescendantCount(source));
+			}
+		}
+	}
+
+	@Test
+	public void testLongChain() throws Exception {
+		// A chain of 100,000 vertices, whose rows span two chunks of the compressed bitmaps and compress to a single
+		// run each
+		int vertexCount = 100000;
+		Graph graph = new Graph();
+		Vertex[] vertices = new Vertex[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = new Vertex("V" + i);
+			graph.getVertices().put(vertices[i].getLabel(), vertices[i]);
+		}
+		for (int i = 1; i < vertexCount; i++) {
+			Edge edge = new Edge(vertices[i - 1], vertices[i], 1);
+			vertices[i - 1].getOutgoingEdges().add(edge);
+			vertices[i].getIncomingEdges().add(edge);
+			graph.getEdges().put(edge.getLabel(), edge);
+		}
+
+		TransitiveClosure closure = new TransitiveClosureBuilder(pool).build(graph);
+		CompiledGraph compiled = closure.getGraph();
+		assertEquals(vertexCount, closure.getDescendantCount(compiled.getId(vertices[0])));
+		assertEquals(vertexCount - 30000, closure.getDescendants(vertices[30000]).size());
+		assertTrue(closure.canReach(vertices[12345], vertices[98765]));
+		assertFalse(closure.canReach(vertices[98765], vertices[12345]));
+		assertTrue(closure.getSizeInBytes() < vertexCount * 100L);
+	}
+}
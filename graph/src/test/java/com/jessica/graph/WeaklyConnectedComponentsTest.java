@@ -0,0 +1,180 @@
+package com.jessica.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jessica.graph.exception.GraphException;
+import com.jessica.graph.exception.GraphExceptionMsg;
+import com.jessica.graph.model.CompiledGraph;
+import com.jessica.graph.model.Edge;
+import com.jessica.graph.model.Graph;
+import com.jessica.graph.model.Vertex;
+
+public class WeaklyConnectedComponentsTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void cleanupAfterEachTest() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testFind() throws Exception {
+		for (long seed = 1; seed <= 4; seed++) {
+			// From many small components to a few large ones
+			CompiledGraph graph = GraphTestUtils.getRandomGraph(seed, 300, (int) (seed * 80), 10).compile();
+			WeaklyConnectedComponents components = new WeaklyConnectedComponentsFinder(pool).find(graph);
+			int[] expected = findComponents(graph);
+
+			int expectedCount = 0;
+			for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+				expectedCount = Math.max(expectedCount, expected[vertex] + 1);
+				for (int other = 0; other < graph.getVertexCount(); other++) {
+					assertEquals(expected[vertex] == expected[other], components.isConnected(vertex, other));
+				}
+			}
+			assertEquals(expectedCount, components.getComponentCount());
+			assertEquals(graph.getVertexCount(), IntStream.of(components.getComponentSizes()).sum());
+		}
+	}
+
+	@Test
+	public void testConcurrentUnions() throws Exception {
+		int size = 20000;
+		Random random = new Random(20);
+		int[][] pairs = new int[size][];
+		for (int i = 0; i < size; i++) {
+			pairs[i] = new int[] { random.nextInt(size), random.nextInt(size) };
+		}
+
+		// Merge the same pairs from several threads at once and from one thread, and compare the sets
+		ConcurrentUnionFind concurrent = new ConcurrentUnionFind(size);
+		ParallelRange.forEachChunk(pool, 0, size, 64, (start, end) -> {
+			for (int i = start; i < end; i++) {
+				concurrent.union(pairs[i][0], pairs[i][1]);
+			}
+		});
+		ConcurrentUnionFind sequential = new ConcurrentUnionFind(size);
+		for (int[] pair : pairs) {
+			sequential.union(pair[0], pair[1]);
+		}
+		for (int element = 0; element < size; element++) {
+			assertEquals(sequential.find(element), concurrent.find(element));
+		}
+	}
+
+	@Test
+	public void testIncremental() throws Exception {
+		Random random = new Random(21);
+		GraphManagement graphMgmt = new GraphManagementImpl();
+		graphMgmt.setGraph(GraphTestUtils.getRandomGraph(21, 100, 40, 10));
+		IncrementalConnectedComponents incremental = new IncrementalConnectedComponents(
+				new WeaklyConnectedComponentsFinder(pool).find(graphMgmt.getGraph()));
+
+		// Add edges between the existing vertices and some new ones, and compare with the components found again
+		for (int i = 0; i < 80; i++) {
+			Vertex from = new Vertex("V" + random.nextInt(110));
+			Vertex to = new Vertex("V" + random.nextInt(110));
+			from = graphMgmt.getGraph().getVertices().getOrDefault(from.getLabel(), from);
+			to = graphMgmt.getGraph().getVertices().getOrDefault(to.getLabel(), to);
+			Edge edge = new Edge(from, to, 1);
+			if (from.equals(to) || graphMgmt.getGraph().getEdges().containsKey(edge.getLabel())) {
+				continue;
+			}
+			graphMgmt.addEdge(edge);
+			incremental.addEdge(from, to);
+		}
+
+		WeaklyConnectedComponents components = new WeaklyConnectedComponentsFinder(pool).find(graphMgmt.getGraph());
+		CompiledGraph graph = components.getGraph();
+		assertEquals(components.getComponentCount(), incremental.getComponentCount());
+		for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+			for (int other = 0; other < graph.getVertexCount(); other++) {
+				assertEquals(components.isConnected(vertex, other), incremental.isConnected(graph.getVertex(vertex),
+						graph.getVertex(other)));
+			}
+		}
+	}
+
+	@Test
+	public void testGraphManagementRejectsDisconnected() throws Exception {
+		GraphManagementImpl graphMgmt = new GraphManagementImpl();
+		graphMgmt.setShortestPathHelper(new DijkstrasShortestPath());
+		graphMgmt.setGraph(new Graph());
+
+		Vertex vertexA = new Vertex("A");
+		Vertex vertexB = new Vertex("B");
+		Vertex vertexC = new Vertex("C");
+		Vertex vertexD = new Vertex("D");
+		graphMgmt.addEdge(new Edge(vertexA, vertexB, 1));
+		graphMgmt.addEdge(new Edge(vertexC, vertexD, 1));
+
+		// The distance does not depend on whether the components were found before
+		Integer distanceBefore = graphMgmt.getShortestDistance(vertexA, vertexD);
+		assertTrue(graphMgmt.isWeaklyConnected(vertexB, vertexA));
+		assertFalse(graphMgmt.isWeaklyConnected(vertexA, vertexC));
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), distanceBefore);
+		assertEquals(distanceBefore, graphMgmt.getShortestDistance(vertexA, vertexD));
+
+		try {
+			graphMgmt.getShortestPath(vertexA, vertexD);
+			fail();
+		} catch (GraphException exception) {
+			assertTrue(exception.getMessage().contains(GraphExceptionMsg.NO_PATH.toString()));
+		}
+
+		// The components follow new edges
+		graphMgmt.addEdge(new Edge(vertexB, vertexC, 1));
+		assertTrue(graphMgmt.isWeaklyConnected(vertexA, vertexD));
+		assertEquals(Integer.valueOf(3), graphMgmt.getShortestDistance(vertexA, vertexD));
+	}
+
+	/**
+	 * Labels the components by searching the edges in both directions from every unlabeled vertex.
+	 */
+	private static int[] findComponents(CompiledGraph graph) {
+		int vertexCount = graph.getVertexCount();
+		int[] componentIds = new int[vertexCount];
+		Arrays.fill(componentIds, -1);
+		int[] stack = new int[vertexCount];
+		int componentCount = 0;
+		for (int start = 0; start < vertexCount; start++) {
+			if (componentIds[start] >= 0) {
+				continue;
+			}
+			int depth = 0;
+			componentIds[start] = componentCount;
+			stack[depth++] = start;
+			while (depth > 0) {
+				int vertex = stack[--depth];
+				for (int edge = graph.getOutOffsets()[vertex]; edge < graph.getOutOffsets()[vertex + 1]; edge++) {
+					int next = graph.getOutTargets()[edge];
+					if (componentIds[next] < 0) {
+						componentIds[next] = componentCount;
+						stack[depth++] = next;
+					}
+				}
+				for (int edge = graph.getInOffsets()[vertex]; edge < graph.getInOffsets()[vertex + 1]; edge++) {
+					int next = graph.getInSources()[edge];
+					if (componentIds[next] < 0) {
+						componentIds[next] = componentCount;
+						stack[depth++] = next;
+					}
+				}
+			}
+			componentCount++;
+		}
+		return componentIds;
+	}
+}